@@ -22,9 +22,10 @@
 -- 7. Consultas SELECT com JOIN (requisito acadêmico)
 --
 -- ESTRUTURA DO BANCO:
--- - 6 tabelas principais
--- - 6 relacionamentos (foreign keys)
--- - 15 índices para performance
+-- - 6 tabelas principais + 1 tabela de resumo (vendas_resumo_mensal)
+-- - 1 tabela de apoio ao login (token_revogado)
+-- - 8 relacionamentos (foreign keys)
+-- - 16 índices para performance
 -- - Soft delete (campo 'ativo')
 -- - Timestamps automáticos
 -- - 5 consultas SELECT com JOIN (trabalho acadêmico)
@@ -53,10 +54,10 @@
 -- 5. Testar consultas SELECT (final do arquivo)
 --
 -- SEÇÕES DO ARQUIVO:
--- 1. CREATE TABLE (6 tabelas)
+-- 1. CREATE TABLE (6 tabelas + resumo mensal + tokens revogados)
 -- 2. INSERT INTO (dados de exemplo)
 -- 3. ALTER TABLE (índices e auto_increment)
--- 4. FOREIGN KEYS (6 relacionamentos)
+-- 4. FOREIGN KEYS (8 relacionamentos)
 -- 5. CONSULTAS SELECT (5 consultas com JOIN)
 -- 6. QUERIES ÚTEIS (administração)
 -- ================================================================
@@ -96,8 +97,26 @@ SET time_zone = "+00:00";
 -- CAMPOS:
 -- - id_categoria: Identificador único (PK)
 -- - nome_categoria: Nome da categoria (ex: "Produtos")
+-- - secao_fiscal: Seção do relatório oficial (RF / DASN-SIMEI)
+--     0 = Revenda de mercadorias      (linhas I / II)
+--     1 = Produtos industrializados   (linhas IV / V)
+--     2 = Prestação de serviços       (linhas VII / VIII)
+--     3 = Outro                       (linhas XI / XII)
 -- - ativo: Soft delete (1=ativo, 0=inativo)
 --
+-- SEÇÃO FISCAL:
+-- Os totais dos relatórios saem de GROUP BY secao_fiscal,
+-- nota_fiscal_emitida. Renomear a categoria não muda a seção.
+--
+-- MIGRAÇÃO (bancos criados antes da coluna secao_fiscal):
+-- ALTER TABLE categoria ADD COLUMN secao_fiscal TINYINT(1) NOT NULL DEFAULT 3
+--     COMMENT 'Seção fiscal: 0=Revenda, 1=Industrializados, 2=Serviços, 3=Outro' AFTER nome_categoria;
+-- UPDATE categoria SET secao_fiscal = CASE
+--     WHEN LOWER(nome_categoria) LIKE '%revenda%' OR LOWER(nome_categoria) LIKE '%mercadoria%' THEN 0
+--     WHEN LOWER(nome_categoria) LIKE '%industrial%' OR LOWER(nome_categoria) LIKE '%produto%' THEN 1
+--     WHEN LOWER(nome_categoria) LIKE '%servi%' THEN 2
+--     ELSE 3 END;
+--
 -- CATEGORIAS PADRÃO:
 -- 1. Revenda de Mercadorias (produtos comprados para revenda)
 -- 2. Produtos Industrializados (fabricados pelo MEI)
@@ -125,6 +144,7 @@ SET time_zone = "+00:00";
 CREATE TABLE `categoria` (
                              `id_categoria` int(11) NOT NULL COMMENT 'PK - Identificador único',
                              `nome_categoria` varchar(100) NOT NULL COMMENT 'Nome da categoria',
+                             `secao_fiscal` tinyint(1) NOT NULL DEFAULT 3 COMMENT 'Seção fiscal: 0=Revenda, 1=Industrializados, 2=Serviços, 3=Outro',
                              `ativo` tinyint(1) DEFAULT 1 COMMENT 'Soft delete: 1=ativo, 0=inativo'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Categorias de vendas';
 
@@ -133,14 +153,14 @@ CREATE TABLE `categoria` (
 -- IMPORTANTE: IDs 1-7 são dados de exemplo/teste
 --
 
-INSERT INTO `categoria` (`id_categoria`, `nome_categoria`, `ativo`) VALUES
-                                                                        (1, 'Revenda de Mercadorias', 1),      -- Produtos comprados para revenda
-                                                                        (2, 'Produtos Industrializados', 1),   -- Produtos fabricados pelo MEI
-                                                                        (3, 'Prestação de Serviços', 1),       -- Mão de obra, consultoria, etc
-                                                                        (4, 'Revenda de Mercadorias', 0),      -- DUPLICADA - Inativa (soft delete)
-                                                                        (5, 'Produtos Industrializados', 0),   -- DUPLICADA - Inativa (soft delete)
-                                                                        (6, 'Prestação de Serviços', 0),       -- DUPLICADA - Inativa (soft delete)
-                                                                        (7, 'Outro', 1);                       -- Categoria genérica
+INSERT INTO `categoria` (`id_categoria`, `nome_categoria`, `secao_fiscal`, `ativo`) VALUES
+                                                                        (1, 'Revenda de Mercadorias', 0, 1),      -- Produtos comprados para revenda
+                                                                        (2, 'Produtos Industrializados', 1, 1),   -- Produtos fabricados pelo MEI
+                                                                        (3, 'Prestação de Serviços', 2, 1),       -- Mão de obra, consultoria, etc
+                                                                        (4, 'Revenda de Mercadorias', 0, 0),      -- DUPLICADA - Inativa (soft delete)
+                                                                        (5, 'Produtos Industrializados', 1, 0),   -- DUPLICADA - Inativa (soft delete)
+                                                                        (6, 'Prestação de Serviços', 2, 0),       -- DUPLICADA - Inativa (soft delete)
+                                                                        (7, 'Outro', 3, 1);                       -- Categoria genérica
 
 -- ================================================================
 -- TABELA 2: METODO_PAGAMENTO
@@ -584,6 +604,89 @@ CREATE TABLE `pagamento` (
 -- Use PagamentoDAO.inserir() no Java para adicionar registros
 --
 
+-- ================================================================
+-- TABELA 7: VENDAS_RESUMO_MENSAL
+-- ================================================================
+--
+-- PROPÓSITO:
+-- Totais prontos por usuário, mês, categoria e NF. Dashboard e
+-- relatório anual leem no máximo 12 x categorias x 2 linhas em vez
+-- de somar todas as vendas do ano.
+--
+-- CAMPOS:
+-- - usuario_id, ano, mes, categoria_id, nf: chave (PK composta)
+-- - nf: 'S' (com nota fiscal) ou 'N' (qualquer outro valor)
+-- - qtd: quantidade de vendas ATIVAS
+-- - total: soma de ROUND(valor, 2) dessas vendas
+--
+-- MANUTENÇÃO:
+-- - VendasDAO.inserir/inserirLote/editar/excluir ajustam a linha
+--   na MESMA transação da venda (INSERT ... ON DUPLICATE KEY UPDATE
+--   qtd = qtd + ?, total = total + ?)
+-- - Linhas que chegam a qtd = 0 são apagadas
+-- - ReconciliacaoResumo compara periodicamente com `vendas` e
+--   reconstrói o usuário que divergir (ex.: UPDATE direto no banco)
+--
+-- RECONSTRUÇÃO / MIGRAÇÃO (bancos criados antes desta tabela):
+-- Criar a tabela (abaixo) e popular com o INSERT ... SELECT abaixo.
+-- ================================================================
+
+CREATE TABLE `vendas_resumo_mensal` (
+                                        `usuario_id` int(11) NOT NULL COMMENT 'FK - Dono das vendas (MEI)',
+                                        `ano` smallint(6) NOT NULL COMMENT 'Ano das vendas',
+                                        `mes` tinyint(2) NOT NULL COMMENT 'Mês das vendas (1-12)',
+                                        `categoria_id` int(11) NOT NULL COMMENT 'FK - Categoria das vendas',
+                                        `nf` char(1) NOT NULL COMMENT 'S=com NF, N=sem NF',
+                                        `qtd` int(11) NOT NULL DEFAULT 0 COMMENT 'Quantidade de vendas ativas',
+                                        `total` decimal(14,2) NOT NULL DEFAULT 0.00 COMMENT 'Soma dos valores (R$)',
+                                        PRIMARY KEY (`usuario_id`, `ano`, `mes`, `categoria_id`, `nf`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Totais mensais de vendas (mantidos pelo VendasDAO)';
+
+--
+-- Dados iniciais: resumo das vendas de exemplo
+--
+
+INSERT INTO `vendas_resumo_mensal` (`usuario_id`, `ano`, `mes`, `categoria_id`, `nf`, `qtd`, `total`)
+SELECT usuario_id, YEAR(data_vendas), MONTH(data_vendas), categoria_id,
+       IF(UPPER(nota_fiscal_emitida) = 'S', 'S', 'N'), COUNT(*), SUM(ROUND(valor, 2))
+FROM vendas
+WHERE ativo = 1
+GROUP BY usuario_id, YEAR(data_vendas), MONTH(data_vendas), categoria_id,
+         IF(UPPER(nota_fiscal_emitida) = 'S', 'S', 'N');
+
+-- ================================================================
+-- TABELA 8: TOKEN_REVOGADO
+-- ================================================================
+--
+-- PROPÓSITO:
+-- Logout de tokens de login (FiltroAutenticacao) antes de expirarem.
+-- Troca de senha grava um corte por usuário: id_token = 'u:<id>',
+-- revogado_em = corte; tokens dele emitidos antes disso são recusados.
+-- O token é validado só pela assinatura, sem banco; esta tabela só
+-- espalha a revogação entre os servidores: cada um relê as linhas
+-- novas a cada poucos segundos (RevogacaoTokens) e consulta a cópia
+-- em memória.
+--
+-- CAMPOS:
+-- - id_token: identificador aleatório do token, ou 'u:<id>' (PK)
+-- - usuario_id: dono do token (só informativo, sem FK)
+-- - expira_em: ms desde 1970; depois disso o token já é inválido
+-- - revogado_em: ms desde 1970; leitura incremental
+--
+-- MANUTENÇÃO:
+-- Linhas com expira_em no passado são apagadas a cada hora.
+-- ================================================================
+
+CREATE TABLE `token_revogado` (
+                                  `id_token` varchar(32) NOT NULL COMMENT 'PK - Identificador do token',
+                                  `usuario_id` int(11) NOT NULL COMMENT 'Dono do token',
+                                  `expira_em` bigint(20) NOT NULL COMMENT 'Fim da validade (ms desde 1970)',
+                                  `revogado_em` bigint(20) NOT NULL COMMENT 'Momento do logout (ms desde 1970)',
+                                  PRIMARY KEY (`id_token`),
+                                  KEY `idx_token_revogado_em` (`revogado_em`),
+                                  KEY `idx_token_expira_em` (`expira_em`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Tokens de login revogados (RevogacaoTokens)';
+
 -- ================================================================
 -- ÍNDICES E CONSTRAINTS
 -- ================================================================
@@ -667,7 +770,8 @@ ALTER TABLE `vendas`
     ADD PRIMARY KEY (`id_vendas`),                    -- PK única
   ADD KEY `idx_usuario` (`usuario_id`),             -- Filtro por MEI
   ADD KEY `idx_data` (`data_vendas`),               -- Filtro por período
-  ADD KEY `idx_categoria` (`categoria_id`);         -- Filtro por categoria
+  ADD KEY `idx_categoria` (`categoria_id`),         -- Filtro por categoria
+  ADD KEY `idx_usuario_ativo_data` (`usuario_id`, `ativo`, `data_vendas`); -- Histórico/dashboard: MEI + ativas + período (range scan)
 
 -- ================================================================
 -- AUTO_INCREMENT
@@ -747,6 +851,12 @@ ALTER TABLE `vendas`
 -- 6. vendas → usuario (ON DELETE CASCADE)
 --    - Se deletar usuário, vendas são deletadas
 --
+-- 7. vendas_resumo_mensal → usuario (ON DELETE CASCADE)
+--    - Se deletar usuário, o resumo dele some junto
+--
+-- 8. vendas_resumo_mensal → categoria (RESTRICT padrão)
+--    - Mesma regra de vendas → categoria
+--
 -- IMPORTANTE:
 -- Em produção, NUNCA use DELETE em tabelas principais.
 -- Sempre use SOFT DELETE (UPDATE ... SET ativo = 0).
@@ -783,6 +893,18 @@ ALTER TABLE `pagamento`
     ON DELETE CASCADE                              -- Deleta pagamentos se deletar venda
     COMMENT 'FK - Venda relacionada';
 
+--
+-- Constraints para tabela `vendas_resumo_mensal`
+--
+ALTER TABLE `vendas_resumo_mensal`
+    ADD CONSTRAINT `fk_resumo_usuario`
+        FOREIGN KEY (`usuario_id`)
+            REFERENCES `usuario` (`id_usuario`)
+            ON DELETE CASCADE,                            -- Deleta usuário → deleta resumo
+  ADD CONSTRAINT `fk_resumo_categoria`
+      FOREIGN KEY (`categoria_id`)
+          REFERENCES `categoria` (`id_categoria`);      -- RESTRICT (padrão)
+
 --
 -- Constraints para tabela `vendas`
 --
@@ -1030,7 +1152,8 @@ SELECT
 FROM vendas v
 INNER JOIN categoria c ON v.categoria_id = c.id_categoria
 WHERE v.ativo = 1 
-  AND YEAR(v.data_vendas) = 2026  -- Ano atual
+  AND v.data_vendas >= '2026-01-01'  -- Ano atual: intervalo [inicio, fim)
+  AND v.data_vendas <  '2027-01-01'  -- (YEAR(coluna) impediria uso do índice)
 GROUP BY 
     YEAR(v.data_vendas),
     MONTH(v.data_vendas),
@@ -1188,8 +1311,8 @@ LIMIT 5;
 -- FIM DO SCRIPT
 -- ================================================================
 --
--- ✅ 6 tabelas criadas
--- ✅ 15 índices configurados
+-- ✅ 8 tabelas criadas (6 principais + vendas_resumo_mensal + token_revogado)
+-- ✅ 16 índices configurados
 -- ✅ 6 foreign keys definidas
 -- ✅ Dados de exemplo inseridos
 -- ✅ Soft delete em todas tabelas
@@ -5,21 +5,28 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
 import br.com.projeto.dao.VendasDAO;
 import br.com.projeto.dao.CategoriaDAO;
 import br.com.projeto.model.Vendas;
 import br.com.projeto.model.Categoria;
-import br.com.projeto.model.Usuario;
+import br.com.projeto.model.DashboardResumo;
+import br.com.projeto.model.SituacaoLimite;
+import br.com.projeto.model.UsuarioSessao;
 import br.com.projeto.model.NotaFiscal;
 import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.ConsultasParalelas;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.LimiteFaturamento;
+import br.com.projeto.utils.Log;
+import br.com.projeto.utils.MensagemFlash;
 
 /**
  * ================================================================
@@ -65,10 +72,14 @@ import br.com.projeto.utils.Conexao;
  *
  * FLUXO GET (Exibir Dashboard):
  * 1. Valida se usuário está logado
- * 2. Busca categorias no banco
- * 3. Busca últimas 10 vendas do usuário
- * 4. Calcula total do mês
- * 5. Envia dados para dashboard.jsp
+ * 2. Dispara em paralelo (ConsultasParalelas, uma conexão cada):
+ *    - categorias
+ *    - últimas 10 vendas do usuário
+ *    - resumo do mês e do ano (buscarResumoDashboard)
+ *    - limite anual do MEI (em memória: LimiteFaturamento)
+ * 3. Espera todas (tempo ≈ a mais lenta, não a soma)
+ * 4. Envia dados para dashboard.jsp (parcial, com aviso, se alguma
+ *    consulta falhou ou passou do tempo)
  *
  * FLUXO POST (Cadastrar Venda):
  * 1. Valida se usuário está logado
@@ -104,6 +115,8 @@ import br.com.projeto.utils.Conexao;
 public class DashboardController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    private static final Log LOG = Log.para(DashboardController.class);
+
     /* ================================================================
        MÉTODO GET - Exibir Dashboard
        ================================================================
@@ -112,208 +125,139 @@ public class DashboardController extends HttpServlet {
 
        Responsabilidades:
        1. Validar autenticação
-       2. Buscar categorias (para formulário)
-       3. Buscar últimas 10 vendas
-       4. Calcular total do mês
-       5. Preparar dados para JSP
-       6. Exibir dashboard.jsp
+       2. Disparar em paralelo: últimas 10 vendas, resumo do mês e do
+          ano, limite anual
+       3. Categorias (para formulário) do cache do CategoriaDAO, nesta
+          thread, enquanto as outras rodam
+       4. Esperar todas (cada uma com timeout)
+       5. Preparar dados para JSP e exibir dashboard.jsp
 
        Atributos enviados ao JSP:
        - categorias: List<Categoria>
        - ultimasVendas: List<Vendas>
        - totalMes: Double
-       - usuario: Usuario (da sessão)
+       - limite: SituacaoLimite (null se falhar)
+       - usuario: UsuarioSessao (do token, FiltroAutenticacao)
+       - avisoParcial: String (só se alguma consulta falhou)
 
-       Em caso de erro:
-       - Exibe dashboard.jsp com mensagem de erro
-       - Não redireciona (mantém na página)
+       Em caso de erro ou timeout de uma consulta:
+       - Aquela parte usa o valor padrão (lista vazia, zeros, null)
+       - O resto da página é exibido normalmente, com aviso
     */
 
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== DASHBOARD GET ==========");
+        LOG.debug("========== DASHBOARD GET ==========");
 
         // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session == null || session.getAttribute("usuario") == null) {
-            System.err.println("❌ Usuário não autenticado");
-            System.out.println("➡️ Redirecionando para /login");
-            System.out.println("===================================\n");
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
+            LOG.debug("➡️ Redirecionando para /login");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
-        System.out.println("✅ Usuário autenticado:");
-        System.out.println("   - ID: " + usuario.getIdUsuario());
-        System.out.println("   - Nome: " + usuario.getNome());
-        System.out.println("   - CPF: " + usuario.getCpf());
-
-        // ========== STEP 2: CONECTAR AO BANCO ==========
-        // Try-with-resources garante fechamento automático
-        try (Connection conexao = Conexao.getConnection()) {
-
-            System.out.println("✅ Conexão com banco estabelecida");
-
-            // ========== STEP 3: BUSCAR CATEGORIAS ==========
-            // Usado para popular dropdown do formulário
-            System.out.println("⏳ Buscando categorias...");
-
-            CategoriaDAO categoriaDAO = new CategoriaDAO(conexao);
-            List<Categoria> categorias = new ArrayList<>();
-
-            try {
-                categorias = categoriaDAO.listar();
-                System.out.println("✅ Categorias carregadas: " + categorias.size());
-
-                // Log de cada categoria
-                if (!categorias.isEmpty()) {
-                    System.out.println("📋 Lista de categorias:");
-                    for (Categoria c : categorias) {
-                        System.out.println("   - ID: " + c.getIdCategoria() +
-                                " | Nome: " + c.getNomeCategoria() +
-                                " | Ativo: " + c.isAtivo());
-                    }
-                } else {
-                    System.err.println("⚠️ Nenhuma categoria encontrada!");
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Erro ao listar categorias:");
-                System.err.println("   " + e.getMessage());
-                e.printStackTrace();
-            }
-
-            // Envia para JSP (mesmo que vazia)
-            request.setAttribute("categorias", categorias);
-
-            // ========== STEP 4: BUSCAR ÚLTIMAS VENDAS ==========
-            // Exibe as 10 vendas mais recentes na tabela
-            System.out.println("⏳ Buscando últimas vendas...");
-
-            VendasDAO vendasDAO = new VendasDAO(conexao);
-            List<Vendas> ultimasVendas = new ArrayList<>();
-
-            try {
-                ultimasVendas = vendasDAO.listarPorUsuario(usuario.getIdUsuario(), 10);
-                System.out.println("✅ Vendas carregadas: " + ultimasVendas.size());
-
-                // Log resumido das vendas
-                if (!ultimasVendas.isEmpty()) {
-                    System.out.println("📋 Últimas vendas:");
-                    for (Vendas v : ultimasVendas) {
-                        System.out.println("   - ID: " + v.getIdVendas() +
-                                " | Valor: R$ " + v.getValor() +
-                                " | Data: " + v.getDataVendas() +
-                                " | NF: " + v.getNotaFiscalEmitida());
-                    }
-                } else {
-                    System.out.println("ℹ️ Nenhuma venda encontrada");
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Erro ao listar vendas:");
-                System.err.println("   " + e.getMessage());
-                e.printStackTrace();
-            }
-
-            // Envia para JSP
-            request.setAttribute("ultimasVendas", ultimasVendas);
-
-            // ========== STEP 5: CONTAR VENDAS DO MÊS ==========
-            // Conta TODAS as vendas do mês (não apenas as 10 últimas)
-            System.out.println("⏳ Contando vendas do mês...");
-
-            int totalVendas = 0;
-
-            try {
-                totalVendas = vendasDAO.contarVendasDoMes(usuario.getIdUsuario());
-                System.out.println("✅ Total de vendas do mês: " + totalVendas);
-
-            } catch (Exception e) {
-                System.err.println("❌ Erro ao contar vendas:");
-                System.err.println("   " + e.getMessage());
-                e.printStackTrace();
-            }
-
-            // Envia para JSP
-            request.setAttribute("totalVendas", totalVendas);
-
-            // ========== STEP 6: CALCULAR SOMA DO MÊS ==========
-            // Soma de todas as vendas do mês atual
-            System.out.println("⏳ Calculando valor total do mês...");
-
-            double totalMes = 0.0;
-
-            try {
-                totalMes = vendasDAO.calcularTotalMes(usuario.getIdUsuario());
-                System.out.println("✅ Total do mês: R$ " + totalMes);
-
-            } catch (Exception e) {
-                System.err.println("❌ Erro ao calcular total:");
-                System.err.println("   " + e.getMessage());
-                e.printStackTrace();
-            }
-
-            // Envia para JSP
-            request.setAttribute("totalMes", totalMes);
-
-            // ========== STEP 7: CALCULAR DADOS DO ANO ==========
-            System.out.println("⏳ Calculando dados do ano...");
-
-            // Contar vendas do ano
-            int vendasAno = 0;
-            try {
-                vendasAno = vendasDAO.contarVendasDoAno(usuario.getIdUsuario());
-                System.out.println("✅ Vendas do ano: " + vendasAno);
-            } catch (Exception e) {
-                System.err.println("❌ Erro ao contar vendas do ano: " + e.getMessage());
-                e.printStackTrace();
-            }
-
-            // Calcular total do ano
-            double totalAno = 0.0;
-            try {
-                totalAno = vendasDAO.calcularTotalAno(usuario.getIdUsuario());
-                System.out.println("✅ Total do ano: R$ " + totalAno);
+        LOG.debug("✅ Usuário autenticado:");
+        LOG.debug("   - ID: {}", usuario.getIdUsuario());
+        LOG.debug("   - Nome: {}", usuario.getNome());
+
+        // ========== STEP 2: DISPARAR CONSULTAS EM PARALELO ==========
+        // As 3 consultas não dependem umas das outras: cada uma roda em
+        // sua própria conexão do pool e a página espera só a mais lenta.
+        // Esta thread NÃO segura conexão enquanto espera (evita que
+        // requisições simultâneas esgotem o pool umas das outras).
+        // Consulta que falhar ou passar do tempo usa o valor padrão e a
+        // página é exibida mesmo assim, com aviso. A rodada limita quantas
+        // rodam ao mesmo tempo (uma requisição não toma o pool inteiro).
+        int usuarioId = usuario.getIdUsuario();
+        ConsultasParalelas.Rodada rodada = ConsultasParalelas.novaRodada();
+        long inicio = System.currentTimeMillis();
+
+        LOG.debug("⏳ Buscando últimas vendas, resumo e limite...");
+
+        CompletableFuture<List<Vendas>> fUltimasVendas = rodada.iniciar("últimas vendas",
+                conexao -> new VendasDAO(conexao).listarPorUsuario(usuarioId, 10),
+                new ArrayList<>());
+
+        CompletableFuture<DashboardResumo> fResumo = rodada.iniciar("resumo do mês e do ano",
+                conexao -> new VendasDAO(conexao).buscarResumoDashboard(usuarioId),
+                new DashboardResumo());
+
+        CompletableFuture<SituacaoLimite> fLimite = rodada.iniciar("limite anual",
+                conexao -> LimiteFaturamento.consultar(conexao, usuarioId),
+                null);
+
+        // ========== STEP 3: CATEGORIAS (snapshot em memória) ==========
+        // Nesta thread: não ocupa conexão nem vaga da rodada. Só vai ao
+        // banco se o snapshot ainda não foi carregado (ou foi invalidado)
+        List<Categoria> categorias = CategoriaDAO.listarDoCache();
+        boolean categoriasFalharam = false;
+        if (categorias == null) {
+            try (Connection conexao = Conexao.getConnection()) {
+                categorias = new CategoriaDAO(conexao).listar();
             } catch (Exception e) {
-                System.err.println("❌ Erro ao calcular total do ano: " + e.getMessage());
-                e.printStackTrace();
+                LOG.aviso("❌ categorias: {}", e.getMessage());
+                categorias = new ArrayList<>();
+                categoriasFalharam = true;
             }
+        }
 
-            // Enviar para JSP
-            request.setAttribute("vendasAno", vendasAno);
-            request.setAttribute("totalAno", totalAno);
-
-            // ========== STEP 8: ENVIAR DADOS E EXIBIR JSP ==========
-            request.setAttribute("usuario", usuario);
+        // ========== STEP 4: ESPERAR TODAS ==========
+        // Nenhum future completa com exceção (falha vira valor padrão);
+        // a espera máxima é o timeout de ConsultasParalelas
+        CompletableFuture.allOf(fUltimasVendas, fResumo, fLimite).join();
+
+        List<Vendas> ultimasVendas = fUltimasVendas.join();
+        DashboardResumo resumo = fResumo.join();
+        SituacaoLimite limite = fLimite.join();
+        List<String> falhas = rodada.getFalhas();
+        if (categoriasFalharam) {
+            falhas.add(0, "categorias");
+        }
 
-            System.out.println("✅ Dados preparados para JSP:");
-            System.out.println("   - Categorias: " + categorias.size());
-            System.out.println("   - Últimas vendas (exibir): " + ultimasVendas.size());
-            System.out.println("   - Total vendas do mês: " + totalVendas);
-            System.out.println("   - Valor total do mês: R$ " + totalMes);
-            System.out.println("   - Total vendas do ano: " + vendasAno);
-            System.out.println("   - Valor total do ano: R$ " + totalAno);
-            System.out.println("📄 Encaminhando para dashboard.jsp");
-            System.out.println("===================================\n");
+        LOG.debug("✅ Consultas concluídas em {} ms", System.currentTimeMillis() - inicio);
 
-            request.getRequestDispatcher("/pages/dashboard.jsp").forward(request, response);
+        if (categorias.isEmpty()) {
+            LOG.aviso("⚠️ Nenhuma categoria encontrada!");
+        }
 
-        } catch (Exception e) {
-            // ========== TRATAMENTO DE ERRO GERAL ==========
-            System.err.println("❌ ERRO CRÍTICO ao carregar dashboard:");
-            System.err.println("   Tipo: " + e.getClass().getName());
-            System.err.println("   Mensagem: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("===================================\n");
-
-            request.setAttribute("erro", "Erro ao carregar dashboard: " + e.getMessage());
-            request.getRequestDispatcher("/pages/dashboard.jsp").forward(request, response);
+        // ========== STEP 5: ENVIAR DADOS E EXIBIR JSP ==========
+        int totalVendas = resumo.getVendasMes();
+        double totalMes = resumo.getTotalMes();
+        int vendasAno = resumo.getVendasAno();
+        double totalAno = resumo.getTotalAno();
+
+        request.setAttribute("categorias", categorias);
+        request.setAttribute("ultimasVendas", ultimasVendas);
+        request.setAttribute("totalVendas", totalVendas);
+        request.setAttribute("totalMes", totalMes);
+        request.setAttribute("vendasAno", vendasAno);
+        request.setAttribute("totalAno", totalAno);
+        request.setAttribute("limite", limite);
+        request.setAttribute("usuario", usuario);
+
+        if (!falhas.isEmpty()) {
+            // Exibição parcial: a página mostra o que carregou
+            request.setAttribute("avisoParcial",
+                    "Não foi possível carregar: " + String.join(", ", falhas)
+                    + ". Os demais dados estão atualizados; recarregue a página para tentar de novo.");
+            LOG.aviso("⚠️ Dashboard parcial, falharam: {}", falhas);
         }
-        // Conexão fecha automaticamente aqui
+
+        LOG.debug("✅ Dados preparados para JSP:");
+        LOG.debug("   - Categorias: {}", categorias.size());
+        LOG.debug("   - Últimas vendas (exibir): {}", ultimasVendas.size());
+        LOG.debug("   - Total vendas do mês: {}", totalVendas);
+        LOG.debug("   - Valor total do mês: R$ {}", totalMes);
+        LOG.debug("   - Total vendas do ano: {}", vendasAno);
+        LOG.debug("   - Valor total do ano: R$ {}", totalAno);
+        LOG.debug("   - Limite: {}", limite);
+        LOG.debug("📄 Encaminhando para dashboard.jsp");
+
+        request.getRequestDispatcher("/pages/dashboard.jsp").forward(request, response);
     }
 
     /* ================================================================
@@ -352,20 +296,18 @@ public class DashboardController extends HttpServlet {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== DASHBOARD POST ==========");
+        LOG.debug("========== DASHBOARD POST ==========");
 
         // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session == null || session.getAttribute("usuario") == null) {
-            System.err.println("❌ Usuário não autenticado");
-            System.out.println("===================================\n");
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
-        System.out.println("✅ Usuário: " + usuario.getNome());
+        LOG.debug("✅ Usuário: {}", usuario.getNome());
 
         // ========== STEP 2: LER PARÂMETROS ==========
         String categoriaStr = request.getParameter("categoria");
@@ -374,25 +316,25 @@ public class DashboardController extends HttpServlet {
         String emitirNF = request.getParameter("emitirNF");
         String numeroNF = request.getParameter("numeroNF");
 
-        System.out.println("📋 Dados recebidos:");
-        System.out.println("   - Categoria ID: " + categoriaStr);
-        System.out.println("   - Valor: " + valorStr);
-        System.out.println("   - Descrição: " + descricao);
-        System.out.println("   - Emitir NF: " + emitirNF);
-        System.out.println("   - Número NF: " + numeroNF);
+        LOG.debug("📋 Dados recebidos:");
+        LOG.debug("   - Categoria ID: {}", categoriaStr);
+        LOG.debug("   - Valor: {}", valorStr);
+        LOG.debug("   - Descrição: {}", descricao);
+        LOG.debug("   - Emitir NF: {}", emitirNF);
+        LOG.debug("   - Número NF: {}", numeroNF);
 
         // ========== STEP 3: VALIDAR CATEGORIA ==========
         if (categoriaStr == null || categoriaStr.isEmpty()) {
-            System.err.println("❌ Categoria vazia!");
-            session.setAttribute("erro", "Categoria é obrigatória!");
+            LOG.aviso("❌ Categoria vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Categoria é obrigatória!");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
 
         // ========== STEP 4: VALIDAR VALOR ==========
         if (valorStr == null || valorStr.isEmpty()) {
-            System.err.println("❌ Valor vazio!");
-            session.setAttribute("erro", "Valor é obrigatório!");
+            LOG.aviso("❌ Valor vazio!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor é obrigatório!");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
@@ -402,32 +344,32 @@ public class DashboardController extends HttpServlet {
         try {
             valorStr = valorStr.replace(",", ".");
             valor = Double.parseDouble(valorStr);
-            System.out.println("✅ Valor convertido: " + valor);
+            LOG.debug("✅ Valor convertido: {}", valor);
         } catch (NumberFormatException e) {
-            System.err.println("❌ Valor inválido: " + valorStr);
-            session.setAttribute("erro", "Valor inválido!");
+            LOG.aviso("❌ Valor inválido: {}", valorStr);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor inválido!");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
 
         // Validar valor > 0
         if (valor <= 0) {
-            System.err.println("❌ Valor <= 0!");
-            session.setAttribute("erro", "Valor deve ser maior que zero!");
+            LOG.aviso("❌ Valor <= 0!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor deve ser maior que zero!");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
 
-        System.out.println("✅ Valor válido: R$ " + valor);
+        LOG.debug("✅ Valor válido: R$ {}", valor);
 
         // ========== STEP 5: CONVERTER CATEGORIA ID ==========
         int categoriaId;
         try {
             categoriaId = Integer.parseInt(categoriaStr);
-            System.out.println("✅ Categoria ID: " + categoriaId);
+            LOG.debug("✅ Categoria ID: {}", categoriaId);
         } catch (NumberFormatException e) {
-            System.err.println("❌ Categoria ID inválido!");
-            session.setAttribute("erro", "Categoria inválida!");
+            LOG.aviso("❌ Categoria ID inválido!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Categoria inválida!");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
@@ -438,26 +380,26 @@ public class DashboardController extends HttpServlet {
             emitirNF = "N";
         }
 
-        System.out.println("📄 Nota Fiscal: " + emitirNF);
+        LOG.debug("📄 Nota Fiscal: {}", emitirNF);
 
         // Se marcou para emitir, número é obrigatório
         if ("S".equalsIgnoreCase(emitirNF)) {
             if (numeroNF == null || numeroNF.trim().isEmpty()) {
-                System.err.println("❌ NF marcada mas número vazio!");
-                session.setAttribute("erro", "Número da Nota Fiscal é obrigatório quando marca 'Emitir NF'!");
+                LOG.aviso("❌ NF marcada mas número vazio!");
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Número da Nota Fiscal é obrigatório quando marca 'Emitir NF'!");
                 response.sendRedirect(request.getContextPath() + "/dashboard");
                 return;
             }
-            System.out.println("✅ Número NF: " + numeroNF.trim());
+            LOG.debug("✅ Número NF: {}", numeroNF.trim());
         }
 
         // ========== STEP 7: CONECTAR AO BANCO E INSERIR ==========
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão estabelecida");
+            LOG.debug("✅ Conexão estabelecida");
 
             // ========== STEP 8: CRIAR OBJETO VENDAS ==========
-            System.out.println("⏳ Criando objeto Vendas...");
+            LOG.debug("⏳ Criando objeto Vendas...");
 
             Vendas venda = new Vendas();
             venda.setDataVendas(new Date());
@@ -471,16 +413,16 @@ public class DashboardController extends HttpServlet {
             categoria.setIdCategoria(categoriaId);
             venda.setCategoria(categoria);
 
-            System.out.println("✅ Objeto Vendas criado:");
-            System.out.println("   - Data: " + venda.getDataVendas());
-            System.out.println("   - Valor: R$ " + venda.getValor());
-            System.out.println("   - Categoria ID: " + categoriaId);
-            System.out.println("   - Usuário ID: " + venda.getUsuarioId());
-            System.out.println("   - NF Emitida: " + venda.getNotaFiscalEmitida());
+            LOG.debug("✅ Objeto Vendas criado:");
+            LOG.debug("   - Data: {}", venda.getDataVendas());
+            LOG.debug("   - Valor: R$ {}", venda.getValor());
+            LOG.debug("   - Categoria ID: {}", categoriaId);
+            LOG.debug("   - Usuário ID: {}", venda.getUsuarioId());
+            LOG.debug("   - NF Emitida: {}", venda.getNotaFiscalEmitida());
 
             // ========== STEP 9: CRIAR NOTA FISCAL (se marcado) ==========
             if ("S".equalsIgnoreCase(emitirNF) && numeroNF != null && !numeroNF.trim().isEmpty()) {
-                System.out.println("⏳ Criando Nota Fiscal...");
+                LOG.debug("⏳ Criando Nota Fiscal...");
 
                 NotaFiscal nf = new NotaFiscal();
                 nf.setNumero(numeroNF.trim());
@@ -488,49 +430,42 @@ public class DashboardController extends HttpServlet {
                 nf.setValor((float) valor);
                 venda.setNotaFiscal(nf);
 
-                System.out.println("✅ Nota Fiscal criada:");
-                System.out.println("   - Número: " + nf.getNumero());
-                System.out.println("   - Data: " + nf.getDataEmissao());
-                System.out.println("   - Valor: R$ " + nf.getValor());
+                LOG.debug("✅ Nota Fiscal criada:");
+                LOG.debug("   - Número: {}", nf.getNumero());
+                LOG.debug("   - Data: {}", nf.getDataEmissao());
+                LOG.debug("   - Valor: R$ {}", nf.getValor());
             }
 
             // ========== STEP 10: INSERIR NO BANCO ==========
-            System.out.println("⏳ Inserindo venda no banco...");
+            LOG.debug("⏳ Inserindo venda no banco...");
 
             VendasDAO vendasDAO = new VendasDAO(conexao);
 
             try {
                 vendasDAO.inserir(venda);
 
-                System.out.println("✅ VENDA CADASTRADA COM SUCESSO!");
-                System.out.println("   - ID gerado: " + venda.getIdVendas());
-                System.out.println("   - Valor: R$ " + venda.getValor());
-                System.out.println("   - Com NF: " + ("S".equals(emitirNF) ? "Sim" : "Não"));
-                System.out.println("===================================\n");
+                LOG.info("✅ VENDA CADASTRADA COM SUCESSO: {} (usuário {}, R$ {}, NF: {})",
+                        venda.getIdVendas(), usuario.getIdUsuario(), venda.getValor(), emitirNF);
 
                 // Mensagem de sucesso
                 if ("S".equalsIgnoreCase(emitirNF)) {
-                    session.setAttribute("sucesso", "Venda cadastrada com Nota Fiscal " + numeroNF + "!");
+                    MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Venda cadastrada com Nota Fiscal " + numeroNF + "!");
                 } else {
-                    session.setAttribute("sucesso", "Venda cadastrada com sucesso!");
+                    MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Venda cadastrada com sucesso!");
                 }
 
             } catch (Exception e) {
-                System.err.println("❌ Erro ao inserir venda:");
-                e.printStackTrace();
-                session.setAttribute("erro", "Erro ao cadastrar venda: " + e.getMessage());
+                LOG.erro("❌ Erro ao inserir venda", e);
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao cadastrar venda: " + e.getMessage());
             }
 
-            System.out.println("===================================\n");
             response.sendRedirect(request.getContextPath() + "/dashboard");
 
         } catch (Exception e) {
             // ========== TRATAMENTO DE ERRO GERAL ==========
-            System.err.println("❌ ERRO de conexão:");
-            e.printStackTrace();
-            System.out.println("===================================\n");
+            LOG.erro("❌ ERRO de conexão", e);
 
-            session.setAttribute("erro", "Erro de conexão: " + e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro de conexão: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/dashboard");
         }
         // Conexão fecha automaticamente
@@ -555,7 +490,7 @@ public class DashboardController extends HttpServlet {
    - categorias: List<Categoria> (para formulário)
    - ultimasVendas: List<Vendas> (limite 10)
    - totalMes: Double (soma do mês)
-   - usuario: Usuario (da sessão)
+   - usuario: UsuarioSessao (do token, FiltroAutenticacao)
 
    CAMPOS DO FORMULÁRIO (POST):
    - categoria* (ID, obrigatório)
@@ -575,7 +510,7 @@ public class DashboardController extends HttpServlet {
    - vendas (insert)
    - nota_fiscal (insert se marcado)
    - categoria (select para dropdown)
-   - usuario (session)
+   - usuario (token, FiltroAutenticacao)
 
    FLUXO COMPLETO:
    Login → Dashboard → Cadastrar Venda → Dashboard (atualizado)
@@ -586,7 +521,7 @@ public class DashboardController extends HttpServlet {
    - Erro: Específica por validação
 
    SEGURANÇA:
-   ✅ Validação de sessão
+   ✅ Validação do token (FiltroAutenticacao)
    ✅ PreparedStatement (via DAO)
    ✅ Try-with-resources
    ✅ Validações de tipo e formato
@@ -0,0 +1,136 @@
+package br.com.projeto.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import br.com.projeto.dao.VendasDAO;
+import br.com.projeto.model.FiltroVendas;
+import br.com.projeto.model.UsuarioSessao;
+import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.ExportadorVendasCSV;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.Log;
+import br.com.projeto.utils.MensagemFlash;
+
+/**
+ * ================================================================
+ * EXPORTACAO CONTROLLER - Download do histórico em CSV
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Exporta as vendas do usuário (ex.: o ano inteiro para o contador)
+ * com os mesmos filtros da tela de Histórico.
+ *
+ * ROTA:
+ * - GET /exportar?ano=2026&mes=0&categoria=&filtroNF=todas&gzip=1
+ *
+ * PARÂMETROS (todos opcionais):
+ * - ano:       default ano atual
+ * - mes:       0 = ano todo (default), 1-12 = mês
+ * - categoria: ID da categoria (vazio = todas)
+ * - filtroNF:  "todas" (default), "comNF", "semNF"
+ * - gzip:      "1" → arquivo .csv.gz (bem menor para anos grandes)
+ *
+ * STREAMING (memória constante):
+ * VendasDAO.percorrerVendas() lê o ResultSet linha a linha e cada
+ * venda é escrita direto no response. Nenhuma lista é montada,
+ * então 100 ou 100 mil vendas usam a mesma memória.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see VendasDAO#percorrerVendas(FiltroVendas, VendasDAO.LeitorVendas)
+ * @see ExportadorVendasCSV
+ */
+@WebServlet("/exportar")
+public class ExportacaoController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private static final Log LOG = Log.para(ExportacaoController.class);
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        LOG.debug("========== EXPORTAÇÃO CSV ==========");
+
+        // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+
+        // ========== STEP 2: FILTROS (mesmos do Histórico) ==========
+        int ano = parseInt(request.getParameter("ano"), LocalDate.now().getYear());
+        int mes = parseInt(request.getParameter("mes"), 0);
+        int categoria = parseInt(request.getParameter("categoria"), 0);
+        String filtroNF = request.getParameter("filtroNF");
+        boolean gzip = "1".equals(request.getParameter("gzip"));
+
+        FiltroVendas filtro = new FiltroVendas(usuario.getIdUsuario(), ano, mes, filtroNF, categoria);
+        LOG.debug("🔍 {}{}", filtro, (gzip ? " [gzip]" : ""));
+
+        String nomeArquivo = "vendas_" + ano + (filtro.temMes() ? "_" + filtro.getMes() : "")
+                + (gzip ? ".csv.gz" : ".csv");
+
+        // ========== STEP 3: CONSULTA EM STREAMING ==========
+        try (Connection conexao = Conexao.getConnection()) {
+
+            VendasDAO vendasDAO = new VendasDAO(conexao);
+
+            response.setContentType(gzip ? "application/gzip" : "text/csv; charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + nomeArquivo + "\"");
+
+            OutputStream saida = response.getOutputStream();
+            if (gzip) {
+                saida = new GZIPOutputStream(saida, 8192);
+            }
+
+            // ========== STEP 4: ESCREVER LINHAS ==========
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8))) {
+                ExportadorVendasCSV exportador = new ExportadorVendasCSV(writer);
+                exportador.escreverCabecalho();
+
+                int total = vendasDAO.percorrerVendas(filtro, exportador::escrever);
+                LOG.info("✅ Vendas exportadas: {}", total);
+            }
+
+        } catch (Exception e) {
+            LOG.erro("❌ Erro na exportação", e);
+
+            // Se o download já começou, não há como redirecionar
+            if (!response.isCommitted()) {
+                response.reset();
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao exportar vendas: " + e.getMessage());
+                response.sendRedirect(request.getContextPath() + "/historico");
+            }
+        }
+    }
+
+    /**
+     * Converte parâmetro para int, usando o padrão se vazio/inválido.
+     */
+    private static int parseInt(String valor, int padrao) {
+        if (valor == null || valor.isEmpty()) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            return padrao;
+        }
+    }
+}
@@ -10,12 +10,17 @@ import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
-import br.com.projeto.model.Usuario;
+import br.com.projeto.model.EstatisticasVendas;
+import br.com.projeto.model.FiltroVendas;
+import br.com.projeto.model.PaginaVendas;
+import br.com.projeto.model.UsuarioSessao;
 import br.com.projeto.model.Vendas;
 import br.com.projeto.dao.VendasDAO;
 import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.Log;
+import br.com.projeto.utils.MensagemFlash;
 
 /**
  * ================================================================
@@ -38,6 +43,7 @@ import br.com.projeto.utils.Conexao;
  *    - Quantidade com/sem NF
  *    - Valor com/sem NF
  * 4. Listar anos disponíveis (dropdown)
+ * 5. Paginação por cursor (próxima/anterior), mantendo os filtros
  *
  * ROTAS:
  * - GET  /historico              → Exibe vendas (ano padrão: 2026)
@@ -49,6 +55,9 @@ import br.com.projeto.utils.Conexao;
  * - ano: Ano das vendas (default: 2026)
  * - filtroNF: Filtro de NF (default: "todas")
  *   Valores: "todas", "com_nf", "sem_nf"
+ * - tamanho: Vendas por página (default: 50, entre 10 e 200)
+ * - cursor: Cursor opaco gerado pelo VendasDAO (ausente = 1ª página)
+ * - direcao: "anterior" para voltar a partir do cursor
  *
  * TABELAS ENVOLVIDAS:
  * - vendas: Registros de vendas
@@ -56,7 +65,9 @@ import br.com.projeto.utils.Conexao;
  * - nota_fiscal: Dados da NF (JOIN)
  *
  * DADOS EXIBIDOS:
- * - vendasDetalhadas: List<Vendas> com categoria e NF
+ * - vendasDetalhadas: List<Vendas> da página atual, com categoria e NF
+ * - cursorProximo / cursorAnterior: cursores dos links (null = sem link)
+ * - tamanhoPagina: Tamanho de página em uso
  * - anos: List<Integer> anos disponíveis
  * - ano: Ano selecionado
  * - filtroNF: Filtro selecionado
@@ -68,11 +79,10 @@ import br.com.projeto.utils.Conexao;
  *   - valorComNF: Soma valores com NF
  *   - valorSemNF: Soma valores sem NF
  *
- * CÁLCULO DE ESTATÍSTICAS:
- * - Total de vendas: COUNT(*)
- * - Valor total: SUM(valor)
- * - Com NF: COUNT WHERE nota_fiscal_emitida = 'S'
- * - Sem NF: COUNT WHERE nota_fiscal_emitida = 'N'
+ * CÁLCULO DE ESTATÍSTICAS (VendasDAO.calcularEstatisticas):
+ * - Uma consulta COUNT(*)/SUM(valor) GROUP BY nota_fiscal_emitida
+ * - Mesmo FiltroVendas da listagem, cobre o filtro inteiro (não a página)
+ * - Total = com NF + sem NF
  *
  * EXEMPLO DE USO:
  * ```
@@ -98,6 +108,13 @@ import br.com.projeto.utils.Conexao;
 public class HistoricoController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    private static final Log LOG = Log.para(HistoricoController.class);
+
+    /** Tamanho de página padrão e limites aceitos no parâmetro "tamanho" */
+    private static final int TAMANHO_PADRAO = 50;
+    private static final int TAMANHO_MINIMO = 10;
+    private static final int TAMANHO_MAXIMO = 200;
+
     /* ================================================================
        MÉTODO GET - Exibir Histórico de Vendas
        ================================================================
@@ -107,6 +124,7 @@ public class HistoricoController extends HttpServlet {
        Parâmetros opcionais:
        - ano: Ano para filtrar (default: 2026)
        - filtroNF: "todas", "com_nf", "sem_nf" (default: "todas")
+       - tamanho, cursor, direcao: paginação por cursor
 
        Responsabilidades:
        1. Validar autenticação
@@ -120,7 +138,9 @@ public class HistoricoController extends HttpServlet {
        - ano: Integer
        - anos: List<Integer>
        - filtroNF: String
-       - vendasDetalhadas: List<Vendas>
+       - vendasDetalhadas: List<Vendas> (página atual)
+       - cursorProximo, cursorAnterior: String (ou null)
+       - tamanhoPagina: Integer
        - totalVendas: Integer
        - totalValor: Double
        - totalComNF: Integer
@@ -132,20 +152,18 @@ public class HistoricoController extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== HISTORICO GET ==========");
+        LOG.debug("========== HISTORICO GET ==========");
 
         // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session == null || session.getAttribute("usuario") == null) {
-            System.err.println("❌ Usuário não autenticado");
-            System.out.println("===================================\n");
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
-        System.out.println("✅ Usuário: " + usuario.getNome() + " (ID: " + usuario.getIdUsuario() + ")");
+        LOG.debug("✅ Usuário: {} (ID: {})", usuario.getNome(), usuario.getIdUsuario());
 
         // ========== STEP 2: PROCESSAR PARÂMETROS DE FILTRO ==========
 
@@ -156,13 +174,13 @@ public class HistoricoController extends HttpServlet {
         if (anoParam != null && !anoParam.isEmpty()) {
             try {
                 ano = Integer.parseInt(anoParam);
-                System.out.println("📅 Ano selecionado: " + ano);
+                LOG.debug("📅 Ano selecionado: {}", ano);
             } catch (NumberFormatException e) {
-                System.err.println("⚠️ Ano inválido: " + anoParam + ", usando padrão 2026");
+                LOG.aviso("⚠️ Ano inválido: {}, usando padrão 2026", anoParam);
                 ano = 2026;
             }
         } else {
-            System.out.println("📅 Ano padrão: 2026");
+            LOG.debug("📅 Ano padrão: 2026");
         }
 
         // Mês: default 0 (todos os meses)
@@ -191,27 +209,27 @@ public class HistoricoController extends HttpServlet {
                 
                 // Validação: mês deve estar entre 0 e 12
                 if (mes < 0 || mes > 12) {
-                    System.err.println("⚠️ Mês inválido (" + mes + "), fora do intervalo 0-12");
-                    System.err.println("   Usando padrão: 0 (Todos)");
+                    LOG.aviso("⚠️ Mês inválido ({}), fora do intervalo 0-12", mes);
+                    LOG.aviso("   Usando padrão: 0 (Todos)");
                     mes = 0;
                 } else {
                     // Log diferenciado para "Todos" vs mês específico
                     if (mes == 0) {
-                        System.out.println("📅 Mês selecionado: 0 (Todos os meses)");
+                        LOG.debug("📅 Mês selecionado: 0 (Todos os meses)");
                     } else {
                         String[] nomesMeses = {"", "Janeiro", "Fevereiro", "Março", "Abril", 
                             "Maio", "Junho", "Julho", "Agosto", "Setembro", "Outubro", 
                             "Novembro", "Dezembro"};
-                        System.out.println("📅 Mês selecionado: " + mes + " (" + nomesMeses[mes] + ")");
+                        LOG.debug("📅 Mês selecionado: {} ({})", mes, nomesMeses[mes]);
                     }
                 }
             } catch (NumberFormatException e) {
-                System.err.println("⚠️ Mês inválido: '" + mesParam + "' não é um número");
-                System.err.println("   Usando padrão: 0 (Todos)");
+                LOG.aviso("⚠️ Mês inválido: '{}' não é um número", mesParam);
+                LOG.aviso("   Usando padrão: 0 (Todos)");
                 mes = 0;
             }
         } else {
-            System.out.println("📅 Mês padrão: 0 (Todos os meses)");
+            LOG.debug("📅 Mês padrão: 0 (Todos os meses)");
         }
 
         // Filtro Categoria: default null (todas as categorias)
@@ -233,18 +251,18 @@ public class HistoricoController extends HttpServlet {
                 categoriaId = Integer.parseInt(categoriaParam);
                 
                 if (categoriaId > 0) {
-                    System.out.println("🏷️ Categoria selecionada: " + categoriaId);
+                    LOG.debug("🏷️ Categoria selecionada: {}", categoriaId);
                 } else {
-                    System.out.println("🏷️ Categoria: Todas (valor inválido: " + categoriaId + ")");
+                    LOG.debug("🏷️ Categoria: Todas (valor inválido: {})", categoriaId);
                     categoriaId = null;
                 }
             } catch (NumberFormatException e) {
-                System.err.println("⚠️ Categoria inválida: '" + categoriaParam + "' não é um número");
-                System.err.println("   Usando padrão: null (Todas)");
+                LOG.aviso("⚠️ Categoria inválida: '{}' não é um número", categoriaParam);
+                LOG.aviso("   Usando padrão: null (Todas)");
                 categoriaId = null;
             }
         } else {
-            System.out.println("🏷️ Categoria padrão: null (Todas as categorias)");
+            LOG.debug("🏷️ Categoria padrão: null (Todas as categorias)");
         }
 
         // Filtro NF: default "todas"
@@ -254,36 +272,52 @@ public class HistoricoController extends HttpServlet {
             filtroNF = "todas";
         }
 
-        System.out.println("🔍 Filtros aplicados:");
-        System.out.println("   - Ano: " + ano);
-        System.out.println("   - Mês: " + mes + (mes == 0 ? " (Todos)" : ""));
-        System.out.println("   - Categoria: " + (categoriaId == null ? "Todas" : categoriaId));
-        System.out.println("   - Filtro NF: " + filtroNF);
-        System.out.println("   - Usuário ID: " + usuario.getIdUsuario());
+        // Paginação: tamanho limitado para não voltar a carregar o ano inteiro
+        int tamanho = TAMANHO_PADRAO;
+        String tamanhoParam = request.getParameter("tamanho");
+
+        if (tamanhoParam != null && !tamanhoParam.isEmpty()) {
+            try {
+                tamanho = Math.max(TAMANHO_MINIMO, Math.min(TAMANHO_MAXIMO, Integer.parseInt(tamanhoParam)));
+            } catch (NumberFormatException e) {
+                LOG.aviso("⚠️ Tamanho de página inválido: '{}', usando {}", tamanhoParam, TAMANHO_PADRAO);
+            }
+        }
+
+        String cursor = request.getParameter("cursor");
+        boolean paginaAnterior = "anterior".equals(request.getParameter("direcao"));
+
+        LOG.debug("🔍 Filtros aplicados:");
+        LOG.debug("   - Ano: {}", ano);
+        LOG.debug("   - Mês: {}{}", mes, (mes == 0 ? " (Todos)" : ""));
+        LOG.debug("   - Categoria: {}", (categoriaId == null ? "Todas" : categoriaId));
+        LOG.debug("   - Filtro NF: {}", filtroNF);
+        LOG.debug("   - Usuário ID: {}", usuario.getIdUsuario());
+        LOG.debug("   - Página: {}{}",
+                tamanho, (cursor == null ? " (primeira)" : (paginaAnterior ? " (anterior)" : " (próxima)")));
+
+        FiltroVendas filtro = new FiltroVendas(usuario.getIdUsuario(), ano, mes, filtroNF, categoriaId);
 
         // ========== STEP 3: CONECTAR AO BANCO ==========
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão estabelecida");
+            LOG.debug("✅ Conexão estabelecida");
             VendasDAO vendasDAO = new VendasDAO(conexao);
 
             // ========== STEP 4: BUSCAR ANOS DISPONÍVEIS ==========
             // Para popular dropdown de anos
-            System.out.println("⏳ Buscando anos com vendas...");
+            LOG.debug("⏳ Buscando anos com vendas...");
 
             List<Integer> anos = new ArrayList<>();
 
             try {
                 anos = vendasDAO.listarAnosComVendas(usuario.getIdUsuario());
-                System.out.println("✅ Anos encontrados: " + anos.size());
+                LOG.debug("✅ Anos encontrados: {}", anos.size());
 
                 if (!anos.isEmpty()) {
-                    System.out.println("📋 Lista de anos:");
-                    for (Integer a : anos) {
-                        System.out.println("   - " + a);
-                    }
+                    LOG.debug("📋 Lista de anos: {}", anos);
                 } else {
-                    System.err.println("⚠️ Nenhum ano com vendas, usando padrão");
+                    LOG.debug("⚠️ Nenhum ano com vendas, usando padrão");
                     // Anos padrão caso não encontre nada
                     anos.add(2024);
                     anos.add(2025);
@@ -291,86 +325,56 @@ public class HistoricoController extends HttpServlet {
                 }
 
             } catch (Exception e) {
-                System.err.println("❌ Erro ao listar anos:");
-                e.printStackTrace();
+                LOG.erro("❌ Erro ao listar anos", e);
                 // Anos padrão em caso de erro
                 anos.add(2024);
                 anos.add(2025);
                 anos.add(2026);
             }
 
-            // ========== STEP 5: BUSCAR VENDAS COM FILTRO ==========
-            System.out.println("⏳ Buscando vendas filtradas...");
-            System.out.println("   - SQL: listarPorAnoEMesComFiltroNF(" + 
-                usuario.getIdUsuario() + ", " + ano + ", " + mes + ", '" + filtroNF + "')");
+            // ========== STEP 5: BUSCAR PÁGINA DE VENDAS ==========
+            LOG.debug("⏳ Buscando página de vendas...");
 
-            List<Vendas> vendasDetalhadas = new ArrayList<>();
+            PaginaVendas pagina = new PaginaVendas(new ArrayList<>(), null, null, tamanho);
 
             try {
-                vendasDetalhadas = vendasDAO.listarPorAnoEMesComFiltroNF(
-                        usuario.getIdUsuario(),
-                        ano,
-                        mes,      // ⬅️ NOVO PARÂMETRO MÊS
-                        filtroNF,
-                        categoriaId   // ⬅️ NOVO PARÂMETRO CATEGORIA!
-                );
-
-                System.out.println("✅ Vendas encontradas: " + vendasDetalhadas.size());
-
-                // Log resumido das vendas
-                if (!vendasDetalhadas.isEmpty()) {
-                    System.out.println("📋 Primeiras vendas:");
-                    int max = Math.min(5, vendasDetalhadas.size());
-                    for (int i = 0; i < max; i++) {
-                        Vendas v = vendasDetalhadas.get(i);
-                        System.out.println("   - ID: " + v.getIdVendas() +
-                                " | Valor: R$ " + v.getValor() +
-                                " | NF: " + v.getNotaFiscalEmitida() +
-                                " | Data: " + v.getDataVendas());
-                    }
-                    if (vendasDetalhadas.size() > 5) {
-                        System.out.println("   ... e mais " + (vendasDetalhadas.size() - 5) + " vendas");
-                    }
-                }
+                pagina = vendasDAO.listarPagina(filtro, cursor, paginaAnterior, tamanho);
+                LOG.debug("✅ Vendas na página: {}{}{}",
+                        pagina.getVendas().size(), (pagina.temProxima() ? " (há próxima)" : ""), (pagina.temAnterior() ? " (há anterior)" : ""));
 
             } catch (Exception e) {
-                System.err.println("❌ Erro ao buscar vendas:");
-                e.printStackTrace();
+                LOG.erro("❌ Erro ao buscar vendas", e);
             }
 
             // ========== STEP 6: CALCULAR ESTATÍSTICAS ==========
-            System.out.println("⏳ Calculando estatísticas...");
-
-            int totalVendas = vendasDetalhadas.size();
-            double totalValor = 0;
-            int totalComNF = 0;
-            int totalSemNF = 0;
-            double valorComNF = 0;
-            double valorSemNF = 0;
-
-            // Iterar vendas para calcular
-            for (Vendas v : vendasDetalhadas) {
-                totalValor += v.getValor();
-
-                if ("S".equalsIgnoreCase(v.getNotaFiscalEmitida())) {
-                    totalComNF++;
-                    valorComNF += v.getValor();
-                } else {
-                    totalSemNF++;
-                    valorSemNF += v.getValor();
-                }
+            // Agregação no banco sobre o filtro inteiro (não só a página)
+            LOG.debug("⏳ Calculando estatísticas...");
+
+            EstatisticasVendas estatisticas = new EstatisticasVendas();
+
+            try {
+                estatisticas = vendasDAO.calcularEstatisticas(filtro);
+            } catch (Exception e) {
+                LOG.erro("❌ Erro ao calcular estatísticas", e);
             }
 
-            System.out.println("✅ Estatísticas calculadas:");
-            System.out.println("   📊 TOTAIS:");
-            System.out.println("      - Vendas: " + totalVendas);
-            System.out.println("      - Valor: R$ " + String.format("%.2f", totalValor));
-            System.out.println("   📄 COM NOTA FISCAL:");
-            System.out.println("      - Quantidade: " + totalComNF);
-            System.out.println("      - Valor: R$ " + String.format("%.2f", valorComNF));
-            System.out.println("   📋 SEM NOTA FISCAL:");
-            System.out.println("      - Quantidade: " + totalSemNF);
-            System.out.println("      - Valor: R$ " + String.format("%.2f", valorSemNF));
+            int totalVendas = estatisticas.getTotalVendas();
+            double totalValor = estatisticas.getTotalValor();
+            int totalComNF = estatisticas.getTotalComNF();
+            int totalSemNF = estatisticas.getTotalSemNF();
+            double valorComNF = estatisticas.getValorComNF();
+            double valorSemNF = estatisticas.getValorSemNF();
+
+            LOG.debug("✅ Estatísticas calculadas:");
+            LOG.debug("   📊 TOTAIS:");
+            LOG.debug("      - Vendas: {}", totalVendas);
+            LOG.debug("      - Valor: R$ {}", String.format("%.2f", totalValor));
+            LOG.debug("   📄 COM NOTA FISCAL:");
+            LOG.debug("      - Quantidade: {}", totalComNF);
+            LOG.debug("      - Valor: R$ {}", String.format("%.2f", valorComNF));
+            LOG.debug("   📋 SEM NOTA FISCAL:");
+            LOG.debug("      - Quantidade: {}", totalSemNF);
+            LOG.debug("      - Valor: R$ {}", String.format("%.2f", valorSemNF));
 
             // ========== STEP 7: PREPARAR DADOS PARA JSP ==========
             request.setAttribute("ano", ano);
@@ -378,7 +382,10 @@ public class HistoricoController extends HttpServlet {
             request.setAttribute("categoriaId", categoriaId);  // ⬅️ NOVO: envia categoria selecionada
             request.setAttribute("anos", anos);
             request.setAttribute("filtroNF", filtroNF);
-            request.setAttribute("vendasDetalhadas", vendasDetalhadas);
+            request.setAttribute("vendasDetalhadas", pagina.getVendas());
+            request.setAttribute("cursorProximo", pagina.getCursorProximo());
+            request.setAttribute("cursorAnterior", pagina.getCursorAnterior());
+            request.setAttribute("tamanhoPagina", tamanho);
             request.setAttribute("totalVendas", totalVendas);
             request.setAttribute("totalValor", totalValor);
             request.setAttribute("totalComNF", totalComNF);
@@ -386,21 +393,16 @@ public class HistoricoController extends HttpServlet {
             request.setAttribute("valorComNF", valorComNF);
             request.setAttribute("valorSemNF", valorSemNF);
 
-            System.out.println("✅ Dados preparados para JSP");
-            System.out.println("📄 Encaminhando para historico.jsp");
-            System.out.println("===================================\n");
+            LOG.debug("✅ Dados preparados para JSP");
+            LOG.debug("📄 Encaminhando para historico.jsp");
 
             request.getRequestDispatcher("/pages/historico.jsp").forward(request, response);
 
         } catch (Exception e) {
             // ========== TRATAMENTO DE ERRO CRÍTICO ==========
-            System.err.println("❌ ERRO CRÍTICO no histórico:");
-            System.err.println("   Tipo: " + e.getClass().getName());
-            System.err.println("   Mensagem: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("===================================\n");
+            LOG.erro("❌ ERRO CRÍTICO no histórico", e);
 
-            session.setAttribute("erro", "Erro ao carregar histórico: " + e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao carregar histórico: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/dashboard");
         }
         // Conexão fecha automaticamente
@@ -421,9 +423,8 @@ public class HistoricoController extends HttpServlet {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== HISTORICO POST ==========");
-        System.out.println("ℹ️ POST detectado, redirecionando para doGet");
-        System.out.println("====================================\n");
+        LOG.debug("========== HISTORICO POST ==========");
+        LOG.debug("ℹ️ POST detectado, redirecionando para doGet");
 
         // Redireciona para GET (mesma lógica)
         doGet(request, response);
@@ -477,21 +478,16 @@ public class HistoricoController extends HttpServlet {
       - valorSemNF: Soma sem NF
 
    CÁLCULO DE ESTATÍSTICAS:
-   ```java
-   for (Vendas v : vendas) {
-       totalValor += v.getValor();
-       if (v.getNotaFiscalEmitida().equals("S")) {
-           totalComNF++;
-           valorComNF += v.getValor();
-       } else {
-           totalSemNF++;
-           valorSemNF += v.getValor();
-       }
-   }
+   ```sql
+   SELECT v.nota_fiscal_emitida, COUNT(*), SUM(v.valor)
+   FROM vendas v
+   WHERE <mesmo filtro da listagem>
+   GROUP BY v.nota_fiscal_emitida
    ```
+   No máximo 2 linhas ('S' e 'N'); o total é a soma das duas.
 
    FILTROS SQL (VendasDAO):
-   - todas: WHERE YEAR(data_vendas) = ? AND usuario_id = ?
+   - todas: WHERE usuario_id = ? AND data_vendas >= ? AND data_vendas < ?
    - com_nf: WHERE ... AND nota_fiscal_emitida = 'S'
    - sem_nf: WHERE ... AND nota_fiscal_emitida = 'N'
 
@@ -514,16 +510,17 @@ public class HistoricoController extends HttpServlet {
       → Ver todas vendas + estatísticas de 2023
 
    SEGURANÇA:
-   ✅ Validação de sessão obrigatória
+   ✅ Autenticação obrigatória (token)
    ✅ PreparedStatement (via DAO)
    ✅ Try-with-resources
    ✅ Filtra por usuario_id (isolamento)
 
    PERFORMANCE:
-   ✅ Índices em: data_vendas, usuario_id
+   ✅ Índice (usuario_id, ativo, data_vendas) + intervalo [inicio, fim)
    ✅ Filtro no banco (WHERE)
+   ✅ Paginação por cursor (data_vendas DESC, id_vendas DESC), sem OFFSET
    ✅ JOIN otimizado (categoria, nota_fiscal)
-   ✅ Estatísticas calculadas em memória
+   ✅ Estatísticas agregadas no banco (GROUP BY), sem carregar as vendas
 
    EXEMPLO DE RESPOSTA JSP:
    ```
@@ -549,6 +546,7 @@ public class HistoricoController extends HttpServlet {
    - Lista vazia não é erro (exibe "Nenhuma venda")
    - Anos sem vendas exibem padrão (2024-2026)
    - Filtros mantidos após ações (via parâmetros)
+   - Links Anterior/Próxima repetem ano, mes, categoria, filtroNF e tamanho
    - Estatísticas sempre atualizadas
    - Conexão fecha automaticamente
    ================================================================ */
\ No newline at end of file
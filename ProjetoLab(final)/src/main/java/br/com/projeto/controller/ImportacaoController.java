@@ -0,0 +1,143 @@
+package br.com.projeto.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.MultipartConfig;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+import br.com.projeto.model.ResultadoImportacao;
+import br.com.projeto.model.UsuarioSessao;
+import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.ImportadorVendasCSV;
+import br.com.projeto.utils.Log;
+import br.com.projeto.utils.MensagemFlash;
+
+/**
+ * ================================================================
+ * IMPORTACAO CONTROLLER - Importação de vendas via CSV
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Permite lançar vendas históricas em massa (ex.: planilha do
+ * contador) em vez de cadastrar uma a uma em /venda.
+ *
+ * ROTAS:
+ * - GET  /importar → Exibe formulário de upload (importar.jsp)
+ * - POST /importar → Recebe o CSV (multipart), importa e exibe relatório
+ *
+ * UPLOAD:
+ * @MultipartConfig grava em disco tudo acima de 1 MB; o arquivo
+ * é lido por part.getInputStream() linha a linha, nunca inteiro
+ * em memória. Limite: 50 MB (~100 mil linhas com folga).
+ *
+ * RESULTADO (request, não session):
+ * - resultado: ResultadoImportacao (contagens + erros por linha)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see ImportadorVendasCSV
+ */
+@WebServlet("/importar")
+@MultipartConfig(
+        fileSizeThreshold = 1024 * 1024,        // 1 MB em memória, resto em disco
+        maxFileSize = 50L * 1024 * 1024,        // 50 MB por arquivo
+        maxRequestSize = 55L * 1024 * 1024      // arquivo + campos do form
+)
+public class ImportacaoController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private static final Log LOG = Log.para(ImportacaoController.class);
+
+    /* ================================================================
+       MÉTODO GET - Exibir formulário
+       ================================================================ */
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
+        if (usuario == null) {
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+
+        request.getRequestDispatcher("/pages/importar.jsp").forward(request, response);
+    }
+
+    /* ================================================================
+       MÉTODO POST - Importar arquivo
+       ================================================================
+
+       1. Validar autenticação
+       2. Validar arquivo enviado (campo "arquivo")
+       3. Importar em lotes (ImportadorVendasCSV)
+       4. Exibir relatório em importar.jsp
+    */
+
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        LOG.debug("========== IMPORTAÇÃO CSV ==========");
+
+        // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+
+        // ========== STEP 2: VALIDAR ARQUIVO ==========
+        Part arquivo;
+        try {
+            arquivo = request.getPart("arquivo");
+        } catch (IllegalStateException e) {
+            // Arquivo maior que maxFileSize
+            LOG.aviso("❌ Arquivo acima do limite: {}", e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Arquivo muito grande (máximo 50 MB).");
+            response.sendRedirect(request.getContextPath() + "/importar");
+            return;
+        }
+
+        if (arquivo == null || arquivo.getSize() == 0) {
+            LOG.aviso("❌ Nenhum arquivo enviado");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Selecione um arquivo CSV para importar.");
+            response.sendRedirect(request.getContextPath() + "/importar");
+            return;
+        }
+
+        LOG.debug("📄 Arquivo: {} ({} bytes) - Usuário ID: {}",
+                arquivo.getSubmittedFileName(), arquivo.getSize(), usuario.getIdUsuario());
+
+        // ========== STEP 3: IMPORTAR ==========
+        try (Connection conexao = Conexao.getConnection();
+             InputStream entrada = arquivo.getInputStream()) {
+
+            ResultadoImportacao resultado =
+                    new ImportadorVendasCSV(conexao, usuario.getIdUsuario()).importar(entrada);
+
+            LOG.info("✅ Importação do usuário {}: {}", usuario.getIdUsuario(), resultado);
+
+            // ========== STEP 4: EXIBIR RELATÓRIO ==========
+            request.setAttribute("resultado", resultado);
+            request.getRequestDispatcher("/pages/importar.jsp").forward(request, response);
+
+        } catch (Exception e) {
+            LOG.erro("❌ Erro na importação", e);
+
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao importar arquivo: " + e.getMessage());
+            response.sendRedirect(request.getContextPath() + "/importar");
+        } finally {
+            // Remove o arquivo temporário do upload
+            arquivo.delete();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.com.projeto.controller;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.util.concurrent.RejectedExecutionException;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -10,11 +11,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
-import org.mindrot.jbcrypt.BCrypt;
-
 import br.com.projeto.model.Usuario;
+import br.com.projeto.model.UsuarioSessao;
 import br.com.projeto.dao.UsuarioDAO;
 import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.HashSenha;
+import br.com.projeto.utils.LimiteTentativas;
+import br.com.projeto.utils.MensagemFlash;
+import br.com.projeto.utils.Log;
 
 /**
  * ================================================================
@@ -28,14 +33,14 @@ import br.com.projeto.utils.Conexao;
  * FUNCIONALIDADES:
  * 1. Login de usuários (autenticação com CPF + senha)
  * 2. Cadastro de novos usuários MEI
- * 3. Logout (encerramento de sessão)
+ * 3. Logout (revogação do token)
  *
  * ROTAS MAPEADAS:
  * - GET  /login     → Exibe formulário de login
  * - POST /login     → Processa autenticação
  * - GET  /cadastro  → Exibe formulário de cadastro
  * - POST /cadastro  → Processa novo usuário
- * - GET  /logout    → Encerra sessão e redireciona
+ * - GET  /logout    → Revoga o token e redireciona
  *
  * TABELA: usuario
  * Schema:
@@ -49,28 +54,29 @@ import br.com.projeto.utils.Conexao;
  * - data_cadastro (TIMESTAMP)
  *
  * SEGURANÇA:
- * ✅ Senhas criptografadas com BCrypt (salt 10)
+ * ✅ Senhas criptografadas com BCrypt (custo calibrado, ver HashSenha)
  * ✅ Validação de CPF único
  * ✅ Validação de email único
- * ✅ Sessões com timeout de 30 minutos
+ * ✅ Token assinado (HMAC) que expira após 30 minutos parado
  * ✅ PreparedStatement para prevenir SQL injection
  * ✅ Máscaras removidas antes de salvar
  *
  * FLUXO DE LOGIN:
  * 1. Usuário digita CPF (com ou sem máscara) + senha
  * 2. Remove máscara do CPF (fica só números)
- * 3. Busca usuário no banco por CPF
- * 4. Valida senha com BCrypt.checkpw()
- * 5. Se OK: cria sessão e redireciona para /dashboard
- * 6. Se ERRO: exibe mensagem e volta para /login
+ * 3. Limite de tentativas por CPF e por IP (LimiteTentativas)
+ * 4. Busca usuário no banco por CPF
+ * 5. Valida senha com BCrypt.checkpw()
+ * 6. Se OK: emite o token (FiltroAutenticacao) e redireciona para /dashboard
+ * 7. Se ERRO: exibe mensagem e volta para /login
  *
  * FLUXO DE CADASTRO:
  * 1. Valida todos os campos obrigatórios
  * 2. Remove máscaras (CPF, CNPJ)
  * 3. Valida formato (CPF=11 dígitos, CNPJ=14 dígitos)
- * 4. Verifica se CPF já existe
- * 5. Verifica se email já existe
- * 6. Gera hash BCrypt da senha
+ * 4. Gera hash BCrypt da senha (sem conexão do pool em mãos)
+ * 5. Verifica se CPF já existe
+ * 6. Verifica se email já existe
  * 7. Insere no banco via UsuarioDAO
  * 8. Redireciona para /login com mensagem de sucesso
  *
@@ -98,6 +104,8 @@ import br.com.projeto.utils.Conexao;
 public class LoginController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    private static final Log LOG = Log.para(LoginController.class);
+
     /* ================================================================
        MÉTODO GET - Roteador de Páginas
        ================================================================
@@ -117,29 +125,28 @@ public class LoginController extends HttpServlet {
 
         // ========== IDENTIFICAR ROTA ==========
         String path = request.getServletPath();
-        System.out.println("\n========== LOGIN CONTROLLER GET ==========");
-        System.out.println("📍 Rota acessada: " + path);
+        LOG.debug("========== LOGIN CONTROLLER GET ==========");
+        LOG.debug("📍 Rota acessada: {}", path);
 
         // ========== ROTEAMENTO ==========
         switch (path) {
             case "/login":
-                System.out.println("🔀 Roteando para: exibirLogin()");
+                LOG.debug("🔀 Roteando para: exibirLogin()");
                 exibirLogin(request, response);
                 break;
 
             case "/cadastro":
-                System.out.println("🔀 Roteando para: exibirCadastro()");
+                LOG.debug("🔀 Roteando para: exibirCadastro()");
                 exibirCadastro(request, response);
                 break;
 
             case "/logout":
-                System.out.println("🔀 Roteando para: executarLogout()");
+                LOG.debug("🔀 Roteando para: executarLogout()");
                 executarLogout(request, response);
                 break;
 
             default:
-                System.err.println("❌ Rota GET desconhecida: " + path);
-                System.out.println("==========================================\n");
+                LOG.aviso("❌ Rota GET desconhecida: {}", path);
                 response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
@@ -161,24 +168,23 @@ public class LoginController extends HttpServlet {
 
         // ========== IDENTIFICAR ROTA ==========
         String path = request.getServletPath();
-        System.out.println("\n========== LOGIN CONTROLLER POST ==========");
-        System.out.println("📍 Rota acessada: " + path);
+        LOG.debug("========== LOGIN CONTROLLER POST ==========");
+        LOG.debug("📍 Rota acessada: {}", path);
 
         // ========== ROTEAMENTO ==========
         switch (path) {
             case "/login":
-                System.out.println("🔀 Roteando para: processarLogin()");
+                LOG.debug("🔀 Roteando para: processarLogin()");
                 processarLogin(request, response);
                 break;
 
             case "/cadastro":
-                System.out.println("🔀 Roteando para: processarCadastro()");
+                LOG.debug("🔀 Roteando para: processarCadastro()");
                 processarCadastro(request, response);
                 break;
 
             default:
-                System.err.println("❌ Rota POST desconhecida: " + path);
-                System.out.println("===========================================\n");
+                LOG.aviso("❌ Rota POST desconhecida: {}", path);
                 response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
@@ -195,29 +201,27 @@ public class LoginController extends HttpServlet {
 
        JSP: login.jsp
 
-       Sessão: Verifica atributo "usuario"
+       Autenticação: FiltroAutenticacao.usuario(request), sem criar
+       sessão (login.jsp tem session="false")
     */
 
     private void exibirLogin(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("📝 Iniciando exibição de LOGIN");
+        LOG.debug("📝 Iniciando exibição de LOGIN");
 
         // ========== VERIFICAR SE JÁ ESTÁ LOGADO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session != null && session.getAttribute("usuario") != null) {
-            Usuario usuario = (Usuario) session.getAttribute("usuario");
-            System.out.println("✅ Usuário já logado: " + usuario.getNome());
-            System.out.println("➡️ Redirecionando para dashboard");
-            System.out.println("==========================================\n");
+        if (usuario != null) {
+            LOG.debug("✅ Usuário já logado: {}", usuario.getNome());
+            LOG.debug("➡️ Redirecionando para dashboard");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
 
         // ========== EXIBIR FORMULÁRIO ==========
-        System.out.println("📄 Exibindo formulário de login");
-        System.out.println("==========================================\n");
+        LOG.debug("📄 Exibindo formulário de login");
         request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
     }
 
@@ -245,23 +249,20 @@ public class LoginController extends HttpServlet {
     private void exibirCadastro(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("📝 Iniciando exibição de CADASTRO");
+        LOG.debug("📝 Iniciando exibição de CADASTRO");
 
         // ========== VERIFICAR SE JÁ ESTÁ LOGADO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session != null && session.getAttribute("usuario") != null) {
-            Usuario usuario = (Usuario) session.getAttribute("usuario");
-            System.out.println("✅ Usuário já logado: " + usuario.getNome());
-            System.out.println("➡️ Redirecionando para dashboard");
-            System.out.println("==========================================\n");
+        if (usuario != null) {
+            LOG.debug("✅ Usuário já logado: {}", usuario.getNome());
+            LOG.debug("➡️ Redirecionando para dashboard");
             response.sendRedirect(request.getContextPath() + "/dashboard");
             return;
         }
 
         // ========== EXIBIR FORMULÁRIO ==========
-        System.out.println("📄 Exibindo formulário de cadastro");
-        System.out.println("==========================================\n");
+        LOG.debug("📄 Exibindo formulário de cadastro");
         request.getRequestDispatcher("/pages/cadastro.jsp").forward(request, response);
     }
 
@@ -279,19 +280,22 @@ public class LoginController extends HttpServlet {
        1. Recebe CPF e senha do formulário
        2. Remove máscara do CPF (deixa só números)
        3. Valida se campos não estão vazios
-       4. Busca usuário no banco por CPF (UsuarioDAO)
-       5. Verifica se usuário existe
-       6. Compara senha com hash usando BCrypt.checkpw()
-       7. Se OK: cria sessão e redireciona para dashboard
-       8. Se ERRO: volta para login.jsp com mensagem
-
-       Sessão criada:
-       - Atributo "usuario": objeto Usuario completo
-       - Timeout: 1800 segundos (30 minutos)
+       4. Limite de tentativas (LimiteTentativas): excesso → 429,
+          sem tocar no banco nem no BCrypt
+       5. Busca usuário no banco por CPF (UsuarioDAO)
+       6. Verifica se usuário existe
+       7. Compara senha com hash usando BCrypt.checkpw()
+       8. Se OK: emite o token e redireciona para dashboard
+       9. Se ERRO: volta para login.jsp com mensagem
+
+       Token emitido (cookie mei_auth, FiltroAutenticacao):
+       - UsuarioSessao (id, nome, CNPJ; sem hash), assinado
+       - Validade: 30 minutos, renovada enquanto houver uso
 
        Mensagens de erro:
        - "CPF e senha são obrigatórios"
        - "CPF ou senha incorretos" (não especifica qual)
+       - "Muitas tentativas de login. Aguarde um minuto e tente novamente."
 
        SEGURANÇA:
        ✅ Não informa se CPF existe ou não (evita ataques)
@@ -302,104 +306,116 @@ public class LoginController extends HttpServlet {
     private void processarLogin(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("🔐 Iniciando processamento de LOGIN");
+        LOG.debug("🔐 Iniciando processamento de LOGIN");
 
         // ========== STEP 1: RECEBER PARÂMETROS ==========
         String cpfOriginal = request.getParameter("cpf");
         String senha = request.getParameter("senha");
 
-        System.out.println("📋 Dados recebidos:");
-        System.out.println("   - CPF (original): " + cpfOriginal);
-        System.out.println("   - Senha: " + (senha != null ? "***" : "null"));
+        LOG.debug("📋 Dados recebidos:");
+        LOG.debug("   - CPF (original): {}", cpfOriginal);
+        LOG.debug("   - Senha: {}", (senha != null ? "***" : "null"));
 
         // ========== STEP 2: REMOVER MÁSCARA DO CPF ==========
         // Remove tudo que não é número: 123.456.789-01 → 12345678901
         String cpf = cpfOriginal != null ? cpfOriginal.replaceAll("[^0-9]", "") : "";
-        System.out.println("   - CPF (limpo): " + cpf);
+        LOG.debug("   - CPF (limpo): {}", cpf);
 
         // ========== STEP 3: VALIDAR CAMPOS VAZIOS ==========
         if (cpf.isEmpty() || senha == null || senha.isEmpty()) {
-            System.err.println("❌ Validação falhou: CPF ou senha vazio");
-            System.out.println("==========================================\n");
+            LOG.aviso("❌ Validação falhou: CPF ou senha vazio");
             request.setAttribute("erro", "CPF e senha são obrigatórios");
             request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
             return;
         }
 
-        System.out.println("✅ Campos obrigatórios preenchidos");
+        LOG.debug("✅ Campos obrigatórios preenchidos");
 
-        // ========== STEP 4: CONECTAR AO BANCO ==========
-        try (Connection conexao = Conexao.getConnection()) {
+        // ========== STEP 4: LIMITE DE TENTATIVAS ==========
+        // Antes do banco e do BCrypt: rajada de tentativas não custa CPU
+        if (!LimiteTentativas.permitir(cpf, request.getRemoteAddr())) {
+            response.setStatus(429); // Too Many Requests
+            response.setHeader("Retry-After", "60");
+            request.setAttribute("erro", "Muitas tentativas de login. Aguarde um minuto e tente novamente.");
+            request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
+            return;
+        }
 
-            System.out.println("✅ Conexão com banco estabelecida");
+        try {
+            // ========== STEP 5: CONECTAR AO BANCO ==========
+            // Conexão só durante a busca: o BCrypt (STEP 8) roda com ela
+            // já devolvida ao pool
+            Usuario usuario;
+            try (Connection conexao = Conexao.getConnection()) {
 
-            // ========== STEP 5: BUSCAR USUÁRIO POR CPF ==========
-            UsuarioDAO usuarioDAO = new UsuarioDAO(conexao);
-            System.out.println("⏳ Buscando usuário no banco...");
-            System.out.println("   SQL: SELECT * FROM usuario WHERE cpf = ?");
-            System.out.println("   Parâmetro: " + cpf);
+                LOG.debug("✅ Conexão com banco estabelecida");
 
-            Usuario usuario = usuarioDAO.buscarPorCpf(cpf);
+                // ========== STEP 6: BUSCAR USUÁRIO POR CPF ==========
+                UsuarioDAO usuarioDAO = new UsuarioDAO(conexao);
+                LOG.debug("⏳ Buscando usuário no banco...");
+                LOG.debug("   SQL: SELECT * FROM usuario WHERE cpf = ?");
+                LOG.debug("   Parâmetro: {}", cpf);
 
-            // ========== STEP 6: VALIDAR SE USUÁRIO EXISTE ==========
+                usuario = usuarioDAO.buscarPorCpf(cpf);
+            }
+
+            // ========== STEP 7: VALIDAR SE USUÁRIO EXISTE ==========
             if (usuario == null) {
-                System.err.println("❌ CPF não encontrado no banco!");
-                System.out.println("   Mensagem genérica (segurança)");
-                System.out.println("==========================================\n");
+                LOG.aviso("❌ CPF não encontrado no banco!");
+                LOG.debug("   Mensagem genérica (segurança)");
                 request.setAttribute("erro", "CPF ou senha incorretos");
                 request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
                 return;
             }
 
-            System.out.println("✅ Usuário encontrado:");
-            System.out.println("   - ID: " + usuario.getIdUsuario());
-            System.out.println("   - Nome: " + usuario.getNome());
-            System.out.println("   - Email: " + usuario.getEmail());
-            System.out.println("   - CNPJ: " + usuario.getCnpj());
+            LOG.debug("✅ Usuário encontrado:");
+            LOG.debug("   - ID: {}", usuario.getIdUsuario());
+            LOG.debug("   - Nome: {}", usuario.getNome());
+            LOG.debug("   - Email: {}", usuario.getEmail());
+            LOG.debug("   - CNPJ: {}", usuario.getCnpj());
 
-            // ========== STEP 7: VALIDAR SENHA COM BCRYPT ==========
-            System.out.println("⏳ Verificando senha com BCrypt...");
-            System.out.println("   - Senha digitada: ***");
-            System.out.println("   - Hash no banco: " + usuario.getSenha().substring(0, 20) + "...");
+            // ========== STEP 8: VALIDAR SENHA COM BCRYPT ==========
+            LOG.debug("⏳ Verificando senha com BCrypt...");
+            LOG.debug("   - Senha digitada: ***");
 
-            boolean senhaCorreta = BCrypt.checkpw(senha, usuario.getSenha());
+            // Executor próprio (HashSenha): BCrypt não ocupa a thread do Tomcat
+            boolean senhaCorreta = HashSenha.verificar(senha, usuario.getSenha());
 
             if (!senhaCorreta) {
-                System.err.println("❌ Senha incorreta!");
-                System.out.println("   Mensagem genérica (segurança)");
-                System.out.println("==========================================\n");
+                LOG.aviso("❌ Senha incorreta!");
+                LOG.debug("   Mensagem genérica (segurança)");
                 request.setAttribute("erro", "CPF ou senha incorretos");
                 request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
                 return;
             }
 
-            System.out.println("✅ Senha correta!");
+            LOG.debug("✅ Senha correta!");
 
-            // ========== STEP 8: CRIAR SESSÃO ==========
-            System.out.println("⏳ Criando sessão...");
-            HttpSession session = request.getSession();
-            session.setAttribute("usuario", usuario);
-            session.setMaxInactiveInterval(1800); // 30 minutos
+            // Hash com custo antigo → troca em segundo plano (não atrasa o login)
+            HashSenha.rehashSeNecessario(usuario.getIdUsuario(), senha, usuario.getSenha());
 
-            System.out.println("✅ Sessão criada:");
-            System.out.println("   - Session ID: " + session.getId());
-            System.out.println("   - Timeout: 1800s (30 min)");
-            System.out.println("   - Atributo 'usuario': " + usuario.getNome());
+            // ========== STEP 9: EMITIR TOKEN ==========
+            // Só id, nome e CNPJ: hash da senha e email não vão no token.
+            // Sem HttpSession: qualquer nó com o mesmo segredo valida.
+            FiltroAutenticacao.entrar(request, response, UsuarioSessao.de(usuario));
+            LOG.debug("✅ Token emitido para: {}", usuario.getNome());
 
-            // ========== STEP 9: REDIRECIONAR PARA DASHBOARD ==========
-            System.out.println("✅ LOGIN BEM-SUCEDIDO!");
-            System.out.println("➡️ Redirecionando para /dashboard");
-            System.out.println("==========================================\n");
+            // ========== STEP 10: REDIRECIONAR PARA DASHBOARD ==========
+            LOG.info("✅ LOGIN BEM-SUCEDIDO: usuário {}", usuario.getIdUsuario());
+            LOG.debug("➡️ Redirecionando para /dashboard");
 
             response.sendRedirect(request.getContextPath() + "/dashboard");
 
+        } catch (RejectedExecutionException e) {
+            // ========== FILA DE HASH CHEIA ==========
+            LOG.aviso("⚠️ Login recusado, hash de senha ocupado: {}", e.getMessage());
+
+            request.setAttribute("erro", "Sistema ocupado, tente novamente em instantes.");
+            request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
+
         } catch (Exception e) {
             // ========== TRATAMENTO DE ERRO ==========
-            System.err.println("❌ ERRO ao processar login:");
-            System.err.println("   Tipo: " + e.getClass().getName());
-            System.err.println("   Mensagem: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("==========================================\n");
+            LOG.erro("❌ ERRO ao processar login", e);
 
             request.setAttribute("erro", "Erro no sistema. Tente novamente.");
             request.getRequestDispatcher("/pages/login.jsp").forward(request, response);
@@ -438,18 +454,19 @@ public class LoginController extends HttpServlet {
        4. Valida formatos (11 e 14 dígitos)
        5. Valida senha (mínimo 6 caracteres)
        6. Valida confirmação de senha
-       7. Verifica se CPF já existe no banco
-       8. Verifica se email já existe (se informado)
-       9. Gera hash BCrypt da senha (salt 10)
+       7. Gera hash BCrypt da senha (custo calibrado, HashSenha), antes de pegar conexão
+       8. Verifica se CPF já existe no banco
+       9. Verifica se email já existe (se informado)
        10. Cria objeto Usuario
        11. Insere no banco via UsuarioDAO
        12. Redireciona para /login com sucesso
 
        Em caso de erro:
        - Volta para /cadastro com mensagem específica
+         (cookie MensagemFlash: o cadastro não cria HttpSession)
 
        SEGURANÇA:
-       ✅ Senha com hash BCrypt (salt 10)
+       ✅ Senha com hash BCrypt (custo calibrado, ver HashSenha)
        ✅ CPF único na base
        ✅ Email único na base
        ✅ PreparedStatement (via DAO)
@@ -458,7 +475,7 @@ public class LoginController extends HttpServlet {
     private void processarCadastro(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("📝 Iniciando processamento de CADASTRO");
+        LOG.debug("📝 Iniciando processamento de CADASTRO");
 
         // ========== STEP 1: RECEBER PARÂMETROS ==========
         String cpf = request.getParameter("cpf");
@@ -468,205 +485,210 @@ public class LoginController extends HttpServlet {
         String senha = request.getParameter("senha");
         String confirmarSenha = request.getParameter("confirmarSenha");
 
-        System.out.println("📋 Dados recebidos:");
-        System.out.println("   - CPF: " + cpf);
-        System.out.println("   - Nome: " + nome);
-        System.out.println("   - Email: " + email);
-        System.out.println("   - CNPJ: " + cnpj);
-        System.out.println("   - Senha: " + (senha != null ? "***" : "null"));
-        System.out.println("   - Confirmar: " + (confirmarSenha != null ? "***" : "null"));
+        LOG.debug("📋 Dados recebidos:");
+        LOG.debug("   - CPF: {}", cpf);
+        LOG.debug("   - Nome: {}", nome);
+        LOG.debug("   - Email: {}", email);
+        LOG.debug("   - CNPJ: {}", cnpj);
+        LOG.debug("   - Senha: {}", (senha != null ? "***" : "null"));
+        LOG.debug("   - Confirmar: {}", (confirmarSenha != null ? "***" : "null"));
 
-        HttpSession session = request.getSession();
+        // Sem HttpSession: as mensagens vão num cookie flash (MensagemFlash)
 
         // ========== STEP 2: VALIDAR CAMPOS OBRIGATÓRIOS ==========
 
         // Validação 1: CPF
         if (cpf == null || cpf.trim().isEmpty()) {
-            System.err.println("❌ CPF vazio!");
-            session.setAttribute("erro", "CPF é obrigatório!");
+            LOG.aviso("❌ CPF vazio!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "CPF é obrigatório!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
 
         // Validação 2: Nome
         if (nome == null || nome.trim().isEmpty()) {
-            System.err.println("❌ Nome vazio!");
-            session.setAttribute("erro", "Nome é obrigatório!");
+            LOG.aviso("❌ Nome vazio!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Nome é obrigatório!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
 
         // Validação 3: Senha
         if (senha == null || senha.isEmpty()) {
-            System.err.println("❌ Senha vazia!");
-            session.setAttribute("erro", "Senha é obrigatória!");
+            LOG.aviso("❌ Senha vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senha é obrigatória!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
 
         // Validação 4: Confirmação de senha
         if (confirmarSenha == null || confirmarSenha.isEmpty()) {
-            System.err.println("❌ Confirmação de senha vazia!");
-            session.setAttribute("erro", "Confirmação de senha é obrigatória!");
+            LOG.aviso("❌ Confirmação de senha vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Confirmação de senha é obrigatória!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
 
-        System.out.println("✅ Campos obrigatórios OK");
+        LOG.debug("✅ Campos obrigatórios OK");
 
         // ========== STEP 3: REMOVER MÁSCARAS ==========
 
         // CPF: 123.456.789-01 → 12345678901
         cpf = cpf.replaceAll("[^0-9]", "");
-        System.out.println("✅ CPF limpo: " + cpf);
+        LOG.debug("✅ CPF limpo: {}", cpf);
 
         // CNPJ: 12.345.678/0001-90 → 12345678000190 (se informado)
         if (cnpj != null && !cnpj.trim().isEmpty()) {
             cnpj = cnpj.replaceAll("[^0-9]", "");
-            System.out.println("✅ CNPJ limpo: " + cnpj);
+            LOG.debug("✅ CNPJ limpo: {}", cnpj);
         } else {
             cnpj = null;
-            System.out.println("ℹ️ CNPJ não informado (opcional)");
+            LOG.debug("ℹ️ CNPJ não informado (opcional)");
         }
 
         // ========== STEP 4: VALIDAR FORMATOS ==========
 
         // CPF deve ter exatamente 11 dígitos
         if (cpf.length() != 11) {
-            System.err.println("❌ CPF inválido: " + cpf.length() + " dígitos (esperado: 11)");
-            session.setAttribute("erro", "CPF deve ter 11 dígitos!");
+            LOG.aviso("❌ CPF inválido: {} dígitos (esperado: 11)", cpf.length());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "CPF deve ter 11 dígitos!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
-        System.out.println("✅ CPF com 11 dígitos");
+        LOG.debug("✅ CPF com 11 dígitos");
 
         // CNPJ deve ter exatamente 14 dígitos (se informado)
         if (cnpj != null && cnpj.length() != 14) {
-            System.err.println("❌ CNPJ inválido: " + cnpj.length() + " dígitos (esperado: 14)");
-            session.setAttribute("erro", "CNPJ deve ter 14 dígitos!");
+            LOG.aviso("❌ CNPJ inválido: {} dígitos (esperado: 14)", cnpj.length());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "CNPJ deve ter 14 dígitos!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
         if (cnpj != null) {
-            System.out.println("✅ CNPJ com 14 dígitos");
+            LOG.debug("✅ CNPJ com 14 dígitos");
         }
 
         // ========== STEP 5: VALIDAR SENHA ==========
 
         // Senha mínima: 6 caracteres
         if (senha.length() < 6) {
-            System.err.println("❌ Senha curta: " + senha.length() + " caracteres (mínimo: 6)");
-            session.setAttribute("erro", "Senha deve ter no mínimo 6 caracteres!");
+            LOG.aviso("❌ Senha curta: {} caracteres (mínimo: 6)", senha.length());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senha deve ter no mínimo 6 caracteres!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
-        System.out.println("✅ Senha com tamanho adequado");
+        LOG.debug("✅ Senha com tamanho adequado");
 
         // Confirmação deve coincidir
         if (!senha.equals(confirmarSenha)) {
-            System.err.println("❌ Senhas não coincidem!");
-            session.setAttribute("erro", "Senhas não coincidem!");
+            LOG.aviso("❌ Senhas não coincidem!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senhas não coincidem!");
             response.sendRedirect(request.getContextPath() + "/cadastro");
             return;
         }
-        System.out.println("✅ Confirmação de senha OK");
+        LOG.debug("✅ Confirmação de senha OK");
 
-        // ========== STEP 6: CONECTAR AO BANCO ==========
-        try (Connection conexao = Conexao.getConnection()) {
+        try {
+            // ========== STEP 6: GERAR HASH BCRYPT DA SENHA ==========
+            // Antes de pegar conexão: o BCrypt não segura vaga do pool
+            // durante as verificações e o INSERT
+            LOG.debug("⏳ Gerando hash BCrypt da senha...");
+            LOG.debug("   - Algoritmo: BCrypt");
+            LOG.debug("   - Custo: {} (calibrado na subida)", HashSenha.getCusto());
 
-            System.out.println("✅ Conexão com banco estabelecida");
-            UsuarioDAO usuarioDAO = new UsuarioDAO(conexao);
+            String senhaHash = HashSenha.gerarHash(senha);
 
-            // ========== STEP 7: VERIFICAR CPF ÚNICO ==========
-            System.out.println("⏳ Verificando se CPF já existe...");
-            System.out.println("   SQL: SELECT * FROM usuario WHERE cpf = ?");
-            System.out.println("   Parâmetro: " + cpf);
+            LOG.debug("✅ Hash gerado");
 
-            Usuario usuarioExistente = usuarioDAO.buscarPorCpf(cpf);
+            // ========== STEP 7: CONECTAR AO BANCO ==========
+            try (Connection conexao = Conexao.getConnection()) {
 
-            if (usuarioExistente != null) {
-                System.err.println("❌ CPF já cadastrado!");
-                System.out.println("   - ID existente: " + usuarioExistente.getIdUsuario());
-                System.out.println("   - Nome: " + usuarioExistente.getNome());
-                session.setAttribute("erro", "CPF já cadastrado no sistema!");
-                response.sendRedirect(request.getContextPath() + "/cadastro");
-                return;
-            }
+                LOG.debug("✅ Conexão com banco estabelecida");
+                UsuarioDAO usuarioDAO = new UsuarioDAO(conexao);
 
-            System.out.println("✅ CPF disponível");
+                // ========== STEP 8: VERIFICAR CPF ÚNICO ==========
+                LOG.debug("⏳ Verificando se CPF já existe...");
+                LOG.debug("   SQL: SELECT * FROM usuario WHERE cpf = ?");
+                LOG.debug("   Parâmetro: {}", cpf);
 
-            // ========== STEP 8: VERIFICAR EMAIL ÚNICO (se informado) ==========
-            if (email != null && !email.trim().isEmpty()) {
-                System.out.println("⏳ Verificando se email já existe...");
-                System.out.println("   SQL: SELECT * FROM usuario WHERE email = ?");
-                System.out.println("   Parâmetro: " + email);
+                Usuario usuarioExistente = usuarioDAO.buscarPorCpf(cpf);
 
-                Usuario usuarioEmail = usuarioDAO.buscarPorEmail(email);
-
-                if (usuarioEmail != null) {
-                    System.err.println("❌ Email já cadastrado!");
-                    System.out.println("   - ID existente: " + usuarioEmail.getIdUsuario());
-                    System.out.println("   - Nome: " + usuarioEmail.getNome());
-                    session.setAttribute("erro", "Email já cadastrado no sistema!");
+                if (usuarioExistente != null) {
+                    LOG.aviso("❌ CPF já cadastrado!");
+                    LOG.debug("   - ID existente: {}", usuarioExistente.getIdUsuario());
+                    LOG.debug("   - Nome: {}", usuarioExistente.getNome());
+                    MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "CPF já cadastrado no sistema!");
                     response.sendRedirect(request.getContextPath() + "/cadastro");
                     return;
                 }
 
-                System.out.println("✅ Email disponível");
-            }
-
-            // ========== STEP 9: GERAR HASH BCRYPT DA SENHA ==========
-            System.out.println("⏳ Gerando hash BCrypt da senha...");
-            System.out.println("   - Algoritmo: BCrypt");
-            System.out.println("   - Salt rounds: 10 (padrão)");
-
-            String senhaHash = BCrypt.hashpw(senha, BCrypt.gensalt());
-
-            System.out.println("✅ Hash gerado:");
-            System.out.println("   " + senhaHash.substring(0, 30) + "...");
+                LOG.debug("✅ CPF disponível");
 
-            // ========== STEP 10: CRIAR OBJETO USUARIO ==========
-            System.out.println("⏳ Criando objeto Usuario...");
+                // ========== STEP 9: VERIFICAR EMAIL ÚNICO (se informado) ==========
+                if (email != null && !email.trim().isEmpty()) {
+                    LOG.debug("⏳ Verificando se email já existe...");
+                    LOG.debug("   SQL: SELECT * FROM usuario WHERE email = ?");
+                    LOG.debug("   Parâmetro: {}", email);
 
-            Usuario usuario = new Usuario();
-            usuario.setCpf(cpf);
-            usuario.setNome(nome.trim());
-            usuario.setEmail(email != null && !email.trim().isEmpty() ? email.trim() : null);
-            usuario.setCnpj(cnpj);
-            usuario.setSenha(senhaHash);
+                    Usuario usuarioEmail = usuarioDAO.buscarPorEmail(email);
 
-            System.out.println("✅ Objeto criado:");
-            System.out.println("   - CPF: " + usuario.getCpf());
-            System.out.println("   - Nome: " + usuario.getNome());
-            System.out.println("   - Email: " + usuario.getEmail());
-            System.out.println("   - CNPJ: " + usuario.getCnpj());
-            System.out.println("   - Senha: [hash]");
+                    if (usuarioEmail != null) {
+                        LOG.aviso("❌ Email já cadastrado!");
+                        LOG.debug("   - ID existente: {}", usuarioEmail.getIdUsuario());
+                        LOG.debug("   - Nome: {}", usuarioEmail.getNome());
+                        MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Email já cadastrado no sistema!");
+                        response.sendRedirect(request.getContextPath() + "/cadastro");
+                        return;
+                    }
 
-            // ========== STEP 11: INSERIR NO BANCO ==========
-            System.out.println("⏳ Inserindo no banco de dados...");
-            System.out.println("   SQL: INSERT INTO usuario (cpf, nome, email, cnpj, senha) VALUES (?, ?, ?, ?, ?)");
+                    LOG.debug("✅ Email disponível");
+                }
 
-            usuarioDAO.inserir(usuario);
+                // ========== STEP 10: CRIAR OBJETO USUARIO ==========
+                LOG.debug("⏳ Criando objeto Usuario...");
+
+                Usuario usuario = new Usuario();
+                usuario.setCpf(cpf);
+                usuario.setNome(nome.trim());
+                usuario.setEmail(email != null && !email.trim().isEmpty() ? email.trim() : null);
+                usuario.setCnpj(cnpj);
+                usuario.setSenha(senhaHash);
+
+                LOG.debug("✅ Objeto criado:");
+                LOG.debug("   - CPF: {}", usuario.getCpf());
+                LOG.debug("   - Nome: {}", usuario.getNome());
+                LOG.debug("   - Email: {}", usuario.getEmail());
+                LOG.debug("   - CNPJ: {}", usuario.getCnpj());
+                LOG.debug("   - Senha: [hash]");
+
+                // ========== STEP 11: INSERIR NO BANCO ==========
+                LOG.debug("⏳ Inserindo no banco de dados...");
+                LOG.debug("   SQL: INSERT INTO usuario (cpf, nome, email, cnpj, senha) VALUES (?, ?, ?, ?, ?)");
+
+                usuarioDAO.inserir(usuario);
+
+                LOG.info("✅ CADASTRO BEM-SUCEDIDO: usuário {}", usuario.getIdUsuario());
+                LOG.debug("   - ID gerado: {}", usuario.getIdUsuario());
+                LOG.debug("   - CPF: {}", usuario.getCpf());
+                LOG.debug("   - Nome: {}", usuario.getNome());
+
+                // ========== STEP 12: REDIRECIONAR PARA LOGIN ==========
+                MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Cadastro realizado com sucesso! Faça login.");
+                response.sendRedirect(request.getContextPath() + "/login");
+            }
 
-            System.out.println("✅ CADASTRO BEM-SUCEDIDO!");
-            System.out.println("   - ID gerado: " + usuario.getIdUsuario());
-            System.out.println("   - CPF: " + usuario.getCpf());
-            System.out.println("   - Nome: " + usuario.getNome());
-            System.out.println("==========================================\n");
+        } catch (RejectedExecutionException e) {
+            // ========== FILA DE HASH CHEIA ==========
+            LOG.aviso("⚠️ Cadastro recusado, hash de senha ocupado: {}", e.getMessage());
 
-            // ========== STEP 12: REDIRECIONAR PARA LOGIN ==========
-            session.setAttribute("sucesso", "Cadastro realizado com sucesso! Faça login.");
-            response.sendRedirect(request.getContextPath() + "/login");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Sistema ocupado, tente novamente em instantes.");
+            response.sendRedirect(request.getContextPath() + "/cadastro");
 
         } catch (Exception e) {
             // ========== TRATAMENTO DE ERRO ==========
-            System.err.println("❌ ERRO ao processar cadastro:");
-            System.err.println("   Tipo: " + e.getClass().getName());
-            System.err.println("   Mensagem: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("==========================================\n");
+            LOG.erro("❌ ERRO ao processar cadastro", e);
 
-            session.setAttribute("erro", "Erro ao cadastrar: " + e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao cadastrar: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/cadastro");
         }
     }
@@ -678,11 +700,11 @@ public class LoginController extends HttpServlet {
        URL: GET /logout
 
        Comportamento:
-       1. Invalida a sessão atual
-       2. Remove todos os atributos
+       1. Revoga o token (RevogacaoTokens, vale em todos os nós)
+       2. Apaga o cookie e invalida sessão antiga, se houver
        3. Redireciona para /login
 
-       Não requer autenticação (pode executar mesmo sem sessão)
+       Não requer autenticação (pode executar mesmo sem token)
 
        IMPORTANTE: Sempre redireciona para /login, nunca exibe página
     */
@@ -690,36 +712,31 @@ public class LoginController extends HttpServlet {
     private void executarLogout(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("🚪 Iniciando LOGOUT");
-
-        // ========== STEP 1: OBTER SESSÃO (sem criar nova) ==========
-        HttpSession session = request.getSession(false);
+        LOG.debug("🚪 Iniciando LOGOUT");
 
-        // ========== STEP 2: INVALIDAR SESSÃO (se existir) ==========
-        if (session != null) {
-            Usuario usuario = (Usuario) session.getAttribute("usuario");
+        // ========== STEP 1: REVOGAR TOKEN (se existir) ==========
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-            if (usuario != null) {
-                System.out.println("👤 Usuário a deslogar:");
-                System.out.println("   - ID: " + usuario.getIdUsuario());
-                System.out.println("   - Nome: " + usuario.getNome());
-                System.out.println("   - CPF: " + usuario.getCpf());
-            }
+        if (usuario != null) {
+            LOG.debug("👤 Usuário a deslogar:");
+            LOG.debug("   - ID: {}", usuario.getIdUsuario());
+            LOG.debug("   - Nome: {}", usuario.getNome());
+        } else {
+            LOG.debug("ℹ️ Nenhum token ativo para revogar");
+        }
 
-            System.out.println("⏳ Invalidando sessão...");
-            System.out.println("   - Session ID: " + session.getId());
+        FiltroAutenticacao.sair(request, response);
 
+        // ========== STEP 2: INVALIDAR SESSÃO ANTIGA (se existir) ==========
+        // Sobra de antes do token (ou de outra parte do container)
+        HttpSession session = request.getSession(false);
+        if (session != null) {
             session.invalidate();
-
-            System.out.println("✅ Sessão invalidada com sucesso");
-
-        } else {
-            System.out.println("ℹ️ Nenhuma sessão ativa para invalidar");
+            LOG.debug("✅ Sessão antiga invalidada");
         }
 
         // ========== STEP 3: REDIRECIONAR PARA LOGIN ==========
-        System.out.println("➡️ Redirecionando para /login");
-        System.out.println("==========================================\n");
+        LOG.debug("➡️ Redirecionando para /login");
 
         response.sendRedirect(request.getContextPath() + "/login");
     }
@@ -734,7 +751,7 @@ public class LoginController extends HttpServlet {
    2. POST /login     → Autentica usuário (CPF + senha)
    3. GET  /cadastro  → Exibe formulário cadastro.jsp
    4. POST /cadastro  → Cria novo usuário
-   5. GET  /logout    → Encerra sessão
+   5. GET  /logout    → Revoga o token
 
    CAMPOS DO FORMULÁRIO DE LOGIN:
    - cpf (com ou sem máscara)
@@ -756,16 +773,16 @@ public class LoginController extends HttpServlet {
    ✅ Confirmação: deve coincidir
 
    SEGURANÇA:
-   ✅ BCrypt para senhas (salt 10)
+   ✅ BCrypt para senhas (custo calibrado, ver HashSenha)
    ✅ PreparedStatement (via DAO)
    ✅ Mensagens genéricas (não revela CPF existe)
-   ✅ Sessão com timeout 30 minutos
+   ✅ Token HMAC com validade de 30 minutos (deslizante)
    ✅ Máscaras removidas antes de salvar
 
-   SESSÃO CRIADA NO LOGIN:
-   - Atributo: "usuario" (objeto Usuario)
-   - Timeout: 1800 segundos (30 minutos)
-   - Inativa após timeout ou logout
+   TOKEN EMITIDO NO LOGIN (FiltroAutenticacao):
+   - Cookie mei_auth com o UsuarioSessao assinado (o resto via CacheUsuarios)
+   - Validade: 30 minutos, renovada pelo filtro enquanto houver uso
+   - Inválido após a validade, 12 h do login ou logout (revogação)
 
    EXEMPLOS DE USO:
    ```
@@ -784,7 +801,7 @@ public class LoginController extends HttpServlet {
 
    MENSAGENS DE ERRO/SUCESSO:
    - Via request.setAttribute("erro", "...")
-   - Via session.setAttribute("sucesso", "...")
+   - Via MensagemFlash (cookie) nos redirects do cadastro
    - Exibidas nos JSPs
 
    DEPENDÊNCIAS:
@@ -0,0 +1,108 @@
+package br.com.projeto.controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import br.com.projeto.model.UsuarioSessao;
+import br.com.projeto.utils.ContadorSessoes;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.LimiteTentativas;
+import br.com.projeto.utils.Log;
+
+/**
+ * ================================================================
+ * METRICAS CONTROLLER - Contadores de runtime em JSON
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Alguns utilitários só escreviam suas métricas no log ao desligar
+ * (ConexaoListener). Aqui elas ficam visíveis com a aplicação no ar,
+ * no mesmo formato de GET /relatorio/fila.
+ *
+ * ROTAS:
+ * - GET /metricas/login → Limite de tentativas de login, por CPF e
+ *                         por IP (aceitas, recusadas, baldes, varridos)
+ * - GET /metricas/sessoes → HttpSession criadas, total e por rota
+ *                         (páginas públicas devem ficar de fora)
+ *
+ * Exige login, como /relatorio/fila. Os valores são do nó que
+ * respondeu (cada Tomcat conta os seus).
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see LimiteTentativas
+ * @see ContadorSessoes
+ */
+@WebServlet(urlPatterns = {"/metricas/login", "/metricas/sessoes"})
+public class MetricasController extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    private static final Log LOG = Log.para(MetricasController.class);
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
+
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+
+        // ========== STEP 2: DESPACHAR PELA ROTA ==========
+        switch (request.getServletPath()) {
+            case "/metricas/login":
+                enviarJson(response, "{\"cpf\":" + limiteJson(LimiteTentativas.getEstatisticasPorCpf())
+                        + ",\"ip\":" + limiteJson(LimiteTentativas.getEstatisticasPorIp()) + "}");
+                return;
+            case "/metricas/sessoes":
+                enviarJson(response, sessoesJson(ContadorSessoes.getPorRota()));
+                return;
+            default:
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    /* ================================================================
+       AUXILIARES
+       ================================================================ */
+
+    private static String limiteJson(LimiteTentativas.Estatisticas e) {
+        return "{\"aceitas\":" + e.getAceitas() +
+                ",\"recusadas\":" + e.getRecusadas() +
+                ",\"baldes\":" + e.getBaldes() +
+                ",\"varridos\":" + e.getVarridos() + "}";
+    }
+
+    private static String sessoesJson(Map<String, Long> porRota) {
+        StringBuilder rotas = new StringBuilder();
+        long total = 0;
+        for (Map.Entry<String, Long> e : porRota.entrySet()) {
+            if (rotas.length() > 0) {
+                rotas.append(',');
+            }
+            rotas.append('"').append(escaparJson(e.getKey())).append("\":").append(e.getValue());
+            total += e.getValue();
+        }
+        return "{\"total\":" + total + ",\"porRota\":{" + rotas + "}}";
+    }
+
+    private static void enviarJson(HttpServletResponse response, String json) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json; charset=UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.getWriter().write(json);
+    }
+
+    private static String escaparJson(String texto) {
+        return texto.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", " ").replace("\r", " ");
+    }
+}
@@ -2,19 +2,23 @@ package br.com.projeto.controller;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.util.concurrent.RejectedExecutionException;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
-
-import org.mindrot.jbcrypt.BCrypt;
 
 import br.com.projeto.model.Usuario;
+import br.com.projeto.model.UsuarioSessao;
 import br.com.projeto.dao.UsuarioDAO;
+import br.com.projeto.utils.CacheUsuarios;
 import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.HashSenha;
+import br.com.projeto.utils.Log;
+import br.com.projeto.utils.MensagemFlash;
 
 /**
  * ================================================================
@@ -43,6 +47,12 @@ import br.com.projeto.utils.Conexao;
  * ✅ Logs detalhados
  * ✅ Validações robustas
  *
+ * AUTENTICAÇÃO:
+ * O token (FiltroAutenticacao) só tem o UsuarioSessao (id, nome,
+ * CNPJ). O Usuario completo vem do CacheUsuarios a cada requisição;
+ * depois de salvar, o cache é invalidado e o token é reemitido.
+ * Trocar a senha revoga os outros tokens do usuário.
+ *
  * @author Sistema MEI
  * @version 2.0 - Com persistência no banco
  */
@@ -50,6 +60,8 @@ import br.com.projeto.utils.Conexao;
 public class PerfilController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    private static final Log LOG = Log.para(PerfilController.class);
+
     /* ================================================================
        MÉTODO GET - Exibir Perfil
        ================================================================
@@ -67,25 +79,39 @@ public class PerfilController extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== PERFIL GET ==========");
+        LOG.debug("========== PERFIL GET ==========");
+
+        // ========== VALIDAR AUTENTICAÇÃO ==========
+        UsuarioSessao logado = FiltroAutenticacao.usuario(request);
+
+        if (logado == null) {
+            LOG.aviso("❌ Usuário não logado");
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
 
-        // ========== VALIDAR SESSÃO ==========
-        HttpSession session = request.getSession(false);
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
+        // ========== CARREGAR USUÁRIO COMPLETO (email, CPF) ==========
+        Usuario usuario;
+        try {
+            usuario = carregarUsuario(logado);
+        } catch (Exception e) {
+            throw new ServletException("Erro ao carregar perfil do usuário " + logado.getIdUsuario(), e);
+        }
 
         if (usuario == null) {
-            System.err.println("❌ Usuário não logado");
-            System.out.println("================================\n");
+            LOG.aviso("❌ Usuário {} não existe mais", logado.getIdUsuario());
+            FiltroAutenticacao.sair(request, response);
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        System.out.println("✅ Usuário: " + usuario.getNome());
-        System.out.println("📧 Email: " + usuario.getEmail());
-        System.out.println("🏢 CNPJ: " + usuario.getCnpj());
-        System.out.println("================================\n");
+        LOG.debug("✅ Usuário: {}", usuario.getNome());
+        LOG.debug("📧 Email: {}", usuario.getEmail());
+        LOG.debug("🏢 CNPJ: {}", usuario.getCnpj());
 
         // ========== EXIBIR PERFIL ==========
+        // "usuario" é o UsuarioSessao do token; o cadastro completo vai como "perfil"
+        request.setAttribute("perfil", usuario);
         request.getRequestDispatcher("/pages/perfil.jsp").forward(request, response);
     }
 
@@ -102,46 +128,58 @@ public class PerfilController extends HttpServlet {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== PERFIL POST ==========");
+        LOG.debug("========== PERFIL POST ==========");
 
-        // ========== VALIDAR SESSÃO ==========
-        HttpSession session = request.getSession(false);
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
+        // ========== VALIDAR AUTENTICAÇÃO ==========
+        UsuarioSessao logado = FiltroAutenticacao.usuario(request);
 
-        if (usuario == null) {
-            System.err.println("❌ Usuário não logado");
-            System.out.println("=================================\n");
+        if (logado == null) {
+            LOG.aviso("❌ Usuário não logado");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
         // ========== ROTEAMENTO POR AÇÃO ==========
         String acao = request.getParameter("acao");
-        System.out.println("📋 Ação: " + (acao != null ? acao : "atualizarDados (padrão)"));
+        LOG.debug("📋 Ação: {}", (acao != null ? acao : "atualizarDados (padrão)"));
 
         try {
+            // Cópia do cache: alterações só valem depois de salvas
+            Usuario usuario = carregarUsuario(logado);
+            if (usuario == null) {
+                LOG.aviso("❌ Usuário {} não existe mais", logado.getIdUsuario());
+                FiltroAutenticacao.sair(request, response);
+                response.sendRedirect(request.getContextPath() + "/login");
+                return;
+            }
+
             if (acao == null || acao.isEmpty() || acao.equals("atualizarDados")) {
-                System.out.println("🔀 Roteando para: editarDados()");
-                editarDados(request, response, usuario, session);
+                LOG.debug("🔀 Roteando para: editarDados()");
+                editarDados(request, response, usuario);
 
             } else if (acao.equals("alterarSenha")) {
-                System.out.println("🔀 Roteando para: alterarSenha()");
-                alterarSenha(request, response, usuario, session);
+                LOG.debug("🔀 Roteando para: alterarSenha()");
+                try {
+                    alterarSenha(request, response, usuario);
+                } catch (RejectedExecutionException e) {
+                    // Fila de hash cheia (HashSenha): nada foi alterado
+                    LOG.aviso("⚠️ Alteração de senha recusada, hash ocupado: {}", e.getMessage());
+                    MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Sistema ocupado, tente novamente em instantes.");
+                    response.sendRedirect(request.getContextPath() + "/perfil");
+                }
 
             } else if (acao.equals("atualizarMEI")) {
-                System.out.println("🔀 Roteando para: atualizarMEI()");
-                atualizarMEI(request, response, usuario, session);
+                LOG.debug("🔀 Roteando para: atualizarMEI()");
+                atualizarMEI(request, response, usuario);
 
             } else {
-                System.err.println("❌ Ação inválida: " + acao);
-                session.setAttribute("erro", "Ação inválida");
+                LOG.aviso("❌ Ação inválida: {}", acao);
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Ação inválida");
                 response.sendRedirect(request.getContextPath() + "/perfil");
             }
         } catch (Exception e) {
-            System.err.println("❌ ERRO ao processar ação:");
-            e.printStackTrace();
-            System.out.println("=================================\n");
-            session.setAttribute("erro", "Erro: " + e.getMessage());
+            LOG.erro("❌ ERRO ao processar ação", e);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/perfil");
         }
     }
@@ -160,38 +198,39 @@ public class PerfilController extends HttpServlet {
        Fluxo:
        1. Valida campos
        2. Atualiza objeto Usuario
-       3. ✅ SALVA NO BANCO (via UsuarioDAO)
-       4. Atualiza sessão
+       3. ✅ SALVA NO BANCO (UsuarioDAO.editar: nome, email e CNPJ;
+          a senha não é regravada)
+       4. Invalida o CacheUsuarios e reemite o token (nome/CNPJ novos)
        5. Redireciona com mensagem
     */
 
     private void editarDados(HttpServletRequest request, HttpServletResponse response,
-                             Usuario usuario, HttpSession session) throws Exception {
+                             Usuario usuario) throws Exception {
 
-        System.out.println("📝 Iniciando edição de dados");
+        LOG.debug("📝 Iniciando edição de dados");
 
         // ========== LER PARÂMETROS ==========
         String nome = request.getParameter("nome");
         String email = request.getParameter("email");
         String cnpj = request.getParameter("cnpj");
 
-        System.out.println("📋 Dados recebidos:");
-        System.out.println("   - Nome: " + nome);
-        System.out.println("   - Email: " + email);
-        System.out.println("   - CNPJ: " + cnpj);
+        LOG.debug("📋 Dados recebidos:");
+        LOG.debug("   - Nome: {}", nome);
+        LOG.debug("   - Email: {}", email);
+        LOG.debug("   - CNPJ: {}", cnpj);
 
         // ========== VALIDAÇÃO 1: NOME ==========
         if (nome == null || nome.trim().isEmpty()) {
-            System.err.println("❌ Nome vazio!");
-            session.setAttribute("erro", "Nome não pode estar vazio");
+            LOG.aviso("❌ Nome vazio!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Nome não pode estar vazio");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
 
         // ========== VALIDAÇÃO 2: EMAIL ==========
         if (email == null || email.trim().isEmpty() || !email.contains("@")) {
-            System.err.println("❌ Email inválido!");
-            session.setAttribute("erro", "Email inválido");
+            LOG.aviso("❌ Email inválido!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Email inválido");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
@@ -199,12 +238,12 @@ public class PerfilController extends HttpServlet {
         // ========== LIMPAR CNPJ (remover máscara) ==========
         if (cnpj != null && !cnpj.trim().isEmpty()) {
             cnpj = cnpj.replaceAll("[^0-9]", "");
-            System.out.println("✅ CNPJ limpo: " + cnpj);
+            LOG.debug("✅ CNPJ limpo: {}", cnpj);
 
             // Validar 14 dígitos
             if (cnpj.length() != 14) {
-                System.err.println("❌ CNPJ inválido: " + cnpj.length() + " dígitos");
-                session.setAttribute("erro", "CNPJ deve ter 14 dígitos!");
+                LOG.aviso("❌ CNPJ inválido: {} dígitos", cnpj.length());
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "CNPJ deve ter 14 dígitos!");
                 response.sendRedirect(request.getContextPath() + "/perfil");
                 return;
             }
@@ -213,35 +252,35 @@ public class PerfilController extends HttpServlet {
         }
 
         // ========== ATUALIZAR OBJETO ==========
-        System.out.println("⏳ Atualizando objeto Usuario...");
+        LOG.debug("⏳ Atualizando objeto Usuario...");
         usuario.setNome(nome.trim());
         usuario.setEmail(email.trim());
         usuario.setCnpj(cnpj);
 
         // ========== PERSISTIR NO BANCO ==========
-        System.out.println("💾 Salvando no banco de dados...");
+        LOG.debug("💾 Salvando no banco de dados...");
 
         try (Connection conexao = Conexao.getConnection()) {
 
+            // Só nome, email e CNPJ: a senha (e um rehash ou troca de
+            // senha concorrente) não é tocada pela cópia do cache
             UsuarioDAO usuarioDAO = new UsuarioDAO(conexao);
             usuarioDAO.editar(usuario);
 
-            System.out.println("✅ Dados salvos no banco com sucesso!");
+            LOG.info("✅ Perfil do usuário {} salvo", usuario.getIdUsuario());
+            CacheUsuarios.invalidar(usuario.getIdUsuario());
 
-            // ========== ATUALIZAR SESSÃO ==========
-            session.setAttribute("usuario", usuario);
-            System.out.println("✅ Sessão atualizada");
-            System.out.println("=================================\n");
+            // ========== ATUALIZAR TOKEN (nome/CNPJ da topbar) ==========
+            FiltroAutenticacao.atualizar(request, response, UsuarioSessao.de(usuario));
+            LOG.debug("✅ Token atualizado");
 
-            session.setAttribute("sucesso", "Dados atualizados com sucesso!");
+            MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Dados atualizados com sucesso!");
             response.sendRedirect(request.getContextPath() + "/perfil");
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO ao salvar no banco:");
-            e.printStackTrace();
-            System.out.println("=================================\n");
+            LOG.erro("❌ ERRO ao salvar no banco", e);
 
-            session.setAttribute("erro", "Erro ao salvar dados: " + e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao salvar dados: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/perfil");
         }
     }
@@ -258,102 +297,113 @@ public class PerfilController extends HttpServlet {
        - confirmarSenha (obrigatório, deve coincidir)
 
        Fluxo:
-       1. Valida senha atual com BCrypt
+       1. Valida senha atual com BCrypt, contra o hash lido do banco
+          agora (o do CacheUsuarios pode ter até 5 minutos)
        2. Valida nova senha (mínimo 6 caracteres)
        3. Valida confirmação
        4. Gera hash BCrypt da nova senha
-       5. ✅ SALVA NO BANCO (via UsuarioDAO)
-       6. Atualiza sessão
+       5. ✅ SALVA NO BANCO só a senha (UsuarioDAO.atualizarSenha), e só
+          se o hash ainda for o verificado no passo 1
+       6. Invalida o CacheUsuarios (o token não guarda a senha)
        7. Redireciona com mensagem
     */
 
     private void alterarSenha(HttpServletRequest request, HttpServletResponse response,
-                              Usuario usuario, HttpSession session) throws Exception {
+                              Usuario usuario) throws Exception {
 
-        System.out.println("🔐 Iniciando alteração de senha");
+        LOG.debug("🔐 Iniciando alteração de senha");
 
         // ========== LER PARÂMETROS ==========
         String senhaAtual = request.getParameter("senhaAtual");
         String novaSenha = request.getParameter("novaSenha");
         String confirmarSenha = request.getParameter("confirmarSenha");
 
-        System.out.println("📋 Senha atual fornecida: " + (senhaAtual != null ? "***" : "null"));
-        System.out.println("📋 Nova senha fornecida: " + (novaSenha != null ? "***" : "null"));
+        LOG.debug("📋 Senha atual fornecida: {}", (senhaAtual != null ? "***" : "null"));
+        LOG.debug("📋 Nova senha fornecida: {}", (novaSenha != null ? "***" : "null"));
 
         // ========== VALIDAÇÃO 1: SENHA ATUAL FORNECIDA ==========
         if (senhaAtual == null || senhaAtual.isEmpty()) {
-            System.err.println("❌ Senha atual vazia!");
-            session.setAttribute("erro", "Senha atual é obrigatória");
+            LOG.aviso("❌ Senha atual vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senha atual é obrigatória");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
 
         // ========== VALIDAÇÃO 2: SENHA ATUAL CORRETA ==========
-        System.out.println("⏳ Verificando senha atual com BCrypt...");
-        if (!BCrypt.checkpw(senhaAtual, usuario.getSenha())) {
-            System.err.println("❌ Senha atual incorreta!");
-            session.setAttribute("erro", "Senha atual incorreta");
+        // Hash relido do banco; a conexão volta ao pool antes do BCrypt
+        String hashAtual;
+        try (Connection conexao = Conexao.getConnection()) {
+            Usuario atual = new UsuarioDAO(conexao).buscarPorId(usuario.getIdUsuario());
+            hashAtual = atual != null ? atual.getSenha() : null;
+        }
+
+        LOG.debug("⏳ Verificando senha atual com BCrypt...");
+        if (hashAtual == null || !HashSenha.verificar(senhaAtual, hashAtual)) {
+            LOG.aviso("❌ Senha atual incorreta!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senha atual incorreta");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
-        System.out.println("✅ Senha atual correta");
+        LOG.debug("✅ Senha atual correta");
 
         // ========== VALIDAÇÃO 3: NOVA SENHA FORNECIDA ==========
         if (novaSenha == null || novaSenha.isEmpty()) {
-            System.err.println("❌ Nova senha vazia!");
-            session.setAttribute("erro", "Nova senha é obrigatória");
+            LOG.aviso("❌ Nova senha vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Nova senha é obrigatória");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
 
         // ========== VALIDAÇÃO 4: TAMANHO MÍNIMO ==========
         if (novaSenha.length() < 6) {
-            System.err.println("❌ Senha curta: " + novaSenha.length() + " caracteres");
-            session.setAttribute("erro", "Senha deve ter no mínimo 6 caracteres");
+            LOG.aviso("❌ Senha curta: {} caracteres", novaSenha.length());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senha deve ter no mínimo 6 caracteres");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
 
         // ========== VALIDAÇÃO 5: CONFIRMAÇÃO ==========
         if (!novaSenha.equals(confirmarSenha)) {
-            System.err.println("❌ Senhas não conferem!");
-            session.setAttribute("erro", "Senhas não conferem");
+            LOG.aviso("❌ Senhas não conferem!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Senhas não conferem");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
 
         // ========== GERAR HASH BCRYPT ==========
-        System.out.println("⏳ Gerando hash BCrypt...");
-        String novaSenhaHash = BCrypt.hashpw(novaSenha, BCrypt.gensalt());
-        System.out.println("✅ Hash gerado: " + novaSenhaHash.substring(0, 20) + "...");
-
-        // ========== ATUALIZAR OBJETO ==========
-        usuario.setSenha(novaSenhaHash);
+        LOG.debug("⏳ Gerando hash BCrypt...");
+        String novaSenhaHash = HashSenha.gerarHash(novaSenha);
+        LOG.debug("✅ Hash gerado");
 
         // ========== PERSISTIR NO BANCO ==========
-        System.out.println("💾 Salvando nova senha no banco...");
+        LOG.debug("💾 Salvando nova senha no banco...");
 
         try (Connection conexao = Conexao.getConnection()) {
 
+            // Só a senha, e só se ninguém a trocou depois da verificação
             UsuarioDAO usuarioDAO = new UsuarioDAO(conexao);
-            usuarioDAO.editar(usuario);
+            boolean alterada = usuarioDAO.atualizarSenha(usuario.getIdUsuario(), hashAtual, novaSenhaHash);
+            CacheUsuarios.invalidar(usuario.getIdUsuario());
 
-            System.out.println("✅ Senha salva no banco com sucesso!");
+            if (!alterada) {
+                LOG.aviso("⚠️ Senha do usuário {} mudou durante a alteração", usuario.getIdUsuario());
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "A senha foi alterada em outra sessão. Tente novamente.");
+                response.sendRedirect(request.getContextPath() + "/perfil");
+                return;
+            }
 
-            // ========== ATUALIZAR SESSÃO ==========
-            session.setAttribute("usuario", usuario);
-            System.out.println("✅ Sessão atualizada");
-            System.out.println("=================================\n");
+            LOG.info("✅ Senha do usuário {} alterada", usuario.getIdUsuario());
 
-            session.setAttribute("sucesso", "Senha alterada com sucesso!");
+            // Outros dispositivos logados com a senha antiga saem
+            FiltroAutenticacao.senhaAlterada(request, response, usuario.getIdUsuario());
+
+            MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Senha alterada com sucesso!");
             response.sendRedirect(request.getContextPath() + "/perfil");
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO ao salvar senha no banco:");
-            e.printStackTrace();
-            System.out.println("=================================\n");
+            LOG.erro("❌ ERRO ao salvar senha no banco", e);
 
-            session.setAttribute("erro", "Erro ao alterar senha: " + e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao alterar senha: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/perfil");
         }
     }
@@ -379,37 +429,51 @@ public class PerfilController extends HttpServlet {
     */
 
     private void atualizarMEI(HttpServletRequest request, HttpServletResponse response,
-                              Usuario usuario, HttpSession session) throws Exception {
+                              Usuario usuario) throws Exception {
 
-        System.out.println("🏢 Iniciando atualização de dados MEI");
+        LOG.debug("🏢 Iniciando atualização de dados MEI");
 
         // ========== LER PARÂMETROS ==========
         String atividade = request.getParameter("atividade");
         String cnae = request.getParameter("cnae");
 
-        System.out.println("📋 Dados MEI:");
-        System.out.println("   - Atividade: " + atividade);
-        System.out.println("   - CNAE: " + cnae);
+        LOG.debug("📋 Dados MEI:");
+        LOG.debug("   - Atividade: {}", atividade);
+        LOG.debug("   - CNAE: {}", cnae);
 
         // ========== VALIDAÇÃO: ATIVIDADE ==========
         if (atividade == null || atividade.isEmpty()) {
-            System.err.println("❌ Atividade vazia!");
-            session.setAttribute("erro", "Atividade é obrigatória");
+            LOG.aviso("❌ Atividade vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Atividade é obrigatória");
             response.sendRedirect(request.getContextPath() + "/perfil");
             return;
         }
 
         // ========== TODO: IMPLEMENTAR PERSISTÊNCIA ==========
-        System.err.println("⚠️ AVISO: Persistência de MEI não implementada ainda!");
-        System.err.println("   Necessário:");
-        System.err.println("   1. Adicionar campos atividade, cnae na tabela usuario");
-        System.err.println("   2. Adicionar getters/setters no Usuario.java");
-        System.err.println("   3. Atualizar UsuarioDAO.editar()");
-        System.out.println("=================================\n");
-
-        session.setAttribute("sucesso", "Dados do MEI atualizados!");
+        LOG.aviso("⚠️ AVISO: Persistência de MEI não implementada ainda!");
+        LOG.aviso("   Necessário:");
+        LOG.aviso("   1. Adicionar campos atividade, cnae na tabela usuario");
+        LOG.aviso("   2. Adicionar getters/setters no Usuario.java");
+        LOG.aviso("   3. Atualizar UsuarioDAO.editar()");
+
+        MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Dados do MEI atualizados!");
         response.sendRedirect(request.getContextPath() + "/perfil");
     }
+
+    /* ================================================================
+       AUXILIAR
+       ================================================================ */
+
+    /**
+     * Usuario completo (cópia do CacheUsuarios).
+     *
+     * @return Usuario ou null se foi excluído
+     */
+    private static Usuario carregarUsuario(UsuarioSessao logado) throws Exception {
+        try (Connection conexao = Conexao.getConnection()) {
+            return CacheUsuarios.buscar(conexao, logado.getIdUsuario());
+        }
+    }
 }
 
 /* ================================================================
@@ -445,13 +509,13 @@ public class PerfilController extends HttpServlet {
    ```
 
    SEGURANÇA:
-   ✅ Validação de sessão
+   ✅ Validação do token (FiltroAutenticacao)
    ✅ BCrypt para senhas
    ✅ PreparedStatement (via DAO)
    ✅ Validação de dados
 
    OBSERVAÇÕES:
    - Conexão fecha automaticamente (try-with-resources)
-   - Dados salvos no banco E na sessão
-   - Mensagens de erro/sucesso via sessão
+   - Dados salvos no banco; o token leva só o UsuarioSessao
+   - Mensagens de erro/sucesso via MensagemFlash (cookie)
    ================================================================ */
\ No newline at end of file
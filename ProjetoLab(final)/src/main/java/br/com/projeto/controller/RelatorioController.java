@@ -1,23 +1,25 @@
 package br.com.projeto.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.sql.Connection;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.concurrent.RejectedExecutionException;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
-import br.com.projeto.dao.VendasDAO;
-import br.com.projeto.model.Usuario;
-import br.com.projeto.model.Vendas;
-import br.com.projeto.utils.Conexao;
+import br.com.projeto.model.JobRelatorio;
+import br.com.projeto.model.UsuarioSessao;
+import br.com.projeto.utils.FilaRelatorios;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.MensagemFlash;
 import br.com.projeto.utils.RelatorioPDF;
+import br.com.projeto.utils.Log;
 
 /**
  * ================================================================
@@ -30,16 +32,28 @@ import br.com.projeto.utils.RelatorioPDF;
  *
  * FUNCIONALIDADES:
  * 1. Exibir formulário de seleção (mês/ano)
- * 2. Gerar PDF com vendas do período
- * 3. Download automático do arquivo
+ * 2. Enfileirar a geração do PDF (FilaRelatorios)
+ * 3. Acompanhar o job e baixar o arquivo quando pronto
  *
  * ROTAS:
- * - GET  /relatorio → Exibe formulário (relatorio.jsp)
- * - POST /relatorio → Gera e baixa PDF
+ * - GET  /relatorio               → Exibe formulário (relatorio.jsp)
+ * - GET  /relatorio?job=ID        → Formulário + situação do job
+ * - POST /relatorio               → Enfileira PDF, redireciona para ?job=ID
+ * - GET  /relatorio/status?job=ID → Situação do job (JSON)
+ * - GET  /relatorio/download?job=ID → Baixa o PDF pronto
+ * - GET  /relatorio/fila          → Métricas da fila (JSON)
  *
  * PARÂMETROS DO FORMULÁRIO (POST):
- * - mes* (obrigatório): 1-12
+ * - mes* (obrigatório): 1-12, ou 0 = ano inteiro (DASN-SIMEI)
  * - ano* (obrigatório): ano válido
+ * - resumido (opcional): "1" → PDF só com os totais, sem a lista de vendas
+ * - formato (opcional): "json" → responde {"job":"ID"} em vez de redirecionar
+ *
+ * POR QUE ASSÍNCRONO:
+ * Gerar o PDF dentro da requisição prendia uma thread do Tomcat e
+ * uma conexão do pool durante toda a montagem do arquivo. No pico
+ * (fim do mês) isso derrubava o resto do sistema. Agora o POST só
+ * enfileira e a geração roda em poucos workers dedicados.
  *
  * CONTEÚDO DO PDF:
  * 1. Cabeçalho:
@@ -62,60 +76,61 @@ import br.com.projeto.utils.RelatorioPDF;
  *    - Total sem NF
  *
  * VALIDAÇÕES:
- * - Mês entre 1 e 12
+ * - Mês entre 0 (anual) e 12
  * - Ano numérico válido
- * - Pelo menos 1 venda no período
+ * - Pelo menos 1 venda no período (verificado pelo worker → job ERRO)
+ * - Só o dono do job consulta/baixa
  *
  * FLUXO GET:
  * 1. Valida autenticação
- * 2. Exibe formulário de seleção
+ * 2. Se houver ?job=ID, carrega o job (request "job")
+ * 3. Exibe formulário de seleção
  *
  * FLUXO POST:
  * 1. Valida autenticação
  * 2. Valida parâmetros (mês, ano)
- * 3. Busca vendas no período
- * 4. Valida se há vendas
- * 5. Calcula totalizadores
- * 6. Gera PDF (RelatorioPDF)
- * 7. Configura headers HTTP
- * 8. Envia arquivo para download
+ * 3. Enfileira job (fila cheia → mensagem "tente novamente")
+ * 4. Redireciona para /relatorio?job=ID
  *
  * NOME DO ARQUIVO:
  * relatorio_mei_[mes]_[ano].pdf
  * Exemplo: relatorio_mei_3_2025.pdf
  *
- * HEADERS HTTP:
+ * HEADERS HTTP (download):
  * - Content-Type: application/pdf
  * - Content-Disposition: attachment; filename="..."
- * - Content-Length: [tamanho em bytes]
+ * - Sem Content-Length: o arquivo é copiado em blocos (chunked)
  *
  * EXEMPLO DE USO:
  * ```
- * // Gerar relatório de Março/2025:
+ * // Pedir relatório de Março/2025:
  * POST /relatorio
  * mes=3&ano=2025
  *
- * // Resultado: Download de relatorio_mei_3_2025.pdf
+ * // Resultado: redirect para /relatorio?job=..., que atualiza
+ * // sozinho até o link de download aparecer
  * ```
  *
  * @author Sistema MEI
- * @version 2.0 - Com validações e super comentado
- * @see VendasDAO
+ * @version 3.0 - Geração assíncrona
+ * @see FilaRelatorios
  * @see RelatorioPDF
  */
-@WebServlet("/relatorio")
+@WebServlet(urlPatterns = {"/relatorio", "/relatorio/status", "/relatorio/download", "/relatorio/fila"})
 public class RelatorioController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    private static final Log LOG = Log.para(RelatorioController.class);
+
     /* ================================================================
-       MÉTODO GET - Exibir Formulário
+       MÉTODO GET - Formulário, status, download e métricas
        ================================================================
 
-       URL: GET /relatorio
+       URL: GET /relatorio[/status|/download|/fila]
 
        Responsabilidades:
        1. Validar autenticação
-       2. Exibir formulário de seleção (relatorio.jsp)
+       2. Despachar pela rota (getServletPath)
 
        JSP: relatorio.jsp
 
@@ -123,98 +138,112 @@ public class RelatorioController extends HttpServlet {
        - Dropdown de mês (1-12)
        - Campo de ano
        - Botão "Gerar Relatório"
+       - Card com a situação do último job (se ?job=ID)
     */
 
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== RELATORIO GET ==========");
-
         // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session == null || session.getAttribute("usuario") == null) {
-            System.err.println("❌ Usuário não autenticado");
-            System.out.println("===================================\n");
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
-        System.out.println("✅ Usuário: " + usuario.getNome());
+        // ========== STEP 2: DESPACHAR PELA ROTA ==========
+        switch (request.getServletPath()) {
+            case "/relatorio/status":
+                enviarStatus(request, response, usuario);
+                return;
+            case "/relatorio/download":
+                enviarPdf(request, response, usuario);
+                return;
+            case "/relatorio/fila":
+                enviarJson(response, HttpServletResponse.SC_OK, estatisticasJson(FilaRelatorios.getEstatisticas()));
+                return;
+            default:
+                break;
+        }
+
+        LOG.debug("========== RELATORIO GET ==========");
+        LOG.debug("✅ Usuário: {}", usuario.getNome());
+
+        // ========== STEP 3: JOB EM ACOMPANHAMENTO ==========
+        JobRelatorio job = buscarJobDoUsuario(request, usuario);
+        if (job != null) {
+            LOG.debug("🔎 {}", job);
+            request.setAttribute("job", job);
+        }
 
-        // ========== STEP 2: EXIBIR FORMULÁRIO ==========
-        System.out.println("📄 Exibindo formulário de relatório");
-        System.out.println("===================================\n");
+        // ========== STEP 4: EXIBIR FORMULÁRIO ==========
+        LOG.debug("📄 Exibindo formulário de relatório");
 
         request.getRequestDispatcher("/pages/relatorio.jsp").forward(request, response);
     }
 
     /* ================================================================
-       MÉTODO POST - Gerar e Baixar PDF
+       MÉTODO POST - Enfileirar PDF
        ================================================================
 
        URL: POST /relatorio
 
        Parâmetros obrigatórios:
-       - mes: 1-12 (numérico)
+       - mes: 1-12 (numérico), 0 = relatório anual
        - ano: Ano válido (numérico)
 
        Validações:
        1. Usuário autenticado
        2. Mês e ano informados
-       3. Mês entre 1 e 12
+       3. Mês entre 0 (anual) e 12
        4. Ano é número válido
-       5. Há vendas no período
 
        Processo:
        1. Valida autenticação
        2. Lê e valida parâmetros
-       3. Busca vendas do período
-       4. Verifica se há vendas
-       5. Calcula totalizadores
-       6. Gera PDF
-       7. Configura HTTP headers
-       8. Envia para download
+       3. Enfileira o job na FilaRelatorios
+       4. Redireciona para /relatorio?job=ID (ou JSON se formato=json)
 
        Em caso de erro:
        - Redireciona para /relatorio com mensagem
 
-       Em caso de sucesso:
-       - Download do PDF
-       - Log de sucesso
+       Fila cheia:
+       - Mensagem "tente novamente" (JSON: HTTP 503)
     */
 
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        System.out.println("\n========== RELATORIO POST ==========");
+        LOG.debug("========== RELATORIO POST ==========");
 
         // ========== STEP 1: VALIDAR AUTENTICAÇÃO ==========
-        HttpSession session = request.getSession(false);
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
-        if (session == null || session.getAttribute("usuario") == null) {
-            System.err.println("❌ Usuário não autenticado");
-            System.out.println("====================================\n");
+        if (usuario == null) {
+            LOG.aviso("❌ Usuário não autenticado");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
-        System.out.println("✅ Usuário: " + usuario.getNome() + " (ID: " + usuario.getIdUsuario() + ")");
+        LOG.debug("✅ Usuário: {} (ID: {})", usuario.getNome(), usuario.getIdUsuario());
 
         // ========== STEP 2: LER PARÂMETROS ==========
         String mesParam = request.getParameter("mes");
         String anoParam = request.getParameter("ano");
+        boolean detalhado = !"1".equals(request.getParameter("resumido"));
+        boolean json = "json".equals(request.getParameter("formato"));
 
-        System.out.println("📋 Parâmetros recebidos:");
-        System.out.println("   - Mês: " + mesParam);
-        System.out.println("   - Ano: " + anoParam);
+        LOG.debug("📋 Parâmetros recebidos:");
+        LOG.debug("   - Mês: {}", mesParam);
+        LOG.debug("   - Ano: {}", anoParam);
+        LOG.debug("   - Detalhado: {}", detalhado);
 
         // ========== STEP 3: VALIDAR PARÂMETROS OBRIGATÓRIOS ==========
         if (mesParam == null || anoParam == null) {
-            System.err.println("❌ Mês ou ano não informado!");
-            session.setAttribute("erro", "Mês e ano são obrigatórios!");
+            LOG.aviso("❌ Mês ou ano não informado!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Mês e ano são obrigatórios!");
             response.sendRedirect(request.getContextPath() + "/relatorio");
             return;
         }
@@ -226,183 +255,191 @@ public class RelatorioController extends HttpServlet {
             mes = Integer.parseInt(mesParam);
             ano = Integer.parseInt(anoParam);
 
-            System.out.println("✅ Valores convertidos:");
-            System.out.println("   - Mês: " + mes);
-            System.out.println("   - Ano: " + ano);
+            LOG.debug("✅ Valores convertidos:");
+            LOG.debug("   - Mês: {}", mes);
+            LOG.debug("   - Ano: {}", ano);
 
         } catch (NumberFormatException e) {
-            System.err.println("❌ Mês ou ano inválido!");
-            System.err.println("   Mês: " + mesParam);
-            System.err.println("   Ano: " + anoParam);
-            session.setAttribute("erro", "Mês ou ano inválido!");
+            LOG.aviso("❌ Mês ou ano inválido! Mês: {}, Ano: {}", mesParam, anoParam);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Mês ou ano inválido!");
             response.sendRedirect(request.getContextPath() + "/relatorio");
             return;
         }
 
         // ========== STEP 5: VALIDAR INTERVALO DO MÊS ==========
-        if (mes < 1 || mes > 12) {
-            System.err.println("❌ Mês fora do intervalo: " + mes + " (deve ser 1-12)");
-            session.setAttribute("erro", "Mês deve estar entre 1 e 12!");
+        if (mes < 0 || mes > 12) {
+            LOG.aviso("❌ Mês fora do intervalo: {} (deve ser 0-12)", mes);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Mês inválido!");
             response.sendRedirect(request.getContextPath() + "/relatorio");
             return;
         }
 
-        System.out.println("✅ Mês válido: " + mes);
-
-        // ========== STEP 6: CONECTAR AO BANCO ==========
-        try (Connection conexao = Conexao.getConnection()) {
-
-            System.out.println("✅ Conexão estabelecida");
-
-            // ========== STEP 7: BUSCAR VENDAS DO PERÍODO ==========
-            VendasDAO vendasDAO = new VendasDAO(conexao);
-            List<Vendas> vendas = new ArrayList<>();
-
-            System.out.println("⏳ Buscando vendas...");
-            System.out.println("   - Usuário ID: " + usuario.getIdUsuario());
-            System.out.println("   - Mês: " + mes);
-            System.out.println("   - Ano: " + ano);
-            System.out.println("   - SQL: listarPorMesAno(" + usuario.getIdUsuario() + ", " + mes + ", " + ano + ")");
+        LOG.debug("✅ Mês válido: {}", mes);
 
-            try {
-                vendas = vendasDAO.listarPorMesAno(usuario.getIdUsuario(), mes, ano);
-
-                System.out.println("✅ Vendas retornadas: " + vendas.size());
-
-                // Log das vendas
-                if (!vendas.isEmpty()) {
-                    System.out.println("📋 Vendas encontradas:");
-                    for (Vendas v : vendas) {
-                        System.out.println("   - ID: " + v.getIdVendas() +
-                                " | Data: " + v.getDataVendas() +
-                                " | Valor: R$ " + v.getValor() +
-                                " | NF: " + v.getNotaFiscalEmitida());
-                    }
-                }
-
-            } catch (Exception e) {
-                System.err.println("❌ Erro ao buscar vendas:");
-                System.err.println("   Mensagem: " + e.getMessage());
-                e.printStackTrace();
-                session.setAttribute("erro", "Erro ao buscar vendas: " + e.getMessage());
-                response.sendRedirect(request.getContextPath() + "/relatorio");
-                return;
-            }
-
-            // ========== STEP 8: VALIDAR SE HÁ VENDAS ==========
-            if (vendas.isEmpty()) {
-                System.err.println("⚠️ Nenhuma venda encontrada no período!");
-                System.err.println("   Mês: " + mes);
-                System.err.println("   Ano: " + ano);
-                System.out.println("====================================\n");
-
-                session.setAttribute("erro", "Nenhuma venda encontrada para o período selecionado.");
+        // ========== STEP 6: ENFILEIRAR GERAÇÃO ==========
+        JobRelatorio job;
+        try {
+            job = FilaRelatorios.enviar(usuario.getIdUsuario(), mes, ano, detalhado);
+        } catch (RejectedExecutionException e) {
+            LOG.aviso("⚠️ Fila de relatórios cheia: {}", FilaRelatorios.getEstatisticas());
+
+            if (json) {
+                enviarJson(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        "{\"erro\":\"fila cheia\"}");
+            } else {
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO,
+                        "Muitos relatórios sendo gerados agora. Tente novamente em alguns instantes.");
                 response.sendRedirect(request.getContextPath() + "/relatorio");
-                return;
             }
+            return;
+        }
 
-            System.out.println("✅ Vendas disponíveis: " + vendas.size());
+        // ========== STEP 7: RESPONDER COM O ID DO JOB ==========
+        LOG.info("✅ Job criado: {}", job.getId());
 
-            // ========== STEP 9: GERAR PDF ==========
-            try {
-                System.out.println("⏳ Gerando PDF...");
+        if (json) {
+            enviarJson(response, HttpServletResponse.SC_ACCEPTED, "{\"job\":\"" + job.getId() + "\"}");
+        } else {
+            response.sendRedirect(request.getContextPath() + "/relatorio?job=" + job.getId());
+        }
+    }
 
-                RelatorioPDF relatorio = new RelatorioPDF();
+    /* ================================================================
+       ROTAS AUXILIARES
+       ================================================================ */
+
+    /**
+     * GET /relatorio/status?job=ID → JSON com situação e tempos do job.
+     */
+    private void enviarStatus(HttpServletRequest request, HttpServletResponse response, UsuarioSessao usuario)
+            throws IOException {
+
+        JobRelatorio job = buscarJobDoUsuario(request, usuario);
+        if (job == null) {
+            enviarJson(response, HttpServletResponse.SC_NOT_FOUND, "{\"erro\":\"job não encontrado\"}");
+            return;
+        }
 
-                // Calcular totalizadores
-                System.out.println("⏳ Calculando totais...");
-                double[] totais = relatorio.calcularTotais(vendas);
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"job\":\"").append(job.getId()).append("\",");
+        json.append("\"status\":\"").append(job.getStatus()).append("\",");
+        json.append("\"esperaMs\":").append(job.getEsperaMs()).append(',');
+        json.append("\"processamentoMs\":").append(job.getProcessamentoMs()).append(',');
+        json.append("\"naFila\":").append(FilaRelatorios.getEstatisticas().getNaFila());
+        if (job.getMensagemErro() != null) {
+            json.append(",\"mensagemErro\":\"").append(escaparJson(job.getMensagemErro())).append('"');
+        }
+        json.append('}');
 
-                System.out.println("✅ Totais calculados:");
-                System.out.println("   - Total geral: R$ " + String.format("%.2f", totais[0]));
-                System.out.println("   - Total com NF: R$ " + String.format("%.2f", totais[1]));
-                System.out.println("   - Total sem NF: R$ " + String.format("%.2f", totais[2]));
+        enviarJson(response, HttpServletResponse.SC_OK, json.toString());
+    }
 
-                // Gerar PDF
-                System.out.println("⏳ Gerando arquivo PDF...");
-                byte[] pdfBytes = relatorio.gerarRelatorio(usuario, mes, ano, vendas, totais);
+    /**
+     * GET /relatorio/download?job=ID → PDF pronto (só do próprio usuário).
+     */
+    private void enviarPdf(HttpServletRequest request, HttpServletResponse response,
+                           UsuarioSessao usuario) throws IOException {
 
-                System.out.println("✅ PDF gerado:");
-                System.out.println("   - Tamanho: " + pdfBytes.length + " bytes");
-                System.out.println("   - Formato: PDF");
+        JobRelatorio job = buscarJobDoUsuario(request, usuario);
 
-                // ========== STEP 10: CONFIGURAR HEADERS HTTP ==========
-                String nomeArquivo = "relatorio_mei_" + mes + "_" + ano + ".pdf";
+        if (job == null) {
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Relatório não encontrado ou expirado. Gere novamente.");
+            response.sendRedirect(request.getContextPath() + "/relatorio");
+            return;
+        }
 
-                System.out.println("⏳ Configurando headers HTTP...");
+        if (job.getStatus() != JobRelatorio.Status.CONCLUIDO) {
+            // Ainda na fila/processando ou com erro: volta para a tela do job
+            response.sendRedirect(request.getContextPath() + "/relatorio?job=" + job.getId());
+            return;
+        }
 
-                response.setContentType("application/pdf");
-                response.setHeader("Content-Disposition",
-                        "attachment; filename=\"" + nomeArquivo + "\"");
-                response.setContentLength(pdfBytes.length);
+        // Copia do arquivo para o response em blocos (PDF nunca inteiro em memória)
+        try (InputStream pdf = Files.newInputStream(job.getArquivo())) {
 
-                System.out.println("✅ Headers configurados:");
-                System.out.println("   - Content-Type: application/pdf");
-                System.out.println("   - Content-Disposition: attachment");
-                System.out.println("   - Filename: " + nomeArquivo);
-                System.out.println("   - Content-Length: " + pdfBytes.length);
+            response.setContentType("application/pdf");
+            response.setHeader("Content-Disposition",
+                    "attachment; filename=\"" + job.getNomeArquivo() + "\"");
 
-                // ========== STEP 11: ENVIAR PDF PARA DOWNLOAD ==========
-                System.out.println("⏳ Enviando PDF para cliente...");
+            OutputStream out = response.getOutputStream();
+            long bytes = pdf.transferTo(out);
+            out.flush();
 
-                OutputStream out = response.getOutputStream();
-                out.write(pdfBytes);
-                out.flush();
+            LOG.debug("📥 Download: {} ({} bytes)", job.getNomeArquivo(), bytes);
 
-                System.out.println("✅ RELATÓRIO GERADO COM SUCESSO!");
-                System.out.println("📥 Download iniciado: " + nomeArquivo);
-                System.out.println("📊 Estatísticas:");
-                System.out.println("   - Vendas incluídas: " + vendas.size());
-                System.out.println("   - Período: " + mes + "/" + ano);
-                System.out.println("   - Total: R$ " + String.format("%.2f", totais[0]));
-                System.out.println("====================================\n");
+        } catch (NoSuchFileException e) {
+            // Despejado do cache entre a geração e o download
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Relatório expirado. Gere novamente.");
+            response.sendRedirect(request.getContextPath() + "/relatorio");
+        }
+    }
 
-            } catch (Exception e) {
-                // ========== ERRO AO GERAR PDF ==========
-                System.err.println("❌ Erro ao gerar PDF:");
-                System.err.println("   Tipo: " + e.getClass().getName());
-                System.err.println("   Mensagem: " + e.getMessage());
-                e.printStackTrace();
-                System.out.println("====================================\n");
+    /**
+     * Busca o job do parâmetro "job", só se pertencer ao usuário.
+     *
+     * @return Job ou null (inexistente, expirado ou de outro usuário)
+     */
+    private static JobRelatorio buscarJobDoUsuario(HttpServletRequest request, UsuarioSessao usuario) {
+        JobRelatorio job = FilaRelatorios.buscar(request.getParameter("job"));
+        if (job == null || job.getUsuarioId() != usuario.getIdUsuario()) {
+            return null;
+        }
+        return job;
+    }
 
-                session.setAttribute("erro", "Erro ao gerar PDF: " + e.getMessage());
-                response.sendRedirect(request.getContextPath() + "/relatorio");
-            }
+    private static String estatisticasJson(FilaRelatorios.Estatisticas e) {
+        return "{\"naFila\":" + e.getNaFila() +
+                ",\"capacidade\":" + e.getCapacidade() +
+                ",\"processando\":" + e.getProcessando() +
+                ",\"workers\":" + e.getWorkers() +
+                ",\"enviados\":" + e.getEnviados() +
+                ",\"rejeitados\":" + e.getRejeitados() +
+                ",\"concluidos\":" + e.getConcluidos() +
+                ",\"falhas\":" + e.getFalhas() +
+                ",\"esperaMediaMs\":" + Math.round(e.getEsperaMediaMs()) +
+                ",\"esperaMaxMs\":" + e.getEsperaMaxMs() +
+                ",\"processamentoMedioMs\":" + Math.round(e.getProcessamentoMedioMs()) +
+                ",\"processamentoMaxMs\":" + e.getProcessamentoMaxMs() + "}";
+    }
 
-        } catch (Exception e) {
-            // ========== ERRO DE CONEXÃO ==========
-            System.err.println("❌ Erro de conexão:");
-            e.printStackTrace();
-            System.out.println("====================================\n");
+    private static void enviarJson(HttpServletResponse response, int status, String json) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json; charset=UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.getWriter().write(json);
+    }
 
-            session.setAttribute("erro", "Erro ao gerar relatório: " + e.getMessage());
-            response.sendRedirect(request.getContextPath() + "/relatorio");
-        }
-        // Conexão fecha automaticamente (try-with-resources)
+    private static String escaparJson(String texto) {
+        return texto.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", " ").replace("\r", " ");
     }
 }
 
+
 /* ================================================================
    RESUMO DO CONTROLLER
    ================================================================
 
    FUNCIONALIDADE PRINCIPAL:
-   Gerar relatórios mensais em PDF para download
+   Gerar relatórios mensais em PDF (assíncrono) para download
 
    ROTAS:
-   - GET  /relatorio → Formulário de seleção
-   - POST /relatorio → Gera e baixa PDF
+   - GET  /relatorio                  → Formulário de seleção (+ job, se ?job=ID)
+   - POST /relatorio                  → Enfileira PDF → /relatorio?job=ID
+   - GET  /relatorio/status?job=ID    → {"status":"PROCESSANDO","esperaMs":..}
+   - GET  /relatorio/download?job=ID  → Baixa PDF pronto
+   - GET  /relatorio/fila             → Profundidade da fila e tempos
 
    PARÂMETROS DO FORMULÁRIO:
-   - mes* (1-12, obrigatório)
+   - mes* (1-12 ou 0 = anual, obrigatório)
    - ano* (numérico, obrigatório)
 
    VALIDAÇÕES:
    ✅ Autenticação obrigatória
    ✅ Mês e ano informados
-   ✅ Mês entre 1 e 12
+   ✅ Mês entre 0 (anual) e 12
    ✅ Ano é número válido
-   ✅ Período tem vendas
+   ✅ Período tem vendas (job termina em ERRO se não houver)
+   ✅ Job só é visível para o próprio usuário
 
    CONTEÚDO DO PDF:
 
@@ -446,7 +483,7 @@ public class RelatorioController extends HttpServlet {
    HEADERS HTTP:
    Content-Type: application/pdf
    Content-Disposition: attachment; filename="relatorio_mei_3_2025.pdf"
-   Content-Length: [bytes]
+   Transfer-Encoding: chunked (copiado do arquivo em blocos)
 
    PROCESSO COMPLETO:
 
@@ -459,39 +496,33 @@ public class RelatorioController extends HttpServlet {
    3. POST /relatorio com mes=3&ano=2025
       → Controller valida dados
 
-   4. Busca vendas de Março/2025
-      → SELECT * FROM vendas WHERE ...
-
-   5. Se não há vendas:
-      → Mensagem "Nenhuma venda encontrada"
-      → Volta para formulário
+   4. Enfileira job na FilaRelatorios
+      → Redireciona para /relatorio?job=ID
+      → Página se atualiza enquanto NA_FILA/PROCESSANDO
 
-   6. Se há vendas:
-      → Calcula totais
-      → Gera PDF
-      → Envia para download
+   5. Worker (thread mei-relatorio-N):
+      → Versão do mês (contagem de vendas); PDF em cache → CONCLUIDO
+      → Sem vendas: job ERRO "Nenhuma venda encontrada"
+      → Com vendas: totais agrupados no banco, vendas só se o PDF
+        for detalhado, gera PDF (job CONCLUIDO)
+      → mes=0: 12 x 8 totais do ano (totaisAnuaisPorSecao) e PDF
+        anual (RelatorioPDF.gerarRelatorioAnual)
 
-   7. Navegador baixa arquivo:
+   6. Página mostra link de download:
+      → GET /relatorio/download?job=ID
       → relatorio_mei_3_2025.pdf
 
-   CÁLCULO DE TOTAIS (RelatorioPDF):
-   ```java
-   double totalGeral = 0;
-   double totalComNF = 0;
-   double totalSemNF = 0;
-
-   for (Vendas v : vendas) {
-       totalGeral += v.getValor();
-
-       if (v.getNotaFiscalEmitida().equals("S")) {
-           totalComNF += v.getValor();
-       } else {
-           totalSemNF += v.getValor();
-       }
-   }
-
-   return new double[] {totalGeral, totalComNF, totalSemNF};
+   CÁLCULO DE TOTAIS (VendasDAO.calcularTotaisPorSecao):
+   ```sql
+   SELECT c.secao_fiscal AS secao, v.nota_fiscal_emitida, SUM(v.valor) AS total
+   FROM vendas v
+   INNER JOIN categoria c ON v.categoria_id = c.id_categoria
+   WHERE v.usuario_id = ? AND v.ativo = true
+   AND v.data_vendas >= ? AND v.data_vendas < ?
+   GROUP BY c.secao_fiscal, v.nota_fiscal_emitida
    ```
+   → double[8] (I, II, IV, V, VII, VIII, XI, XII), a mesma ordem de
+     RelatorioPDF.calcularTotais(); subtotais e total (XIV) no PDF
 
    CASOS DE USO:
 
@@ -508,35 +539,34 @@ public class RelatorioController extends HttpServlet {
       → Verificar quantas vendas têm nota fiscal
 
    SEGURANÇA:
-   ✅ Validação de sessão
+   ✅ Validação do token (FiltroAutenticacao)
    ✅ PreparedStatement (via DAO)
    ✅ Try-with-resources
    ✅ Filtra por usuario_id (isolamento)
 
    DEPENDÊNCIAS:
-   - VendasDAO: Buscar vendas do período
-   - RelatorioPDF: Gerar arquivo PDF
-   - Conexao: Gerenciar conexão
-   - HttpSession: Autenticação
+   - FilaRelatorios: Fila limitada + workers (VendasDAO + RelatorioPDF)
+   - JobRelatorio: Situação e tempos de cada pedido
+   - FiltroAutenticacao: Autenticação (token)
 
    MENSAGENS:
    - Erro: "Mês e ano são obrigatórios!"
-   - Erro: "Mês deve estar entre 1 e 12!"
+   - Erro: "Mês inválido!"
    - Erro: "Nenhuma venda encontrada para o período"
    - Erro: "Erro ao gerar PDF: [mensagem]"
-   - Sucesso: Download automático do PDF
+   - Erro: "Muitos relatórios sendo gerados agora..." (fila cheia)
+   - Sucesso: Link de download quando o job conclui
 
    OBSERVAÇÕES:
-   - Conexão fecha automaticamente
-   - PDF gerado em memória (byte[])
-   - Download automático (não salva no servidor)
+   - Worker usa a conexão só durante a consulta
+   - PDF escrito direto em arquivo (CacheRelatorios); o job guarda só o Path
+   - PDFs ficam no diretório do cache (LRU); jobs expiram em 30 min
    - Logs detalhados em cada etapa
    - Sem limite de vendas por relatório
    - Formato padrão: A4, portrait
 
    MELHORIAS FUTURAS:
    - [ ] Relatório por categoria
-   - [ ] Relatório anual (todos os meses)
    - [ ] Gráficos de vendas
    - [ ] Exportar em Excel
    - [ ] Filtro por Nota Fiscal
@@ -11,15 +11,17 @@ import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
-import br.com.projeto.model.Usuario;
+import br.com.projeto.model.UsuarioSessao;
 import br.com.projeto.model.Vendas;
 import br.com.projeto.model.Categoria;
 import br.com.projeto.model.NotaFiscal;
 import br.com.projeto.dao.CategoriaDAO;
 import br.com.projeto.dao.VendasDAO;
 import br.com.projeto.utils.Conexao;
+import br.com.projeto.utils.FiltroAutenticacao;
+import br.com.projeto.utils.Log;
+import br.com.projeto.utils.MensagemFlash;
 
 /**
  * ================================================================
@@ -56,6 +58,8 @@ import br.com.projeto.utils.Conexao;
 public class VendaController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    private static final Log LOG = Log.para(VendaController.class);
+
     /* ================================================================
        MÉTODO GET - Roteador de Ações
        ================================================================
@@ -74,40 +78,39 @@ public class VendaController extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        // ========== VALIDAÇÃO DE SESSÃO ==========
-        HttpSession session = request.getSession(false);
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
+        // ========== VALIDAÇÃO DE AUTENTICAÇÃO ==========
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
         if (usuario == null) {
-            System.err.println("❌ VENDA GET: Usuário não logado!");
+            LOG.aviso("❌ VENDA GET: Usuário não logado!");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        System.out.println("\n========== DEBUG VENDA GET ==========");
-        System.out.println("✅ Usuário logado: " + usuario.getNome());
+        LOG.debug("========== DEBUG VENDA GET ==========");
+        LOG.debug("✅ Usuário logado: {}", usuario.getNome());
 
         // ========== ROTEAMENTO DE AÇÕES ==========
         String acao = request.getParameter("acao");
-        System.out.println("📋 Ação solicitada: " + (acao != null ? acao : "nova venda (padrão)"));
+        LOG.debug("📋 Ação solicitada: {}", (acao != null ? acao : "nova venda (padrão)"));
 
         // ROTA 1: Editar venda existente
         if ("editar".equalsIgnoreCase(acao)) {
-            System.out.println("🔀 Roteando para: exibirFormularioEdicao()");
-            exibirFormularioEdicao(request, response, session, usuario);
+            LOG.debug("🔀 Roteando para: exibirFormularioEdicao()");
+            exibirFormularioEdicao(request, response, usuario);
             return;
         }
 
         // ROTA 2: Excluir venda
         if ("excluir".equalsIgnoreCase(acao)) {
-            System.out.println("🔀 Roteando para: excluirVenda()");
-            excluirVenda(request, response, session, usuario);
+            LOG.debug("🔀 Roteando para: excluirVenda()");
+            excluirVenda(request, response, usuario);
             return;
         }
 
         // ROTA 3 (PADRÃO): Exibir formulário de nova venda
-        System.out.println("🔀 Roteando para: exibirFormularioNovaVenda()");
-        exibirFormularioNovaVenda(request, response, session, usuario);
+        LOG.debug("🔀 Roteando para: exibirFormularioNovaVenda()");
+        exibirFormularioNovaVenda(request, response, usuario);
     }
 
     /* ================================================================
@@ -126,59 +129,55 @@ public class VendaController extends HttpServlet {
     private void exibirFormularioNovaVenda(
             HttpServletRequest request,
             HttpServletResponse response,
-            HttpSession session,
-            Usuario usuario) throws ServletException, IOException {
+            UsuarioSessao usuario) throws ServletException, IOException {
 
-        System.out.println("📝 Iniciando exibição de formulário de NOVA VENDA");
+        LOG.debug("📝 Iniciando exibição de formulário de NOVA VENDA");
 
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão obtida com sucesso");
+            LOG.debug("✅ Conexão obtida com sucesso");
 
             // ========== BUSCAR CATEGORIAS ==========
             CategoriaDAO categoriaDAO = new CategoriaDAO(conexao);
-            System.out.println("✅ CategoriaDAO criado");
+            LOG.debug("✅ CategoriaDAO criado");
 
             List<Categoria> categorias = new ArrayList<>();
 
             try {
-                System.out.println("⏳ Buscando categorias no banco...");
+                LOG.debug("⏳ Buscando categorias no banco...");
                 categorias = categoriaDAO.listar();
-                System.out.println("✅ Categorias retornadas: " + (categorias != null ? categorias.size() : "NULL"));
+                LOG.debug("✅ Categorias retornadas: {}", (categorias != null ? categorias.size() : "NULL"));
 
                 // Log de cada categoria encontrada
                 if (categorias != null && !categorias.isEmpty()) {
-                    System.out.println("📋 Lista de categorias:");
-                    for (Categoria c : categorias) {
-                        System.out.println("  - ID: " + c.getIdCategoria() +
-                                ", Nome: " + c.getNomeCategoria() +
-                                ", Ativo: " + c.isAtivo());
+                    // Laço só existe para o log: nem roda fora do DEBUG
+                    if (LOG.isDebug()) {
+                        LOG.debug("📋 Lista de categorias:");
+                        for (Categoria c : categorias) {
+                            LOG.debug("  - ID: {}, Nome: {}, Ativo: {}",
+                                    c.getIdCategoria(), c.getNomeCategoria(), c.isAtivo());
+                        }
                     }
                 } else {
-                    System.err.println("⚠️ Lista de categorias VAZIA!");
+                    LOG.aviso("⚠️ Lista de categorias VAZIA!");
                 }
 
             } catch (Exception e) {
-                System.err.println("❌ ERRO ao listar categorias:");
-                System.err.println("   Mensagem: " + e.getMessage());
-                System.err.println("   Tipo: " + e.getClass().getName());
-                e.printStackTrace();
-                session.setAttribute("erro", "Erro ao carregar categorias: " + e.getMessage());
+                LOG.erro("❌ ERRO ao listar categorias", e);
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao carregar categorias: " + e.getMessage());
             }
 
             // ========== ENVIAR PARA JSP ==========
-            System.out.println("📤 Setando categorias no request: " + categorias.size() + " itens");
+            LOG.debug("📤 Setando categorias no request: {} itens", categorias.size());
             request.setAttribute("categorias", categorias);
 
-            System.out.println("✅ Encaminhando para cadastro_venda.jsp");
-            System.out.println("=====================================\n");
+            LOG.debug("✅ Encaminhando para cadastro_venda.jsp");
 
             request.getRequestDispatcher("/pages/cadastro_venda.jsp").forward(request, response);
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO GERAL ao exibir formulário:");
-            e.printStackTrace();
-            session.setAttribute("erro", "Erro ao carregar formulário: " + e.getMessage());
+            LOG.erro("❌ ERRO GERAL ao exibir formulário", e);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao carregar formulário: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/dashboard");
         }
     }
@@ -201,18 +200,17 @@ public class VendaController extends HttpServlet {
     private void exibirFormularioEdicao(
             HttpServletRequest request,
             HttpServletResponse response,
-            HttpSession session,
-            Usuario usuario) throws ServletException, IOException {
+            UsuarioSessao usuario) throws ServletException, IOException {
 
-        System.out.println("✏️ Iniciando exibição de formulário de EDIÇÃO");
+        LOG.debug("✏️ Iniciando exibição de formulário de EDIÇÃO");
 
         // ========== VALIDAR ID ==========
         String idStr = request.getParameter("id");
-        System.out.println("📋 ID recebido: " + idStr);
+        LOG.debug("📋 ID recebido: {}", idStr);
 
         if (idStr == null || idStr.isEmpty()) {
-            System.err.println("❌ ID não informado!");
-            session.setAttribute("erro", "ID da venda não informado!");
+            LOG.aviso("❌ ID não informado!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "ID da venda não informado!");
             response.sendRedirect(request.getContextPath() + "/historico");
             return;
         }
@@ -220,57 +218,56 @@ public class VendaController extends HttpServlet {
         int vendaId;
         try {
             vendaId = Integer.parseInt(idStr);
-            System.out.println("✅ ID convertido: " + vendaId);
+            LOG.debug("✅ ID convertido: {}", vendaId);
         } catch (NumberFormatException e) {
-            System.err.println("❌ ID inválido: " + idStr);
-            session.setAttribute("erro", "ID inválido!");
+            LOG.aviso("❌ ID inválido: {}", idStr);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "ID inválido!");
             response.sendRedirect(request.getContextPath() + "/historico");
             return;
         }
 
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão obtida");
+            LOG.debug("✅ Conexão obtida");
 
             // ========== BUSCAR VENDA ==========
             VendasDAO vendasDAO = new VendasDAO(conexao);
-            System.out.println("⏳ Buscando venda ID " + vendaId + "...");
+            LOG.debug("⏳ Buscando venda ID {}...", vendaId);
 
             Vendas venda = vendasDAO.buscar(vendaId);
 
             if (venda == null) {
-                System.err.println("❌ Venda não encontrada! ID: " + vendaId);
-                session.setAttribute("erro", "Venda não encontrada!");
+                LOG.aviso("❌ Venda não encontrada! ID: {}", vendaId);
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Venda não encontrada!");
                 response.sendRedirect(request.getContextPath() + "/historico");
                 return;
             }
 
-            System.out.println("✅ Venda encontrada:");
-            System.out.println("   - ID: " + venda.getIdVendas());
-            System.out.println("   - Valor: " + venda.getValor());
-            System.out.println("   - Categoria: " + (venda.getCategoria() != null ? venda.getCategoria().getIdCategoria() : "NULL"));
-            System.out.println("   - NF Emitida: " + venda.getNotaFiscalEmitida());
+            LOG.debug("✅ Venda encontrada:");
+            LOG.debug("   - ID: {}", venda.getIdVendas());
+            LOG.debug("   - Valor: {}", venda.getValor());
+            LOG.debug("   - Categoria: {}",
+                    (venda.getCategoria() != null ? venda.getCategoria().getIdCategoria() : "NULL"));
+            LOG.debug("   - NF Emitida: {}", venda.getNotaFiscalEmitida());
 
             // ========== BUSCAR CATEGORIAS ==========
             CategoriaDAO categoriaDAO = new CategoriaDAO(conexao);
-            System.out.println("⏳ Buscando categorias...");
+            LOG.debug("⏳ Buscando categorias...");
 
             List<Categoria> categorias = categoriaDAO.listar();
-            System.out.println("✅ Categorias carregadas: " + categorias.size());
+            LOG.debug("✅ Categorias carregadas: {}", categorias.size());
 
             // ========== ENVIAR PARA JSP ==========
             request.setAttribute("venda", venda);
             request.setAttribute("categorias", categorias);
 
-            System.out.println("✅ Encaminhando para editar-venda.jsp");
-            System.out.println("=====================================\n");
+            LOG.debug("✅ Encaminhando para editar-venda.jsp");
 
             request.getRequestDispatcher("/pages/editar-venda.jsp").forward(request, response);
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO ao carregar venda para edição:");
-            e.printStackTrace();
-            session.setAttribute("erro", "Erro ao carregar venda: " + e.getMessage());
+            LOG.erro("❌ ERRO ao carregar venda para edição", e);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao carregar venda: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/historico");
         }
     }
@@ -292,18 +289,17 @@ public class VendaController extends HttpServlet {
     private void excluirVenda(
             HttpServletRequest request,
             HttpServletResponse response,
-            HttpSession session,
-            Usuario usuario) throws ServletException, IOException {
+            UsuarioSessao usuario) throws ServletException, IOException {
 
-        System.out.println("🗑️ Iniciando EXCLUSÃO de venda");
+        LOG.debug("🗑️ Iniciando EXCLUSÃO de venda");
 
         // ========== VALIDAR ID ==========
         String idStr = request.getParameter("id");
-        System.out.println("📋 ID recebido: " + idStr);
+        LOG.debug("📋 ID recebido: {}", idStr);
 
         if (idStr == null || idStr.isEmpty()) {
-            System.err.println("❌ ID não informado!");
-            session.setAttribute("erro", "ID da venda não informado!");
+            LOG.aviso("❌ ID não informado!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "ID da venda não informado!");
             response.sendRedirect(request.getContextPath() + "/historico");
             return;
         }
@@ -311,38 +307,36 @@ public class VendaController extends HttpServlet {
         int vendaId;
         try {
             vendaId = Integer.parseInt(idStr);
-            System.out.println("✅ ID convertido: " + vendaId);
+            LOG.debug("✅ ID convertido: {}", vendaId);
         } catch (NumberFormatException e) {
-            System.err.println("❌ ID inválido: " + idStr);
-            session.setAttribute("erro", "ID inválido!");
+            LOG.aviso("❌ ID inválido: {}", idStr);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "ID inválido!");
             response.sendRedirect(request.getContextPath() + "/historico");
             return;
         }
 
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão obtida");
+            LOG.debug("✅ Conexão obtida");
 
             // ========== EXCLUIR VENDA (LÓGICO) ==========
             VendasDAO vendasDAO = new VendasDAO(conexao);
-            System.out.println("⏳ Executando exclusão lógica (ativo = false)...");
-            System.out.println("   SQL: UPDATE vendas SET ativo = false WHERE id_vendas = " + vendaId);
+            LOG.debug("⏳ Executando exclusão lógica (ativo = false)...");
+            LOG.debug("   SQL: UPDATE vendas SET ativo = false WHERE id_vendas = {}", vendaId);
 
             vendasDAO.excluir(vendaId);
 
-            System.out.println("✅ Venda ID " + vendaId + " excluída com sucesso!");
-            System.out.println("   ⚠️ Exclusão LÓGICA: registro não foi deletado, apenas desativado");
-            System.out.println("   ✅ Venda não aparecerá mais nas consultas (WHERE ativo = true)");
-            System.out.println("=====================================\n");
+            LOG.info("✅ Venda ID {} excluída com sucesso!", vendaId);
+            LOG.debug("   ⚠️ Exclusão LÓGICA: registro não foi deletado, apenas desativado");
+            LOG.debug("   ✅ Venda não aparecerá mais nas consultas (WHERE ativo = true)");
 
             // ========== FEEDBACK E REDIRECT ==========
-            session.setAttribute("sucesso", "Venda excluída com sucesso!");
+            MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Venda excluída com sucesso!");
             response.sendRedirect(request.getContextPath() + "/historico");
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO ao excluir venda:");
-            e.printStackTrace();
-            session.setAttribute("erro", "Erro ao excluir venda: " + e.getMessage());
+            LOG.erro("❌ ERRO ao excluir venda", e);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao excluir venda: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/historico");
         }
     }
@@ -364,33 +358,32 @@ public class VendaController extends HttpServlet {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        // ========== VALIDAÇÃO DE SESSÃO ==========
-        HttpSession session = request.getSession(false);
-        Usuario usuario = (Usuario) session.getAttribute("usuario");
+        // ========== VALIDAÇÃO DE AUTENTICAÇÃO ==========
+        UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
 
         if (usuario == null) {
-            System.err.println("❌ VENDA POST: Usuário não logado!");
+            LOG.aviso("❌ VENDA POST: Usuário não logado!");
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
 
-        System.out.println("\n========== DEBUG VENDA POST ==========");
-        System.out.println("✅ Usuário logado: " + usuario.getNome());
+        LOG.debug("========== DEBUG VENDA POST ==========");
+        LOG.debug("✅ Usuário logado: {}", usuario.getNome());
 
         // ========== ROTEAMENTO DE AÇÕES ==========
         String acao = request.getParameter("acao");
-        System.out.println("📋 Ação solicitada: " + (acao != null ? acao : "cadastrar (padrão)"));
+        LOG.debug("📋 Ação solicitada: {}", (acao != null ? acao : "cadastrar (padrão)"));
 
         // ROTA 1: Salvar edição
         if ("editar".equalsIgnoreCase(acao)) {
-            System.out.println("🔀 Roteando para: salvarEdicao()");
-            salvarEdicao(request, response, session, usuario);
+            LOG.debug("🔀 Roteando para: salvarEdicao()");
+            salvarEdicao(request, response, usuario);
             return;
         }
 
         // ROTA 2 (PADRÃO): Cadastrar nova venda
-        System.out.println("🔀 Roteando para: cadastrarNovaVenda()");
-        cadastrarNovaVenda(request, response, session, usuario);
+        LOG.debug("🔀 Roteando para: cadastrarNovaVenda()");
+        cadastrarNovaVenda(request, response, usuario);
     }
 
     /* ================================================================
@@ -416,10 +409,9 @@ public class VendaController extends HttpServlet {
     private void cadastrarNovaVenda(
             HttpServletRequest request,
             HttpServletResponse response,
-            HttpSession session,
-            Usuario usuario) throws ServletException, IOException {
+            UsuarioSessao usuario) throws ServletException, IOException {
 
-        System.out.println("💾 Iniciando cadastro de NOVA VENDA");
+        LOG.debug("💾 Iniciando cadastro de NOVA VENDA");
 
         // ========== LER PARÂMETROS ==========
         String categoriaStr = request.getParameter("categoria");
@@ -428,25 +420,25 @@ public class VendaController extends HttpServlet {
         String emitirNF = request.getParameter("emitirNF");
         String numeroNF = request.getParameter("numeroNF");
 
-        System.out.println("📋 Parâmetros recebidos:");
-        System.out.println("   - Categoria: " + categoriaStr);
-        System.out.println("   - Valor: " + valorStr);
-        System.out.println("   - Descrição: " + descricao);
-        System.out.println("   - Emitir NF: " + emitirNF);
-        System.out.println("   - Número NF: " + numeroNF);
+        LOG.debug("📋 Parâmetros recebidos:");
+        LOG.debug("   - Categoria: {}", categoriaStr);
+        LOG.debug("   - Valor: {}", valorStr);
+        LOG.debug("   - Descrição: {}", descricao);
+        LOG.debug("   - Emitir NF: {}", emitirNF);
+        LOG.debug("   - Número NF: {}", numeroNF);
 
         // ========== VALIDAÇÃO DE CATEGORIA ==========
         if (categoriaStr == null || categoriaStr.isEmpty()) {
-            System.err.println("❌ Categoria vazia!");
-            session.setAttribute("erro", "Categoria é obrigatória!");
+            LOG.aviso("❌ Categoria vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Categoria é obrigatória!");
             response.sendRedirect(request.getContextPath() + "/venda");
             return;
         }
 
         // ========== VALIDAÇÃO DE VALOR ==========
         if (valorStr == null || valorStr.isEmpty()) {
-            System.err.println("❌ Valor vazio!");
-            session.setAttribute("erro", "Valor é obrigatório!");
+            LOG.aviso("❌ Valor vazio!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor é obrigatório!");
             response.sendRedirect(request.getContextPath() + "/venda");
             return;
         }
@@ -455,17 +447,17 @@ public class VendaController extends HttpServlet {
         try {
             valorStr = valorStr.replace(",", ".");
             valor = Double.parseDouble(valorStr);
-            System.out.println("✅ Valor convertido: " + valor);
+            LOG.debug("✅ Valor convertido: {}", valor);
         } catch (NumberFormatException e) {
-            System.err.println("❌ Erro ao converter valor: " + valorStr);
-            session.setAttribute("erro", "Valor inválido!");
+            LOG.aviso("❌ Erro ao converter valor: {}", valorStr);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor inválido!");
             response.sendRedirect(request.getContextPath() + "/venda");
             return;
         }
 
         if (valor <= 0) {
-            System.err.println("❌ Valor <= 0!");
-            session.setAttribute("erro", "Valor deve ser maior que zero!");
+            LOG.aviso("❌ Valor <= 0!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor deve ser maior que zero!");
             response.sendRedirect(request.getContextPath() + "/venda");
             return;
         }
@@ -474,10 +466,10 @@ public class VendaController extends HttpServlet {
         int categoriaId;
         try {
             categoriaId = Integer.parseInt(categoriaStr);
-            System.out.println("✅ Categoria ID: " + categoriaId);
+            LOG.debug("✅ Categoria ID: {}", categoriaId);
         } catch (NumberFormatException e) {
-            System.err.println("❌ Erro ao converter categoria ID!");
-            session.setAttribute("erro", "Categoria inválida!");
+            LOG.aviso("❌ Erro ao converter categoria ID!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Categoria inválida!");
             response.sendRedirect(request.getContextPath() + "/venda");
             return;
         }
@@ -485,23 +477,23 @@ public class VendaController extends HttpServlet {
         // ========== VALIDAÇÃO DE NOTA FISCAL ==========
         if (emitirNF == null || emitirNF.isEmpty()) {
             emitirNF = "N";
-            System.out.println("⚠️ emitirNF vazio, setando padrão: N");
+            LOG.debug("⚠️ emitirNF vazio, setando padrão: N");
         }
 
         // Se marcou "Emitir NF", número é obrigatório
         if ("S".equalsIgnoreCase(emitirNF)) {
             if (numeroNF == null || numeroNF.trim().isEmpty()) {
-                System.err.println("❌ NF marcada mas número vazio!");
-                session.setAttribute("erro", "Número da Nota Fiscal é obrigatório!");
+                LOG.aviso("❌ NF marcada mas número vazio!");
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Número da Nota Fiscal é obrigatório!");
                 response.sendRedirect(request.getContextPath() + "/venda");
                 return;
             }
-            System.out.println("✅ NF será emitida: " + numeroNF.trim());
+            LOG.debug("✅ NF será emitida: {}", numeroNF.trim());
         }
 
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão obtida");
+            LOG.debug("✅ Conexão obtida");
 
             // ========== CRIAR OBJETO VENDAS ==========
             Vendas venda = new Vendas();
@@ -515,12 +507,12 @@ public class VendaController extends HttpServlet {
             categoria.setIdCategoria(categoriaId);
             venda.setCategoria(categoria);
 
-            System.out.println("📦 Objeto Venda criado:");
-            System.out.println("   - Data: " + venda.getDataVendas());
-            System.out.println("   - Valor: " + venda.getValor());
-            System.out.println("   - Usuario ID: " + venda.getUsuarioId());
-            System.out.println("   - Categoria ID: " + categoriaId);
-            System.out.println("   - NF Emitida: " + venda.getNotaFiscalEmitida());
+            LOG.debug("📦 Objeto Venda criado:");
+            LOG.debug("   - Data: {}", venda.getDataVendas());
+            LOG.debug("   - Valor: {}", venda.getValor());
+            LOG.debug("   - Usuario ID: {}", venda.getUsuarioId());
+            LOG.debug("   - Categoria ID: {}", categoriaId);
+            LOG.debug("   - NF Emitida: {}", venda.getNotaFiscalEmitida());
 
             // ========== CRIAR NOTA FISCAL (SE NECESSÁRIO) ==========
             if ("S".equalsIgnoreCase(emitirNF) && numeroNF != null && !numeroNF.trim().isEmpty()) {
@@ -531,27 +523,25 @@ public class VendaController extends HttpServlet {
 
                 venda.setNotaFiscal(nf);
 
-                System.out.println("📄 Nota Fiscal criada:");
-                System.out.println("   - Número: " + nf.getNumero());
-                System.out.println("   - Data: " + nf.getDataEmissao());
-                System.out.println("   - Valor: " + nf.getValor());
+                LOG.debug("📄 Nota Fiscal criada:");
+                LOG.debug("   - Número: {}", nf.getNumero());
+                LOG.debug("   - Data: {}", nf.getDataEmissao());
+                LOG.debug("   - Valor: {}", nf.getValor());
             }
 
             // ========== INSERIR NO BANCO ==========
             VendasDAO vendasDAO = new VendasDAO(conexao);
-            System.out.println("⏳ Tentando inserir venda no banco...");
+            LOG.debug("⏳ Tentando inserir venda no banco...");
 
             try {
                 vendasDAO.inserir(venda);
-                System.out.println("✅ Venda inserida com sucesso!");
-                System.out.println("   - ID gerado: " + venda.getIdVendas());
+                LOG.info("✅ Venda {} inserida com sucesso (usuário {})", venda.getIdVendas(), usuario.getIdUsuario());
 
                 // Se tinha NF, foi inserida também
                 if (venda.getNotaFiscal() != null) {
-                    System.out.println("   - Nota Fiscal inserida: " + venda.getNotaFiscal().getNumero());
+                    LOG.debug("   - Nota Fiscal inserida: {}", venda.getNotaFiscal().getNumero());
                 }
 
-                System.out.println("=====================================\n");
 
                 // ========== FEEDBACK E REDIRECT ==========
                 String mensagemSucesso = "Venda cadastrada com sucesso!";
@@ -559,27 +549,22 @@ public class VendaController extends HttpServlet {
                     mensagemSucesso += " (Nota Fiscal: " + numeroNF.trim() + ")";
                 }
 
-                session.setAttribute("sucesso", mensagemSucesso);
+                MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, mensagemSucesso);
                 response.sendRedirect(request.getContextPath() + "/dashboard");
 
             } catch (Exception e) {
-                System.err.println("❌ ERRO ao inserir venda:");
-                System.err.println("   SQL State: " + (e instanceof java.sql.SQLException ?
-                        ((java.sql.SQLException)e).getSQLState() : "N/A"));
-                System.err.println("   Mensagem: " + e.getMessage());
-                e.printStackTrace();
-                System.out.println("=====================================\n");
-
-                session.setAttribute("erro", "Erro ao cadastrar venda: " + e.getMessage());
+                LOG.erro("❌ ERRO ao inserir venda", e);
+                LOG.erro("   SQL State: {}",
+                        (e instanceof java.sql.SQLException ? ((java.sql.SQLException)e).getSQLState() : "N/A"));
+
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao cadastrar venda: " + e.getMessage());
                 response.sendRedirect(request.getContextPath() + "/venda");
             }
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO GERAL ao cadastrar venda:");
-            e.printStackTrace();
-            System.out.println("=====================================\n");
+            LOG.erro("❌ ERRO GERAL ao cadastrar venda", e);
 
-            session.setAttribute("erro", "Erro de conexão: " + e.getMessage());
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro de conexão: " + e.getMessage());
             response.sendRedirect(request.getContextPath() + "/venda");
         }
     }
@@ -609,10 +594,9 @@ public class VendaController extends HttpServlet {
     private void salvarEdicao(
             HttpServletRequest request,
             HttpServletResponse response,
-            HttpSession session,
-            Usuario usuario) throws ServletException, IOException {
+            UsuarioSessao usuario) throws ServletException, IOException {
 
-        System.out.println("💾 Iniciando EDIÇÃO de venda");
+        LOG.debug("💾 Iniciando EDIÇÃO de venda");
 
         // ========== LER PARÂMETROS ==========
         String idStr = request.getParameter("id");
@@ -622,17 +606,17 @@ public class VendaController extends HttpServlet {
         String emitirNF = request.getParameter("emitirNF");
         String numeroNF = request.getParameter("numeroNF");
 
-        System.out.println("📋 Parâmetros recebidos:");
-        System.out.println("   - ID: " + idStr);
-        System.out.println("   - Categoria: " + categoriaStr);
-        System.out.println("   - Valor: " + valorStr);
-        System.out.println("   - Emitir NF: " + emitirNF);
-        System.out.println("   - Número NF: " + numeroNF);
+        LOG.debug("📋 Parâmetros recebidos:");
+        LOG.debug("   - ID: {}", idStr);
+        LOG.debug("   - Categoria: {}", categoriaStr);
+        LOG.debug("   - Valor: {}", valorStr);
+        LOG.debug("   - Emitir NF: {}", emitirNF);
+        LOG.debug("   - Número NF: {}", numeroNF);
 
         // ========== VALIDAR ID ==========
         if (idStr == null || idStr.isEmpty()) {
-            System.err.println("❌ ID não informado!");
-            session.setAttribute("erro", "ID da venda não informado!");
+            LOG.aviso("❌ ID não informado!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "ID da venda não informado!");
             response.sendRedirect(request.getContextPath() + "/historico");
             return;
         }
@@ -640,25 +624,25 @@ public class VendaController extends HttpServlet {
         int vendaId;
         try {
             vendaId = Integer.parseInt(idStr);
-            System.out.println("✅ ID convertido: " + vendaId);
+            LOG.debug("✅ ID convertido: {}", vendaId);
         } catch (NumberFormatException e) {
-            System.err.println("❌ ID inválido!");
-            session.setAttribute("erro", "ID inválido!");
+            LOG.aviso("❌ ID inválido!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "ID inválido!");
             response.sendRedirect(request.getContextPath() + "/historico");
             return;
         }
 
         // ========== VALIDAÇÕES (mesmo código do cadastro) ==========
         if (categoriaStr == null || categoriaStr.isEmpty()) {
-            System.err.println("❌ Categoria vazia!");
-            session.setAttribute("erro", "Categoria é obrigatória!");
+            LOG.aviso("❌ Categoria vazia!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Categoria é obrigatória!");
             response.sendRedirect("venda?acao=editar&id=" + idStr);
             return;
         }
 
         if (valorStr == null || valorStr.isEmpty()) {
-            System.err.println("❌ Valor vazio!");
-            session.setAttribute("erro", "Valor é obrigatório!");
+            LOG.aviso("❌ Valor vazio!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor é obrigatório!");
             response.sendRedirect("venda?acao=editar&id=" + idStr);
             return;
         }
@@ -667,17 +651,17 @@ public class VendaController extends HttpServlet {
         try {
             valorStr = valorStr.replace(",", ".");
             valor = Double.parseDouble(valorStr);
-            System.out.println("✅ Valor convertido: " + valor);
+            LOG.debug("✅ Valor convertido: {}", valor);
         } catch (NumberFormatException e) {
-            System.err.println("❌ Erro ao converter valor!");
-            session.setAttribute("erro", "Valor inválido!");
+            LOG.aviso("❌ Erro ao converter valor!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor inválido!");
             response.sendRedirect("venda?acao=editar&id=" + idStr);
             return;
         }
 
         if (valor <= 0) {
-            System.err.println("❌ Valor <= 0!");
-            session.setAttribute("erro", "Valor deve ser maior que zero!");
+            LOG.aviso("❌ Valor <= 0!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Valor deve ser maior que zero!");
             response.sendRedirect("venda?acao=editar&id=" + idStr);
             return;
         }
@@ -685,10 +669,10 @@ public class VendaController extends HttpServlet {
         int categoriaId;
         try {
             categoriaId = Integer.parseInt(categoriaStr);
-            System.out.println("✅ Categoria ID: " + categoriaId);
+            LOG.debug("✅ Categoria ID: {}", categoriaId);
         } catch (NumberFormatException e) {
-            System.err.println("❌ Erro ao converter categoria ID!");
-            session.setAttribute("erro", "Categoria inválida!");
+            LOG.aviso("❌ Erro ao converter categoria ID!");
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Categoria inválida!");
             response.sendRedirect("venda?acao=editar&id=" + idStr);
             return;
         }
@@ -699,8 +683,8 @@ public class VendaController extends HttpServlet {
 
         if ("S".equalsIgnoreCase(emitirNF)) {
             if (numeroNF == null || numeroNF.trim().isEmpty()) {
-                System.err.println("❌ NF marcada mas número vazio!");
-                session.setAttribute("erro", "Número da Nota Fiscal é obrigatório!");
+                LOG.aviso("❌ NF marcada mas número vazio!");
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Número da Nota Fiscal é obrigatório!");
                 response.sendRedirect("venda?acao=editar&id=" + idStr);
                 return;
             }
@@ -708,22 +692,22 @@ public class VendaController extends HttpServlet {
 
         try (Connection conexao = Conexao.getConnection()) {
 
-            System.out.println("✅ Conexão obtida");
+            LOG.debug("✅ Conexão obtida");
 
             // ========== BUSCAR VENDA EXISTENTE ==========
             VendasDAO vendasDAO = new VendasDAO(conexao);
-            System.out.println("⏳ Buscando venda ID " + vendaId + "...");
+            LOG.debug("⏳ Buscando venda ID {}...", vendaId);
 
             Vendas venda = vendasDAO.buscar(vendaId);
 
             if (venda == null) {
-                System.err.println("❌ Venda não encontrada!");
-                session.setAttribute("erro", "Venda não encontrada!");
+                LOG.aviso("❌ Venda não encontrada!");
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Venda não encontrada!");
                 response.sendRedirect(request.getContextPath() + "/historico");
                 return;
             }
 
-            System.out.println("✅ Venda encontrada, atualizando dados...");
+            LOG.debug("✅ Venda encontrada, atualizando dados...");
 
             // ========== ATUALIZAR DADOS ==========
             venda.setValor((float) valor);
@@ -734,10 +718,10 @@ public class VendaController extends HttpServlet {
             categoria.setIdCategoria(categoriaId);
             venda.setCategoria(categoria);
 
-            System.out.println("📝 Dados atualizados:");
-            System.out.println("   - Novo valor: " + venda.getValor());
-            System.out.println("   - Nova categoria: " + categoriaId);
-            System.out.println("   - Nova NF: " + venda.getNotaFiscalEmitida());
+            LOG.debug("📝 Dados atualizados:");
+            LOG.debug("   - Novo valor: {}", venda.getValor());
+            LOG.debug("   - Nova categoria: {}", categoriaId);
+            LOG.debug("   - Nova NF: {}", venda.getNotaFiscalEmitida());
 
             // ========== ATUALIZAR NOTA FISCAL ==========
             if ("S".equalsIgnoreCase(emitirNF) && numeroNF != null && !numeroNF.trim().isEmpty()) {
@@ -746,46 +730,43 @@ public class VendaController extends HttpServlet {
                 if (nf == null) {
                     nf = new NotaFiscal();
                     nf.setDataEmissao(new Date());
-                    System.out.println("📄 Criando nova Nota Fiscal");
+                    LOG.debug("📄 Criando nova Nota Fiscal");
                 } else {
-                    System.out.println("📄 Atualizando Nota Fiscal existente");
+                    LOG.debug("📄 Atualizando Nota Fiscal existente");
                 }
 
                 nf.setNumero(numeroNF.trim());
                 nf.setValor((float) valor);
                 venda.setNotaFiscal(nf);
 
-                System.out.println("   - Número: " + nf.getNumero());
-                System.out.println("   - Valor: " + nf.getValor());
+                LOG.debug("   - Número: {}", nf.getNumero());
+                LOG.debug("   - Valor: {}", nf.getValor());
 
             } else {
                 // Remover NF se mudou para "N"
                 venda.setNotaFiscal(null);
-                System.out.println("🗑️ Nota Fiscal removida (emitirNF = N)");
+                LOG.debug("🗑️ Nota Fiscal removida (emitirNF = N)");
             }
 
             // ========== SALVAR NO BANCO ==========
-            System.out.println("⏳ Salvando alterações no banco...");
+            LOG.debug("⏳ Salvando alterações no banco...");
 
             try {
                 vendasDAO.editar(venda);
-                System.out.println("✅ Venda ID " + vendaId + " atualizada com sucesso!");
-                System.out.println("=====================================\n");
+                LOG.info("✅ Venda ID {} atualizada com sucesso!", vendaId);
 
-                session.setAttribute("sucesso", "Venda atualizada com sucesso!");
+                MensagemFlash.gravar(request, response, MensagemFlash.SUCESSO, "Venda atualizada com sucesso!");
                 response.sendRedirect(request.getContextPath() + "/historico");
 
             } catch (Exception e) {
-                System.err.println("❌ ERRO ao atualizar venda:");
-                e.printStackTrace();
-                session.setAttribute("erro", "Erro ao atualizar venda: " + e.getMessage());
+                LOG.erro("❌ ERRO ao atualizar venda", e);
+                MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro ao atualizar venda: " + e.getMessage());
                 response.sendRedirect("venda?acao=editar&id=" + idStr);
             }
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO GERAL ao editar venda:");
-            e.printStackTrace();
-            session.setAttribute("erro", "Erro de conexão: " + e.getMessage());
+            LOG.erro("❌ ERRO GERAL ao editar venda", e);
+            MensagemFlash.gravar(request, response, MensagemFlash.ERRO, "Erro de conexão: " + e.getMessage());
             response.sendRedirect("venda?acao=editar&id=" + idStr);
         }
     }
@@ -2,8 +2,15 @@ package br.com.projeto.dao;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import br.com.projeto.model.Categoria;
+import br.com.projeto.utils.Log;
 
 /**
  * ================================================================
@@ -21,12 +28,24 @@ import br.com.projeto.model.Categoria;
  * - atualizar(Categoria)        → Atualiza categoria existente
  * - deletar(int)                → Exclusão lógica (soft delete)
  * - deletarPermanentemente(int) → Exclusão física (hard delete)
+ * - buscarPorNome(String)       → Busca por nome (ignora maiúsculas)
+ *
+ * CACHE EM MEMÓRIA:
+ * A tabela tem poucas linhas e quase nunca muda, mas listar() roda em
+ * todo dashboard e formulário de venda. As leituras usam um snapshot
+ * imutável (por id e por nome) compartilhado por toda a aplicação;
+ * só a primeira leitura vai ao banco. inserir(), atualizar(), deletar()
+ * e deletarPermanentemente() descartam o snapshot depois de gravados
+ * (em transação, quem faz o commit chama invalidarCache()); a próxima
+ * leitura recarrega com a própria conexão. getAcertosCache()/getFalhasCache() mostram se o banco
+ * ainda está sendo consultado.
  *
  * TABELA:
  * Nome: categoria
  * Colunas:
  * - id_categoria   INT PRIMARY KEY AUTO_INCREMENT
  * - nome_categoria VARCHAR(100) NOT NULL
+ * - secao_fiscal   TINYINT NOT NULL (0-3, Categoria.SecaoFiscal)
  * - ativo          BOOLEAN DEFAULT TRUE
  *
  * SOFT DELETE:
@@ -38,10 +57,12 @@ import br.com.projeto.model.Categoria;
  * - Try-with-resources para fechar recursos automaticamente
  *
  * @author Sistema MEI
- * @version 2.0 - Super comentado
+ * @version 2.1 - Cache de categorias
  */
 public class CategoriaDAO {
 
+    private static final Log LOG = Log.para(CategoriaDAO.class);
+
     /* ================================================================
        ATRIBUTO - Conexão com banco
        ================================================================ */
@@ -52,6 +73,28 @@ public class CategoriaDAO {
      */
     private Connection conexao;
 
+    /* ================================================================
+       CACHE - Snapshot imutável compartilhado (static)
+       ================================================================
+
+       CACHE guarda o snapshot atual. Leitores só fazem CACHE.get():
+       sem lock, sem banco.
+
+       VERSAO é incrementada ANTES de cada recarga; um snapshot só
+       substitui o atual se for de versão maior. Assim, duas escritas
+       simultâneas nunca deixam um snapshot mais antigo por último.
+
+       Nunca há null: "não carregado" é um snapshot PENDENTE com
+       versão própria. invalidarCache() publica um pendente de versão
+       nova, e uma recarga que começou antes dele (versão menor) não
+       consegue mais publicar o que leu.
+    */
+
+    private static final AtomicReference<Snapshot> CACHE = new AtomicReference<>(Snapshot.pendente(0));
+    private static final AtomicLong VERSAO = new AtomicLong();
+    private static final AtomicLong ACERTOS = new AtomicLong();
+    private static final AtomicLong FALHAS = new AtomicLong();
+
     /* ================================================================
        CONSTRUTOR
        ================================================================ */
@@ -99,37 +142,13 @@ public class CategoriaDAO {
      * }
      * ```
      *
-     * SQL executado:
-     * SELECT id_categoria, nome_categoria, ativo
-     * FROM categoria
-     * WHERE ativo = 1
-     * ORDER BY nome_categoria
+     * Vem do cache: o banco só é lido na primeira chamada
+     * (ou após uma escrita), carregando todas as categorias
+     * e filtrando as ativas em memória.
      */
     public List<Categoria> listar() throws Exception {
-        List<Categoria> categorias = new ArrayList<>();
-
-        // ========== SQL: APENAS ATIVAS ==========
-        String sql = "SELECT id_categoria, nome_categoria, ativo " +
-                     "FROM categoria " +
-                     "WHERE ativo = 1 " +
-                     "ORDER BY nome_categoria";
-
-        // ========== TRY-WITH-RESOURCES ==========
-        // Fecha stmt e rs automaticamente
-        try (PreparedStatement stmt = conexao.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            // ========== PROCESSAR RESULTADOS ==========
-            while (rs.next()) {
-                Categoria categoria = new Categoria();
-                categoria.setIdCategoria(rs.getInt("id_categoria"));
-                categoria.setNomeCategoria(rs.getString("nome_categoria"));
-                categoria.setAtivo(rs.getBoolean("ativo"));
-                categorias.add(categoria);
-            }
-        }
-
-        return categorias;
+        // ========== DO CACHE (já ordenado por nome) ==========
+        return copiar(snapshot().ativas);
     }
 
     /* ================================================================
@@ -159,33 +178,26 @@ public class CategoriaDAO {
      * }
      * ```
      *
-     * SQL executado:
-     * SELECT id_categoria, nome_categoria, ativo
-     * FROM categoria
-     * ORDER BY nome_categoria
+     * Vem do cache (mesmo snapshot de listar()).
      */
     public List<Categoria> listarTodas() throws Exception {
-        List<Categoria> categorias = new ArrayList<>();
-
-        // ========== SQL: TODAS (SEM WHERE) ==========
-        String sql = "SELECT id_categoria, nome_categoria, ativo " +
-                     "FROM categoria " +
-                     "ORDER BY nome_categoria";
-
-        try (PreparedStatement stmt = conexao.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        return copiar(snapshot().todas);
+    }
 
-            // ========== PROCESSAR RESULTADOS ==========
-            while (rs.next()) {
-                Categoria categoria = new Categoria();
-                categoria.setIdCategoria(rs.getInt("id_categoria"));
-                categoria.setNomeCategoria(rs.getString("nome_categoria"));
-                categoria.setAtivo(rs.getBoolean("ativo"));
-                categorias.add(categoria);
-            }
+    /**
+     * Categorias ATIVAS, só se o snapshot já está em memória: não usa
+     * conexão (ex.: dashboard, sem pegar vaga do pool para isso).
+     *
+     * @return cópia das ativas ou null se o snapshot não está carregado
+     *         (aí use listar() com uma conexão)
+     */
+    public static List<Categoria> listarDoCache() {
+        Snapshot atual = CACHE.get();
+        if (!atual.carregado) {
+            return null;
         }
-
-        return categorias;
+        ACERTOS.incrementAndGet();
+        return copiar(atual.ativas);
     }
 
     /* ================================================================
@@ -219,31 +231,22 @@ public class CategoriaDAO {
      * Usa PreparedStatement com parâmetro (? previne SQL injection)
      */
     public Categoria buscarPorId(int id) throws Exception {
-        Categoria categoria = null;
-
-        // ========== SQL COM PARÂMETRO ==========
-        String sql = "SELECT id_categoria, nome_categoria, ativo " +
-                     "FROM categoria " +
-                     "WHERE id_categoria = ?";
-
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
-
-            // ========== SETAR PARÂMETRO ==========
-            stmt.setInt(1, id);
-
-            try (ResultSet rs = stmt.executeQuery()) {
+        // ========== DO CACHE (inclui inativas, como o SELECT antigo) ==========
+        return copiar(snapshot().porId.get(id));
+    }
 
-                // ========== PROCESSAR RESULTADO ==========
-                if (rs.next()) {
-                    categoria = new Categoria();
-                    categoria.setIdCategoria(rs.getInt("id_categoria"));
-                    categoria.setNomeCategoria(rs.getString("nome_categoria"));
-                    categoria.setAtivo(rs.getBoolean("ativo"));
-                }
-            }
+    /**
+     * Busca categoria pelo nome, sem diferenciar maiúsculas/minúsculas.
+     *
+     * @param nome Nome da categoria
+     * @return Categoria ou null se não encontrada
+     * @throws Exception Se erro no banco (apenas na primeira carga)
+     */
+    public Categoria buscarPorNome(String nome) throws Exception {
+        if (nome == null) {
+            return null;
         }
-
-        return categoria;
+        return copiar(snapshot().porNome.get(chaveNome(nome)));
     }
 
     /* ================================================================
@@ -284,8 +287,8 @@ public class CategoriaDAO {
     public void inserir(Categoria categoria) throws Exception {
 
         // ========== SQL COM PARÂMETROS ==========
-        String sql = "INSERT INTO categoria (nome_categoria, ativo) " +
-                     "VALUES (?, ?)";
+        String sql = "INSERT INTO categoria (nome_categoria, secao_fiscal, ativo) " +
+                     "VALUES (?, ?, ?)";
 
         // ========== RETURN_GENERATED_KEYS ==========
         // Permite pegar o ID auto_increment gerado
@@ -294,7 +297,8 @@ public class CategoriaDAO {
 
             // ========== SETAR PARÂMETROS ==========
             stmt.setString(1, categoria.getNomeCategoria());
-            stmt.setBoolean(2, categoria.isAtivo());
+            stmt.setInt(2, categoria.getSecaoFiscal().getCodigo());
+            stmt.setBoolean(3, categoria.isAtivo());
 
             // ========== EXECUTAR INSERT ==========
             stmt.executeUpdate();
@@ -306,6 +310,8 @@ public class CategoriaDAO {
                 }
             }
         }
+
+        invalidarAposEscrita();
     }
 
     /* ================================================================
@@ -341,19 +347,22 @@ public class CategoriaDAO {
 
         // ========== SQL COM PARÂMETROS ==========
         String sql = "UPDATE categoria " +
-                     "SET nome_categoria = ?, ativo = ? " +
+                     "SET nome_categoria = ?, secao_fiscal = ?, ativo = ? " +
                      "WHERE id_categoria = ?";
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
 
             // ========== SETAR PARÂMETROS ==========
             stmt.setString(1, categoria.getNomeCategoria());
-            stmt.setBoolean(2, categoria.isAtivo());
-            stmt.setInt(3, categoria.getIdCategoria());
+            stmt.setInt(2, categoria.getSecaoFiscal().getCodigo());
+            stmt.setBoolean(3, categoria.isAtivo());
+            stmt.setInt(4, categoria.getIdCategoria());
 
             // ========== EXECUTAR UPDATE ==========
             stmt.executeUpdate();
         }
+
+        invalidarAposEscrita();
     }
 
     /* ================================================================
@@ -411,6 +420,8 @@ public class CategoriaDAO {
             // ========== EXECUTAR UPDATE ==========
             stmt.executeUpdate();
         }
+
+        invalidarAposEscrita();
     }
 
     /* ================================================================
@@ -465,6 +476,179 @@ public class CategoriaDAO {
             // ========== EXECUTAR DELETE ==========
             stmt.executeUpdate();
         }
+
+        invalidarAposEscrita();
+    }
+
+    /* ================================================================
+       CACHE - Estatísticas e invalidação manual
+       ================================================================ */
+
+    /** @return Leituras atendidas pelo snapshot em memória */
+    public static long getAcertosCache() {
+        return ACERTOS.get();
+    }
+
+    /** @return Leituras que precisaram carregar o snapshot do banco */
+    public static long getFalhasCache() {
+        return FALHAS.get();
+    }
+
+    /**
+     * Descarta o snapshot (ex.: categoria alterada direto no banco, ou
+     * escrita em transação: chamar depois do commit).
+     * A próxima leitura recarrega, com a própria conexão.
+     */
+    public static void invalidarCache() {
+        Snapshot pendente = Snapshot.pendente(VERSAO.incrementAndGet());
+        CACHE.accumulateAndGet(pendente,
+                (atual, candidato) -> candidato.versao > atual.versao ? candidato : atual);
+    }
+
+    /* ================================================================
+       CACHE - Métodos auxiliares
+       ================================================================ */
+
+    /**
+     * Depois de uma escrita. Com autocommit a linha já está gravada:
+     * descarta o snapshot. Em transação, quem der o commit chama
+     * invalidarCache() (recarregar aqui publicaria para todos uma linha
+     * que ainda pode sofrer rollback).
+     */
+    private void invalidarAposEscrita() throws SQLException {
+        if (conexao.getAutoCommit()) {
+            invalidarCache();
+        }
+    }
+
+    /**
+     * Snapshot atual; carrega do banco na primeira vez (ou após invalidar).
+     */
+    private Snapshot snapshot() throws Exception {
+        Snapshot atual = CACHE.get();
+        if (atual.carregado) {
+            ACERTOS.incrementAndGet();
+            return atual;
+        }
+        FALHAS.incrementAndGet();
+        return recarregarCache();
+    }
+
+    /**
+     * Lê a tabela inteira e publica um novo snapshot, a menos que outra
+     * thread já tenha publicado um de versão mais nova (recarga ou
+     * invalidação).
+     */
+    private Snapshot recarregarCache() throws Exception {
+        long versao = VERSAO.incrementAndGet();
+        Snapshot novo = new Snapshot(versao, carregarDoBanco());
+        Snapshot publicado = CACHE.accumulateAndGet(novo,
+                (atual, candidato) -> candidato.versao > atual.versao ? candidato : atual);
+
+        // Invalidado durante a leitura: esta chamada usa o que leu, mas
+        // a próxima leitura recarrega
+        return publicado.carregado ? publicado : novo;
+    }
+
+    /**
+     * SELECT de todas as categorias (ativas + inativas), por nome.
+     */
+    private List<Categoria> carregarDoBanco() throws Exception {
+        List<Categoria> categorias = new ArrayList<>();
+
+        String sql = "SELECT id_categoria, nome_categoria, secao_fiscal, ativo " +
+                     "FROM categoria " +
+                     "ORDER BY nome_categoria";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                categorias.add(new Categoria(
+                        rs.getInt("id_categoria"),
+                        rs.getString("nome_categoria"),
+                        rs.getBoolean("ativo"),
+                        Categoria.SecaoFiscal.doCodigo(rs.getInt("secao_fiscal"))));
+            }
+        }
+
+        LOG.debug("🗂️ Cache de categorias carregado: {} categorias", categorias.size());
+        return categorias;
+    }
+
+    private static String chaveNome(String nome) {
+        return nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Categoria tem setters: quem chama recebe cópias, para que
+     * alterações locais nunca vazem para o snapshot compartilhado.
+     */
+    private static Categoria copiar(Categoria c) {
+        return c == null ? null
+                : new Categoria(c.getIdCategoria(), c.getNomeCategoria(), c.isAtivo(), c.getSecaoFiscal());
+    }
+
+    private static List<Categoria> copiar(List<Categoria> categorias) {
+        List<Categoria> copia = new ArrayList<>(categorias.size());
+        for (Categoria c : categorias) {
+            copia.add(copiar(c));
+        }
+        return copia;
+    }
+
+    /**
+     * Fotografia imutável da tabela categoria.
+     */
+    private static final class Snapshot {
+        final long versao;
+        /** false = pendente (ainda não carregado ou invalidado) */
+        final boolean carregado;
+        final List<Categoria> todas;
+        final List<Categoria> ativas;
+        final Map<Integer, Categoria> porId;
+        final Map<String, Categoria> porNome;
+
+        Snapshot(long versao, List<Categoria> categorias) {
+            List<Categoria> ativas = new ArrayList<>();
+            Map<Integer, Categoria> porId = new HashMap<>();
+            Map<String, Categoria> porNome = new HashMap<>();
+
+            for (Categoria c : categorias) {
+                if (c.isAtivo()) {
+                    ativas.add(c);
+                }
+                porId.put(c.getIdCategoria(), c);
+                if (c.getNomeCategoria() != null) {
+                    // Nome repetido: a ativa vence a inativa
+                    String chave = chaveNome(c.getNomeCategoria());
+                    Categoria existente = porNome.get(chave);
+                    if (existente == null || (!existente.isAtivo() && c.isAtivo())) {
+                        porNome.put(chave, c);
+                    }
+                }
+            }
+
+            this.versao = versao;
+            this.carregado = true;
+            this.todas = Collections.unmodifiableList(new ArrayList<>(categorias));
+            this.ativas = Collections.unmodifiableList(ativas);
+            this.porId = Collections.unmodifiableMap(porId);
+            this.porNome = Collections.unmodifiableMap(porNome);
+        }
+
+        private Snapshot(long versao) {
+            this.versao = versao;
+            this.carregado = false;
+            this.todas = Collections.emptyList();
+            this.ativas = Collections.emptyList();
+            this.porId = Collections.emptyMap();
+            this.porNome = Collections.emptyMap();
+        }
+
+        static Snapshot pendente(long versao) {
+            return new Snapshot(versao);
+        }
     }
 }
 
@@ -480,6 +664,14 @@ public class CategoriaDAO {
    5. atualizar(Categoria)        → Editar existente
    6. deletar(int)                → Soft delete (ativo=0)
    7. deletarPermanentemente(int) → Hard delete (remove)
+   8. buscarPorNome(String)       → Por nome (do cache)
+
+   CACHE:
+   ✅ Leituras (1, 2, 3, 8) vêm de um snapshot imutável em memória
+   ✅ Escritas (4-7) descartam o snapshot depois de gravadas; a próxima
+      leitura recarrega (em transação: invalidarCache() após o commit)
+   ✅ getAcertosCache() / getFalhasCache() para conferir
+   ⚠️ Alteração feita direto no banco: chamar invalidarCache()
 
    SOFT DELETE:
    ✅ deletar() marca ativo=0 (recomendado)
@@ -1,6 +1,7 @@
 package br.com.projeto.dao;
 
 import java.sql.*;
+import br.com.projeto.utils.Log;
 
 /**
  * ================================================================
@@ -35,6 +36,8 @@ import java.sql.*;
  */
 public class GenericoDAO {
 
+    private static final Log LOG = Log.para(GenericoDAO.class);
+
     /* ================================================================
        ATRIBUTO - Conexão com banco
        ================================================================ */
@@ -299,7 +302,7 @@ public class GenericoDAO {
             }
         } catch (SQLException e) {
             // ========== LOG DE ERRO ==========
-            e.printStackTrace();
+            LOG.erro("❌ Erro ao fechar conexão", e);
         }
     }
 }
@@ -2,7 +2,12 @@ package br.com.projeto.dao;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import br.com.projeto.model.MetPag;
 
 /**
@@ -20,6 +25,14 @@ import br.com.projeto.model.MetPag;
  * - editar(MetPag)     → Atualiza método existente
  * - excluir(int)       → Exclusão lógica (soft delete)
  * - buscar(int)        → Busca método específico
+ * - buscarDescricao(int) → Descrição por ID (inclui inativos)
+ *
+ * CACHE EM MEMÓRIA (versionado):
+ * A tabela é minúscula e quase só lida. listar(), buscar() e
+ * buscarDescricao() usam um cache compartilhado (lista de ativos +
+ * mapa id → MetPag). inserir(), editar() e excluir() só incrementam
+ * VERSAO; a próxima leitura percebe que o cache é de versão antiga
+ * e recarrega. PagamentoDAO usa buscarDescricao() em vez de JOIN.
  *
  * TABELA:
  * Nome: metodo_pagamento
@@ -45,7 +58,7 @@ import br.com.projeto.model.MetPag;
  * - Try-with-resources para fechar recursos
  *
  * @author Sistema MEI
- * @version 2.0 - Super comentado
+ * @version 2.1 - Cache versionado
  */
 public class MetPagDAO {
 
@@ -59,6 +72,28 @@ public class MetPagDAO {
      */
     private Connection conexao;
 
+    /* ================================================================
+       CACHE - Compartilhado por toda a aplicação (static)
+       ================================================================
+
+       VERSAO: incrementada a cada escrita (invalida o cache).
+       CACHE:  último carregamento + a versão vigente quando começou.
+       Cache válido ⇔ cache.versao == VERSAO.get().
+
+       Se uma escrita acontecer DURANTE um carregamento, o cache
+       publicado já nasce com versão antiga e será recarregado.
+    */
+
+    private static final AtomicLong VERSAO = new AtomicLong();
+    private static final AtomicReference<Cache> CACHE = new AtomicReference<>();
+
+    /**
+     * ID ausente em buscarDescricao() recarrega no máximo uma vez a cada
+     * RECARGA_POR_FALTA_MS (id velho ou inválido não derruba o cache).
+     */
+    private static final long RECARGA_POR_FALTA_MS = 30_000;
+    private static final AtomicLong ULTIMA_RECARGA_POR_FALTA = new AtomicLong();
+
     /* ================================================================
        CONSTRUTOR
        ================================================================ */
@@ -137,6 +172,8 @@ public class MetPagDAO {
             // ========== FECHAR STATEMENT ==========
             stmt.close();
         }
+
+        invalidarCache();
     }
 
     /* ================================================================
@@ -173,39 +210,15 @@ public class MetPagDAO {
      * </select>
      * ```
      *
-     * SQL executado:
-     * SELECT * FROM metodo_pagamento
-     * WHERE ativo = true
-     * ORDER BY descricao
+     * Vem do cache: o banco só é lido quando a versão mudou
+     * (SELECT de todos os métodos, filtrando ativos em memória).
      */
     public List<MetPag> listar() throws Exception {
-
+        // ========== DO CACHE (já ordenado por descrição) ==========
         List<MetPag> metPags = new ArrayList<>();
-
-        // ========== SQL: APENAS ATIVOS ==========
-        String sql = "SELECT * FROM metodo_pagamento " +
-                "WHERE ativo = true " +
-                "ORDER BY descricao";
-
-        PreparedStatement stmt = conexao.prepareStatement(sql);
-        ResultSet rs = stmt.executeQuery();
-
-        try {
-            // ========== PROCESSAR RESULTADOS ==========
-            while (rs.next()) {
-                // Construtor: MetPag(id, descricao)
-                MetPag metPag = new MetPag(
-                        rs.getInt("id_metpag"),
-                        rs.getString("descricao")
-                );
-                metPags.add(metPag);
-            }
-        } finally {
-            // ========== FECHAR RECURSOS ==========
-            rs.close();
-            stmt.close();
+        for (MetPag m : cache().ativos) {
+            metPags.add(copiar(m));
         }
-
         return metPags;
     }
 
@@ -259,6 +272,8 @@ public class MetPagDAO {
             // ========== FECHAR STATEMENT ==========
             stmt.close();
         }
+
+        invalidarCache();
     }
 
     /* ================================================================
@@ -322,6 +337,8 @@ public class MetPagDAO {
             // ========== FECHAR STATEMENT ==========
             stmt.close();
         }
+
+        invalidarCache();
     }
 
     /* ================================================================
@@ -353,40 +370,138 @@ public class MetPagDAO {
      *
      * IMPORTANTE:
      * Retorna null se método estiver inativo (ativo=false).
-     * Para buscar inclusive inativos, remova "AND ativo = true" do SQL.
+     * Para buscar inclusive inativos, use buscarDescricao(id).
      *
-     * SQL executado:
-     * SELECT * FROM metodo_pagamento
-     * WHERE id_metpag = ? AND ativo = true
+     * Vem do cache (mapa id → MetPag dos ativos).
      */
     public MetPag buscar(int id) throws Exception {
+        // ========== DO CACHE, APENAS ATIVOS ==========
+        MetPag metPag = cache().ativosPorId.get(id);
+        return metPag != null ? copiar(metPag) : null;
+    }
 
-        // ========== SQL COM FILTRO ATIVO ==========
-        String sql = "SELECT * FROM metodo_pagamento " +
-                "WHERE id_metpag = ? AND ativo = true";
+    /* ================================================================
+       MÉTODO 6: BUSCAR DESCRIÇÃO - Para listagens de pagamento
+       ================================================================
 
-        PreparedStatement stmt = conexao.prepareStatement(sql);
-        stmt.setInt(1, id);
-        ResultSet rs = stmt.executeQuery();
+       Usado por: PagamentoDAO (substitui o JOIN com metodo_pagamento)
 
-        MetPag metPag = null;
+       Inclui métodos inativos: pagamentos antigos continuam
+       mostrando o nome do método mesmo após soft delete.
+    */
 
-        try {
-            // ========== PROCESSAR RESULTADO ==========
-            if (rs.next()) {
-                // Construtor: MetPag(id, descricao)
-                metPag = new MetPag(
-                        rs.getInt("id_metpag"),
-                        rs.getString("descricao")
-                );
+    /**
+     * Descrição do método de pagamento pelo ID.
+     *
+     * Se o ID não estiver no cache (método criado por outro processo),
+     * recarrega antes de desistir, no máximo uma vez a cada
+     * RECARGA_POR_FALTA_MS para toda a aplicação: um id inexistente
+     * repetido (ex.: pagamentos antigos) não recarrega a cada chamada.
+     *
+     * @param id ID do método
+     * @return Descrição ou null se o método não existir
+     * @throws Exception Se erro no banco
+     */
+    public String buscarDescricao(int id) throws Exception {
+        MetPag metPag = cache().todosPorId.get(id);
+
+        if (metPag == null) {
+            long agora = System.currentTimeMillis();
+            long ultima = ULTIMA_RECARGA_POR_FALTA.get();
+            if (agora - ultima >= RECARGA_POR_FALTA_MS
+                    && ULTIMA_RECARGA_POR_FALTA.compareAndSet(ultima, agora)) {
+                invalidarCache();
+                metPag = cache().todosPorId.get(id);
+            }
+        }
+
+        return metPag != null ? metPag.getDescricao() : null;
+    }
+
+    /* ================================================================
+       CACHE - Métodos auxiliares
+       ================================================================ */
+
+    /**
+     * Invalida o cache (próxima leitura recarrega do banco).
+     */
+    public static void invalidarCache() {
+        VERSAO.incrementAndGet();
+    }
+
+    /**
+     * Cache vigente; recarrega se alguma escrita mudou a versão.
+     */
+    private Cache cache() throws Exception {
+        long versao = VERSAO.get();
+        Cache atual = CACHE.get();
+        if (atual != null && atual.versao == versao) {
+            return atual;
+        }
+
+        // Versão lida ANTES do SELECT: escrita concorrente invalida de novo
+        Cache novo = new Cache(versao, carregarDoBanco());
+        return CACHE.accumulateAndGet(novo,
+                (existente, candidato) -> existente == null || candidato.versao >= existente.versao ? candidato : existente);
+    }
+
+    /**
+     * SELECT de todos os métodos (ativos + inativos), por descrição.
+     */
+    private List<Object[]> carregarDoBanco() throws Exception {
+        List<Object[]> linhas = new ArrayList<>();
+
+        String sql = "SELECT id_metpag, descricao, ativo " +
+                "FROM metodo_pagamento " +
+                "ORDER BY descricao";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                MetPag metPag = new MetPag(rs.getInt("id_metpag"), rs.getString("descricao"));
+                linhas.add(new Object[]{metPag, rs.getBoolean("ativo")});
             }
-        } finally {
-            // ========== FECHAR RECURSOS ==========
-            rs.close();
-            stmt.close();
         }
 
-        return metPag;
+        return linhas;
+    }
+
+    /**
+     * MetPag tem setters: devolve cópia para não alterar o cache.
+     */
+    private static MetPag copiar(MetPag m) {
+        return new MetPag(m.getIdMetPag(), m.getDescricao());
+    }
+
+    /**
+     * Fotografia imutável de metodo_pagamento em uma versão.
+     */
+    private static final class Cache {
+        final long versao;
+        final List<MetPag> ativos;
+        final Map<Integer, MetPag> ativosPorId;
+        final Map<Integer, MetPag> todosPorId;
+
+        Cache(long versao, List<Object[]> linhas) {
+            List<MetPag> ativos = new ArrayList<>();
+            Map<Integer, MetPag> ativosPorId = new HashMap<>();
+            Map<Integer, MetPag> todosPorId = new HashMap<>();
+
+            for (Object[] linha : linhas) {
+                MetPag metPag = (MetPag) linha[0];
+                todosPorId.put(metPag.getIdMetPag(), metPag);
+                if ((Boolean) linha[1]) {
+                    ativos.add(metPag);
+                    ativosPorId.put(metPag.getIdMetPag(), metPag);
+                }
+            }
+
+            this.versao = versao;
+            this.ativos = Collections.unmodifiableList(ativos);
+            this.ativosPorId = Collections.unmodifiableMap(ativosPorId);
+            this.todosPorId = Collections.unmodifiableMap(todosPorId);
+        }
     }
 }
 
@@ -400,6 +515,11 @@ public class MetPagDAO {
    3. editar(MetPag)     → Atualizar descrição
    4. excluir(int)       → Soft delete (ativo=false)
    5. buscar(int)        → Por ID (apenas ativos)
+   6. buscarDescricao(int) → Descrição por ID (inclui inativos)
+
+   CACHE VERSIONADO:
+   ✅ Leituras (2, 5, 6) vêm da memória
+   ✅ Escritas (1, 3, 4) incrementam VERSAO → recarga na próxima leitura
 
    SOFT DELETE:
    ✅ excluir() marca ativo=false
@@ -49,10 +49,10 @@ import br.com.projeto.model.MetPag;
  *
  * SEGURANÇA:
  * - PreparedStatement em TODOS os métodos
- * - JOINs com tabelas relacionadas
+ * - JOIN com vendas; descrição do método vem do cache do MetPagDAO
  *
  * @author Sistema MEI
- * @version 2.0 - Super comentado
+ * @version 2.1 - Método de pagamento via cache
  */
 public class PagamentoDAO {
 
@@ -66,6 +66,12 @@ public class PagamentoDAO {
      */
     private Connection conexao;
 
+    /**
+     * Resolve a descrição do método de pagamento pelo cache,
+     * em vez de fazer JOIN com metodo_pagamento a cada listagem.
+     */
+    private MetPagDAO metPagDAO;
+
     /* ================================================================
        CONSTRUTOR
        ================================================================ */
@@ -85,6 +91,7 @@ public class PagamentoDAO {
      */
     public PagamentoDAO(Connection conexao) {
         this.conexao = conexao;
+        this.metPagDAO = new MetPagDAO(conexao);
     }
 
     /* ================================================================
@@ -252,7 +259,7 @@ public class PagamentoDAO {
        Usado por: Relatórios, listagem geral
 
        Retorna todos os pagamentos ativos com dados das tabelas
-       relacionadas (vendas e metodo_pagamento) via JOIN.
+       relacionadas (vendas via JOIN; método de pagamento via cache).
 
        Ordenação: Mais recentes primeiro.
     */
@@ -276,10 +283,9 @@ public class PagamentoDAO {
      * ```
      *
      * QUERY COM JOIN:
-     * Traz dados de 3 tabelas:
      * - pagamento (principal)
      * - vendas (via vendas_id)
-     * - metodo_pagamento (via metpag_id)
+     * A descrição do método (metpag_id) vem do cache do MetPagDAO.
      */
     public List<Pagamento> listarApenasAtivos() throws Exception {
 
@@ -287,11 +293,9 @@ public class PagamentoDAO {
 
         // ========== SQL COM JOINS ==========
         String sql = "SELECT p.*, " +
-                "v.id_vendas, v.valor as valor_venda, " +
-                "m.descricao as metodo_pagamento " +
+                "v.id_vendas, v.valor as valor_venda " +
                 "FROM pagamento p " +
                 "JOIN vendas v ON p.vendas_id = v.id_vendas " +
-                "JOIN metodo_pagamento m ON p.metpag_id = m.id_metpag " +
                 "WHERE p.ativo = true " +
                 "ORDER BY p.data_pagamento DESC";
 
@@ -361,11 +365,9 @@ public class PagamentoDAO {
 
         // ========== SQL COM JOINS E FILTRO ==========
         String sql = "SELECT p.*, " +
-                "v.id_vendas, v.valor as valor_venda, " +
-                "m.descricao as metodo_pagamento " +
+                "v.id_vendas, v.valor as valor_venda " +
                 "FROM pagamento p " +
                 "JOIN vendas v ON p.vendas_id = v.id_vendas " +
-                "JOIN metodo_pagamento m ON p.metpag_id = m.id_metpag " +
                 "WHERE p.ativo = true AND p.vendas_id = ? " +
                 "ORDER BY p.data_pagamento";
 
@@ -420,11 +422,9 @@ public class PagamentoDAO {
 
         // ========== SQL COM JOINS E FILTROS ==========
         String sql = "SELECT p.*, " +
-                "v.id_vendas, v.valor as valor_venda, " +
-                "m.descricao as metodo_pagamento " +
+                "v.id_vendas, v.valor as valor_venda " +
                 "FROM pagamento p " +
                 "JOIN vendas v ON p.vendas_id = v.id_vendas " +
-                "JOIN metodo_pagamento m ON p.metpag_id = m.id_metpag " +
                 "WHERE p.id_pag = ? AND p.ativo = true";
 
         PreparedStatement stmt = conexao.prepareStatement(sql);
@@ -460,7 +460,7 @@ public class PagamentoDAO {
        Este método espera que o ResultSet contenha colunas de JOIN:
        - Colunas de pagamento (p.*)
        - Colunas de vendas (vendas_id, valor_venda)
-       - Colunas de metodo_pagamento (metpag_id, metodo_pagamento)
+       - metpag_id (descrição resolvida pelo cache do MetPagDAO)
     */
 
     /**
@@ -470,7 +470,7 @@ public class PagamentoDAO {
      *
      * @param rs ResultSet com dados do JOIN
      * @return Objeto Pagamento completo
-     * @throws SQLException Se erro ao ler ResultSet
+     * @throws Exception Se erro ao ler ResultSet ou carregar o cache
      *
      * ESTRUTURA DO OBJETO RETORNADO:
      * ```
@@ -485,7 +485,7 @@ public class PagamentoDAO {
      *     └── descricao
      * ```
      */
-    private Pagamento criarPagamentoDoResultSet(ResultSet rs) throws SQLException {
+    private Pagamento criarPagamentoDoResultSet(ResultSet rs) throws Exception {
 
         // ========== CRIAR OBJETO VENDAS ==========
         Vendas venda = new Vendas();
@@ -495,7 +495,7 @@ public class PagamentoDAO {
         // ========== CRIAR OBJETO METPAG ==========
         MetPag metPag = new MetPag();
         metPag.setIdMetPag(rs.getInt("metpag_id"));
-        metPag.setDescricao(rs.getString("metodo_pagamento"));
+        metPag.setDescricao(metPagDAO.buscarDescricao(metPag.getIdMetPag()));
 
         // ========== CRIAR PAGAMENTO COM RELACIONAMENTOS ==========
         // Construtor: Pagamento(id, venda, metPag, valor)
@@ -580,7 +580,8 @@ public class PagamentoDAO {
    Métodos de busca usam JOIN para trazer dados completos:
    - Dados do pagamento
    - Dados da venda
-   - Descrição do método de pagamento
+   A descrição do método de pagamento NÃO usa JOIN: vem do cache
+   versionado do MetPagDAO (tabela minúscula e quase estática).
 
    SEGURANÇA:
    ✅ PreparedStatement
@@ -0,0 +1,165 @@
+package br.com.projeto.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import br.com.projeto.utils.Log;
+
+/**
+ * ================================================================
+ * DAO: TOKEN_REVOGADO
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Tokens de login revogados (logout, troca de senha) antes de
+ * expirar. O banco só serve para espalhar a revogação entre os nós:
+ * cada nó relê as novas revogações periodicamente (RevogacaoTokens)
+ * e valida as requisições contra a cópia em memória.
+ *
+ * MÉTODOS:
+ * - inserir(String, int, long)  → Revoga um token
+ * - inserirCorte(int, long, long) → Revoga os tokens do usuário
+ *                                  emitidos antes do corte
+ * - listarCortesDesde(long)     → Cortes a partir de um instante
+ * - listarDesde(long)           → Revogações a partir de um instante
+ * - excluirExpirados(long)      → Limpa o que já expirou de qualquer jeito
+ *
+ * TABELA:
+ * Nome: token_revogado
+ * Colunas: id_token, usuario_id, expira_em, revogado_em
+ * Corte por usuário: id_token = "u:" + usuario_id, revogado_em = corte
+ * (ids de token são base64url, nunca têm ':')
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.utils.RevogacaoTokens
+ */
+public class TokenRevogadoDAO {
+
+    private static final Log LOG = Log.para(TokenRevogadoDAO.class);
+
+    /** Prefixo do id_token das linhas de corte por usuário */
+    public static final String ID_CORTE = "u:";
+
+    private Connection conexao;
+
+    public TokenRevogadoDAO(Connection conexao) {
+        this.conexao = conexao;
+    }
+
+    /**
+     * Revoga o token (repetir a revogação não é erro).
+     *
+     * @param idToken   Identificador do token (jti)
+     * @param usuarioId Dono do token
+     * @param expiraEm  Depois disso o token já é inválido (ms desde 1970)
+     */
+    public void inserir(String idToken, int usuarioId, long expiraEm) throws SQLException {
+
+        String sql = "INSERT INTO token_revogado (id_token, usuario_id, expira_em, revogado_em) " +
+                "VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE expira_em = GREATEST(expira_em, VALUES(expira_em))";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, idToken);
+            stmt.setInt(2, usuarioId);
+            stmt.setLong(3, expiraEm);
+            stmt.setLong(4, System.currentTimeMillis());
+            stmt.executeUpdate();
+        }
+
+        LOG.debug("✅ Token revogado (usuário {})", usuarioId);
+    }
+
+    /**
+     * Troca de senha: tokens do usuário emitidos antes de corte deixam
+     * de valer. Repetir só avança o corte.
+     *
+     * @param corte    Tokens emitidos antes disso são inválidos (ms)
+     * @param expiraEm Depois disso nenhum deles passaria (ms)
+     */
+    public void inserirCorte(int usuarioId, long corte, long expiraEm) throws SQLException {
+
+        String sql = "INSERT INTO token_revogado (id_token, usuario_id, expira_em, revogado_em) " +
+                "VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE expira_em = GREATEST(expira_em, VALUES(expira_em)), " +
+                "revogado_em = GREATEST(revogado_em, VALUES(revogado_em))";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, ID_CORTE + usuarioId);
+            stmt.setInt(2, usuarioId);
+            stmt.setLong(3, expiraEm);
+            stmt.setLong(4, corte);
+            stmt.executeUpdate();
+        }
+
+        LOG.debug("✅ Tokens do usuário {} revogados", usuarioId);
+    }
+
+    /**
+     * @param desde Instante (ms) da última leitura, com folga
+     * @return usuario_id → corte dos cortes gravados desde então que
+     *         ainda não expiraram
+     */
+    public Map<Integer, Long> listarCortesDesde(long desde) throws SQLException {
+
+        String sql = "SELECT usuario_id, revogado_em FROM token_revogado " +
+                "WHERE revogado_em >= ? AND expira_em > ? AND id_token LIKE 'u:%'";
+
+        Map<Integer, Long> cortes = new HashMap<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setLong(1, desde);
+            stmt.setLong(2, System.currentTimeMillis());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    cortes.put(rs.getInt("usuario_id"), rs.getLong("revogado_em"));
+                }
+            }
+        }
+        return cortes;
+    }
+
+    /**
+     * @param desde Instante (ms) da última leitura, com folga
+     * @return id_token → expira_em das revogações feitas desde então
+     *         que ainda não expiraram
+     */
+    public Map<String, Long> listarDesde(long desde) throws SQLException {
+
+        String sql = "SELECT id_token, expira_em FROM token_revogado " +
+                "WHERE revogado_em >= ? AND expira_em > ?";
+
+        Map<String, Long> revogados = new HashMap<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setLong(1, desde);
+            stmt.setLong(2, System.currentTimeMillis());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    revogados.put(rs.getString("id_token"), rs.getLong("expira_em"));
+                }
+            }
+        }
+        return revogados;
+    }
+
+    /**
+     * @return linhas apagadas
+     */
+    public int excluirExpirados(long agora) throws SQLException {
+
+        String sql = "DELETE FROM token_revogado WHERE expira_em <= ?";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setLong(1, agora);
+            int linhas = stmt.executeUpdate();
+            LOG.debug("🗑️ Revogações expiradas apagadas: {}", linhas);
+            return linhas;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import br.com.projeto.model.Usuario;
+import br.com.projeto.utils.Log;
 
 /**
  * ================================================================
@@ -41,6 +42,8 @@ import br.com.projeto.model.Usuario;
  */
 public class UsuarioDAO {
 
+    private static final Log LOG = Log.para(UsuarioDAO.class);
+
     /* ================================================================
        ATRIBUTO - Conexão com banco
        ================================================================ */
@@ -115,7 +118,7 @@ public class UsuarioDAO {
         String sql = "INSERT INTO usuario (cpf, nome, email, cnpj, senha) " +
                 "VALUES (?, ?, ?, ?, ?)";
 
-        System.out.println("⏳ Inserindo usuário no banco...");
+        LOG.debug("⏳ Inserindo usuário no banco...");
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql,
                 Statement.RETURN_GENERATED_KEYS)) {
@@ -130,14 +133,14 @@ public class UsuarioDAO {
             // ========== EXECUTAR INSERT ==========
             int linhasAfetadas = stmt.executeUpdate();
 
-            System.out.println("✅ Linhas inseridas: " + linhasAfetadas);
+            LOG.debug("✅ Linhas inseridas: {}", linhasAfetadas);
 
             // ========== PEGAR ID GERADO ==========
             ResultSet rs = stmt.getGeneratedKeys();
             if (rs.next()) {
                 int idGerado = rs.getInt(1);
                 usuario.setIdUsuario(idGerado);
-                System.out.println("✅ ID gerado: " + idGerado);
+                LOG.debug("✅ ID gerado: {}", idGerado);
             }
         }
     }
@@ -181,7 +184,7 @@ public class UsuarioDAO {
 
         String sql = "SELECT * FROM usuario WHERE cpf = ?";
 
-        System.out.println("⏳ Buscando usuário por CPF: " + cpf);
+        LOG.debug("⏳ Buscando usuário por CPF: {}", cpf);
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
 
@@ -201,11 +204,11 @@ public class UsuarioDAO {
                 usuario.setSenha(rs.getString("senha"));
                 usuario.setCnpj(rs.getString("cnpj"));  // ⭐ CNPJ incluído
 
-                System.out.println("✅ Usuário encontrado: " + usuario.getNome());
+                LOG.debug("✅ Usuário encontrado: {}", usuario.getNome());
                 return usuario;
             }
 
-            System.out.println("❌ CPF não encontrado");
+            LOG.debug("❌ CPF não encontrado");
             return null;
         }
     }
@@ -247,7 +250,7 @@ public class UsuarioDAO {
 
         String sql = "SELECT * FROM usuario WHERE email = ?";
 
-        System.out.println("⏳ Buscando usuário por email: " + email);
+        LOG.debug("⏳ Buscando usuário por email: {}", email);
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
 
@@ -267,11 +270,11 @@ public class UsuarioDAO {
                 usuario.setSenha(rs.getString("senha"));
                 usuario.setCnpj(rs.getString("cnpj"));  // ⭐ CNPJ incluído
 
-                System.out.println("✅ Usuário encontrado: " + usuario.getNome());
+                LOG.debug("✅ Usuário encontrado: {}", usuario.getNome());
                 return usuario;
             }
 
-            System.out.println("❌ Email não encontrado");
+            LOG.debug("❌ Email não encontrado");
             return null;
         }
     }
@@ -307,7 +310,7 @@ public class UsuarioDAO {
 
         String sql = "SELECT * FROM usuario WHERE id_usuario = ?";
 
-        System.out.println("⏳ Buscando usuário por ID: " + idUsuario);
+        LOG.debug("⏳ Buscando usuário por ID: {}", idUsuario);
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
 
@@ -327,11 +330,11 @@ public class UsuarioDAO {
                 usuario.setSenha(rs.getString("senha"));
                 usuario.setCnpj(rs.getString("cnpj"));  // ⭐ CNPJ incluído
 
-                System.out.println("✅ Usuário encontrado: " + usuario.getNome());
+                LOG.debug("✅ Usuário encontrado: {}", usuario.getNome());
                 return usuario;
             }
 
-            System.out.println("❌ ID não encontrado");
+            LOG.debug("❌ ID não encontrado");
             return null;
         }
     }
@@ -364,7 +367,7 @@ public class UsuarioDAO {
         List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuario ORDER BY nome";
 
-        System.out.println("⏳ Listando todos os usuários...");
+        LOG.debug("⏳ Listando todos os usuários...");
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
@@ -383,7 +386,7 @@ public class UsuarioDAO {
             }
         }
 
-        System.out.println("✅ Total de usuários: " + usuarios.size());
+        LOG.debug("✅ Total de usuários: {}", usuarios.size());
         return usuarios;
     }
 
@@ -393,11 +396,12 @@ public class UsuarioDAO {
 
        Usado por: Perfil, administração
 
-       Atualiza todos os campos exceto ID.
+       Atualiza nome, email e CNPJ.
 
        IMPORTANTE:
        - Não altera CPF (é chave única)
-       - Senha deve vir hash BCrypt se alterada
+       - Não altera a senha: só atualizarSenha() (condicional), senão
+         uma cópia antiga do usuário desfaria troca de senha ou rehash
     */
 
     /**
@@ -420,11 +424,10 @@ public class UsuarioDAO {
         String sql = "UPDATE usuario SET " +
                 "nome = ?, " +
                 "email = ?, " +
-                "cnpj = ?, " +    // ⭐ CNPJ incluído
-                "senha = ? " +
+                "cnpj = ? " +    // ⭐ CNPJ incluído
                 "WHERE id_usuario = ?";
 
-        System.out.println("⏳ Editando usuário ID: " + usuario.getIdUsuario());
+        LOG.debug("⏳ Editando usuário ID: {}", usuario.getIdUsuario());
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
 
@@ -432,13 +435,46 @@ public class UsuarioDAO {
             stmt.setString(1, usuario.getNome());
             stmt.setString(2, usuario.getEmail());
             stmt.setString(3, usuario.getCnpj());  // ⭐ CNPJ
-            stmt.setString(4, usuario.getSenha());
-            stmt.setInt(5, usuario.getIdUsuario());
+            stmt.setInt(4, usuario.getIdUsuario());
+
+            // ========== EXECUTAR UPDATE ==========
+            int linhasAfetadas = stmt.executeUpdate();
+
+            LOG.debug("✅ Linhas atualizadas: {}", linhasAfetadas);
+        }
+    }
+
+    /**
+     * Troca só o hash da senha, e só se o banco ainda tiver o hash antigo.
+     *
+     * Usado pelo rehash em segundo plano (HashSenha) e pela troca de
+     * senha no perfil: se a senha mudou nesse meio-tempo, a troca não
+     * acontece.
+     *
+     * @param idUsuario ID do usuário
+     * @param hashAtual Hash que estava no banco ao ler o usuário
+     * @param hashNovo  Novo hash BCrypt
+     * @return true se a senha foi atualizada
+     * @throws SQLException Se erro no banco
+     */
+    public boolean atualizarSenha(int idUsuario, String hashAtual, String hashNovo) throws SQLException {
+
+        String sql = "UPDATE usuario SET senha = ? WHERE id_usuario = ? AND senha = ?";
+
+        LOG.debug("⏳ Atualizando hash da senha do usuário ID: {}", idUsuario);
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+
+            // ========== SETAR PARÂMETROS ==========
+            stmt.setString(1, hashNovo);
+            stmt.setInt(2, idUsuario);
+            stmt.setString(3, hashAtual);
 
             // ========== EXECUTAR UPDATE ==========
             int linhasAfetadas = stmt.executeUpdate();
 
-            System.out.println("✅ Linhas atualizadas: " + linhasAfetadas);
+            LOG.debug("✅ Linhas atualizadas: {}", linhasAfetadas);
+            return linhasAfetadas > 0;
         }
     }
 
@@ -469,7 +505,7 @@ public class UsuarioDAO {
 
         String sql = "DELETE FROM usuario WHERE id_usuario = ?";
 
-        System.out.println("⚠️ Excluindo usuário ID: " + idUsuario);
+        LOG.info("⚠️ Excluindo usuário ID: {}", idUsuario);
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
 
@@ -479,7 +515,7 @@ public class UsuarioDAO {
             // ========== EXECUTAR DELETE ==========
             int linhasAfetadas = stmt.executeUpdate();
 
-            System.out.println("✅ Linhas excluídas: " + linhasAfetadas);
+            LOG.debug("✅ Linhas excluídas: {}", linhasAfetadas);
         }
     }
 }
@@ -494,7 +530,8 @@ public class UsuarioDAO {
    3. buscarPorEmail(String)  → SELECT WHERE email (validação)
    4. buscarPorId(int)        → SELECT WHERE id
    5. listar()                → SELECT * (todos)
-   6. editar(Usuario)         → UPDATE (com CNPJ)
+   6. editar(Usuario)         → UPDATE nome, email, CNPJ (sem senha)
+      atualizarSenha(...)     → UPDATE só da senha (rehash e perfil, condicional)
    7. excluir(int)            → DELETE (físico)
 
    COMPATIBILIDADE:
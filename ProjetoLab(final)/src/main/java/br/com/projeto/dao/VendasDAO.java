@@ -1,21 +1,75 @@
 package br.com.projeto.dao;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import br.com.projeto.model.Vendas;
 import br.com.projeto.model.Categoria;
+import br.com.projeto.model.DashboardResumo;
+import br.com.projeto.model.EstatisticasVendas;
+import br.com.projeto.model.FiltroVendas;
+import br.com.projeto.model.PaginaVendas;
 import br.com.projeto.model.NotaFiscal;
+import br.com.projeto.utils.CacheRelatorios;
+import br.com.projeto.utils.LimiteFaturamento;
+import br.com.projeto.utils.Log;
 
 /**
  * VendasDAO - Data Access Object para manipulação de vendas
- * Versão: 2.0 - Completa e sem duplicatas
+ * Versão: 2.1 - Filtros de período por intervalo [inicio, fim)
+ *
+ * FILTROS DE PERÍODO:
+ * Nunca usar MONTH(data_vendas)/YEAR(data_vendas) no WHERE: a função
+ * sobre a coluna impede o uso de índice e força varrer todas as vendas
+ * do usuário. Os métodos usam intervalos semiabertos
+ * data_vendas >= inicio AND data_vendas < fim, que viram range scan no
+ * índice idx_usuario_ativo_data (usuario_id, ativo, data_vendas).
+ *
+ * INSERÇÃO EM LOTE:
+ * inserirLote() grava muitas vendas numa transação só, em lotes JDBC
+ * (rewriteBatchedStatements=true na URL, ver Conexao).
+ *
+ * CACHE DE RELATÓRIOS E LIMITE ANUAL:
+ * Toda escrita (inserir, inserirLote, editar, excluir) invalida, após
+ * o commit, os PDFs em cache do mês afetado (CacheRelatorios) e
+ * atualiza o acumulado do ano em memória (LimiteFaturamento).
+ * versaoDoMes() é a consulta leve que valida um PDF em cache.
+ *
+ * RESUMO MENSAL (vendas_resumo_mensal):
+ * Toda escrita também ajusta, DENTRO da transação da venda, a linha
+ * (usuario, ano, mes, categoria, nf) do resumo. Dashboard e relatório
+ * anual leem o resumo: O(meses) em vez de O(vendas).
+ * verificarResumo()/reconstruirResumo() reconciliam o resumo com a
+ * tabela vendas (usados pela ReconciliacaoResumo).
  */
 public class VendasDAO {
+
+    private static final Log LOG = Log.para(VendasDAO.class);
     private Connection conexao;
 
+    /** SELECT base do histórico (venda + categoria + nota fiscal). */
+    private static final String SELECT_VENDA_COMPLETA =
+            "SELECT v.*, c.nome_categoria, " +
+            "nf.id_nota_fiscal, nf.numero, nf.data_emissao, nf.valor as nf_valor " +
+            "FROM vendas v " +
+            "INNER JOIN categoria c ON v.categoria_id = c.id_categoria " +
+            "LEFT JOIN nota_fiscal nf ON v.id_vendas = nf.vendas_id ";
+
+    /** Linhas por executeBatch() em inserirLote() */
+    private static final int TAMANHO_LOTE = 500;
+
     public VendasDAO(Connection conexao) {
         this.conexao = conexao;
     }
@@ -69,12 +123,19 @@ public class VendasDAO {
                 inserirNotaFiscal(venda.getNotaFiscal(), idVendaGerado, venda.getUsuarioId());
             }
 
+            // Resumo mensal na mesma transação
+            Map<String, AjusteResumo> ajustes = new TreeMap<>();
+            AjusteResumo.somar(ajustes, venda.getUsuarioId(), paraTimestamp(venda.getDataVendas()),
+                    venda.getCategoria().getIdCategoria(), venda.getNotaFiscalEmitida(), 1, venda.getValor());
+            ajustarResumo(ajustes.values());
+
             conexao.commit();
-            System.out.println("✅ Venda inserida com sucesso! ID: " + idVendaGerado);
+            aposEscrita(venda.getUsuarioId(), paraTimestamp(venda.getDataVendas()));
+            LOG.debug("✅ Venda inserida com sucesso! ID: {}", idVendaGerado);
 
         } catch (Exception e) {
             conexao.rollback();
-            System.err.println("❌ Erro ao inserir venda: " + e.getMessage());
+            LOG.aviso("❌ Erro ao inserir venda: {}", e.getMessage());
             throw e;
         } finally {
             if (rs != null) rs.close();
@@ -83,6 +144,135 @@ public class VendasDAO {
         }
     }
 
+    /**
+     * Insere várias vendas (e suas notas fiscais) em UMA transação
+     *
+     * Para lançamentos em massa (ex.: contador lançando o mês inteiro
+     * de um cliente). Em vez de um INSERT + commit por venda, monta
+     * lotes JDBC de até TAMANHO_LOTE linhas; com rewriteBatchedStatements
+     * (ligado em Conexao) cada lote vira um único INSERT multi-VALUES.
+     *
+     * Os IDs gerados voltam na mesma ordem do lote e são gravados em
+     * cada Vendas (e NotaFiscal). Se qualquer linha falhar, nada é gravado.
+     *
+     * @param vendas Vendas a inserir (usuarioId e categoria preenchidos)
+     * @throws Exception Erro ao inserir (transação desfeita)
+     */
+    public void inserirLote(List<Vendas> vendas) throws Exception {
+        if (vendas == null || vendas.isEmpty()) {
+            return;
+        }
+
+        String sqlVenda = "INSERT INTO vendas (data_vendas, valor, nota_fiscal_emitida, categoria_id, usuario_id, descricao) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        String sqlNota = "INSERT INTO nota_fiscal (numero, data_emissao, valor, vendas_id, usuario_id) " +
+                "VALUES (?, ?, ?, ?, ?)";
+
+        boolean autoCommitOriginal = conexao.getAutoCommit();
+
+        // Resumo mensal: o lote inteiro costuma cair em poucas chaves
+        Map<String, AjusteResumo> ajustes = new TreeMap<>();
+
+        // Antes do prepareStatement: se ele falhar, o rollback do catch
+        // já roda com autocommit desligado
+        conexao.setAutoCommit(false);
+
+        try (PreparedStatement stmtVenda = conexao.prepareStatement(sqlVenda, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement stmtNota = conexao.prepareStatement(sqlNota, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (int inicio = 0; inicio < vendas.size(); inicio += TAMANHO_LOTE) {
+                List<Vendas> lote = vendas.subList(inicio, Math.min(inicio + TAMANHO_LOTE, vendas.size()));
+
+                // ========== LOTE DE VENDAS ==========
+                for (Vendas venda : lote) {
+                    stmtVenda.setTimestamp(1, paraTimestamp(venda.getDataVendas()));
+                    stmtVenda.setFloat(2, venda.getValor());
+                    stmtVenda.setString(3, venda.getNotaFiscalEmitida());
+                    stmtVenda.setInt(4, venda.getCategoria().getIdCategoria());
+                    stmtVenda.setInt(5, venda.getUsuarioId());
+                    stmtVenda.setString(6, venda.getDescricao());
+                    stmtVenda.addBatch();
+
+                    AjusteResumo.somar(ajustes, venda.getUsuarioId(), paraTimestamp(venda.getDataVendas()),
+                            venda.getCategoria().getIdCategoria(), venda.getNotaFiscalEmitida(), 1, venda.getValor());
+                }
+                stmtVenda.executeBatch();
+
+                // IDs voltam na ordem do addBatch()
+                try (ResultSet rs = stmtVenda.getGeneratedKeys()) {
+                    for (Vendas venda : lote) {
+                        if (!rs.next()) {
+                            throw new SQLException("Driver não devolveu todos os IDs gerados do lote de vendas");
+                        }
+                        venda.setIdVendas(rs.getInt(1));
+                    }
+                }
+
+                // ========== LOTE DE NOTAS FISCAIS ==========
+                List<NotaFiscal> notas = new ArrayList<>();
+                for (Vendas venda : lote) {
+                    NotaFiscal nf = venda.getNotaFiscal();
+                    if (nf != null && nf.getNumero() != null) {
+                        stmtNota.setString(1, nf.getNumero());
+                        stmtNota.setTimestamp(2, paraTimestamp(nf.getDataEmissao()));
+                        stmtNota.setFloat(3, nf.getValor());
+                        stmtNota.setInt(4, venda.getIdVendas());
+                        stmtNota.setInt(5, venda.getUsuarioId());
+                        stmtNota.addBatch();
+                        notas.add(nf);
+                    }
+                }
+
+                if (!notas.isEmpty()) {
+                    stmtNota.executeBatch();
+                    try (ResultSet rs = stmtNota.getGeneratedKeys()) {
+                        for (NotaFiscal nf : notas) {
+                            if (!rs.next()) {
+                                throw new SQLException("Driver não devolveu todos os IDs gerados do lote de notas");
+                            }
+                            nf.setIdNotaFiscal(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+
+            ajustarResumo(ajustes.values());
+            conexao.commit();
+
+            // Um mesmo mês costuma aparecer centenas de vezes no lote
+            Set<String> mesesInvalidados = new HashSet<>();
+            for (Vendas venda : vendas) {
+                Timestamp data = paraTimestamp(venda.getDataVendas());
+                LocalDateTime ldt = data.toLocalDateTime();
+                if (mesesInvalidados.add(venda.getUsuarioId() + "_" + ldt.getYear() + "_" + ldt.getMonthValue())) {
+                    aposEscrita(venda.getUsuarioId(), data);
+                }
+            }
+
+            LOG.debug("✅ Lote inserido com sucesso: {} vendas", vendas.size());
+
+        } catch (Exception e) {
+            conexao.rollback();
+            LOG.aviso("❌ Erro ao inserir lote de vendas: {}", e.getMessage());
+            throw e;
+        } finally {
+            conexao.setAutoCommit(autoCommitOriginal);
+        }
+    }
+
+    /**
+     * Converte java.util.Date ou LocalDateTime para Timestamp
+     * (null ou outro tipo vira "agora", como em inserir()).
+     */
+    private static Timestamp paraTimestamp(Object data) {
+        if (data instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) data).getTime());
+        } else if (data instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) data);
+        }
+        return new Timestamp(System.currentTimeMillis());
+    }
+
     /**
      * Insere uma nota fiscal associada a uma venda
      */
@@ -128,6 +318,11 @@ public class VendasDAO {
         try {
             conexao.setAutoCommit(false);
 
+            // Linha antiga (bloqueada até o commit): o resumo desconta
+            // ela e soma a nova; se a data mudou, o relatório do mês
+            // antigo também muda
+            LinhaVenda anterior = buscarLinhaVenda(venda.getIdVendas(), true);
+
             stmt = conexao.prepareStatement(sql);
 
             if (venda.getDataVendas() instanceof java.util.Date) {
@@ -145,6 +340,16 @@ public class VendasDAO {
             stmt.setInt(6, venda.getIdVendas());
             stmt.executeUpdate();
 
+            // Resumo mensal (venda excluída não está no resumo)
+            if (anterior != null && anterior.ativo) {
+                Map<String, AjusteResumo> ajustes = new TreeMap<>();
+                AjusteResumo.somar(ajustes, anterior.usuarioId, anterior.data,
+                        anterior.categoriaId, anterior.notaFiscal, -1, -anterior.valor);
+                AjusteResumo.somar(ajustes, anterior.usuarioId, paraTimestamp(venda.getDataVendas()),
+                        venda.getCategoria().getIdCategoria(), venda.getNotaFiscalEmitida(), 1, venda.getValor());
+                ajustarResumo(ajustes.values());
+            }
+
             // Atualiza ou insere nota fiscal
             if (venda.getNotaFiscal() != null) {
                 if (venda.getNotaFiscal().getIdNotaFiscal() > 0) {
@@ -156,6 +361,11 @@ public class VendasDAO {
 
             conexao.commit();
 
+            if (anterior != null) {
+                aposEscrita(anterior.usuarioId, anterior.data);
+                aposEscrita(anterior.usuarioId, paraTimestamp(venda.getDataVendas()));
+            }
+
         } catch (Exception e) {
             conexao.rollback();
             throw e;
@@ -193,13 +403,346 @@ public class VendasDAO {
 
     /**
      * Exclui logicamente uma venda (ativo = false)
+     * e a desconta do resumo mensal na mesma transação.
      */
     public void excluir(int id) throws Exception {
         String sql = "UPDATE vendas SET ativo = false WHERE id_vendas = ?";
-        PreparedStatement stmt = conexao.prepareStatement(sql);
-        stmt.setInt(1, id);
-        stmt.executeUpdate();
-        stmt.close();
+        PreparedStatement stmt = null;
+        LinhaVenda anterior;
+
+        try {
+            conexao.setAutoCommit(false);
+
+            anterior = buscarLinhaVenda(id, true);
+
+            stmt = conexao.prepareStatement(sql);
+            stmt.setInt(1, id);
+            stmt.executeUpdate();
+
+            // Já excluída antes: não está mais no resumo
+            if (anterior != null && anterior.ativo) {
+                Map<String, AjusteResumo> ajustes = new TreeMap<>();
+                AjusteResumo.somar(ajustes, anterior.usuarioId, anterior.data,
+                        anterior.categoriaId, anterior.notaFiscal, -1, -anterior.valor);
+                ajustarResumo(ajustes.values());
+            }
+
+            conexao.commit();
+
+        } catch (Exception e) {
+            conexao.rollback();
+            throw e;
+        } finally {
+            if (stmt != null) stmt.close();
+            conexao.setAutoCommit(true);
+        }
+
+        if (anterior != null) {
+            aposEscrita(anterior.usuarioId, anterior.data);
+        }
+    }
+
+    // ============================================================
+    // CACHE DE RELATÓRIOS - VERSÃO E INVALIDAÇÃO
+    // ============================================================
+
+    /**
+     * Versão das vendas de um mês (valida um PDF em cache).
+     *
+     * Uma única consulta agregada, no mesmo range do índice de
+     * listarPorMesAno(): quantidade + XOR dos CRC32 de cada linha
+     * (com categoria, seção fiscal e número da NF, que também mudam o PDF).
+     * Qualquer inclusão, alteração ou exclusão muda o resultado.
+     *
+     * @return "quantidade-crc" (quantidade 0 = mês sem vendas)
+     */
+    public String versaoDoMes(int usuarioId, int mes, int ano) throws Exception {
+        String sql = "SELECT COUNT(*) AS total, " +
+                "COALESCE(BIT_XOR(CRC32(CONCAT_WS('|', v.id_vendas, v.data_vendas, v.valor, " +
+                "v.nota_fiscal_emitida, c.nome_categoria, c.secao_fiscal, v.descricao, nf.numero))), 0) AS crc " +
+                "FROM vendas v " +
+                "INNER JOIN categoria c ON v.categoria_id = c.id_categoria " +
+                "LEFT JOIN nota_fiscal nf ON v.id_vendas = nf.vendas_id " +
+                "WHERE v.ativo = true AND v.usuario_id = ? " +
+                "AND v.data_vendas >= ? AND v.data_vendas < ?";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setTimestamp(2, inicioDoMes(ano, mes));
+            stmt.setTimestamp(3, inicioDoMes(ano, mes + 1));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt("total") + "-" + Long.toHexString(rs.getLong("crc"));
+            }
+        }
+    }
+
+    /**
+     * Quantidade de vendas embutida na versão de versaoDoMes().
+     */
+    public static int totalDaVersao(String versao) {
+        return Integer.parseInt(versao.substring(0, versao.indexOf('-')));
+    }
+
+    /**
+     * Estado atual de uma venda (antes de editar/excluir).
+     *
+     * @param bloquear true = SELECT ... FOR UPDATE (dentro da transação:
+     *                 ninguém altera a venda até o commit, então o ajuste
+     *                 do resumo parte do valor certo)
+     * @return linha ou null se não existe
+     */
+    private LinhaVenda buscarLinhaVenda(int idVenda, boolean bloquear) throws SQLException {
+        String sql = "SELECT usuario_id, data_vendas, categoria_id, nota_fiscal_emitida, valor, ativo " +
+                "FROM vendas WHERE id_vendas = ?" + (bloquear ? " FOR UPDATE" : "");
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, idVenda);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new LinhaVenda(rs.getInt("usuario_id"), rs.getTimestamp("data_vendas"),
+                        rs.getInt("categoria_id"), rs.getString("nota_fiscal_emitida"),
+                        rs.getFloat("valor"), rs.getBoolean("ativo"));
+            }
+        }
+    }
+
+    /**
+     * Depois do commit de uma escrita no mês desta data:
+     * descarta os PDFs em cache do mês (e o anual do ano) e atualiza
+     * o acumulado do limite anual em memória.
+     */
+    private void aposEscrita(int usuarioId, Timestamp data) {
+        LocalDateTime ldt = data.toLocalDateTime();
+        CacheRelatorios.invalidar(usuarioId, ldt.getYear(), ldt.getMonthValue());
+        CacheRelatorios.invalidar(usuarioId, ldt.getYear(), 0);   // anual (DASN-SIMEI)
+        LimiteFaturamento.atualizarMes(conexao, usuarioId, ldt.getYear(), ldt.getMonthValue());
+    }
+
+    // ============================================================
+    // RESUMO MENSAL - MANUTENÇÃO E RECONCILIAÇÃO
+    // ============================================================
+
+    /**
+     * Aplica os ajustes no resumo (um upsert por chave, em lote).
+     * Chamado DENTRO da transação da venda. As chaves vêm de um TreeMap,
+     * então transações concorrentes bloqueiam as linhas na mesma ordem.
+     * Linhas que ficam com qtd = 0 são apagadas.
+     */
+    private void ajustarResumo(Collection<AjusteResumo> ajustes) throws SQLException {
+        String sqlUpsert = "INSERT INTO vendas_resumo_mensal (usuario_id, ano, mes, categoria_id, nf, qtd, total) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE qtd = qtd + VALUES(qtd), total = total + VALUES(total)";
+        String sqlLimpar = "DELETE FROM vendas_resumo_mensal " +
+                "WHERE usuario_id = ? AND ano = ? AND mes = ? AND categoria_id = ? AND nf = ? AND qtd <= 0";
+
+        boolean temDesconto = false;
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sqlUpsert)) {
+            for (AjusteResumo a : ajustes) {
+                if (a.qtd == 0 && a.total.signum() == 0) {
+                    continue;   // ex.: editar() sem mudar mês/categoria/NF/valor
+                }
+                a.preencherChave(stmt);
+                stmt.setInt(6, a.qtd);
+                stmt.setBigDecimal(7, a.total);
+                stmt.addBatch();
+                temDesconto |= a.qtd < 0;
+            }
+            stmt.executeBatch();
+        }
+
+        if (temDesconto) {
+            try (PreparedStatement stmt = conexao.prepareStatement(sqlLimpar)) {
+                for (AjusteResumo a : ajustes) {
+                    if (a.qtd < 0) {
+                        a.preencherChave(stmt);
+                        stmt.addBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Compara o resumo de um usuário com a tabela vendas.
+     *
+     * UMA instrução (as duas agregações leem o mesmo snapshot do InnoDB,
+     * então uma venda gravada durante a verificação não gera falso alarme).
+     * MySQL não tem FULL OUTER JOIN: UNION ALL das duas fontes + GROUP BY.
+     *
+     * @return quantidade de chaves (ano, mês, categoria, NF) divergentes
+     */
+    public int verificarResumo(int usuarioId) throws Exception {
+        String sql = "SELECT ano, mes, categoria_id, nf, " +
+                "SUM(qtd_base) AS qtd_base, SUM(total_base) AS total_base, " +
+                "SUM(qtd_resumo) AS qtd_resumo, SUM(total_resumo) AS total_resumo " +
+                "FROM (" +
+                "  SELECT YEAR(data_vendas) AS ano, MONTH(data_vendas) AS mes, categoria_id, " +
+                "  IF(UPPER(nota_fiscal_emitida) = 'S', 'S', 'N') AS nf, " +
+                "  COUNT(*) AS qtd_base, SUM(ROUND(valor, 2)) AS total_base, 0 AS qtd_resumo, 0 AS total_resumo " +
+                "  FROM vendas WHERE usuario_id = ? AND ativo = true " +
+                "  GROUP BY ano, mes, categoria_id, nf " +
+                "  UNION ALL " +
+                "  SELECT ano, mes, categoria_id, nf, 0, 0, qtd, total " +
+                "  FROM vendas_resumo_mensal WHERE usuario_id = ? " +
+                ") comparacao " +
+                "GROUP BY ano, mes, categoria_id, nf " +
+                "HAVING SUM(qtd_base) <> SUM(qtd_resumo) OR ABS(SUM(total_base) - SUM(total_resumo)) >= 0.005";
+
+        int divergencias = 0;
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, usuarioId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    divergencias++;
+                    LOG.aviso("⚠️ Resumo divergente: usuário {} {}/{} categoria {} NF={} → vendas: {} / {}, resumo: {} / {}",
+                            usuarioId, rs.getInt("mes"), rs.getInt("ano"), rs.getInt("categoria_id"), rs.getString("nf"),
+                            rs.getInt("qtd_base"), rs.getDouble("total_base"),
+                            rs.getInt("qtd_resumo"), rs.getDouble("total_resumo"));
+                }
+            }
+        }
+
+        return divergencias;
+    }
+
+    /**
+     * Refaz o resumo de um usuário a partir da tabela vendas
+     * (DELETE + INSERT ... SELECT numa transação).
+     *
+     * @return linhas gravadas no resumo
+     */
+    public int reconstruirResumo(int usuarioId) throws Exception {
+        String sqlApagar = "DELETE FROM vendas_resumo_mensal WHERE usuario_id = ?";
+        String sqlInserir = "INSERT INTO vendas_resumo_mensal (usuario_id, ano, mes, categoria_id, nf, qtd, total) " +
+                "SELECT usuario_id, YEAR(data_vendas), MONTH(data_vendas), categoria_id, " +
+                "IF(UPPER(nota_fiscal_emitida) = 'S', 'S', 'N'), COUNT(*), SUM(ROUND(valor, 2)) " +
+                "FROM vendas WHERE usuario_id = ? AND ativo = true " +
+                "GROUP BY usuario_id, YEAR(data_vendas), MONTH(data_vendas), categoria_id, " +
+                "IF(UPPER(nota_fiscal_emitida) = 'S', 'S', 'N')";
+
+        boolean autoCommitOriginal = conexao.getAutoCommit();
+
+        // Antes do prepareStatement (ver inserirLote)
+        conexao.setAutoCommit(false);
+
+        try (PreparedStatement apagar = conexao.prepareStatement(sqlApagar);
+             PreparedStatement inserir = conexao.prepareStatement(sqlInserir)) {
+
+            apagar.setInt(1, usuarioId);
+            apagar.executeUpdate();
+
+            inserir.setInt(1, usuarioId);
+            int linhas = inserir.executeUpdate();
+
+            conexao.commit();
+            LimiteFaturamento.descartar(usuarioId);   // acumulado em memória veio do resumo antigo
+            return linhas;
+
+        } catch (Exception e) {
+            conexao.rollback();
+            LOG.aviso("❌ Erro ao reconstruir resumo do usuário {}: {}", usuarioId, e.getMessage());
+            throw e;
+        } finally {
+            conexao.setAutoCommit(autoCommitOriginal);
+        }
+    }
+
+    /**
+     * @return IDs de usuários com vendas ou com linhas no resumo
+     */
+    public List<Integer> listarUsuariosDoResumo() throws Exception {
+        String sql = "SELECT usuario_id FROM vendas " +
+                "UNION SELECT usuario_id FROM vendas_resumo_mensal " +
+                "ORDER BY usuario_id";
+
+        List<Integer> usuarios = new ArrayList<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                usuarios.add(rs.getInt(1));
+            }
+        }
+        return usuarios;
+    }
+
+    /**
+     * Venda como está no banco (usada por editar/excluir).
+     */
+    private static final class LinhaVenda {
+        final int usuarioId;
+        final Timestamp data;
+        final int categoriaId;
+        final String notaFiscal;
+        final float valor;
+        final boolean ativo;
+
+        LinhaVenda(int usuarioId, Timestamp data, int categoriaId, String notaFiscal, float valor, boolean ativo) {
+            this.usuarioId = usuarioId;
+            this.data = data;
+            this.categoriaId = categoriaId;
+            this.notaFiscal = notaFiscal;
+            this.valor = valor;
+            this.ativo = ativo;
+        }
+    }
+
+    /**
+     * Delta de uma linha do resumo (qtd e total a somar).
+     */
+    private static final class AjusteResumo {
+        final int usuarioId;
+        final int ano;
+        final int mes;
+        final int categoriaId;
+        final String nf;
+        int qtd;
+        BigDecimal total = BigDecimal.ZERO;
+
+        private AjusteResumo(int usuarioId, int ano, int mes, int categoriaId, String nf) {
+            this.usuarioId = usuarioId;
+            this.ano = ano;
+            this.mes = mes;
+            this.categoriaId = categoriaId;
+            this.nf = nf;
+        }
+
+        /**
+         * Acumula qtd/valor na chave da venda (mesma chave = um upsert só).
+         * O valor é arredondado em centavos EXATAMENTE como o ROUND(valor, 2)
+         * de verificarResumo/reconstruirResumo: o MySQL lê o FLOAT como
+         * double e faz rint(valor * 100) (metade para o par). HALF_UP sobre
+         * Float.toString divergia (10.125 → 10.13 aqui, 10.12 no banco) e a
+         * ReconciliacaoResumo reconstruía o usuário a cada rodada.
+         */
+        static void somar(Map<String, AjusteResumo> ajustes, int usuarioId, Timestamp data,
+                          int categoriaId, String notaFiscal, int qtd, float valor) {
+            LocalDateTime ldt = data.toLocalDateTime();
+            String nf = "S".equalsIgnoreCase(notaFiscal) ? "S" : "N";
+            String chave = String.format("%010d|%04d|%02d|%010d|%s",
+                    usuarioId, ldt.getYear(), ldt.getMonthValue(), categoriaId, nf);
+
+            AjusteResumo a = ajustes.computeIfAbsent(chave,
+                    k -> new AjusteResumo(usuarioId, ldt.getYear(), ldt.getMonthValue(), categoriaId, nf));
+            a.qtd += qtd;
+            long centavos = (long) Math.rint((double) valor * 100.0);
+            a.total = a.total.add(BigDecimal.valueOf(centavos, 2));
+        }
+
+        void preencherChave(PreparedStatement stmt) throws SQLException {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, ano);
+            stmt.setInt(3, mes);
+            stmt.setInt(4, categoriaId);
+            stmt.setString(5, nf);
+        }
     }
 
     // ============================================================
@@ -301,13 +844,13 @@ public class VendasDAO {
                 "INNER JOIN categoria c ON v.categoria_id = c.id_categoria " +
                 "LEFT JOIN nota_fiscal nf ON v.id_vendas = nf.vendas_id " +
                 "WHERE v.ativo = true AND v.usuario_id = ? " +
-                "AND MONTH(v.data_vendas) = ? AND YEAR(v.data_vendas) = ? " +
+                "AND v.data_vendas >= ? AND v.data_vendas < ? " +
                 "ORDER BY v.data_vendas";
 
         PreparedStatement stmt = conexao.prepareStatement(sql);
         stmt.setInt(1, usuarioId);
-        stmt.setInt(2, mes);
-        stmt.setInt(3, ano);
+        stmt.setTimestamp(2, inicioDoMes(ano, mes));
+        stmt.setTimestamp(3, inicioDoMes(ano, mes + 1));
         ResultSet rs = stmt.executeQuery();
 
         while (rs.next()) {
@@ -346,25 +889,43 @@ public class VendasDAO {
     }
 
     /**
-     * Lista anos que possuem vendas do usuário
+     * Lista anos que possuem vendas do usuário (mais recente primeiro)
+     *
+     * Em vez de SELECT DISTINCT YEAR(...) (lê todas as vendas do usuário),
+     * "salta" de ano em ano pelo índice: pega a venda mais recente antes
+     * de 'fim', anota o ano dela e repete com fim = 1º de janeiro desse ano.
+     * Custo: uma busca no índice por ano com vendas.
      */
     public List<Integer> listarAnosComVendas(int usuarioId) throws Exception {
         List<Integer> anos = new ArrayList<>();
-        String sql = "SELECT DISTINCT YEAR(data_vendas) AS ano " +
+        String sql = "SELECT MAX(data_vendas) AS ultima " +
                 "FROM vendas " +
-                "WHERE usuario_id = ? AND ativo = true " +
-                "ORDER BY ano DESC";
+                "WHERE usuario_id = ? AND ativo = true AND data_vendas < ?";
 
-        PreparedStatement stmt = conexao.prepareStatement(sql);
-        stmt.setInt(1, usuarioId);
-        ResultSet rs = stmt.executeQuery();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            Timestamp fim = inicioDoAno(9999);
 
-        while (rs.next()) {
-            anos.add(rs.getInt("ano"));
+            while (true) {
+                stmt.setTimestamp(2, fim);
+
+                Timestamp ultima = null;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        ultima = rs.getTimestamp("ultima");
+                    }
+                }
+
+                if (ultima == null) {
+                    break;
+                }
+
+                int ano = ultima.toLocalDateTime().getYear();
+                anos.add(ano);
+                fim = inicioDoAno(ano);
+            }
         }
 
-        rs.close();
-        stmt.close();
         return anos;
     }
 
@@ -383,8 +944,8 @@ public class VendasDAO {
         sql.append("INNER JOIN categoria c ON v.categoria_id = c.id_categoria ");
         sql.append("LEFT JOIN nota_fiscal nf ON v.id_vendas = nf.vendas_id ");
         sql.append("WHERE v.usuario_id = ? ");
-        sql.append("AND YEAR(v.data_vendas) = ? ");
         sql.append("AND v.ativo = true ");
+        sql.append("AND v.data_vendas >= ? AND v.data_vendas < ? ");
 
         // Aplicar filtro de NF
         if ("comNF".equals(filtroNF)) {
@@ -397,7 +958,8 @@ public class VendasDAO {
 
         PreparedStatement stmt = conexao.prepareStatement(sql.toString());
         stmt.setInt(1, usuarioId);
-        stmt.setInt(2, ano);
+        stmt.setTimestamp(2, inicioDoAno(ano));
+        stmt.setTimestamp(3, inicioDoAno(ano + 1));
         ResultSet rs = stmt.executeQuery();
 
         while (rs.next()) {
@@ -458,75 +1020,220 @@ public class VendasDAO {
     public List<Vendas> listarPorAnoEMesComFiltroNF(int usuarioId, int ano, int mes, String filtroNF, Integer categoriaId) throws Exception {
         List<Vendas> vendas = new ArrayList<>();
 
+        FiltroVendas filtro = new FiltroVendas(usuarioId, ano, mes, filtroNF, categoriaId);
+
         // ========== CONSTRUIR QUERY SQL DINÂMICA ==========
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT v.*, c.nome_categoria, ");
-        sql.append("nf.id_nota_fiscal, nf.numero, nf.data_emissao, nf.valor as nf_valor ");
-        sql.append("FROM vendas v ");
-        sql.append("INNER JOIN categoria c ON v.categoria_id = c.id_categoria ");
-        sql.append("LEFT JOIN nota_fiscal nf ON v.id_vendas = nf.vendas_id ");
-        sql.append("WHERE v.usuario_id = ? ");
-        sql.append("AND YEAR(v.data_vendas) = ? ");
+        StringBuilder sql = new StringBuilder(SELECT_VENDA_COMPLETA);
+        aplicarFiltro(sql, filtro);
+        sql.append("ORDER BY v.data_vendas DESC");
+
+        // ========== PREPARAR E EXECUTAR STATEMENT ==========
+        try (PreparedStatement stmt = conexao.prepareStatement(sql.toString())) {
+            setarParametrosFiltro(stmt, filtro, 1);
 
-        // ========== FILTRO DE MÊS (CONDICIONAL) ==========
-        // Se mes > 0, adiciona filtro MONTH()
-        // Se mes = 0, não adiciona (retorna todos os meses)
-        if (mes > 0 && mes <= 12) {
-            sql.append("AND MONTH(v.data_vendas) = ? ");
+            // ========== PROCESSAR RESULTADOS ==========
+            // criarVendaDoResultSet() monta objeto Vendas completo
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    vendas.add(criarVendaDoResultSet(rs));
+                }
+            }
         }
 
-        sql.append("AND v.ativo = true ");
+        return vendas;
+    }
 
-        // ========== FILTRO DE NOTA FISCAL ==========
-        // "comNF": apenas com NF
-        // "semNF": apenas sem NF
-        // "todas" ou qualquer outro valor: não filtra
-        if ("comNF".equals(filtroNF)) {
-            sql.append("AND v.nota_fiscal_emitida = 'S' ");
-        } else if ("semNF".equals(filtroNF)) {
-            sql.append("AND v.nota_fiscal_emitida = 'N' ");
+    /**
+     * Lista UMA página do histórico usando paginação por cursor (keyset)
+     *
+     * POR QUE NÃO LIMIT/OFFSET?
+     * OFFSET n obriga o MySQL a ler e descartar n linhas a cada página;
+     * quanto mais fundo o usuário navega, mais lenta fica a tela.
+     * Aqui a página continua exatamente de onde a anterior parou:
+     *
+     *   (data_vendas, id_vendas) < (data do cursor, id do cursor)
+     *   ORDER BY data_vendas DESC, id_vendas DESC LIMIT tamanho + 1
+     *
+     * O índice idx_usuario_ativo_data (usuario_id, ativo, data_vendas)
+     * já carrega a PK (id_vendas) no InnoDB, então a ordenação vem do
+     * próprio índice. O id desempata vendas com o mesmo timestamp.
+     *
+     * A linha extra (tamanho + 1) só serve para saber se existe
+     * próxima página, sem precisar de COUNT(*).
+     *
+     * PÁGINA ANTERIOR:
+     * Mesma ideia com o sinal invertido (>) e ORDER BY ASC; o resultado
+     * é revertido para voltar à ordem de exibição (mais recente primeiro).
+     *
+     * @param filtro         Filtros da tela (mesmo WHERE das estatísticas)
+     * @param cursor         Cursor recebido da JSP (null = primeira página)
+     * @param paginaAnterior true para navegar para trás a partir do cursor
+     * @param tamanho        Quantidade de vendas por página
+     * @return PaginaVendas com as vendas e os cursores de navegação
+     * @throws Exception Se houver erro na consulta SQL
+     */
+    public PaginaVendas listarPagina(FiltroVendas filtro, String cursor, boolean paginaAnterior, int tamanho) throws Exception {
+        Object[] posicao = decodificarCursor(cursor);
+        if (posicao == null) {
+            // Sem cursor (ou cursor inválido): primeira página
+            paginaAnterior = false;
         }
 
-        // ========== FILTRO DE CATEGORIA (NOVO!) ==========
-        // Se categoriaId não for null, filtra por categoria específica
-        // Se null, mostra todas as categorias
-        if (categoriaId != null && categoriaId > 0) {
-            sql.append("AND v.categoria_id = ? ");
+        // ========== CONSTRUIR QUERY ==========
+        StringBuilder sql = new StringBuilder(SELECT_VENDA_COMPLETA);
+        aplicarFiltro(sql, filtro);
+
+        if (posicao != null) {
+            String op = paginaAnterior ? ">" : "<";
+            sql.append("AND (v.data_vendas ").append(op).append(" ? ");
+            sql.append("OR (v.data_vendas = ? AND v.id_vendas ").append(op).append(" ?)) ");
         }
 
-        sql.append("ORDER BY v.data_vendas DESC");
+        if (paginaAnterior) {
+            sql.append("ORDER BY v.data_vendas ASC, v.id_vendas ASC ");
+        } else {
+            sql.append("ORDER BY v.data_vendas DESC, v.id_vendas DESC ");
+        }
+        sql.append("LIMIT ?");
 
-        // ========== PREPARAR E EXECUTAR STATEMENT ==========
-        PreparedStatement stmt = conexao.prepareStatement(sql.toString());
-        
-        // Parâmetros obrigatórios
-        int paramIndex = 1;
-        stmt.setInt(paramIndex++, usuarioId);
-        stmt.setInt(paramIndex++, ano);
-        
-        // Parâmetro condicional: mês (só se mes > 0)
-        if (mes > 0 && mes <= 12) {
-            stmt.setInt(paramIndex++, mes);
+        // ========== EXECUTAR ==========
+        List<Vendas> vendas = new ArrayList<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql.toString())) {
+            int idx = setarParametrosFiltro(stmt, filtro, 1);
+            if (posicao != null) {
+                stmt.setTimestamp(idx++, (Timestamp) posicao[0]);
+                stmt.setTimestamp(idx++, (Timestamp) posicao[0]);
+                stmt.setInt(idx++, (Integer) posicao[1]);
+            }
+            stmt.setInt(idx, tamanho + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    vendas.add(criarVendaDoResultSet(rs));
+                }
+            }
         }
 
-        // Parâmetro condicional: categoria (só se categoriaId != null)
-        if (categoriaId != null && categoriaId > 0) {
-            stmt.setInt(paramIndex++, categoriaId);
+        // ========== MONTAR CURSORES ==========
+        boolean temMais = vendas.size() > tamanho;
+        if (temMais) {
+            vendas.remove(vendas.size() - 1);
+        }
+        if (paginaAnterior) {
+            Collections.reverse(vendas);
         }
 
-        // Executar query
-        ResultSet rs = stmt.executeQuery();
+        String cursorProximo = null;
+        String cursorAnterior = null;
+        if (!vendas.isEmpty()) {
+            Vendas primeira = vendas.get(0);
+            Vendas ultima = vendas.get(vendas.size() - 1);
 
-        // ========== PROCESSAR RESULTADOS ==========
-        // criarVendaDoResultSet() monta objeto Vendas completo
-        while (rs.next()) {
-            vendas.add(criarVendaDoResultSet(rs));
+            // Indo para frente: há próxima se sobrou linha; há anterior se veio de um cursor.
+            // Voltando: há anterior se sobrou linha; há próxima sempre (viemos de lá).
+            boolean temProxima = paginaAnterior || temMais;
+            boolean temAnterior = paginaAnterior ? temMais : posicao != null;
+
+            if (temProxima) {
+                cursorProximo = codificarCursor(ultima);
+            }
+            if (temAnterior) {
+                cursorAnterior = codificarCursor(primeira);
+            }
         }
 
-        rs.close();
-        stmt.close();
-        
-        return vendas;
+        return new PaginaVendas(vendas, cursorProximo, cursorAnterior, tamanho);
+    }
+
+    /**
+     * Recebe as vendas uma a uma em percorrerVendas()
+     */
+    @FunctionalInterface
+    public interface LeitorVendas {
+        void ler(Vendas venda) throws Exception;
+    }
+
+    /**
+     * Percorre TODAS as vendas do filtro sem montar lista (exportação)
+     *
+     * O ResultSet é forward-only/read-only com fetchSize
+     * Integer.MIN_VALUE: o Connector/J entrega linha a linha do
+     * socket em vez de carregar o resultado inteiro na memória.
+     * Memória constante, qualquer que seja o número de vendas.
+     *
+     * ATENÇÃO: enquanto o streaming não termina, a conexão não aceita
+     * outra consulta; o leitor não deve usar o banco.
+     *
+     * Ordem cronológica (data_vendas ASC, id_vendas ASC).
+     *
+     * @param filtro Filtros da tela de histórico
+     * @param leitor Chamado para cada venda
+     * @return Quantidade de vendas percorridas
+     * @throws Exception Erro na consulta ou lançado pelo leitor
+     */
+    public int percorrerVendas(FiltroVendas filtro, LeitorVendas leitor) throws Exception {
+        StringBuilder sql = new StringBuilder(SELECT_VENDA_COMPLETA);
+        aplicarFiltro(sql, filtro);
+        sql.append("ORDER BY v.data_vendas ASC, v.id_vendas ASC");
+
+        int total = 0;
+        try (PreparedStatement stmt = conexao.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            setarParametrosFiltro(stmt, filtro, 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    leitor.ler(criarVendaDoResultSet(rs));
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Estatísticas do histórico para o MESMO filtro da listagem paginada
+     *
+     * Uma única consulta agrupada por nota_fiscal_emitida devolve no
+     * máximo duas linhas ('S' e 'N'). Os cards continuam cobrindo todo o
+     * filtro sem carregar as vendas em memória, mesmo com a tela paginada.
+     * Qualquer valor diferente de 'S' conta como "sem NF".
+     *
+     * @param filtro Filtros da tela (mesmo WHERE de listarPagina)
+     * @return EstatisticasVendas com quantidades e somas com/sem NF
+     * @throws Exception Se houver erro na consulta SQL
+     */
+    public EstatisticasVendas calcularEstatisticas(FiltroVendas filtro) throws Exception {
+        StringBuilder sql = new StringBuilder();
+        sql.append("SELECT v.nota_fiscal_emitida, COUNT(*) AS quantidade, ");
+        sql.append("COALESCE(SUM(v.valor), 0) AS total ");
+        sql.append("FROM vendas v ");
+        aplicarFiltro(sql, filtro);
+        sql.append("GROUP BY v.nota_fiscal_emitida");
+
+        int totalComNF = 0;
+        int totalSemNF = 0;
+        double valorComNF = 0;
+        double valorSemNF = 0;
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql.toString())) {
+            setarParametrosFiltro(stmt, filtro, 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if ("S".equalsIgnoreCase(rs.getString("nota_fiscal_emitida"))) {
+                        totalComNF += rs.getInt("quantidade");
+                        valorComNF += rs.getDouble("total");
+                    } else {
+                        totalSemNF += rs.getInt("quantidade");
+                        valorSemNF += rs.getDouble("total");
+                    }
+                }
+            }
+        }
+
+        return new EstatisticasVendas(totalComNF, valorComNF, totalSemNF, valorSemNF);
     }
 
     // ============================================================
@@ -537,19 +1244,17 @@ public class VendasDAO {
      * Calcula total de vendas do mês atual
      */
     public double calcularTotalMes(int usuarioId) throws Exception {
-        Calendar cal = Calendar.getInstance();
-        int mesAtual = cal.get(Calendar.MONTH) + 1;
-        int anoAtual = cal.get(Calendar.YEAR);
+        LocalDate hoje = LocalDate.now();
 
         String sql = "SELECT COALESCE(SUM(valor), 0) as total " +
                 "FROM vendas " +
                 "WHERE usuario_id = ? AND ativo = true " +
-                "AND MONTH(data_vendas) = ? AND YEAR(data_vendas) = ?";
+                "AND data_vendas >= ? AND data_vendas < ?";
 
         PreparedStatement stmt = conexao.prepareStatement(sql);
         stmt.setInt(1, usuarioId);
-        stmt.setInt(2, mesAtual);
-        stmt.setInt(3, anoAtual);
+        stmt.setTimestamp(2, inicioDoMes(hoje.getYear(), hoje.getMonthValue()));
+        stmt.setTimestamp(3, inicioDoMes(hoje.getYear(), hoje.getMonthValue() + 1));
         ResultSet rs = stmt.executeQuery();
 
         double total = 0;
@@ -564,15 +1269,17 @@ public class VendasDAO {
 
     /**
      * Resumo mensal do ano (mês, quantidade, total)
+     * Lido de vendas_resumo_mensal (prefixo da PK: usuario_id, ano).
      */
     public List<Object[]> resumoMensal(int usuarioId, int ano) throws Exception {
         List<Object[]> resumo = new ArrayList<>();
-        String sql = "SELECT MONTH(data_vendas) as mes, " +
-                "COUNT(*) as quantidade, " +
-                "SUM(valor) as total " +
-                "FROM vendas " +
-                "WHERE usuario_id = ? AND YEAR(data_vendas) = ? AND ativo = true " +
-                "GROUP BY MONTH(data_vendas) " +
+        String sql = "SELECT mes, " +
+                "SUM(qtd) as quantidade, " +
+                "SUM(total) as total " +
+                "FROM vendas_resumo_mensal " +
+                "WHERE usuario_id = ? AND ano = ? " +
+                "GROUP BY mes " +
+                "HAVING SUM(qtd) > 0 " +
                 "ORDER BY mes";
 
         PreparedStatement stmt = conexao.prepareStatement(sql);
@@ -593,6 +1300,286 @@ public class VendasDAO {
         return resumo;
     }
 
+    /**
+     * Faturamento de cada mês do ano (resumo mensal, no máximo 12 linhas)
+     *
+     * @return double[12]: [mes - 1] = soma das vendas ativas do mês
+     */
+    public double[] faturamentoPorMes(int usuarioId, int ano) throws Exception {
+        double[] meses = new double[12];
+
+        String sql = "SELECT mes, SUM(total) AS total " +
+                "FROM vendas_resumo_mensal " +
+                "WHERE usuario_id = ? AND ano = ? " +
+                "GROUP BY mes";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, ano);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    meses[rs.getInt("mes") - 1] = rs.getDouble("total");
+                }
+            }
+        }
+
+        return meses;
+    }
+
+    /**
+     * Faturamento de um mês (resumo mensal, faixa da PK)
+     */
+    public double faturamentoDoMes(int usuarioId, int ano, int mes) throws Exception {
+        String sql = "SELECT COALESCE(SUM(total), 0) AS total " +
+                "FROM vendas_resumo_mensal " +
+                "WHERE usuario_id = ? AND ano = ? AND mes = ?";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, ano);
+            stmt.setInt(3, mes);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getDouble("total");
+            }
+        }
+    }
+
+    /**
+     * Totais do ano por mês e por linha do relatório oficial (DASN-SIMEI)
+     *
+     * Lê vendas_resumo_mensal (no máximo 12 x categorias x 2 linhas),
+     * sem tocar nas vendas: o banco devolve até 12 x 8 somas
+     * (mês, seção, NF).
+     *
+     * A seção vem de categoria.secao_fiscal no momento da leitura, a
+     * mesma usada por calcularTotaisPorSecao(), então o anual bate com
+     * a soma dos relatórios mensais.
+     *
+     * @return double[12][8]: [mes - 1][posição de calcularTotais()]
+     *         (I, II, IV, V, VII, VIII, XI, XII)
+     */
+    public double[][] totaisAnuaisPorSecao(int usuarioId, int ano) throws Exception {
+        double[][] totais = new double[12][8];
+
+        String sql = "SELECT r.mes, " +
+                "c.secao_fiscal AS secao, " +
+                "r.nf = 'S' AS com_nf, " +
+                "SUM(r.total) AS total " +
+                "FROM vendas_resumo_mensal r " +
+                "INNER JOIN categoria c ON r.categoria_id = c.id_categoria " +
+                "WHERE r.usuario_id = ? AND r.ano = ? " +
+                "GROUP BY r.mes, c.secao_fiscal, r.nf";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, ano);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int mes = rs.getInt("mes");
+                    totais[mes - 1][posicaoTotal(rs.getInt("secao"), rs.getBoolean("com_nf"))]
+                            += rs.getDouble("total");
+                }
+            }
+        }
+
+        return totais;
+    }
+
+    /**
+     * Os 8 totais do relatório mensal oficial, calculados no banco
+     *
+     * GROUP BY secao_fiscal, nota_fiscal_emitida → no máximo 8 linhas,
+     * sem carregar nenhuma venda (o detalhamento só é lido se o PDF
+     * for pedido com ele).
+     *
+     * @return double[8] na ordem de RelatorioPDF.calcularTotais():
+     *         I, II, IV, V, VII, VIII, XI, XII
+     */
+    public double[] calcularTotaisPorSecao(int usuarioId, int mes, int ano) throws Exception {
+        double[] totais = new double[8];
+
+        String sql = "SELECT c.secao_fiscal AS secao, v.nota_fiscal_emitida, SUM(v.valor) AS total " +
+                "FROM vendas v " +
+                "INNER JOIN categoria c ON v.categoria_id = c.id_categoria " +
+                "WHERE v.usuario_id = ? AND v.ativo = true " +
+                "AND v.data_vendas >= ? AND v.data_vendas < ? " +
+                "GROUP BY c.secao_fiscal, v.nota_fiscal_emitida";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setTimestamp(2, inicioDoMes(ano, mes));
+            stmt.setTimestamp(3, inicioDoMes(ano, mes + 1));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    boolean comNF = "S".equalsIgnoreCase(rs.getString("nota_fiscal_emitida"));
+                    totais[posicaoTotal(rs.getInt("secao"), comNF)] += rs.getDouble("total");
+                }
+            }
+        }
+
+        return totais;
+    }
+
+    /**
+     * Posição no array de totais: seção (0-3) * 2 + (com NF ? 1 : 0).
+     * Seção fora do intervalo cai em "Outro".
+     */
+    private static int posicaoTotal(int secao, boolean comNF) {
+        int s = secao >= 0 && secao <= 3 ? secao : 3;
+        return s * 2 + (comNF ? 1 : 0);
+    }
+
+    /**
+     * Resumo do dashboard (mês e ano atuais) em UMA consulta
+     *
+     * Substitui contarVendasDoMes + calcularTotalMes + contarVendasDoAno +
+     * calcularTotalAno (4 idas ao banco) por agregação condicional sobre
+     * vendas_resumo_mensal: o WHERE pega as linhas do ano pela PK
+     * (usuario_id, ano) e o CASE separa o mês atual. O custo depende
+     * do número de meses/categorias, não do número de vendas.
+     *
+     * @param usuarioId ID do usuário
+     * @return DashboardResumo com quantidades e somas do mês e do ano
+     */
+    public DashboardResumo buscarResumoDashboard(int usuarioId) throws Exception {
+        LocalDate hoje = LocalDate.now();
+
+        String sql = "SELECT " +
+                "COALESCE(SUM(CASE WHEN mes = ? THEN qtd ELSE 0 END), 0) AS vendas_mes, " +
+                "COALESCE(SUM(CASE WHEN mes = ? THEN total ELSE 0 END), 0) AS total_mes, " +
+                "COALESCE(SUM(qtd), 0) AS vendas_ano, " +
+                "COALESCE(SUM(total), 0) AS total_ano " +
+                "FROM vendas_resumo_mensal " +
+                "WHERE usuario_id = ? AND ano = ?";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setInt(1, hoje.getMonthValue());
+            stmt.setInt(2, hoje.getMonthValue());
+            stmt.setInt(3, usuarioId);
+            stmt.setInt(4, hoje.getYear());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new DashboardResumo(
+                            rs.getInt("vendas_mes"),
+                            rs.getDouble("total_mes"),
+                            rs.getInt("vendas_ano"),
+                            rs.getDouble("total_ano")
+                    );
+                }
+                return new DashboardResumo();
+            }
+        }
+    }
+
+    // ============================================================
+    // MÉTODOS AUXILIARES - LIMITES DE PERÍODO
+    // ============================================================
+
+    /**
+     * Primeiro instante do mês (00:00:00 do dia 1).
+     * Aceita mes = 13 (vira janeiro do ano seguinte), para montar
+     * o fim exclusivo: [inicioDoMes(a, m), inicioDoMes(a, m + 1))
+     */
+    private static Timestamp inicioDoMes(int ano, int mes) {
+        return Timestamp.valueOf(LocalDate.of(ano, 1, 1).plusMonths(mes - 1).atStartOfDay());
+    }
+
+    /**
+     * Primeiro instante do ano (00:00:00 de 1º de janeiro).
+     * Ano todo: [inicioDoAno(a), inicioDoAno(a + 1))
+     */
+    private static Timestamp inicioDoAno(int ano) {
+        return Timestamp.valueOf(LocalDate.of(ano, 1, 1).atStartOfDay());
+    }
+
+    // ============================================================
+    // MÉTODOS AUXILIARES - FILTRO DO HISTÓRICO E CURSOR
+    // ============================================================
+
+    /**
+     * Monta o WHERE do histórico (usuário, ativo, período, NF, categoria).
+     * Compartilhado pela listagem completa e pela paginada, para que
+     * ambas filtrem exatamente as mesmas vendas.
+     */
+    private static void aplicarFiltro(StringBuilder sql, FiltroVendas filtro) {
+        sql.append("WHERE v.usuario_id = ? ");
+        sql.append("AND v.ativo = true ");
+
+        // Intervalo [inicio, fim): mês específico (1-12) ou ano inteiro (0)
+        sql.append("AND v.data_vendas >= ? AND v.data_vendas < ? ");
+
+        // "comNF" / "semNF" filtram; "todas" ou qualquer outro valor não
+        if ("comNF".equals(filtro.getFiltroNF())) {
+            sql.append("AND v.nota_fiscal_emitida = 'S' ");
+        } else if ("semNF".equals(filtro.getFiltroNF())) {
+            sql.append("AND v.nota_fiscal_emitida = 'N' ");
+        }
+
+        if (filtro.getCategoriaId() != null) {
+            sql.append("AND v.categoria_id = ? ");
+        }
+    }
+
+    /**
+     * Preenche os parâmetros de aplicarFiltro() a partir de idx.
+     * @return Próximo índice livre do PreparedStatement
+     */
+    private static int setarParametrosFiltro(PreparedStatement stmt, FiltroVendas filtro, int idx) throws SQLException {
+        stmt.setInt(idx++, filtro.getUsuarioId());
+
+        if (filtro.temMes()) {
+            stmt.setTimestamp(idx++, inicioDoMes(filtro.getAno(), filtro.getMes()));
+            stmt.setTimestamp(idx++, inicioDoMes(filtro.getAno(), filtro.getMes() + 1));
+        } else {
+            stmt.setTimestamp(idx++, inicioDoAno(filtro.getAno()));
+            stmt.setTimestamp(idx++, inicioDoAno(filtro.getAno() + 1));
+        }
+
+        if (filtro.getCategoriaId() != null) {
+            stmt.setInt(idx++, filtro.getCategoriaId());
+        }
+        return idx;
+    }
+
+    /**
+     * Cursor opaco: Base64 (URL-safe) de "dataHoraISO|idVenda".
+     * Usa a data/hora local da venda, sem fuso, igual ao que foi lido.
+     */
+    private static String codificarCursor(Vendas venda) {
+        String bruto = venda.getDataVendasAsLocalDateTime() + "|" + venda.getIdVendas();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o cursor em {Timestamp, Integer}.
+     * @return null se o cursor for vazio ou adulterado (volta à 1ª página)
+     */
+    private static Object[] decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = bruto.lastIndexOf('|');
+            if (sep < 0) {
+                return null;
+            }
+            Timestamp data = Timestamp.valueOf(LocalDateTime.parse(bruto.substring(0, sep)));
+            Integer id = Integer.valueOf(bruto.substring(sep + 1));
+            return new Object[]{data, id};
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            LOG.aviso("⚠️ Cursor de paginação inválido, voltando à primeira página");
+            return null;
+        }
+    }
+
     // ============================================================
     // MÉTODO AUXILIAR - CRIAR OBJETO DO RESULTSET
     // ============================================================
@@ -645,20 +1632,17 @@ public class VendasDAO {
      * @throws Exception Se houver erro na consulta
      */
     public int contarVendasDoMes(int idUsuario) throws Exception {
-        Calendar cal = Calendar.getInstance();
-        int mesAtual = cal.get(Calendar.MONTH) + 1;
-        int anoAtual = cal.get(Calendar.YEAR);
+        LocalDate hoje = LocalDate.now();
         
         String sql = "SELECT COUNT(*) AS total " +
                      "FROM vendas " +
                      "WHERE usuario_id = ? AND ativo = true " +
-                     "AND MONTH(data_vendas) = ? " +
-                     "AND YEAR(data_vendas) = ?";
+                     "AND data_vendas >= ? AND data_vendas < ?";
         
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, idUsuario);
-            stmt.setInt(2, mesAtual);
-            stmt.setInt(3, anoAtual);
+            stmt.setTimestamp(2, inicioDoMes(hoje.getYear(), hoje.getMonthValue()));
+            stmt.setTimestamp(3, inicioDoMes(hoje.getYear(), hoje.getMonthValue() + 1));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -667,8 +1651,8 @@ public class VendasDAO {
                 return 0;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Erro ao contar vendas do mês:");
-            System.err.println("   Erro: " + e.getMessage());
+            LOG.aviso("❌ Erro ao contar vendas do mês:");
+            LOG.aviso("   Erro: {}", e.getMessage());
             throw new Exception("Erro ao contar vendas do mês: " + e.getMessage(), e);
         }
     }
@@ -681,17 +1665,17 @@ public class VendasDAO {
      * @throws Exception Se houver erro na consulta
      */
     public int contarVendasDoAno(int idUsuario) throws Exception {
-        Calendar cal = Calendar.getInstance();
-        int anoAtual = cal.get(Calendar.YEAR);
+        int anoAtual = LocalDate.now().getYear();
         
         String sql = "SELECT COUNT(*) AS total " +
                      "FROM vendas " +
                      "WHERE usuario_id = ? AND ativo = true " +
-                     "AND YEAR(data_vendas) = ?";
+                     "AND data_vendas >= ? AND data_vendas < ?";
         
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, idUsuario);
-            stmt.setInt(2, anoAtual);
+            stmt.setTimestamp(2, inicioDoAno(anoAtual));
+            stmt.setTimestamp(3, inicioDoAno(anoAtual + 1));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -700,8 +1684,8 @@ public class VendasDAO {
                 return 0;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Erro ao contar vendas do ano:");
-            System.err.println("   Erro: " + e.getMessage());
+            LOG.aviso("❌ Erro ao contar vendas do ano:");
+            LOG.aviso("   Erro: {}", e.getMessage());
             throw new Exception("Erro ao contar vendas do ano: " + e.getMessage(), e);
         }
     }
@@ -714,17 +1698,17 @@ public class VendasDAO {
      * @throws Exception Se houver erro na consulta
      */
     public double calcularTotalAno(int idUsuario) throws Exception {
-        Calendar cal = Calendar.getInstance();
-        int anoAtual = cal.get(Calendar.YEAR);
+        int anoAtual = LocalDate.now().getYear();
         
         String sql = "SELECT COALESCE(SUM(valor), 0) AS total " +
                      "FROM vendas " +
                      "WHERE usuario_id = ? AND ativo = true " +
-                     "AND YEAR(data_vendas) = ?";
+                     "AND data_vendas >= ? AND data_vendas < ?";
         
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setInt(1, idUsuario);
-            stmt.setInt(2, anoAtual);
+            stmt.setTimestamp(2, inicioDoAno(anoAtual));
+            stmt.setTimestamp(3, inicioDoAno(anoAtual + 1));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -733,8 +1717,8 @@ public class VendasDAO {
                 return 0.0;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Erro ao calcular total do ano:");
-            System.err.println("   Erro: " + e.getMessage());
+            LOG.aviso("❌ Erro ao calcular total do ano:");
+            LOG.aviso("   Erro: {}", e.getMessage());
             throw new Exception("Erro ao calcular total do ano: " + e.getMessage(), e);
         }
     }
@@ -762,8 +1746,8 @@ public class VendasDAO {
                 return 0;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Erro ao contar todas as vendas:");
-            System.err.println("   Erro: " + e.getMessage());
+            LOG.aviso("❌ Erro ao contar todas as vendas:");
+            LOG.aviso("   Erro: {}", e.getMessage());
             throw new Exception("Erro ao contar vendas: " + e.getMessage(), e);
         }
     }
@@ -791,8 +1775,8 @@ public class VendasDAO {
                 return 0.0;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Erro ao calcular total geral:");
-            System.err.println("   Erro: " + e.getMessage());
+            LOG.aviso("❌ Erro ao calcular total geral:");
+            LOG.aviso("   Erro: {}", e.getMessage());
             throw new Exception("Erro ao calcular total: " + e.getMessage(), e);
         }
     }
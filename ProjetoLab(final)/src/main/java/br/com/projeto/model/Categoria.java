@@ -16,6 +16,7 @@ import java.io.Serializable;
  * Colunas:
  *   - id_categoria (INT, PK, AUTO_INCREMENT)
  *   - nome_categoria (VARCHAR, NOT NULL)
+ *   - secao_fiscal (TINYINT, 0-3, ver SecaoFiscal)
  *   - ativo (BOOLEAN, DEFAULT true)
  *
  * RELACIONAMENTOS:
@@ -56,6 +57,54 @@ public class Categoria implements Serializable {
      */
     private static final long serialVersionUID = 1L;
 
+    /* ================================================================
+       SEÇÃO FISCAL (relatório oficial da Receita Federal)
+       ================================================================ */
+
+    /**
+     * Em qual seção do relatório mensal/DASN-SIMEI a receita entra.
+     * O código (0-3) é o valor da coluna secao_fiscal e também a
+     * posição da seção no array de totais (código * 2 + NF).
+     */
+    public enum SecaoFiscal {
+        REVENDA("Revenda de mercadorias"),
+        INDUSTRIALIZADOS("Produtos industrializados"),
+        SERVICOS("Prestação de serviços"),
+        OUTRO("Outro");
+
+        private final String descricao;
+
+        SecaoFiscal(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public int getCodigo() {
+            return ordinal();
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        /** @return Seção do código do banco (inválido → OUTRO) */
+        public static SecaoFiscal doCodigo(int codigo) {
+            SecaoFiscal[] valores = values();
+            return codigo >= 0 && codigo < valores.length ? valores[codigo] : OUTRO;
+        }
+
+        /**
+         * Sugestão a partir do nome (regra antiga do RelatorioPDF).
+         * Usada só como padrão ao criar categoria sem seção escolhida.
+         */
+        public static SecaoFiscal sugerirPeloNome(String nome) {
+            String n = nome == null ? "" : nome.toLowerCase();
+            if (n.contains("revenda") || n.contains("mercadoria")) return REVENDA;
+            if (n.contains("industrial") || n.contains("produto")) return INDUSTRIALIZADOS;
+            if (n.contains("servi")) return SERVICOS;
+            return OUTRO;
+        }
+    }
+
     /* ================================================================
        ATRIBUTOS (Mapeamento 1:1 com colunas do banco)
        ================================================================ */
@@ -97,6 +146,12 @@ public class Categoria implements Serializable {
      */
     private boolean ativo;
 
+    /**
+     * Seção fiscal (coluna secao_fiscal).
+     * null → sugerida pelo nome em getSecaoFiscal().
+     */
+    private SecaoFiscal secaoFiscal;
+
     /* ================================================================
        CONSTRUTORES
        ================================================================
@@ -194,6 +249,18 @@ public class Categoria implements Serializable {
         this.ativo = ativo;
     }
 
+    /**
+     * CONSTRUTOR COMPLETO COM SEÇÃO FISCAL
+     *
+     * Usado pelo CategoriaDAO ao ler a tabela.
+     *
+     * @param secaoFiscal Seção do relatório oficial
+     */
+    public Categoria(int idCategoria, String nomeCategoria, boolean ativo, SecaoFiscal secaoFiscal) {
+        this(idCategoria, nomeCategoria, ativo);
+        this.secaoFiscal = secaoFiscal;
+    }
+
     /* ================================================================
        GETTERS E SETTERS
        ================================================================ */
@@ -280,6 +347,25 @@ public class Categoria implements Serializable {
         this.ativo = ativo;
     }
 
+    /**
+     * Retorna a seção fiscal da categoria.
+     * Se não foi definida, sugere pelo nome (ex.: "Serviços" → SERVICOS).
+     *
+     * @return Seção fiscal (nunca null)
+     */
+    public SecaoFiscal getSecaoFiscal() {
+        return secaoFiscal != null ? secaoFiscal : SecaoFiscal.sugerirPeloNome(nomeCategoria);
+    }
+
+    /**
+     * Define a seção fiscal.
+     *
+     * @param secaoFiscal Seção do relatório oficial
+     */
+    public void setSecaoFiscal(SecaoFiscal secaoFiscal) {
+        this.secaoFiscal = secaoFiscal;
+    }
+
     /* ================================================================
        MÉTODOS AUXILIARES
        ================================================================ */
@@ -360,12 +446,14 @@ public class Categoria implements Serializable {
    - idCategoria     → PK, auto increment
    - nomeCategoria   → Nome exibido
    - ativo           → Status (exclusão lógica)
+   - secaoFiscal     → Seção do relatório oficial (0-3)
 
    CONSTRUTORES:
    - ()                              → Vazio (ativo = true)
    - (nome)                          → Inserção rápida
    - (id, nome)                      → Após buscar do banco
    - (id, nome, ativo)               → Completo
+   - (id, nome, ativo, secao)        → Completo com seção fiscal
 
    CATEGORIAS PADRÃO:
    1. Comércio Atacadista
@@ -0,0 +1,95 @@
+package br.com.projeto.model;
+
+/**
+ * ================================================================
+ * MODEL: DASHBOARD RESUMO
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Agrupa os números dos cards do dashboard (mês e ano atuais)
+ * calculados em UMA única consulta por VendasDAO.buscarResumoDashboard().
+ *
+ * NÃO É TABELA:
+ * Valor calculado (SUM condicionais sobre vendas_resumo_mensal), somente leitura.
+ *
+ * CAMPOS:
+ * - vendasMes: quantidade de vendas ativas no mês atual
+ * - totalMes:  soma dos valores no mês atual
+ * - vendasAno: quantidade de vendas ativas no ano atual
+ * - totalAno:  soma dos valores no ano atual
+ *
+ * USO TÍPICO:
+ * ```java
+ * DashboardResumo resumo = vendasDAO.buscarResumoDashboard(usuarioId);
+ * request.setAttribute("totalMes", resumo.getTotalMes());
+ * ```
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.dao.VendasDAO#buscarResumoDashboard(int)
+ */
+public class DashboardResumo {
+
+    /* ================================================================
+       ATRIBUTOS (imutáveis)
+       ================================================================ */
+
+    private final int vendasMes;
+    private final double totalMes;
+    private final int vendasAno;
+    private final double totalAno;
+
+    /* ================================================================
+       CONSTRUTORES
+       ================================================================ */
+
+    /**
+     * Resumo zerado (usuário sem vendas ou erro na consulta).
+     */
+    public DashboardResumo() {
+        this(0, 0.0, 0, 0.0);
+    }
+
+    /**
+     * @param vendasMes Quantidade de vendas do mês
+     * @param totalMes  Soma das vendas do mês
+     * @param vendasAno Quantidade de vendas do ano
+     * @param totalAno  Soma das vendas do ano
+     */
+    public DashboardResumo(int vendasMes, double totalMes, int vendasAno, double totalAno) {
+        this.vendasMes = vendasMes;
+        this.totalMes = totalMes;
+        this.vendasAno = vendasAno;
+        this.totalAno = totalAno;
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public int getVendasMes() {
+        return vendasMes;
+    }
+
+    public double getTotalMes() {
+        return totalMes;
+    }
+
+    public int getVendasAno() {
+        return vendasAno;
+    }
+
+    public double getTotalAno() {
+        return totalAno;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardResumo{" +
+                "vendasMes=" + vendasMes +
+                ", totalMes=" + totalMes +
+                ", vendasAno=" + vendasAno +
+                ", totalAno=" + totalAno +
+                '}';
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.projeto.model;
+
+/**
+ * ================================================================
+ * MODEL: ESTATÍSTICAS DE VENDAS
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Cards de estatísticas do Histórico (quantidade e valor, com e sem
+ * NF) calculados por VendasDAO.calcularEstatisticas() em UMA consulta
+ * agrupada por nota_fiscal_emitida, sem carregar as vendas.
+ *
+ * NÃO É TABELA:
+ * Valor calculado (COUNT/SUM), somente leitura.
+ *
+ * CAMPOS:
+ * - totalComNF / valorComNF: vendas com nota_fiscal_emitida = 'S'
+ * - totalSemNF / valorSemNF: demais vendas
+ * - totalVendas / totalValor: soma dos dois grupos
+ *
+ * USO TÍPICO:
+ * ```java
+ * EstatisticasVendas est = vendasDAO.calcularEstatisticas(filtro);
+ * request.setAttribute("totalValor", est.getTotalValor());
+ * ```
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see FiltroVendas
+ */
+public class EstatisticasVendas {
+
+    /* ================================================================
+       ATRIBUTOS (imutáveis)
+       ================================================================ */
+
+    private final int totalComNF;
+    private final double valorComNF;
+    private final int totalSemNF;
+    private final double valorSemNF;
+
+    /* ================================================================
+       CONSTRUTORES
+       ================================================================ */
+
+    /**
+     * Estatísticas zeradas (nenhuma venda no filtro ou erro na consulta).
+     */
+    public EstatisticasVendas() {
+        this(0, 0.0, 0, 0.0);
+    }
+
+    /**
+     * @param totalComNF Quantidade de vendas com NF
+     * @param valorComNF Soma das vendas com NF
+     * @param totalSemNF Quantidade de vendas sem NF
+     * @param valorSemNF Soma das vendas sem NF
+     */
+    public EstatisticasVendas(int totalComNF, double valorComNF, int totalSemNF, double valorSemNF) {
+        this.totalComNF = totalComNF;
+        this.valorComNF = valorComNF;
+        this.totalSemNF = totalSemNF;
+        this.valorSemNF = valorSemNF;
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public int getTotalComNF() {
+        return totalComNF;
+    }
+
+    public double getValorComNF() {
+        return valorComNF;
+    }
+
+    public int getTotalSemNF() {
+        return totalSemNF;
+    }
+
+    public double getValorSemNF() {
+        return valorSemNF;
+    }
+
+    /** @return Quantidade total (com + sem NF) */
+    public int getTotalVendas() {
+        return totalComNF + totalSemNF;
+    }
+
+    /** @return Valor total (com + sem NF) */
+    public double getTotalValor() {
+        return valorComNF + valorSemNF;
+    }
+
+    @Override
+    public String toString() {
+        return "EstatisticasVendas{" +
+                "totalComNF=" + totalComNF +
+                ", valorComNF=" + valorComNF +
+                ", totalSemNF=" + totalSemNF +
+                ", valorSemNF=" + valorSemNF +
+                '}';
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.projeto.model;
+
+/**
+ * ================================================================
+ * MODEL: FILTRO DE VENDAS
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Agrupa os filtros da tela de Histórico para que a listagem
+ * paginada e as estatísticas usem EXATAMENTE o mesmo WHERE.
+ *
+ * NÃO É TABELA:
+ * Objeto de parâmetros, montado pelo HistoricoController.
+ *
+ * CAMPOS:
+ * - usuarioId:   dono das vendas (obrigatório)
+ * - ano:         ano das vendas (obrigatório)
+ * - mes:         0 = ano todo, 1-12 = mês específico
+ * - filtroNF:    "todas", "comNF" ou "semNF"
+ * - categoriaId: null = todas as categorias
+ *
+ * USO TÍPICO:
+ * ```java
+ * FiltroVendas filtro = new FiltroVendas(usuarioId, 2026, 0, "comNF", null);
+ * PaginaVendas pagina = vendasDAO.listarPagina(filtro, cursor, false, 50);
+ * ```
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.dao.VendasDAO
+ */
+public class FiltroVendas {
+
+    /* ================================================================
+       ATRIBUTOS (imutáveis)
+       ================================================================ */
+
+    private final int usuarioId;
+    private final int ano;
+    private final int mes;
+    private final String filtroNF;
+    private final Integer categoriaId;
+
+    /* ================================================================
+       CONSTRUTOR
+       ================================================================ */
+
+    /**
+     * @param usuarioId   ID do usuário
+     * @param ano         Ano das vendas
+     * @param mes         0 = todos, 1-12 = mês (fora disso vira 0)
+     * @param filtroNF    "todas", "comNF", "semNF" (null vira "todas")
+     * @param categoriaId ID da categoria ou null (<= 0 vira null)
+     */
+    public FiltroVendas(int usuarioId, int ano, int mes, String filtroNF, Integer categoriaId) {
+        this.usuarioId = usuarioId;
+        this.ano = ano;
+        this.mes = (mes >= 1 && mes <= 12) ? mes : 0;
+        this.filtroNF = filtroNF != null ? filtroNF : "todas";
+        this.categoriaId = (categoriaId != null && categoriaId > 0) ? categoriaId : null;
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public int getUsuarioId() {
+        return usuarioId;
+    }
+
+    public int getAno() {
+        return ano;
+    }
+
+    /** @return 0 (ano todo) ou 1-12 */
+    public int getMes() {
+        return mes;
+    }
+
+    public String getFiltroNF() {
+        return filtroNF;
+    }
+
+    /** @return ID da categoria ou null (todas) */
+    public Integer getCategoriaId() {
+        return categoriaId;
+    }
+
+    /** @return true se filtra por um mês específico */
+    public boolean temMes() {
+        return mes > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FiltroVendas{" +
+                "usuarioId=" + usuarioId +
+                ", ano=" + ano +
+                ", mes=" + mes +
+                ", filtroNF='" + filtroNF + '\'' +
+                ", categoriaId=" + categoriaId +
+                '}';
+    }
+}
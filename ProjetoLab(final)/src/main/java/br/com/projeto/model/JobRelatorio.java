@@ -0,0 +1,190 @@
+package br.com.projeto.model;
+
+import java.nio.file.Path;
+
+/**
+ * ================================================================
+ * MODEL: JOB DE RELATÓRIO
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Acompanha a geração assíncrona de um relatório PDF mensal,
+ * desde a entrada na fila até o download.
+ *
+ * NÃO É TABELA:
+ * Vive em memória na FilaRelatorios (expira após algum tempo).
+ *
+ * PERÍODO:
+ * mes 1-12 = relatório mensal; mes 0 = relatório anual (DASN-SIMEI).
+ * detalhado = false → só os totais por seção (sem listar as vendas).
+ *
+ * CICLO DE VIDA:
+ * NA_FILA → PROCESSANDO → CONCLUIDO (arquivo do PDF disponível)
+ *                       → ERRO      (mensagemErro preenchida)
+ *
+ * TEMPOS (ms, para métricas):
+ * - espera:        criadoEm → iniciadoEm  (tempo parado na fila)
+ * - processamento: iniciadoEm → concluidoEm (consulta + PDF)
+ *
+ * CONCORRÊNCIA:
+ * Criado pela requisição, atualizado pela thread do worker e lido
+ * por outras requisições: campos mutáveis são volatile.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.utils.FilaRelatorios
+ */
+public class JobRelatorio {
+
+    /** Situação do job */
+    public enum Status { NA_FILA, PROCESSANDO, CONCLUIDO, ERRO }
+
+    /* ================================================================
+       ATRIBUTOS
+       ================================================================ */
+
+    private final String id;
+    private final int usuarioId;
+    private final int mes;
+    private final int ano;
+    private final boolean detalhado;
+    private final long criadoEm;
+
+    private volatile Status status = Status.NA_FILA;
+    private volatile long iniciadoEm;
+    private volatile long concluidoEm;
+    private volatile Path arquivo;
+    private volatile String mensagemErro;
+
+    /* ================================================================
+       CONSTRUTOR
+       ================================================================ */
+
+    /**
+     * @param id        Identificador opaco (UUID)
+     * @param usuarioId Dono do relatório (só ele pode baixar)
+     * @param mes       Mês do relatório (1-12) ou 0 = anual
+     * @param ano       Ano do relatório
+     * @param detalhado true = inclui a página com a lista de vendas
+     */
+    public JobRelatorio(String id, int usuarioId, int mes, int ano, boolean detalhado) {
+        this.id = id;
+        this.usuarioId = usuarioId;
+        this.mes = mes;
+        this.ano = ano;
+        this.detalhado = detalhado;
+        this.criadoEm = System.currentTimeMillis();
+    }
+
+    /* ================================================================
+       TRANSIÇÕES (usadas pelo worker)
+       ================================================================ */
+
+    public void iniciar() {
+        iniciadoEm = System.currentTimeMillis();
+        status = Status.PROCESSANDO;
+    }
+
+    public void concluir(Path arquivo) {
+        this.arquivo = arquivo;
+        concluidoEm = System.currentTimeMillis();
+        status = Status.CONCLUIDO;
+    }
+
+    public void falhar(String mensagem) {
+        mensagemErro = mensagem;
+        concluidoEm = System.currentTimeMillis();
+        status = Status.ERRO;
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public String getId() {
+        return id;
+    }
+
+    public int getUsuarioId() {
+        return usuarioId;
+    }
+
+    public int getMes() {
+        return mes;
+    }
+
+    public int getAno() {
+        return ano;
+    }
+
+    /** @return true se o PDF lista as vendas (além dos totais) */
+    public boolean isDetalhado() {
+        return detalhado;
+    }
+
+    public long getCriadoEm() {
+        return criadoEm;
+    }
+
+    /** @return instante em que terminou (0 se ainda não finalizou) */
+    public long getConcluidoEm() {
+        return concluidoEm;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** @return PDF gerado (arquivo do CacheRelatorios) */
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public String getMensagemErro() {
+        return mensagemErro;
+    }
+
+    /** @return true se for o relatório anual (DASN-SIMEI) */
+    public boolean isAnual() {
+        return mes == 0;
+    }
+
+    /** @return true se CONCLUIDO ou ERRO */
+    public boolean isFinalizado() {
+        Status s = status;
+        return s == Status.CONCLUIDO || s == Status.ERRO;
+    }
+
+    /** @return ms parado na fila (até agora, se ainda não começou) */
+    public long getEsperaMs() {
+        long inicio = iniciadoEm;
+        return (inicio > 0 ? inicio : System.currentTimeMillis()) - criadoEm;
+    }
+
+    /** @return ms processando (0 se não começou; até agora, se em andamento) */
+    public long getProcessamentoMs() {
+        long inicio = iniciadoEm;
+        if (inicio == 0) {
+            return 0;
+        }
+        long fim = concluidoEm;
+        return (fim > 0 ? fim : System.currentTimeMillis()) - inicio;
+    }
+
+    /** Nome sugerido para o download */
+    public String getNomeArquivo() {
+        return isAnual() ? "relatorio_mei_anual_" + ano + ".pdf" : "relatorio_mei_" + mes + "_" + ano + ".pdf";
+    }
+
+    @Override
+    public String toString() {
+        return "JobRelatorio{" +
+                "id='" + id + '\'' +
+                ", usuarioId=" + usuarioId +
+                ", periodo=" + (isAnual() ? "anual " : mes + "/") + ano +
+                ", status=" + status +
+                ", esperaMs=" + getEsperaMs() +
+                ", processamentoMs=" + getProcessamentoMs() +
+                '}';
+    }
+}
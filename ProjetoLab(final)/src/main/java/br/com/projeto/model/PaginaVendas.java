@@ -0,0 +1,72 @@
+package br.com.projeto.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ================================================================
+ * MODEL: PÁGINA DE VENDAS
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Resultado de VendasDAO.listarPagina(): uma página de vendas
+ * (ordenadas por data DESC, id DESC) e os cursores para navegar.
+ *
+ * CURSORES:
+ * Strings opacas (Base64) que apontam para a última/primeira venda
+ * da página. A JSP só repassa o valor no link; quem interpreta é o DAO.
+ * - cursorProximo: null se esta é a última página
+ * - cursorAnterior: null se esta é a primeira página
+ *
+ * POR QUE CURSOR E NÃO OFFSET?
+ * LIMIT 50 OFFSET 5000 faz o MySQL ler e descartar 5000 linhas.
+ * Com cursor, cada página é uma busca direta no índice.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see FiltroVendas
+ */
+public class PaginaVendas {
+
+    private final List<Vendas> vendas;
+    private final String cursorProximo;
+    private final String cursorAnterior;
+    private final int tamanho;
+
+    /**
+     * @param vendas         Vendas desta página (já na ordem de exibição)
+     * @param cursorProximo  Cursor da próxima página ou null
+     * @param cursorAnterior Cursor da página anterior ou null
+     * @param tamanho        Tamanho de página solicitado
+     */
+    public PaginaVendas(List<Vendas> vendas, String cursorProximo, String cursorAnterior, int tamanho) {
+        this.vendas = Collections.unmodifiableList(vendas);
+        this.cursorProximo = cursorProximo;
+        this.cursorAnterior = cursorAnterior;
+        this.tamanho = tamanho;
+    }
+
+    public List<Vendas> getVendas() {
+        return vendas;
+    }
+
+    public String getCursorProximo() {
+        return cursorProximo;
+    }
+
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public boolean temProxima() {
+        return cursorProximo != null;
+    }
+
+    public boolean temAnterior() {
+        return cursorAnterior != null;
+    }
+}
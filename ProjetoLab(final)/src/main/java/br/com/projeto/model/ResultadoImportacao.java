@@ -0,0 +1,99 @@
+package br.com.projeto.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ================================================================
+ * MODEL: RESULTADO DA IMPORTAÇÃO
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Relatório de uma importação de vendas via CSV: quantas linhas
+ * foram lidas, quantas viraram vendas e o erro de cada linha rejeitada.
+ *
+ * NÃO É TABELA:
+ * Preenchido por ImportadorVendasCSV e exibido em importar.jsp.
+ *
+ * MEMÓRIA LIMITADA:
+ * Um arquivo de 100 mil linhas todo errado não pode gerar 100 mil
+ * mensagens na requisição. Guarda só as primeiras MAX_ERROS_DETALHADOS
+ * mensagens; totalErros continua contando todas.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.utils.ImportadorVendasCSV
+ */
+public class ResultadoImportacao {
+
+    /** Máximo de mensagens de erro guardadas (as demais só contam) */
+    public static final int MAX_ERROS_DETALHADOS = 500;
+
+    private int linhasLidas;
+    private int importadas;
+    private int totalErros;
+    private final List<String> erros = new ArrayList<>();
+
+    /* ================================================================
+       REGISTRO (usado pelo importador)
+       ================================================================ */
+
+    /** Conta uma linha de dados lida (cabeçalho e linhas vazias não contam) */
+    public void linhaLida() {
+        linhasLidas++;
+    }
+
+    /** Soma vendas gravadas com sucesso */
+    public void adicionarImportadas(int quantidade) {
+        importadas += quantidade;
+    }
+
+    /**
+     * Registra erro de uma linha.
+     *
+     * @param linha    Número da linha no arquivo (1 = primeira)
+     * @param mensagem Motivo da rejeição
+     */
+    public void adicionarErro(int linha, String mensagem) {
+        totalErros++;
+        if (erros.size() < MAX_ERROS_DETALHADOS) {
+            erros.add("Linha " + linha + ": " + mensagem);
+        }
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public int getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public int getImportadas() {
+        return importadas;
+    }
+
+    public int getTotalErros() {
+        return totalErros;
+    }
+
+    /** @return Mensagens de erro (no máximo MAX_ERROS_DETALHADOS) */
+    public List<String> getErros() {
+        return Collections.unmodifiableList(erros);
+    }
+
+    /** @return true se houve mais erros do que as mensagens guardadas */
+    public boolean isErrosTruncados() {
+        return totalErros > erros.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoImportacao{" +
+                "linhasLidas=" + linhasLidas +
+                ", importadas=" + importadas +
+                ", totalErros=" + totalErros +
+                '}';
+    }
+}
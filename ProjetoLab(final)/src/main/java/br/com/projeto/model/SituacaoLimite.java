@@ -0,0 +1,105 @@
+package br.com.projeto.model;
+
+import java.time.LocalDate;
+
+/**
+ * ================================================================
+ * MODEL: SITUAÇÃO DO LIMITE ANUAL DO MEI
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Quanto o MEI já faturou no ano, quanto falta para o teto de
+ * receita bruta anual e, no ritmo recente de vendas, quando ele
+ * deve ultrapassar o teto.
+ *
+ * NÃO É TABELA:
+ * Calculado por LimiteFaturamento a partir do resumo mensal
+ * (mantido em memória), somente leitura.
+ *
+ * CAMPOS:
+ * - ano:             ano-calendário (o limite zera em 1º de janeiro)
+ * - limite:          teto anual (R$ 81.000,00 por padrão)
+ * - faturado:        receita bruta acumulada no ano
+ * - mediaDiaria:     receita média por dia nos últimos meses (janela)
+ * - previsaoEstouro: dia em que o acumulado passa do limite nesse
+ *                    ritmo; null se já passou, se não há vendas
+ *                    recentes ou se não acontece dentro do ano
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.utils.LimiteFaturamento
+ */
+public class SituacaoLimite {
+
+    /* ================================================================
+       ATRIBUTOS (imutáveis)
+       ================================================================ */
+
+    private final int ano;
+    private final double limite;
+    private final double faturado;
+    private final double mediaDiaria;
+    private final LocalDate previsaoEstouro;
+
+    /* ================================================================
+       CONSTRUTOR
+       ================================================================ */
+
+    public SituacaoLimite(int ano, double limite, double faturado, double mediaDiaria, LocalDate previsaoEstouro) {
+        this.ano = ano;
+        this.limite = limite;
+        this.faturado = faturado;
+        this.mediaDiaria = mediaDiaria;
+        this.previsaoEstouro = previsaoEstouro;
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public int getAno() {
+        return ano;
+    }
+
+    public double getLimite() {
+        return limite;
+    }
+
+    public double getFaturado() {
+        return faturado;
+    }
+
+    /** @return quanto ainda pode faturar no ano (negativo se já passou) */
+    public double getDisponivel() {
+        return limite - faturado;
+    }
+
+    /** @return percentual do limite já usado (pode passar de 100) */
+    public double getPercentualUsado() {
+        return limite > 0 ? faturado * 100.0 / limite : 0;
+    }
+
+    public double getMediaDiaria() {
+        return mediaDiaria;
+    }
+
+    /** @return data prevista para ultrapassar o limite ou null */
+    public LocalDate getPrevisaoEstouro() {
+        return previsaoEstouro;
+    }
+
+    public boolean isUltrapassado() {
+        return faturado > limite;
+    }
+
+    @Override
+    public String toString() {
+        return "SituacaoLimite{" +
+                "ano=" + ano +
+                ", limite=" + limite +
+                ", faturado=" + faturado +
+                ", mediaDiaria=" + mediaDiaria +
+                ", previsaoEstouro=" + previsaoEstouro +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.projeto.model;
+
+import java.io.Serializable;
+
+/**
+ * ================================================================
+ * MODEL: USUÁRIO LOGADO
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O que vai assinado no token de login (cookie mei_auth,
+ * FiltroAutenticacao) e que os controllers recebem de
+ * FiltroAutenticacao.usuario(request). Só o necessário para
+ * identificar o usuário e montar a topbar: id, nome e CNPJ. O Usuario
+ * completo (email, CPF, hash da senha) NÃO vai para o token: ele
+ * viaja em toda requisição, num cookie de tamanho limitado.
+ *
+ * NÃO É TABELA:
+ * Cópia reduzida de Usuario. Quem precisa do resto busca com
+ * CacheUsuarios.buscar(conexao, getIdUsuario()).
+ *
+ * IMUTÁVEL:
+ * Editou o perfil → o token é reemitido com um UsuarioSessao novo
+ * (FiltroAutenticacao.atualizar(request, response,
+ * UsuarioSessao.de(usuario))).
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see Usuario
+ * @see br.com.projeto.utils.CacheUsuarios
+ * @see br.com.projeto.utils.FiltroAutenticacao
+ */
+public final class UsuarioSessao implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* ================================================================
+       ATRIBUTOS (imutáveis)
+       ================================================================ */
+
+    private final int idUsuario;
+    private final String nome;
+    private final String cnpj;
+
+    /* ================================================================
+       CONSTRUTOR
+       ================================================================ */
+
+    public UsuarioSessao(int idUsuario, String nome, String cnpj) {
+        this.idUsuario = idUsuario;
+        this.nome = nome;
+        this.cnpj = cnpj;
+    }
+
+    /**
+     * Reduz o Usuario completo ao que vai para o token.
+     */
+    public static UsuarioSessao de(Usuario usuario) {
+        return new UsuarioSessao(usuario.getIdUsuario(), usuario.getNome(), usuario.getCnpj());
+    }
+
+    /* ================================================================
+       GETTERS
+       ================================================================ */
+
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getCnpj() {
+        return cnpj;
+    }
+
+    @Override
+    public String toString() {
+        return "UsuarioSessao{id=" + idUsuario + ", nome='" + nome + "'}";
+    }
+}
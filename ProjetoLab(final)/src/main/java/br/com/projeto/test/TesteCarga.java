@@ -0,0 +1,193 @@
+package br.com.projeto.test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga do servlet layer (comparar threads de plataforma x
+ * virtual threads no Tomcat, ver deploy/tomcat-virtual-threads.xml)
+ *
+ * Faz login uma vez, e depois N usuários simultâneos pedem a mesma rota
+ * em laço durante alguns segundos, para cada N. Mostra vazão (req/s),
+ * latências p50/p95/p99 e erros (status != 200 ou exceção).
+ *
+ * Uso (app rodando, banco com dados):
+ *   java -cp target/classes br.com.projeto.test.TesteCarga \
+ *        http://localhost:8080/ProjetoLab13-1.0 12345678910 123456 30 /dashboard
+ *
+ * Rodar uma vez com o Connector padrão e outra com useVirtualThreads,
+ * mesmo banco e mesmo mei.pool.tamanho, e comparar as tabelas.
+ */
+public class TesteCarga {
+
+    private static final int[] USUARIOS_SIMULTANEOS = { 50, 200, 1000 };
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080/ProjetoLab13-1.0";
+        String cpf = args.length > 1 ? args[1] : "12345678910";
+        String senha = args.length > 2 ? args[2] : "123456";
+        int segundos = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        String rota = args.length > 4 ? args[4] : "/dashboard";
+
+        System.out.println("========================================");
+        System.out.println("TESTE DE CARGA: " + base + rota + " (" + segundos + "s por nível)");
+        System.out.println("========================================\n");
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // ========== LOGIN (um token compartilhado) ==========
+        String cookie = login(cliente, base, cpf, senha);
+        System.out.println("✅ Login OK\n");
+
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create(base + rota))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        // Aquecimento (JIT, pool de conexões, caches)
+        executarNivel(cliente, pedido, 20, 5);
+
+        System.out.println(String.format("%10s %10s %10s %10s %10s %10s",
+                "usuários", "req/s", "p50 ms", "p95 ms", "p99 ms", "erros"));
+
+        for (int usuarios : USUARIOS_SIMULTANEOS) {
+            Resultado r = executarNivel(cliente, pedido, usuarios, segundos);
+            System.out.println(String.format("%10d %10.1f %10d %10d %10d %10d",
+                    usuarios, r.vazao(segundos), r.percentil(50), r.percentil(95), r.percentil(99), r.erros));
+        }
+
+        System.out.println("\n========================================");
+    }
+
+    /**
+     * POST /login e devolve o cookie do token (mei_auth=..., FiltroAutenticacao).
+     */
+    private static String login(HttpClient cliente, String base, String cpf, String senha) throws Exception {
+        String corpo = "cpf=" + URLEncoder.encode(cpf, StandardCharsets.UTF_8)
+                + "&senha=" + URLEncoder.encode(senha, StandardCharsets.UTF_8);
+
+        HttpResponse<Void> resposta = cliente.send(
+                HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        for (String setCookie : resposta.headers().allValues("Set-Cookie")) {
+            if (setCookie.startsWith("mei_auth=") && !setCookie.startsWith("mei_auth=;")) {
+                int fim = setCookie.indexOf(';');
+                return fim < 0 ? setCookie : setCookie.substring(0, fim);
+            }
+        }
+        throw new IllegalStateException("Login falhou (status " + resposta.statusCode() + ", sem cookie mei_auth)");
+    }
+
+    /**
+     * N threads pedindo a rota em laço até o prazo.
+     * Latências vão para um histograma único (1 ms por faixa), então a
+     * memória não cresce com o número de usuários nem com a duração.
+     */
+    private static Resultado executarNivel(HttpClient cliente, HttpRequest pedido,
+                                           int usuarios, int segundos) throws InterruptedException {
+        ExecutorService threads = Executors.newFixedThreadPool(usuarios);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicLong erros = new AtomicLong();
+        Histograma latencias = new Histograma();
+
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+
+        for (int i = 0; i < usuarios; i++) {
+            threads.execute(() -> {
+                try {
+                    largada.await();
+                    while (System.nanoTime() < fim) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> r = cliente.send(pedido, HttpResponse.BodyHandlers.discarding());
+                            if (r.statusCode() != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias.registrar((System.nanoTime() - inicio) / 1_000_000);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        largada.countDown();
+        threads.shutdown();
+        threads.awaitTermination(segundos + 120, TimeUnit.SECONDS);
+
+        return new Resultado(latencias, erros.get());
+    }
+
+    /**
+     * Contagem por milissegundo de 0 a MAXIMO_MS (acima disso, tudo
+     * na última faixa: o timeout do pedido é 60 s).
+     */
+    private static final class Histograma {
+        static final int MAXIMO_MS = 60_000;
+
+        final AtomicLongArray faixas = new AtomicLongArray(MAXIMO_MS + 1);
+        final LongAdder total = new LongAdder();
+
+        void registrar(long ms) {
+            faixas.incrementAndGet((int) Math.max(0, Math.min(ms, MAXIMO_MS)));
+            total.increment();
+        }
+    }
+
+    /**
+     * Contagens e latências de um nível de carga.
+     */
+    private static final class Resultado {
+        final long total;
+        final long erros;
+        final Histograma latencias;
+
+        Resultado(Histograma latencias, long erros) {
+            this.total = latencias.total.sum();
+            this.erros = erros;
+            this.latencias = latencias;
+        }
+
+        double vazao(int segundos) {
+            return (double) total / segundos;
+        }
+
+        long percentil(int p) {
+            if (total == 0) {
+                return 0;
+            }
+            long alvo = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+            long acumulado = 0;
+            for (int ms = 0; ms <= Histograma.MAXIMO_MS; ms++) {
+                acumulado += latencias.faixas.get(ms);
+                if (acumulado >= alvo) {
+                    return ms;
+                }
+            }
+            return Histograma.MAXIMO_MS;
+        }
+    }
+}
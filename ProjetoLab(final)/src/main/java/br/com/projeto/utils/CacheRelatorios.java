@@ -0,0 +1,367 @@
+package br.com.projeto.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import br.com.projeto.model.Usuario;
+
+/**
+ * ================================================================
+ * CACHE DE RELATÓRIOS - PDFs mensais já gerados, em disco
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O MEI baixa o relatório do mês passado várias vezes (para ele,
+ * para o contador, de novo no fim do ano...). Se nenhuma venda do
+ * mês mudou, o PDF é idêntico: não faz sentido consultar todas as
+ * vendas e montar o documento de novo.
+ *
+ * CHAVE (nome do arquivo):
+ * u[usuario]_[ano]_[mes]_[variante]_[digest].pdf
+ * - variante: "resumo", "detalhado" ou "anual" (PDFs distintos do
+ *   mesmo período convivem; gravar() só apaga versões antigas da
+ *   MESMA variante)
+ * digest = SHA-256 de (versão das vendas do mês + dados do cabeçalho)
+ * - versão das vendas: VendasDAO.versaoDoMes() (uma consulta leve)
+ * - cabeçalho: nome, CPF e CNPJ do usuário (mudam o PDF sem mudar vendas)
+ *
+ * VALIDADE:
+ * - Qualquer escrita no VendasDAO (inserir, inserirLote, editar,
+ *   excluir) chama invalidar(usuario, ano, mes) → arquivos do mês somem
+ * - Mesmo sem invalidação (ex.: UPDATE direto no banco), a versão
+ *   muda e o digest deixa de bater, então nunca se serve PDF velho
+ *
+ * LIMITE (LRU):
+ * Índice em memória (LinkedHashMap em ordem de acesso) com o tamanho
+ * de cada arquivo. Passou de MAX_BYTES, apaga os menos usados.
+ * Ao subir, o índice é reconstruído a partir do diretório
+ * (ordem = data de modificação).
+ *
+ * TRAVA:
+ * O índice é protegido por um ReentrantLock (não synchronized): em
+ * virtual threads, esperar por um synchronized prende a thread
+ * portadora; o lock não. Nenhum acesso a disco acontece com a trava.
+ *
+ * STREAMING:
+ * O PDF é gerado direto num arquivo temporário do diretório
+ * (gravar() recebe um EscritorPdf) e depois renomeado. O job e o
+ * download trabalham com o Path: o PDF nunca fica inteiro no heap.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.relatorio.cacheDir      / RELATORIO_CACHE_DIR       → [java.io.tmpdir]/mei-relatorios
+ * - mei.relatorio.cacheMaxBytes / RELATORIO_CACHE_MAX_BYTES → 209715200 (200 MB)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see FilaRelatorios
+ */
+public final class CacheRelatorios {
+
+    private static final Log LOG = Log.para(CacheRelatorios.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final Path DIRETORIO = Paths.get(Conexao.config("mei.relatorio.cacheDir", "RELATORIO_CACHE_DIR",
+            Paths.get(System.getProperty("java.io.tmpdir"), "mei-relatorios").toString()));
+
+    private static final long MAX_BYTES =
+            Long.parseLong(Conexao.config("mei.relatorio.cacheMaxBytes", "RELATORIO_CACHE_MAX_BYTES", "209715200"));
+
+    private static final String EXTENSAO = ".pdf";
+
+    // ========== ÍNDICE LRU (acesso só com TRAVA) ==========
+
+    private static final ReentrantLock TRAVA = new ReentrantLock();
+
+    /** nome do arquivo → tamanho em bytes (ordem de acesso: primeiro = menos usado) */
+    private static final LinkedHashMap<String, Long> INDICE = new LinkedHashMap<>(64, 0.75f, true);
+    private static long bytesTotais;
+
+    // ========== MÉTRICAS ==========
+
+    private static final AtomicLong ACERTOS = new AtomicLong();
+    private static final AtomicLong FALHAS = new AtomicLong();
+
+    static {
+        carregarIndice();
+    }
+
+    private CacheRelatorios() {
+    }
+
+    /**
+     * Quem escreve o PDF (ex.: RelatorioPDF.gerarRelatorio(..., saida)).
+     */
+    public interface EscritorPdf {
+        void escrever(OutputStream saida) throws Exception;
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Busca o PDF gerado para esta versão das vendas.
+     *
+     * @param usuario     Dono do relatório
+     * @param mes         1-12
+     * @param ano         Ano
+     * @param variante    "resumo", "detalhado" ou "anual"
+     * @param versaoVendas VendasDAO.versaoDoMes(...)
+     * @return arquivo do PDF ou null se não está no cache
+     */
+    public static Path buscar(Usuario usuario, int mes, int ano, String variante, String versaoVendas) {
+        String nome = nomeArquivo(usuario, mes, ano, variante, versaoVendas);
+
+        TRAVA.lock();
+        try {
+            if (INDICE.get(nome) == null) {   // get() também atualiza a ordem LRU
+                FALHAS.incrementAndGet();
+                return null;
+            }
+        } finally {
+            TRAVA.unlock();
+        }
+
+        Path arquivo = DIRETORIO.resolve(nome);
+        if (!Files.isReadable(arquivo)) {
+            // Apagado por fora (ex.: limpeza do tmp): trata como ausente
+            LOG.aviso("⚠️ Cache de relatório sumiu do disco: {}", nome);
+            remover(nome);
+            FALHAS.incrementAndGet();
+            return null;
+        }
+
+        ACERTOS.incrementAndGet();
+        return arquivo;
+    }
+
+    /**
+     * Gera o PDF direto no cache e descarta versões antigas do mesmo
+     * mês e da mesma variante.
+     *
+     * @param escritor Escreve o PDF no stream do arquivo
+     * @return arquivo final do PDF
+     * @throws Exception erro do escritor ou de disco (nada fica no cache)
+     */
+    public static Path gravar(Usuario usuario, int mes, int ano, String variante, String versaoVendas,
+                              EscritorPdf escritor) throws Exception {
+
+        String nome = nomeArquivo(usuario, mes, ano, variante, versaoVendas);
+        Path arquivo = DIRETORIO.resolve(nome);
+        long tamanho;
+
+        Files.createDirectories(DIRETORIO);
+
+        // Escreve em arquivo temporário e renomeia: leitores nunca veem PDF pela metade
+        Path temporario = Files.createTempFile(DIRETORIO, "tmp-", ".parcial");
+        try {
+            try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(temporario), 64 * 1024)) {
+                escritor.escrever(saida);
+            }
+            tamanho = Files.size(temporario);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+
+        List<String> apagar = new ArrayList<>();
+        TRAVA.lock();
+        try {
+            // Versões anteriores do mesmo mês e variante nunca mais serão
+            // usadas (a outra variante pode estar num job concluído)
+            String prefixo = prefixo(usuario.getIdUsuario(), ano, mes) + variante + "_";
+            for (String existente : INDICE.keySet()) {
+                if (existente.startsWith(prefixo) && !existente.equals(nome)) {
+                    apagar.add(existente);
+                }
+            }
+
+            Long anterior = INDICE.put(nome, tamanho);
+            bytesTotais += tamanho - (anterior != null ? anterior : 0);
+
+            for (String antigo : apagar) {
+                bytesTotais -= INDICE.remove(antigo);
+            }
+
+            // Despejo LRU
+            Iterator<Map.Entry<String, Long>> it = INDICE.entrySet().iterator();
+            while (bytesTotais > MAX_BYTES && it.hasNext()) {
+                Map.Entry<String, Long> menosUsado = it.next();
+                if (menosUsado.getKey().equals(nome)) {
+                    continue;
+                }
+                bytesTotais -= menosUsado.getValue();
+                apagar.add(menosUsado.getKey());
+                it.remove();
+            }
+        } finally {
+            TRAVA.unlock();
+        }
+
+        apagarArquivos(apagar);
+        return arquivo;
+    }
+
+    /**
+     * Remove os PDFs de um mês do usuário (chamado pelo VendasDAO
+     * após inserir/editar/excluir vendas daquele mês).
+     */
+    public static void invalidar(int usuarioId, int ano, int mes) {
+        String prefixo = prefixo(usuarioId, ano, mes);
+        List<String> apagar = new ArrayList<>();
+
+        TRAVA.lock();
+        try {
+            Iterator<Map.Entry<String, Long>> it = INDICE.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> entrada = it.next();
+                if (entrada.getKey().startsWith(prefixo)) {
+                    bytesTotais -= entrada.getValue();
+                    apagar.add(entrada.getKey());
+                    it.remove();
+                }
+            }
+        } finally {
+            TRAVA.unlock();
+        }
+
+        apagarArquivos(apagar);
+    }
+
+    public static long getAcertos() {
+        return ACERTOS.get();
+    }
+
+    public static long getFalhas() {
+        return FALHAS.get();
+    }
+
+    public static long getBytesTotais() {
+        TRAVA.lock();
+        try {
+            return bytesTotais;
+        } finally {
+            TRAVA.unlock();
+        }
+    }
+
+    /* ================================================================
+       AUXILIARES
+       ================================================================ */
+
+    private static String prefixo(int usuarioId, int ano, int mes) {
+        return "u" + usuarioId + "_" + ano + "_" + mes + "_";
+    }
+
+    /**
+     * u[usuario]_[ano]_[mes]_[variante]_[digest].pdf
+     */
+    private static String nomeArquivo(Usuario usuario, int mes, int ano, String variante, String versaoVendas) {
+        String conteudo = versaoVendas + "|" + usuario.getNome() + "|" + usuario.getCpf() + "|" + usuario.getCnpj();
+        return prefixo(usuario.getIdUsuario(), ano, mes) + variante + "_"
+                + sha256(conteudo).substring(0, 32) + EXTENSAO;
+    }
+
+    private static String sha256(String texto) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static void remover(String nome) {
+        TRAVA.lock();
+        try {
+            Long tamanho = INDICE.remove(nome);
+            if (tamanho != null) {
+                bytesTotais -= tamanho;
+            }
+        } finally {
+            TRAVA.unlock();
+        }
+    }
+
+    private static void apagarArquivos(List<String> nomes) {
+        for (String nome : nomes) {
+            try {
+                Files.deleteIfExists(DIRETORIO.resolve(nome));
+            } catch (IOException e) {
+                LOG.aviso("⚠️ Não foi possível apagar {}: {}", nome, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir dos arquivos já existentes
+     * (do mais antigo para o mais novo = ordem LRU aproximada).
+     */
+    private static void carregarIndice() {
+        if (!Files.isDirectory(DIRETORIO)) {
+            return;
+        }
+
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(DIRETORIO)) {
+            for (Path arquivo : stream) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(".parcial")) {
+                    Files.deleteIfExists(arquivo);   // sobra de gravação interrompida
+                } else if (nome.startsWith("u") && nome.endsWith(EXTENSAO)) {
+                    arquivos.add(arquivo);
+                }
+            }
+
+            arquivos.sort((a, b) -> {
+                try {
+                    return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+                } catch (IOException e) {
+                    return 0;
+                }
+            });
+
+            // Tamanhos lidos do disco antes de pegar a trava
+            long[] tamanhos = new long[arquivos.size()];
+            for (int i = 0; i < tamanhos.length; i++) {
+                tamanhos[i] = Files.size(arquivos.get(i));
+            }
+
+            TRAVA.lock();
+            try {
+                for (int i = 0; i < tamanhos.length; i++) {
+                    INDICE.put(arquivos.get(i).getFileName().toString(), tamanhos[i]);
+                    bytesTotais += tamanhos[i];
+                }
+            } finally {
+                TRAVA.unlock();
+            }
+
+            LOG.info("✅ Cache de relatórios: {} PDFs, {} KB em {}", INDICE.size(), bytesTotais / 1024, DIRETORIO);
+
+        } catch (IOException e) {
+            LOG.aviso("⚠️ Não foi possível ler o cache de relatórios: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.projeto.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import br.com.projeto.dao.UsuarioDAO;
+import br.com.projeto.model.Usuario;
+
+/**
+ * ================================================================
+ * CACHE DE USUÁRIOS - Usuario completo sob demanda, pelo id
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O token de login (cookie mei_auth, FiltroAutenticacao) leva só o
+ * UsuarioSessao (id, nome, CNPJ). Quem precisa do resto (perfil,
+ * relatórios em PDF, troca de senha) busca aqui: a maioria dos
+ * acessos não vai ao banco.
+ *
+ * FUNCIONAMENTO:
+ * - LRU em memória (LinkedHashMap em ordem de acesso, ReentrantLock),
+ *   no máximo MAXIMO usuários; cada entrada vale por TTL_MS
+ * - Faltou ou expirou → UsuarioDAO.buscarPorId, FORA da trava
+ * - Quem grava o usuário chama invalidar(id) depois do commit
+ * - buscar() devolve uma CÓPIA: quem altera o objeto (ex.: perfil)
+ *   não mexe no que os outros leem
+ *
+ * CONSISTÊNCIA:
+ * Uma leitura do banco que começou antes de um invalidar() não é
+ * guardada (contador de invalidações), então um valor antigo não
+ * volta para o cache depois da escrita. O TTL cobre escritas feitas
+ * fora da aplicação.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.usuarios.cacheMax   / USUARIOS_CACHE_MAX    → 5000
+ * - mei.usuarios.cacheTtlMs / USUARIOS_CACHE_TTL_MS → 300000
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see br.com.projeto.model.UsuarioSessao
+ * @see UsuarioDAO#buscarPorId(int)
+ */
+public final class CacheUsuarios {
+
+    private static final Log LOG = Log.para(CacheUsuarios.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final int MAXIMO =
+            Integer.parseInt(Conexao.config("mei.usuarios.cacheMax", "USUARIOS_CACHE_MAX", "5000"));
+
+    private static final long TTL_MS =
+            Long.parseLong(Conexao.config("mei.usuarios.cacheTtlMs", "USUARIOS_CACHE_TTL_MS", "300000"));
+
+    // ========== ÍNDICE LRU (acesso só com TRAVA) ==========
+
+    private static final ReentrantLock TRAVA = new ReentrantLock();
+
+    /** id_usuario → entrada (ordem de acesso: primeiro = menos usado) */
+    private static final LinkedHashMap<Integer, Entrada> USUARIOS = new LinkedHashMap<Integer, Entrada>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entrada> maisAntigo) {
+            return size() > MAXIMO;
+        }
+    };
+
+    /** Incrementado a cada invalidar(): leitura mais antiga não é guardada */
+    private static long invalidacoes;
+
+    // ========== MÉTRICAS ==========
+
+    private static final AtomicLong ACERTOS = new AtomicLong();
+    private static final AtomicLong FALHAS = new AtomicLong();
+
+    private CacheUsuarios() {
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Usuario completo pelo id.
+     *
+     * @param conexao   Usada só se o usuário não está no cache
+     * @param idUsuario ID do usuário
+     * @return cópia do usuário ou null se não existe
+     */
+    public static Usuario buscar(Connection conexao, int idUsuario) throws SQLException {
+        long agora = System.currentTimeMillis();
+        long geracao;
+
+        TRAVA.lock();
+        try {
+            Entrada entrada = USUARIOS.get(idUsuario);
+            if (entrada != null && entrada.expiraEm > agora) {
+                ACERTOS.incrementAndGet();
+                return copiar(entrada.usuario);
+            }
+            geracao = invalidacoes;
+        } finally {
+            TRAVA.unlock();
+        }
+
+        // ========== FALTOU: BUSCA NO BANCO (sem trava) ==========
+        FALHAS.incrementAndGet();
+        Usuario usuario = new UsuarioDAO(conexao).buscarPorId(idUsuario);
+        if (usuario == null) {
+            return null;
+        }
+
+        TRAVA.lock();
+        try {
+            if (geracao == invalidacoes) {
+                USUARIOS.put(idUsuario, new Entrada(copiar(usuario), agora + TTL_MS));
+            }
+        } finally {
+            TRAVA.unlock();
+        }
+        return usuario;
+    }
+
+    /**
+     * Descarta o usuário do cache (chamar depois de gravar no banco).
+     */
+    public static void invalidar(int idUsuario) {
+        TRAVA.lock();
+        try {
+            USUARIOS.remove(idUsuario);
+            invalidacoes++;
+        } finally {
+            TRAVA.unlock();
+        }
+        LOG.debug("🗑️ Usuário {} removido do cache", idUsuario);
+    }
+
+    /** @return usuários em memória, acertos e falhas */
+    public static String getEstatisticas() {
+        int tamanho;
+        TRAVA.lock();
+        try {
+            tamanho = USUARIOS.size();
+        } finally {
+            TRAVA.unlock();
+        }
+        return "usuarios=" + tamanho + "/" + MAXIMO + ", acertos=" + ACERTOS.get() + ", falhas=" + FALHAS.get();
+    }
+
+    /* ================================================================
+       AUXILIARES
+       ================================================================ */
+
+    private static Usuario copiar(Usuario origem) {
+        Usuario copia = new Usuario();
+        copia.setIdUsuario(origem.getIdUsuario());
+        copia.setCpf(origem.getCpf());
+        copia.setNome(origem.getNome());
+        copia.setEmail(origem.getEmail());
+        copia.setSenha(origem.getSenha());
+        copia.setCnpj(origem.getCnpj());
+        return copia;
+    }
+
+    private static final class Entrada {
+        final Usuario usuario;
+        final long expiraEm;
+
+        Entrada(Usuario usuario, long expiraEm) {
+            this.usuario = usuario;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package br.com.projeto.utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
@@ -10,39 +9,58 @@ import java.sql.SQLException;
  * ================================================================
  *
  * PROPÓSITO:
- * Fornece conexões únicas com o banco MySQL para os DAOs.
+ * Fornece conexões com o banco MySQL para os DAOs.
  * Padrão Singleton implícito (métodos estáticos).
  *
+ * POOL DE CONEXÕES:
+ * As conexões vêm de um pool limitado (PoolConexoes).
+ * close() NÃO fecha a conexão física: devolve ao pool.
+ * Assim a requisição não paga TCP + autenticação do MySQL.
+ *
  * USO:
  * try (Connection conn = Conexao.getConnection()) {
  *     // Usar conn aqui
- * } // Fecha automaticamente
+ * } // Devolve ao pool automaticamente
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.db.url              / DB_URL              → jdbc:mysql://localhost:3306/MEI
+ * - mei.db.user             / DB_USER             → root
+ * - mei.db.password         / DB_PASSWORD         → (vazio para XAMPP)
+ * - mei.pool.tamanho        / DB_POOL_TAMANHO     → 10 conexões
+ * - mei.pool.esperaMs       / DB_POOL_ESPERA_MS   → 5000 ms
+ * - mei.pool.validarAposMs  / DB_POOL_VALIDAR_MS  → 30000 ms
+ * - mei.pool.ociosaMaxMs    / DB_POOL_OCIOSA_MS   → 600000 ms (10 min)
+ * - mei.pool.vazamentoMs    / DB_POOL_VAZAMENTO_MS→ 300000 ms (5 min, só aviso no log)
+ * - mei.pool.recuperarMs    / DB_POOL_RECUPERAR_MS→ 0 (nunca fecha à força)
  *
- * CONFIGURAÇÃO:
- * - URL: jdbc:mysql://localhost:3306/MEI
- * - User: root
- * - Password: (vazio para XAMPP)
+ * Exemplo (Tomcat, setenv.sh):
+ * CATALINA_OPTS="-Dmei.pool.tamanho=20 -Dmei.db.password=segredo"
  *
  * SEGURANÇA:
  * ⚠️ Em produção, usar variáveis de ambiente para credenciais!
  * ⚠️ Nunca commitar senhas no código!
  *
  * @author Sistema MEI
- * @version 2.0
+ * @version 3.0 - Com pool de conexões
+ * @see PoolConexoes
  */
 public class Conexao {
 
+    private static final Log LOG = Log.para(Conexao.class);
+
     // ========== CONFIGURAÇÕES DO BANCO ==========
-    // IMPORTANTE: Ajustar conforme seu ambiente
+    // Padrões para XAMPP; sobrescreva via -D ou variável de ambiente
 
     /**
      * URL de conexão JDBC
      * Formato: jdbc:mysql://[host]:[porta]/[database]
      *
-     * PRODUÇÃO: Usar variável de ambiente
-     * System.getenv("DB_URL")
+     * rewriteBatchedStatements=true é acrescentado se faltar: só muda
+     * executeBatch() (ex.: VendasDAO.inserirLote), que passa a enviar
+     * um único INSERT multi-VALUES em vez de um INSERT por linha.
      */
-    private static final String URL = "jdbc:mysql://localhost:3306/MEI";
+    private static final String URL =
+            comReescritaDeLote(config("mei.db.url", "DB_URL", "jdbc:mysql://localhost:3306/MEI"));
 
     /**
      * Usuário do banco
@@ -51,35 +69,90 @@ public class Conexao {
      * PRODUÇÃO: Criar usuário específico
      * GRANT ALL ON mei.* TO 'mei_user'@'localhost';
      */
-    private static final String USER = "root";
+    private static final String USER = config("mei.db.user", "DB_USER", "root");
 
     /**
      * Senha do banco
      * XAMPP default: sem senha (vazio)
      *
      * PRODUÇÃO: Senha forte obrigatória!
-     * Usar: System.getenv("DB_PASSWORD")
      */
-    private static final String PASSWORD = "";
+    private static final String PASSWORD = config("mei.db.password", "DB_PASSWORD", "");
+
+    // ========== CONFIGURAÇÕES DO POOL ==========
+
+    /** Máximo de conexões físicas abertas (deixe abaixo do max_connections do MySQL) */
+    private static final int POOL_TAMANHO =
+            Integer.parseInt(config("mei.pool.tamanho", "DB_POOL_TAMANHO", "10"));
+
+    /** Quanto uma requisição espera por uma conexão livre antes de falhar */
+    private static final long POOL_ESPERA_MS =
+            Long.parseLong(config("mei.pool.esperaMs", "DB_POOL_ESPERA_MS", "5000"));
+
+    /** Conexões paradas há mais que isso passam por isValid() antes do uso */
+    private static final long POOL_VALIDAR_MS =
+            Long.parseLong(config("mei.pool.validarAposMs", "DB_POOL_VALIDAR_MS", "30000"));
+
+    /** Conexões paradas há mais que isso são fechadas (MySQL wait_timeout é 8h) */
+    private static final long POOL_OCIOSA_MS =
+            Long.parseLong(config("mei.pool.ociosaMaxMs", "DB_POOL_OCIOSA_MS", "600000"));
+
+    /** Conexões emprestadas há mais que isso vão para o log como vazamento suspeito */
+    private static final long POOL_VAZAMENTO_MS =
+            Long.parseLong(config("mei.pool.vazamentoMs", "DB_POOL_VAZAMENTO_MS", "300000"));
+
+    /** Emprestadas há mais que isso são fechadas à força (0 = nunca) */
+    private static final long POOL_RECUPERAR_MS =
+            Long.parseLong(config("mei.pool.recuperarMs", "DB_POOL_RECUPERAR_MS", "0"));
+
+    /** Pool único da aplicação */
+    private static final PoolConexoes POOL;
 
-    // ========== BLOCO ESTÁTICO - REGISTRA DRIVER ==========
+    // ========== BLOCO ESTÁTICO - REGISTRA DRIVER E CRIA POOL ==========
     // Executado uma vez quando classe é carregada
     static {
         try {
             // Registra driver MySQL JDBC
             // Necessário para JDBC funcionar
             Class.forName("com.mysql.cj.jdbc.Driver");
-            System.out.println("✅ Driver MySQL carregado com sucesso!");
+            LOG.debug("✅ Driver MySQL carregado com sucesso!");
 
         } catch (ClassNotFoundException e) {
             // Driver não encontrado no classpath
-            System.err.println("❌ ERRO CRÍTICO: Driver MySQL não encontrado!");
-            System.err.println("   Adicione mysql-connector-java ao projeto");
-            e.printStackTrace();
+            LOG.erro("❌ ERRO CRÍTICO: Driver MySQL não encontrado!", e);
+            LOG.erro("   Adicione mysql-connector-java ao projeto");
 
             // Aplicação não funciona sem driver
             throw new ExceptionInInitializerError(e);
         }
+
+        POOL = new PoolConexoes(URL, USER, PASSWORD, POOL_TAMANHO, POOL_ESPERA_MS,
+                POOL_VALIDAR_MS, POOL_OCIOSA_MS, POOL_VAZAMENTO_MS, POOL_RECUPERAR_MS);
+
+        LOG.info("✅ Pool de conexões criado: {} (máx {} conexões)", URL, POOL_TAMANHO);
+    }
+
+    /**
+     * Lê configuração: System property → variável de ambiente → padrão.
+     * (package-private: também usada pela FilaRelatorios)
+     */
+    static String config(String propriedade, String variavelAmbiente, String padrao) {
+        String valor = System.getProperty(propriedade);
+        if (valor == null || valor.isEmpty()) {
+            valor = System.getenv(variavelAmbiente);
+        }
+        return (valor == null || valor.isEmpty()) ? padrao : valor;
+    }
+
+    /**
+     * Liga o modo de reescrita de lotes do Connector/J, a menos que
+     * a URL configurada já defina rewriteBatchedStatements.
+     */
+    private static String comReescritaDeLote(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("rewriteBatchedStatements")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
     }
 
     /**
@@ -87,8 +160,10 @@ public class Conexao {
      * OBTER CONEXÃO COM O BANCO
      * ================================================================
      *
-     * Retorna uma nova conexão MySQL.
+     * Empresta uma conexão do pool.
      * IMPORTANTE: Sempre fechar a conexão após uso!
+     * (close() devolve ao pool; esquecer segura a vaga: o pool só
+     * avisa no log, a não ser que mei.pool.recuperarMs esteja ligado)
      *
      * Padrão recomendado (try-with-resources):
      * <pre>
@@ -96,43 +171,46 @@ public class Conexao {
      *     PreparedStatement stmt = conn.prepareStatement("SELECT * FROM usuario");
      *     ResultSet rs = stmt.executeQuery();
      *     // Processar rs...
-     * } // conn fecha automaticamente aqui
+     * } // conn volta ao pool automaticamente aqui
      * </pre>
      *
      * @return Connection ativa e pronta para uso
-     * @throws SQLException se não conseguir conectar
+     * @throws SQLException se não conseguir conectar ou o pool estiver esgotado
      *
      * POSSÍVEIS ERROS:
      * - Communications link failure: MySQL não está rodando
      * - Access denied: Usuário/senha incorretos
      * - Unknown database: Banco 'MEI' não existe
+     * - Pool de conexões esgotado: aumente mei.pool.tamanho
      */
     public static Connection getConnection() throws SQLException {
-        try {
-            // Tenta estabelecer conexão
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-
-            // Log de sucesso (opcional, remover em produção)
-            System.out.println("✅ Conexão estabelecida: " + URL);
+        return getConnection(POOL_ESPERA_MS);
+    }
 
-            return conn;
+    /**
+     * Como getConnection(), mas espera por uma vaga no pool no máximo
+     * esperaMaxMs (limitado a mei.pool.esperaMs).
+     *
+     * @param esperaMaxMs Tempo que ainda sobra para quem chama
+     */
+    public static Connection getConnection(long esperaMaxMs) throws SQLException {
+        try {
+            // Empresta do pool (abre nova física só se não houver ociosa)
+            return POOL.obter(esperaMaxMs);
 
         } catch (SQLException e) {
             // Log do erro específico
-            System.err.println("❌ ERRO ao conectar ao MySQL:");
-            System.err.println("   URL: " + URL);
-            System.err.println("   User: " + USER);
-            System.err.println("   Erro: " + e.getMessage());
+            LOG.erro("❌ ERRO ao conectar ao MySQL: {} (URL: {}, User: {})", e.getMessage(), URL, USER);
 
             // Dicas baseadas no erro
             if (e.getMessage().contains("Communications link failure")) {
-                System.err.println("   💡 Verifique se MySQL está rodando!");
+                LOG.erro("   💡 Verifique se MySQL está rodando!");
 
             } else if (e.getMessage().contains("Access denied")) {
-                System.err.println("   💡 Verifique usuário e senha!");
+                LOG.erro("   💡 Verifique usuário e senha!");
 
             } else if (e.getMessage().contains("Unknown database")) {
-                System.err.println("   💡 Crie o banco: CREATE DATABASE MEI;");
+                LOG.erro("   💡 Crie o banco: CREATE DATABASE MEI;");
             }
 
             // Propaga exceção para quem chamou
@@ -140,6 +218,36 @@ public class Conexao {
         }
     }
 
+    /**
+     * ================================================================
+     * ESTATÍSTICAS DO POOL
+     * ================================================================
+     *
+     * Conexões ativas, ociosas, requisições aguardando, tempo de espera
+     * médio/máximo, timeouts, vazamentos suspeitos e recuperados.
+     *
+     * @return Retrato instantâneo do pool
+     */
+    public static PoolConexoes.Estatisticas getEstatisticas() {
+        return POOL.getEstatisticas();
+    }
+
+    /**
+     * @return mei.pool.tamanho (máximo de conexões emprestadas ao mesmo tempo)
+     */
+    public static int getTamanhoPool() {
+        return POOL_TAMANHO;
+    }
+
+    /**
+     * Fecha todas as conexões do pool.
+     * Chamado por ConexaoListener quando a aplicação é desligada.
+     */
+    public static void encerrarPool() {
+        POOL.encerrar();
+        LOG.info("✅ Pool de conexões encerrado");
+    }
+
     /**
      * ================================================================
      * TESTE DE CONEXÃO (main)
@@ -171,9 +279,10 @@ public class Conexao {
                 System.out.println("   Banco: " + conn.getCatalog());
                 System.out.println("   Timeout: " + conn.getNetworkTimeout() + "ms");
 
-                // Fecha conexão de teste
+                // Devolve conexão de teste ao pool
                 conn.close();
-                System.out.println("✅ Conexão fechada corretamente");
+                System.out.println("✅ Conexão devolvida ao pool");
+                System.out.println("   Pool: " + getEstatisticas());
 
             } else {
                 System.err.println("❌ Conexão retornou null!");
@@ -189,6 +298,7 @@ public class Conexao {
             System.err.println("   4. Adicione mysql-connector-java ao projeto");
         }
 
+        encerrarPool();
         System.out.println("======================================");
     }
 }
@@ -0,0 +1,83 @@
+package br.com.projeto.utils;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * ================================================================
+ * CONEXAO LISTENER - Ciclo de vida do pool de conexões
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Fecha as conexões do pool quando o Tomcat desliga ou faz
+ * redeploy da aplicação. Sem isso, cada redeploy deixaria
+ * conexões abertas no MySQL até o wait_timeout.
+ *
+ * Os workers da FilaRelatorios, as threads de ConsultasParalelas e a
+ * ReconciliacaoResumo param antes, para nenhum deles pegar conexão
+ * de um pool já fechado.
+ *
+ * O Log é encerrado por último, depois de tudo que ainda escreve nele.
+ *
+ * Na subida, agenda a ReconciliacaoResumo (resumo mensal x vendas) e
+ * calibra o custo do BCrypt (HashSenha), para o primeiro login não
+ * pagar a calibração.
+ *
+ * O HashSenha para antes do pool (o rehash em segundo plano usa
+ * conexão).
+ *
+ * A RevogacaoTokens carrega os logouts ainda válidos na subida e para
+ * a sincronização com o banco antes do pool fechar.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see Conexao
+ * @see PoolConexoes
+ * @see FilaRelatorios
+ * @see ConsultasParalelas
+ * @see ReconciliacaoResumo
+ * @see HashSenha
+ * @see LimiteTentativas
+ * @see CacheUsuarios
+ * @see ContadorSessoes
+ * @see RevogacaoTokens
+ */
+@WebListener
+public class ConexaoListener implements ServletContextListener {
+
+    private static final Log LOG = Log.para(ConexaoListener.class);
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ReconciliacaoResumo.iniciar();
+        HashSenha.iniciar();
+        RevogacaoTokens.iniciar();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        ReconciliacaoResumo.encerrar();
+        ConsultasParalelas.encerrar();
+
+        LOG.info("📊 Tentativas de login ao desligar: {}", LimiteTentativas.getEstatisticas());
+        LOG.info("📊 Cache de usuários ao desligar: {}", CacheUsuarios.getEstatisticas());
+        LOG.info("📊 Sessões criadas: {}", ContadorSessoes.getEstatisticas());
+
+        LOG.info("📊 Revogação de tokens ao desligar: {}", RevogacaoTokens.getEstatisticas());
+        RevogacaoTokens.encerrar();
+
+        LOG.info("📊 Hash de senha ao desligar: {}", HashSenha.getEstatisticas());
+        HashSenha.encerrar();
+
+        LOG.info("📊 Relatórios ao desligar: {}", FilaRelatorios.getEstatisticas());
+        FilaRelatorios.encerrar();
+
+        LOG.info("📊 Pool ao desligar: {}", Conexao.getEstatisticas());
+        Conexao.encerrarPool();
+
+        // Por último: escreve o que sobrou na fila do log
+        LOG.info("📊 Log ao desligar: {}", Log.getEstatisticas());
+        Log.encerrar();
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.projeto.utils;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ================================================================
+ * CONSULTAS PARALELAS - Consultas independentes de uma mesma tela
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O dashboard faz várias consultas que não dependem uma da outra
+ * (últimas vendas, resumo, limite anual). Em sequência,
+ * numa conexão só, a página demora a SOMA delas; em paralelo, cada
+ * uma com sua conexão do pool, demora a MAIOR delas.
+ *
+ * FUNCIONAMENTO:
+ * - Cada requisição abre uma Rodada (novaRodada()); rodada.iniciar()
+ *   agenda a consulta num executor limitado (THREADS) e devolve um
+ *   CompletableFuture
+ * - Cada consulta pega a própria conexão do pool e a devolve ao
+ *   terminar (quem chama NÃO deve segurar conexão enquanto espera,
+ *   senão N requisições podem esgotar o pool umas das outras)
+ * - Uma rodada roda no máximo POR_REQUISICAO consultas ao mesmo
+ *   tempo (padrão: metade de mei.pool.tamanho), então uma requisição
+ *   sozinha não toma o pool inteiro
+ * - Passou de TIMEOUT_MS ou deu erro → o future completa com o valor
+ *   padrão e o nome da consulta vai para rodada.getFalhas() (a tela
+ *   mostra o que conseguiu e avisa do resto)
+ * - Executor cheio → a consulta roda na própria thread da requisição
+ *   (CallerRunsPolicy): fica sequencial, mas não falha
+ *
+ * PRAZO:
+ * O relógio de TIMEOUT_MS começa no iniciar(). A espera pela vez na
+ * rodada e pela vaga no pool (Conexao.getConnection(esperaMaxMs)) usa
+ * só o que sobra desse prazo; consulta cujo future já completou (por
+ * timeout) nem pega conexão.
+ *
+ * LOG:
+ * A consulta roda com o id da requisição que a disparou (Log);
+ * o aviso de falha também leva o id, pois pode sair da thread do
+ * timeout do CompletableFuture.
+ *
+ * OBSERVAÇÃO:
+ * Consulta que estourou o tempo já com a conexão em mãos continua
+ * rodando até o banco responder (JDBC não é interrompível); só o
+ * resultado é descartado.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.consultas.threads       / CONSULTAS_THREADS        → 16
+ * - mei.consultas.timeoutMs     / CONSULTAS_TIMEOUT_MS     → 2000
+ * - mei.consultas.porRequisicao / CONSULTAS_POR_REQUISICAO → mei.pool.tamanho / 2
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ */
+public final class ConsultasParalelas {
+
+    private static final Log LOG = Log.para(ConsultasParalelas.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final int THREADS =
+            Integer.parseInt(Conexao.config("mei.consultas.threads", "CONSULTAS_THREADS", "16"));
+
+    private static final long TIMEOUT_MS =
+            Long.parseLong(Conexao.config("mei.consultas.timeoutMs", "CONSULTAS_TIMEOUT_MS", "2000"));
+
+    private static final int POR_REQUISICAO =
+            Math.max(1, Integer.parseInt(Conexao.config("mei.consultas.porRequisicao", "CONSULTAS_POR_REQUISICAO",
+                    String.valueOf(Conexao.getTamanhoPool() / 2))));
+
+    // ========== EXECUTOR ==========
+
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    static {
+        AtomicInteger numero = new AtomicInteger();
+        EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(THREADS * 4),
+                r -> {
+                    Thread t = new Thread(r, "mei-consulta-" + numero.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private ConsultasParalelas() {
+    }
+
+    /**
+     * Uma consulta ao banco com a conexão recebida.
+     */
+    public interface Consulta<T> {
+        T executar(Connection conexao) throws Exception;
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Consultas de uma requisição: limite de simultâneas e falhas.
+     */
+    public static Rodada novaRodada() {
+        return new Rodada();
+    }
+
+    /**
+     * Para as threads (desligamento do Tomcat).
+     */
+    public static void encerrar() {
+        EXECUTOR.shutdownNow();
+    }
+
+    /* ================================================================
+       RODADA
+       ================================================================ */
+
+    public static final class Rodada {
+
+        /** Vez de rodar (POR_REQUISICAO por rodada) */
+        private final Semaphore vagas = new Semaphore(POR_REQUISICAO);
+
+        /** Nome das consultas que usaram o padrão */
+        private final Collection<String> falhas = new ConcurrentLinkedQueue<>();
+
+        private Rodada() {
+        }
+
+        /**
+         * Agenda a consulta numa conexão própria do pool.
+         *
+         * @param nome     Nome para log e para a lista de falhas
+         * @param consulta O que executar com a conexão
+         * @param padrao   Valor usado se falhar ou passar de TIMEOUT_MS
+         * @return future que nunca completa com exceção
+         */
+        public <T> CompletableFuture<T> iniciar(String nome, Consulta<T> consulta, T padrao) {
+            // Id da requisição segue para a thread que executa a consulta
+            String correlacao = Log.getCorrelacao();
+            long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+
+            CompletableFuture<T> futuro = new CompletableFuture<T>().orTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            EXECUTOR.execute(() -> {
+                String anterior = Log.getCorrelacao();
+                Log.setCorrelacao(correlacao);
+                try {
+                    executar(nome, consulta, futuro, prazo);
+                } finally {
+                    // CallerRunsPolicy: pode ser a própria thread da requisição
+                    Log.setCorrelacao(anterior);
+                }
+            });
+
+            return futuro.exceptionally(erro -> {
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                        ? erro.getCause() : erro;
+                if (causa instanceof TimeoutException) {
+                    LOG.aviso("⚠️ [{}] {}: sem resposta em {} ms", correlacao, nome, TIMEOUT_MS);
+                } else {
+                    LOG.aviso("❌ [{}] {}: {}", correlacao, nome, causa.getMessage());
+                }
+                falhas.add(nome);
+                return padrao;
+            });
+        }
+
+        /**
+         * @return nomes das consultas que falharam ou passaram do tempo
+         */
+        public List<String> getFalhas() {
+            return new ArrayList<>(falhas);
+        }
+
+        private <T> void executar(String nome, Consulta<T> consulta, CompletableFuture<T> futuro, long prazo) {
+            // ========== STEP 1: VEZ NA RODADA (dentro do prazo) ==========
+            try {
+                if (futuro.isDone() || !vagas.tryAcquire(restanteMs(prazo), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futuro.completeExceptionally(e);
+                return;
+            }
+
+            try {
+                // ========== STEP 2: CONEXÃO (só o que sobra do prazo) ==========
+                long restante = restanteMs(prazo);
+                if (futuro.isDone() || restante <= 0) {
+                    return;
+                }
+
+                long inicio = System.currentTimeMillis();
+                try (Connection conexao = Conexao.getConnection(restante)) {
+                    if (futuro.isDone()) {
+                        return;
+                    }
+
+                    // ========== STEP 3: CONSULTA ==========
+                    T resultado = consulta.executar(conexao);
+                    LOG.debug("⏱️ {}: {} ms", nome, System.currentTimeMillis() - inicio);
+                    futuro.complete(resultado);
+                }
+            } catch (Exception e) {
+                futuro.completeExceptionally(e);
+            } finally {
+                vagas.release();
+            }
+        }
+
+        private static long restanteMs(long prazo) {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime()));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.projeto.utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+
+/**
+ * ================================================================
+ * CONTADOR DE SESSÕES - Quantas HttpSession cada rota cria
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Cada HttpSession ocupa memória por 30 minutos. Páginas públicas
+ * (login, cadastro) não devem criar sessão para visitante anônimo;
+ * este contador mostra quais rotas ainda criam e quantas.
+ *
+ * FUNCIONAMENTO:
+ * - requestInitialized guarda a rota (servletPath) da requisição na
+ *   thread; sessionCreated soma 1 para essa rota
+ * - Sessão criada fora de requisição (ex.: replicação) → "(fora)"
+ * - No máximo MAXIMO_ROTAS rotas distintas; o resto vai para
+ *   "(outras)"
+ *
+ * MÉTRICAS:
+ * getPorRota(): sessões por rota, em tempo real em GET
+ * /metricas/sessoes (MetricasController); getEstatisticas() também
+ * vai para o log ao desligar (ConexaoListener).
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see MensagemFlash
+ */
+@WebListener
+public class ContadorSessoes implements ServletRequestListener, HttpSessionListener {
+
+    private static final Log LOG = Log.para(ContadorSessoes.class);
+
+    private static final int MAXIMO_ROTAS = 100;
+
+    /** Rota da requisição em andamento nesta thread */
+    private static final ThreadLocal<String> ROTA = new ThreadLocal<>();
+
+    /** rota → sessões criadas */
+    private static final Map<String, LongAdder> POR_ROTA = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestInitialized(ServletRequestEvent sre) {
+        if (sre.getServletRequest() instanceof HttpServletRequest) {
+            ROTA.set(((HttpServletRequest) sre.getServletRequest()).getServletPath());
+        }
+    }
+
+    @Override
+    public void requestDestroyed(ServletRequestEvent sre) {
+        ROTA.remove();
+    }
+
+    @Override
+    public void sessionCreated(HttpSessionEvent se) {
+        String rota = ROTA.get();
+        if (rota == null) {
+            rota = "(fora)";
+        } else if (POR_ROTA.size() >= MAXIMO_ROTAS && !POR_ROTA.containsKey(rota)) {
+            rota = "(outras)";
+        }
+        POR_ROTA.computeIfAbsent(rota, r -> new LongAdder()).increment();
+        LOG.debug("🆕 Sessão criada em {}", rota);
+    }
+
+    /** @return sessões criadas por rota (ordem alfabética, cópia) */
+    public static Map<String, Long> getPorRota() {
+        Map<String, Long> ordenado = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : POR_ROTA.entrySet()) {
+            ordenado.put(e.getKey(), e.getValue().sum());
+        }
+        return ordenado;
+    }
+
+    /** @return total e sessões criadas por rota (ordem alfabética) */
+    public static String getEstatisticas() {
+        Map<String, Long> ordenado = getPorRota();
+        long total = 0;
+        for (long n : ordenado.values()) {
+            total += n;
+        }
+        return "total=" + total + ", porRota=" + ordenado;
+    }
+}
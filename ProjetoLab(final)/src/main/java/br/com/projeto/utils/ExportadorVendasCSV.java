@@ -0,0 +1,83 @@
+package br.com.projeto.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import br.com.projeto.model.Vendas;
+
+/**
+ * ================================================================
+ * EXPORTADOR DE VENDAS CSV - Escrita linha a linha
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Converte cada venda numa linha CSV e escreve direto no Writer
+ * (saída do servlet). Não guarda nada: usado junto com
+ * VendasDAO.percorrerVendas(), a memória fica constante.
+ *
+ * FORMATO (o mesmo aceito pelo ImportadorVendasCSV):
+ * data;valor;categoria;descricao;nota_fiscal;numero_nf
+ * 15/02/2026 10:30;1250,00;Prestação de Serviços;Consultoria;S;12345
+ *
+ * - Separador ";" e vírgula decimal (abre direto no Excel pt-BR)
+ * - BOM UTF-8 no início para o Excel reconhecer acentos
+ * - Campos com ";" ou aspas vão entre aspas ("" escapa aspas)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see ImportadorVendasCSV
+ */
+public class ExportadorVendasCSV {
+
+    private static final DateTimeFormatter DATA_HORA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final char SEPARADOR = ';';
+
+    private final Writer saida;
+
+    public ExportadorVendasCSV(Writer saida) {
+        this.saida = saida;
+    }
+
+    /**
+     * Escreve BOM + linha de cabeçalho.
+     */
+    public void escreverCabecalho() throws IOException {
+        saida.write('\uFEFF');
+        saida.write("data;valor;categoria;descricao;nota_fiscal;numero_nf\r\n");
+    }
+
+    /**
+     * Escreve uma venda (assinatura compatível com VendasDAO.LeitorVendas).
+     */
+    public void escrever(Vendas venda) throws IOException {
+        saida.write(venda.getDataVendasAsLocalDateTime().format(DATA_HORA_BR));
+        saida.write(SEPARADOR);
+        saida.write(String.format(Locale.ROOT, "%.2f", venda.getValor()).replace('.', ','));
+        saida.write(SEPARADOR);
+        saida.write(campo(venda.getNomeCategoria()));
+        saida.write(SEPARADOR);
+        saida.write(campo(venda.getDescricao()));
+        saida.write(SEPARADOR);
+        saida.write(campo(venda.getNotaFiscalEmitida()));
+        saida.write(SEPARADOR);
+        saida.write(campo(venda.getNotaFiscal() != null ? venda.getNotaFiscal().getNumero() : null));
+        saida.write("\r\n");
+    }
+
+    /**
+     * Escapa um campo texto. Quebras de linha viram espaço
+     * (o importador lê uma venda por linha).
+     */
+    private static String campo(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return "";
+        }
+        String limpo = valor.replace("\r", " ").replace("\n", " ");
+        if (limpo.indexOf(SEPARADOR) >= 0 || limpo.indexOf('"') >= 0) {
+            return '"' + limpo.replace("\"", "\"\"") + '"';
+        }
+        return limpo;
+    }
+}
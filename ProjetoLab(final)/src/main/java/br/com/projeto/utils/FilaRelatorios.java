@@ -0,0 +1,421 @@
+package br.com.projeto.utils;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.projeto.dao.VendasDAO;
+import br.com.projeto.model.JobRelatorio;
+import br.com.projeto.model.Usuario;
+import br.com.projeto.model.Vendas;
+
+/**
+ * ================================================================
+ * FILA DE RELATÓRIOS - Geração assíncrona de PDFs
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * No fim do mês todos os MEIs geram o relatório nos mesmos dias.
+ * Gerar o PDF na thread da requisição (segurando uma conexão JDBC
+ * o tempo todo) esgotava as threads do Tomcat. Agora a requisição
+ * só enfileira um JobRelatorio e volta na hora com o id do job.
+ *
+ * FUNCIONAMENTO:
+ * - WORKERS threads geram os PDFs (cada uma pega sua conexão do pool
+ *   só durante a consulta e a solta antes de montar o PDF)
+ * - Fila limitada a CAPACIDADE jobs; cheia → enviar() lança
+ *   RejectedExecutionException (o controller pede para tentar depois)
+ * - Jobs finalizados ficam disponíveis por RETENCAO_MS para download
+ *   e depois são descartados (o PDF em si fica no CacheRelatorios)
+ * - Antes de consultar as vendas, o worker pede a versão do mês
+ *   (VendasDAO.versaoDoMes) e tenta o CacheRelatorios: se o PDF
+ *   dessa versão já existe em disco, é só ler o arquivo
+ * - Totais do mês vêm do banco já agrupados (calcularTotaisPorSecao);
+ *   a lista de vendas só é carregada se o job for detalhado
+ * - Os dados do cabeçalho (nome, CNPJ) vêm do CacheUsuarios, no
+ *   worker: a sessão só tem o id
+ *
+ * VÁRIOS NÓS:
+ * JOBS e os arquivos do CacheRelatorios são deste nó. Status e
+ * download de um job só funcionam no nó que recebeu o POST, então
+ * /relatorio* precisa de roteamento grudento no balanceador (o
+ * resto da aplicação não precisa, ver FiltroAutenticacao).
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.relatorio.workers   / RELATORIO_WORKERS   → 2
+ * - mei.relatorio.fila      / RELATORIO_FILA      → 50
+ * - mei.relatorio.retencaoMs / RELATORIO_RETENCAO_MS → 1800000 (30 min)
+ *
+ * MÉTRICAS:
+ * getEstatisticas(): profundidade da fila, workers ocupados, totais
+ * e tempos médios/máximos de espera e processamento.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see JobRelatorio
+ * @see RelatorioPDF
+ * @see CacheRelatorios
+ */
+public final class FilaRelatorios {
+
+    private static final Log LOG = Log.para(FilaRelatorios.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final int WORKERS =
+            Integer.parseInt(Conexao.config("mei.relatorio.workers", "RELATORIO_WORKERS", "2"));
+
+    private static final int CAPACIDADE =
+            Integer.parseInt(Conexao.config("mei.relatorio.fila", "RELATORIO_FILA", "50"));
+
+    private static final long RETENCAO_MS =
+            Long.parseLong(Conexao.config("mei.relatorio.retencaoMs", "RELATORIO_RETENCAO_MS", "1800000"));
+
+    // ========== ESTADO ==========
+
+    /** Jobs conhecidos (na fila, processando ou aguardando download) */
+    private static final Map<String, JobRelatorio> JOBS = new ConcurrentHashMap<>();
+
+    private static final ThreadPoolExecutor EXECUTOR;
+    private static final ScheduledExecutorService LIMPEZA;
+
+    // ========== MÉTRICAS ==========
+
+    private static final AtomicLong ENVIADOS = new AtomicLong();
+    private static final AtomicLong REJEITADOS = new AtomicLong();
+    private static final AtomicLong CONCLUIDOS = new AtomicLong();
+    private static final AtomicLong FALHAS = new AtomicLong();
+    private static final AtomicLong ESPERA_TOTAL_MS = new AtomicLong();
+    private static final AtomicLong ESPERA_MAX_MS = new AtomicLong();
+    private static final AtomicLong PROCESSAMENTO_TOTAL_MS = new AtomicLong();
+    private static final AtomicLong PROCESSAMENTO_MAX_MS = new AtomicLong();
+
+    static {
+        AtomicInteger numero = new AtomicInteger();
+        EXECUTOR = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPACIDADE),
+                r -> {
+                    Thread t = new Thread(r, "mei-relatorio-" + numero.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        LIMPEZA = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mei-relatorio-limpeza");
+            t.setDaemon(true);
+            return t;
+        });
+        LIMPEZA.scheduleWithFixedDelay(FilaRelatorios::removerExpirados, 1, 1, TimeUnit.MINUTES);
+
+        LOG.info("✅ Fila de relatórios criada: {} workers, capacidade {}", WORKERS, CAPACIDADE);
+    }
+
+    private FilaRelatorios() {
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Enfileira a geração do relatório mensal.
+     *
+     * @param usuarioId Dono do relatório
+     * @param mes     1-12, ou 0 para o relatório anual (DASN-SIMEI)
+     * @param ano     Ano
+     * @param detalhado true = inclui a lista de vendas (só no mensal)
+     * @return Job criado (status NA_FILA)
+     * @throws RejectedExecutionException se a fila estiver cheia
+     */
+    public static JobRelatorio enviar(int usuarioId, int mes, int ano, boolean detalhado) {
+        JobRelatorio job = new JobRelatorio(UUID.randomUUID().toString(), usuarioId, mes, ano, detalhado);
+        JOBS.put(job.getId(), job);
+
+        // O worker registra o log com o id da requisição que pediu o relatório
+        String correlacao = Log.getCorrelacao();
+
+        try {
+            EXECUTOR.execute(() -> {
+                Log.setCorrelacao(correlacao);
+                try {
+                    processar(job);
+                } finally {
+                    Log.setCorrelacao(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            JOBS.remove(job.getId());
+            REJEITADOS.incrementAndGet();
+            throw e;
+        }
+
+        ENVIADOS.incrementAndGet();
+        LOG.debug("📥 Relatório enfileirado: {} (fila: {})", job, EXECUTOR.getQueue().size());
+        return job;
+    }
+
+    /**
+     * @param id Id do job
+     * @return Job ou null se não existe/expirou
+     */
+    public static JobRelatorio buscar(String id) {
+        return id == null ? null : JOBS.get(id);
+    }
+
+    /** @return Fotografia das métricas da fila */
+    public static Estatisticas getEstatisticas() {
+        return new Estatisticas(
+                EXECUTOR.getQueue().size(), CAPACIDADE,
+                EXECUTOR.getActiveCount(), WORKERS,
+                ENVIADOS.get(), REJEITADOS.get(), CONCLUIDOS.get(), FALHAS.get(),
+                ESPERA_TOTAL_MS.get(), ESPERA_MAX_MS.get(),
+                PROCESSAMENTO_TOTAL_MS.get(), PROCESSAMENTO_MAX_MS.get());
+    }
+
+    /**
+     * Para os workers (desligamento do Tomcat). Jobs na fila são descartados.
+     */
+    public static void encerrar() {
+        LIMPEZA.shutdownNow();
+        EXECUTOR.shutdownNow();
+        try {
+            EXECUTOR.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        JOBS.clear();
+    }
+
+    /* ================================================================
+       WORKER
+       ================================================================ */
+
+    /**
+     * Gera o PDF de um job (roda numa thread mei-relatorio-N).
+     */
+    private static void processar(JobRelatorio job) {
+        job.iniciar();
+
+        if (job.isAnual()) {
+            processarAnual(job);
+        } else {
+            processarMensal(job);
+        }
+
+        registrarTempos(job);
+        LOG.info("{} {}", job.getStatus() == JobRelatorio.Status.CONCLUIDO ? "✅" : "⚠️", job);
+    }
+
+    /**
+     * Relatório mensal: versão do mês → cache → totais (e vendas, se
+     * detalhado) do mês → PDF.
+     */
+    private static void processarMensal(JobRelatorio job) {
+        try {
+            // Conexão só durante as consultas
+            Usuario usuario;
+            String versao;
+            // Com e sem detalhamento são PDFs diferentes no cache
+            String variante = job.isDetalhado() ? "detalhado" : "resumo";
+            double[] totais = null;
+            List<Vendas> vendas = null;
+            Path pdf = null;
+
+            try (Connection conexao = Conexao.getConnection()) {
+                usuario = buscarUsuario(conexao, job);
+                VendasDAO vendasDAO = new VendasDAO(conexao);
+
+                // Versão do mês → PDF em cache não precisa de mais nenhuma consulta
+                versao = vendasDAO.versaoDoMes(job.getUsuarioId(), job.getMes(), job.getAno());
+
+                if (VendasDAO.totalDaVersao(versao) > 0) {
+                    pdf = CacheRelatorios.buscar(usuario, job.getMes(), job.getAno(), variante, versao);
+                    if (pdf == null) {
+                        // 8 totais agrupados no banco; linhas só para o detalhamento
+                        totais = vendasDAO.calcularTotaisPorSecao(job.getUsuarioId(), job.getMes(), job.getAno());
+                        if (job.isDetalhado()) {
+                            vendas = vendasDAO.listarPorMesAno(job.getUsuarioId(), job.getMes(), job.getAno());
+                        }
+                    }
+                }
+            }
+
+            if (pdf != null) {
+                LOG.debug("♻️ Relatório servido do cache: {}", job.getId());
+                job.concluir(pdf);
+            } else if (totais == null) {
+                job.falhar("Nenhuma venda encontrada para o período selecionado.");
+            } else {
+                // PDF escrito direto no arquivo do cache (sem byte[] intermediário)
+                RelatorioPDF relatorio = new RelatorioPDF();
+                double[] doMes = totais;
+                List<Vendas> detalhe = vendas;
+                job.concluir(CacheRelatorios.gravar(usuario, job.getMes(), job.getAno(), variante, versao,
+                        saida -> relatorio.gerarRelatorio(usuario, job.getMes(), job.getAno(), detalhe, doMes, saida)));
+            }
+
+        } catch (Exception e) {
+            falhar(job, e);
+        }
+    }
+
+    /**
+     * Relatório anual (DASN-SIMEI): uma consulta agrupada (12 x 8 totais).
+     * Os próprios totais servem de versão para o cache.
+     */
+    private static void processarAnual(JobRelatorio job) {
+        try {
+            Usuario usuario;
+            double[][] totais;
+            try (Connection conexao = Conexao.getConnection()) {
+                usuario = buscarUsuario(conexao, job);
+                totais = new VendasDAO(conexao).totaisAnuaisPorSecao(job.getUsuarioId(), job.getAno());
+            }
+
+            boolean temVendas = false;
+            for (double[] mes : totais) {
+                for (double valor : mes) {
+                    temVendas |= valor != 0;
+                }
+            }
+
+            if (!temVendas) {
+                job.falhar("Nenhuma venda encontrada no ano selecionado.");
+                return;
+            }
+
+            String versao = "anual-" + Arrays.deepToString(totais);
+            Path pdf = CacheRelatorios.buscar(usuario, 0, job.getAno(), "anual", versao);
+            if (pdf == null) {
+                pdf = CacheRelatorios.gravar(usuario, 0, job.getAno(), "anual", versao,
+                        saida -> new RelatorioPDF().gerarRelatorioAnual(usuario, job.getAno(), totais, saida));
+            }
+            job.concluir(pdf);
+
+        } catch (Exception e) {
+            falhar(job, e);
+        }
+    }
+
+    /** Nome e CNPJ do cabeçalho do PDF */
+    private static Usuario buscarUsuario(Connection conexao, JobRelatorio job) throws Exception {
+        Usuario usuario = CacheUsuarios.buscar(conexao, job.getUsuarioId());
+        if (usuario == null) {
+            throw new IllegalStateException("usuário " + job.getUsuarioId() + " não encontrado");
+        }
+        return usuario;
+    }
+
+    private static void falhar(JobRelatorio job, Exception e) {
+        LOG.erro("❌ Erro ao gerar relatório {}", job.getId(), e);
+        job.falhar("Erro ao gerar PDF: " + e.getMessage());
+    }
+
+    private static void registrarTempos(JobRelatorio job) {
+        if (job.getStatus() == JobRelatorio.Status.CONCLUIDO) {
+            CONCLUIDOS.incrementAndGet();
+        } else {
+            FALHAS.incrementAndGet();
+        }
+
+        long espera = job.getEsperaMs();
+        long processamento = job.getProcessamentoMs();
+        ESPERA_TOTAL_MS.addAndGet(espera);
+        ESPERA_MAX_MS.accumulateAndGet(espera, Math::max);
+        PROCESSAMENTO_TOTAL_MS.addAndGet(processamento);
+        PROCESSAMENTO_MAX_MS.accumulateAndGet(processamento, Math::max);
+    }
+
+    /**
+     * Descarta jobs finalizados há mais de RETENCAO_MS.
+     */
+    private static void removerExpirados() {
+        long limite = System.currentTimeMillis() - RETENCAO_MS;
+        JOBS.values().removeIf(job -> job.isFinalizado() && job.getConcluidoEm() < limite);
+    }
+
+    /* ================================================================
+       ESTATÍSTICAS (imutável)
+       ================================================================ */
+
+    /**
+     * Fotografia das métricas da fila num instante.
+     */
+    public static final class Estatisticas {
+        private final int naFila;
+        private final int capacidade;
+        private final int processando;
+        private final int workers;
+        private final long enviados;
+        private final long rejeitados;
+        private final long concluidos;
+        private final long falhas;
+        private final long esperaTotalMs;
+        private final long esperaMaxMs;
+        private final long processamentoTotalMs;
+        private final long processamentoMaxMs;
+
+        Estatisticas(int naFila, int capacidade, int processando, int workers,
+                     long enviados, long rejeitados, long concluidos, long falhas,
+                     long esperaTotalMs, long esperaMaxMs,
+                     long processamentoTotalMs, long processamentoMaxMs) {
+            this.naFila = naFila;
+            this.capacidade = capacidade;
+            this.processando = processando;
+            this.workers = workers;
+            this.enviados = enviados;
+            this.rejeitados = rejeitados;
+            this.concluidos = concluidos;
+            this.falhas = falhas;
+            this.esperaTotalMs = esperaTotalMs;
+            this.esperaMaxMs = esperaMaxMs;
+            this.processamentoTotalMs = processamentoTotalMs;
+            this.processamentoMaxMs = processamentoMaxMs;
+        }
+
+        /** Profundidade da fila (jobs aguardando worker) */
+        public int getNaFila() { return naFila; }
+        public int getCapacidade() { return capacidade; }
+        public int getProcessando() { return processando; }
+        public int getWorkers() { return workers; }
+        public long getEnviados() { return enviados; }
+        public long getRejeitados() { return rejeitados; }
+        public long getConcluidos() { return concluidos; }
+        public long getFalhas() { return falhas; }
+        public long getEsperaMaxMs() { return esperaMaxMs; }
+        public long getProcessamentoMaxMs() { return processamentoMaxMs; }
+
+        public double getEsperaMediaMs() {
+            long finalizados = concluidos + falhas;
+            return finalizados == 0 ? 0 : (double) esperaTotalMs / finalizados;
+        }
+
+        public double getProcessamentoMedioMs() {
+            long finalizados = concluidos + falhas;
+            return finalizados == 0 ? 0 : (double) processamentoTotalMs / finalizados;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("naFila=%d/%d processando=%d/%d enviados=%d rejeitados=%d "
+                            + "concluidos=%d falhas=%d esperaMedia=%.0fms esperaMax=%dms "
+                            + "processamentoMedio=%.0fms processamentoMax=%dms",
+                    naFila, capacidade, processando, workers, enviados, rejeitados,
+                    concluidos, falhas, getEsperaMediaMs(), esperaMaxMs,
+                    getProcessamentoMedioMs(), processamentoMaxMs);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package br.com.projeto.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import br.com.projeto.model.UsuarioSessao;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ================================================================
+ * FILTRO DE AUTENTICAÇÃO - Login num token assinado, sem HttpSession
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Com o usuário na HttpSession, um segundo Tomcat só funcionava com
+ * balanceador "grudento" ou replicação de sessão. O token leva o
+ * próprio usuário (UsuarioSessao) assinado com HMAC-SHA256: qualquer
+ * nó com o mesmo segredo valida sem banco e sem sessão.
+ *
+ * TOKEN (cookie mei_auth, HttpOnly, SameSite=Lax):
+ *     base64url(dados) + "." + base64url(HMAC-SHA256(dados))
+ *     dados = "1|id|usuario|emitidoEm|expiraEm|cnpj|nome"
+ * - id: 16 bytes aleatórios, o mesmo em todas as renovações
+ *   (é o que a RevogacaoTokens revoga no logout)
+ * - emitidoEm: hora do login; expiraEm: validade desta via
+ * - Troca de senha: os tokens do usuário emitidos antes dela são
+ *   revogados (RevogacaoTokens.revogarUsuario); o de quem trocou é
+ *   reemitido com emitidoEm novo
+ *
+ * FUNCIONAMENTO:
+ * - Em toda requisição: assinatura ok, não expirado, dentro de
+ *   MAXIMO_MS desde o login e não revogado → request.setAttribute(
+ *   "usuario", UsuarioSessao). Controllers e JSPs leem usuario(request)
+ * - Renovação deslizante: passou metade de VALIDADE_MS → novo cookie
+ *   com mais VALIDADE_MS (parado por VALIDADE_MS = deslogado, como o
+ *   timeout de 30 minutos da sessão)
+ * - Token inválido/expirado → cookie apagado, segue sem usuário
+ *   (cada controller decide se redireciona para /login)
+ *
+ * SEGREDO:
+ * Todos os nós precisam do MESMO mei.auth.segredo (32+ caracteres).
+ * Sem ele, um segredo aleatório é gerado na subida: funciona num nó
+ * só e todo mundo é deslogado a cada restart.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.auth.segredo    / AUTH_SEGREDO     → (aleatório, ver acima)
+ * - mei.auth.validadeMs / AUTH_VALIDADE_MS → 1800000 (30 min)
+ * - mei.auth.maximoMs   / AUTH_MAXIMO_MS   → 43200000 (12 h)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see RevogacaoTokens
+ * @see UsuarioSessao
+ */
+@WebFilter("/*")
+public class FiltroAutenticacao extends HttpFilter {
+    private static final long serialVersionUID = 1L;
+
+    private static final Log LOG = Log.para(FiltroAutenticacao.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final long VALIDADE_MS =
+            Long.parseLong(Conexao.config("mei.auth.validadeMs", "AUTH_VALIDADE_MS", "1800000"));
+
+    private static final long MAXIMO_MS =
+            Long.parseLong(Conexao.config("mei.auth.maximoMs", "AUTH_MAXIMO_MS", "43200000"));
+
+    private static final String COOKIE = "mei_auth";
+    private static final String ATRIBUTO = "usuario";
+    private static final String ALGORITMO = "HmacSHA256";
+
+    // ========== CHAVE ==========
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+
+    /** Inicializado com a chave; cada uso trabalha num clone (Mac não é thread-safe) */
+    private static final Mac PROTOTIPO;
+
+    static {
+        String segredo = Conexao.config("mei.auth.segredo", "AUTH_SEGREDO", "");
+        byte[] chave;
+        if (segredo.length() >= 32) {
+            chave = segredo.getBytes(StandardCharsets.UTF_8);
+        } else {
+            chave = new byte[32];
+            ALEATORIO.nextBytes(chave);
+            LOG.aviso("⚠️ mei.auth.segredo ausente ou curto: segredo aleatório "
+                    + "(só um nó; logins caem a cada restart)");
+        }
+        try {
+            PROTOTIPO = Mac.getInstance(ALGORITMO);
+            PROTOTIPO.init(new SecretKeySpec(chave, ALGORITMO));
+        } catch (GeneralSecurityException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /* ================================================================
+       FILTRO
+       ================================================================ */
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        String valor = lerCookie(request);
+        if (valor != null) {
+            long agora = System.currentTimeMillis();
+            Token token = Token.ler(valor, agora);
+
+            if (token == null) {
+                LOG.debug("🔒 Token inválido, expirado ou revogado");
+                apagarCookie(request, response);
+            } else {
+                request.setAttribute(ATRIBUTO, token.usuario);
+
+                // Renovação deslizante (mesmo id e hora do login)
+                if (token.expiraEm - agora < VALIDADE_MS / 2) {
+                    gravarCookie(request, response, token.renovar(agora));
+                }
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    /* ================================================================
+       API (controllers e JSPs)
+       ================================================================ */
+
+    /**
+     * @return usuário autenticado nesta requisição ou null
+     */
+    public static UsuarioSessao usuario(HttpServletRequest request) {
+        Object usuario = request.getAttribute(ATRIBUTO);
+        return usuario instanceof UsuarioSessao ? (UsuarioSessao) usuario : null;
+    }
+
+    /**
+     * Login: emite um token novo e já o vale para esta requisição.
+     */
+    public static void entrar(HttpServletRequest request, HttpServletResponse response, UsuarioSessao usuario) {
+        byte[] id = new byte[16];
+        ALEATORIO.nextBytes(id);
+        long agora = System.currentTimeMillis();
+
+        Token token = new Token(B64.encodeToString(id), usuario, agora, agora + VALIDADE_MS);
+        gravarCookie(request, response, token);
+        request.setAttribute(ATRIBUTO, usuario);
+    }
+
+    /**
+     * Nome/CNPJ alterados no perfil: reemite o token com os dados novos
+     * (mesmo id e hora do login).
+     */
+    public static void atualizar(HttpServletRequest request, HttpServletResponse response, UsuarioSessao usuario) {
+        Token atual = Token.ler(lerCookie(request), System.currentTimeMillis());
+        if (atual == null) {
+            return;
+        }
+        gravarCookie(request, response,
+                new Token(atual.id, usuario, atual.emitidoEm, System.currentTimeMillis() + VALIDADE_MS));
+        request.setAttribute(ATRIBUTO, usuario);
+    }
+
+    /**
+     * Senha alterada: revoga os demais tokens do usuário (em todos os
+     * nós) e reemite o desta requisição com emitidoEm = agora, como um
+     * login novo (a senha acabou de ser digitada).
+     */
+    public static void senhaAlterada(HttpServletRequest request, HttpServletResponse response, int usuarioId) {
+        long agora = System.currentTimeMillis();
+
+        // Lido antes do corte: depois dele este token também é recusado
+        Token atual = Token.ler(lerCookie(request), agora);
+        RevogacaoTokens.revogarUsuario(usuarioId, agora, agora + MAXIMO_MS);
+
+        if (atual != null && atual.usuario.getIdUsuario() == usuarioId) {
+            gravarCookie(request, response, new Token(atual.id, atual.usuario, agora, agora + VALIDADE_MS));
+        }
+    }
+
+    /**
+     * Logout: revoga o token (em todos os nós) e apaga o cookie.
+     */
+    public static void sair(HttpServletRequest request, HttpServletResponse response) {
+        Token atual = Token.ler(lerCookie(request), System.currentTimeMillis());
+        if (atual != null) {
+            // Nenhuma via deste id vale além de agora + VALIDADE_MS
+            RevogacaoTokens.revogar(atual.id, atual.usuario.getIdUsuario(),
+                    Math.min(atual.emitidoEm + MAXIMO_MS, System.currentTimeMillis() + VALIDADE_MS));
+        }
+        apagarCookie(request, response);
+        request.removeAttribute(ATRIBUTO);
+    }
+
+    /* ================================================================
+       COOKIE
+       ================================================================ */
+
+    private static String lerCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void gravarCookie(HttpServletRequest request, HttpServletResponse response, Token token) {
+        Cookie cookie = novoCookie(request, token.assinar());
+        cookie.setMaxAge((int) (VALIDADE_MS / 1000));
+        response.addCookie(cookie);
+    }
+
+    private static void apagarCookie(HttpServletRequest request, HttpServletResponse response) {
+        Cookie cookie = novoCookie(request, "");
+        cookie.setMaxAge(0);
+        response.addCookie(cookie);
+    }
+
+    private static Cookie novoCookie(HttpServletRequest request, String valor) {
+        Cookie cookie = new Cookie(COOKIE, valor);
+        String contexto = request.getContextPath();
+        cookie.setPath(contexto.isEmpty() ? "/" : contexto);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    /* ================================================================
+       TOKEN
+       ================================================================ */
+
+    private static final class Token {
+        final String id;
+        final UsuarioSessao usuario;
+        final long emitidoEm;
+        final long expiraEm;
+
+        Token(String id, UsuarioSessao usuario, long emitidoEm, long expiraEm) {
+            this.id = id;
+            this.usuario = usuario;
+            this.emitidoEm = emitidoEm;
+            this.expiraEm = expiraEm;
+        }
+
+        Token renovar(long agora) {
+            return new Token(id, usuario, emitidoEm, agora + VALIDADE_MS);
+        }
+
+        String assinar() {
+            String cnpj = usuario.getCnpj() != null ? usuario.getCnpj() : "";
+            String nome = usuario.getNome() != null ? usuario.getNome() : "";
+            String dados = "1|" + id + "|" + usuario.getIdUsuario() + "|" + emitidoEm + "|" + expiraEm
+                    + "|" + cnpj + "|" + nome;
+            byte[] bytes = dados.getBytes(StandardCharsets.UTF_8);
+            return B64.encodeToString(bytes) + "." + B64.encodeToString(hmac(bytes));
+        }
+
+        /**
+         * @return token válido ou null (formato, assinatura, validade,
+         *         idade máxima ou revogação)
+         */
+        static Token ler(String valor, long agora) {
+            if (valor == null || valor.isEmpty() || valor.length() > 1024) {
+                return null;
+            }
+            int ponto = valor.indexOf('.');
+            if (ponto <= 0) {
+                return null;
+            }
+
+            try {
+                byte[] bytes = B64_DECODER.decode(valor.substring(0, ponto));
+                byte[] assinatura = B64_DECODER.decode(valor.substring(ponto + 1));
+                if (!MessageDigest.isEqual(hmac(bytes), assinatura)) {
+                    return null;
+                }
+
+                // Nome por último: pode conter '|'
+                String[] campos = new String(bytes, StandardCharsets.UTF_8).split("\\|", 7);
+                if (campos.length != 7 || !"1".equals(campos[0])) {
+                    return null;
+                }
+
+                int usuarioId = Integer.parseInt(campos[2]);
+                long emitidoEm = Long.parseLong(campos[3]);
+                long expiraEm = Long.parseLong(campos[4]);
+                if (expiraEm <= agora || agora - emitidoEm > MAXIMO_MS || RevogacaoTokens.isRevogado(campos[1])
+                        || RevogacaoTokens.isRevogado(usuarioId, emitidoEm)) {
+                    return null;
+                }
+
+                UsuarioSessao usuario = new UsuarioSessao(usuarioId, campos[6],
+                        campos[5].isEmpty() ? null : campos[5]);
+                return new Token(campos[1], usuario, emitidoEm, expiraEm);
+
+            } catch (IllegalArgumentException e) {
+                // Base64 ou número malformado
+                return null;
+            }
+        }
+
+        private static byte[] hmac(byte[] dados) {
+            try {
+                Mac mac = (Mac) PROTOTIPO.clone();
+                return mac.doFinal(dados);
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.projeto.utils;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ================================================================
+ * FILTRO DE CORRELAÇÃO - Um id por requisição nas linhas de log
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Com várias requisições ao mesmo tempo, as linhas de log se
+ * misturam no console. O id (8 caracteres hexadecimais) aparece em
+ * toda linha escrita durante a requisição e permite filtrar uma só:
+ *     grep '\[3f9a01c2\]' catalina.out
+ *
+ * FUNCIONAMENTO:
+ * - Usa o cabeçalho X-Request-Id se vier de um proxy (até 64
+ *   caracteres [A-Za-z0-9-_]); senão gera um id novo
+ * - Devolve o id no cabeçalho X-Request-Id da resposta
+ * - Limpa o id da thread no fim (threads do Tomcat são reutilizadas)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see Log
+ */
+@WebFilter("/*")
+public class FiltroCorrelacao extends HttpFilter {
+    private static final long serialVersionUID = 1L;
+
+    private static final String CABECALHO = "X-Request-Id";
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        String id = request.getHeader(CABECALHO);
+        if (!valido(id)) {
+            id = String.format("%08x", ThreadLocalRandom.current().nextInt());
+        }
+
+        response.setHeader(CABECALHO, id);
+        Log.setCorrelacao(id);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Log.setCorrelacao(null);
+        }
+    }
+
+    private static boolean valido(String id) {
+        if (id == null || id.isEmpty() || id.length() > 64) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean permitido = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!permitido) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
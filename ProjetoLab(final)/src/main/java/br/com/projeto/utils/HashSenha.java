@@ -0,0 +1,314 @@
+package br.com.projeto.utils;
+
+import java.sql.Connection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import br.com.projeto.dao.UsuarioDAO;
+
+/**
+ * ================================================================
+ * HASH DE SENHA - BCrypt fora das threads do Tomcat
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * BCrypt é caro de propósito (dezenas a centenas de ms de CPU).
+ * No pico de logins da manhã, checkpw/hashpw direto nas threads do
+ * Tomcat ocupava todos os núcleos e o dashboard ficava esperando.
+ * Aqui o hash roda num executor próprio e limitado: no máximo
+ * THREADS núcleos fazem BCrypt ao mesmo tempo, o resto atende
+ * as outras páginas.
+ *
+ * FUNCIONAMENTO:
+ * - verificar()/gerarHash() enviam o trabalho ao executor e esperam
+ *   até ESPERA_MS pela resposta
+ * - Fila cheia ou espera estourada → RejectedExecutionException
+ *   (o controller pede para tentar de novo em instantes)
+ * - Custo (log2 das rodadas) calibrado na subida: o maior entre
+ *   CUSTO_MINIMO e CUSTO_MAXIMO cujo hash leva até ALVO_MS nesta
+ *   máquina (ou fixo, se mei.senha.custo estiver definido)
+ * - Rehash no login: senha correta + hash com custo menor que o
+ *   atual → gera o hash novo em segundo plano e grava com
+ *   UsuarioDAO.atualizarSenha (só se o hash no banco ainda for o
+ *   antigo). O login não espera por isso.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.senha.threads  / SENHA_THREADS   → metade dos núcleos (mín. 1)
+ * - mei.senha.fila     / SENHA_FILA      → 200
+ * - mei.senha.esperaMs / SENHA_ESPERA_MS → 10000
+ * - mei.senha.alvoMs   / SENHA_ALVO_MS   → 250
+ * - mei.senha.custo    / SENHA_CUSTO     → (calibrado)
+ *
+ * MÉTRICAS:
+ * getEstatisticas(): custo em uso, fila, threads ocupadas, totais,
+ * rejeitados e tempos médios/máximos de espera e de hash.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see UsuarioDAO#atualizarSenha(int, String, String)
+ */
+public final class HashSenha {
+
+    private static final Log LOG = Log.para(HashSenha.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final int THREADS = Integer.parseInt(Conexao.config("mei.senha.threads", "SENHA_THREADS",
+            String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 2))));
+
+    private static final int CAPACIDADE =
+            Integer.parseInt(Conexao.config("mei.senha.fila", "SENHA_FILA", "200"));
+
+    private static final long ESPERA_MS =
+            Long.parseLong(Conexao.config("mei.senha.esperaMs", "SENHA_ESPERA_MS", "10000"));
+
+    private static final long ALVO_MS =
+            Long.parseLong(Conexao.config("mei.senha.alvoMs", "SENHA_ALVO_MS", "250"));
+
+    /** Padrão do jBCrypt: nunca calibrar para menos que isso */
+    private static final int CUSTO_MINIMO = 10;
+    private static final int CUSTO_MAXIMO = 16;
+
+    // ========== ESTADO ==========
+
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    private static final int CUSTO;
+
+    private static final AtomicLong ENVIADOS = new AtomicLong();
+    private static final AtomicLong REJEITADOS = new AtomicLong();
+    private static final AtomicLong REHASHES = new AtomicLong();
+    private static final AtomicLong ESPERA_TOTAL_MS = new AtomicLong();
+    private static final AtomicLong ESPERA_MAX_MS = new AtomicLong();
+    private static final AtomicLong HASH_TOTAL_MS = new AtomicLong();
+    private static final AtomicLong HASH_MAX_MS = new AtomicLong();
+
+    static {
+        AtomicInteger numero = new AtomicInteger();
+        EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPACIDADE),
+                r -> {
+                    Thread t = new Thread(r, "mei-senha-" + numero.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        String fixo = Conexao.config("mei.senha.custo", "SENHA_CUSTO", "");
+        CUSTO = fixo.isEmpty() ? calibrar() : Integer.parseInt(fixo);
+
+        LOG.info("✅ Hash de senha: BCrypt custo {}, {} threads, fila {}", CUSTO, THREADS, CAPACIDADE);
+    }
+
+    private HashSenha() {
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Calibra o custo e cria as threads já na subida (ConexaoListener),
+     * para o primeiro login não pagar a calibração.
+     */
+    public static void iniciar() {
+        // A inicialização estática faz todo o trabalho
+    }
+
+    /**
+     * BCrypt.checkpw no executor.
+     *
+     * @throws RejectedExecutionException fila cheia ou sem resposta em ESPERA_MS
+     */
+    public static boolean verificar(String senha, String hash) throws Exception {
+        return executar(() -> BCrypt.checkpw(senha, hash));
+    }
+
+    /**
+     * BCrypt.hashpw com o custo calibrado, no executor.
+     *
+     * @throws RejectedExecutionException fila cheia ou sem resposta em ESPERA_MS
+     */
+    public static String gerarHash(String senha) throws Exception {
+        return executar(() -> BCrypt.hashpw(senha, BCrypt.gensalt(CUSTO)));
+    }
+
+    /**
+     * @return true se o hash foi gerado com custo menor que o atual
+     *         (ou não dá para ler o custo)
+     */
+    public static boolean precisaRehash(String hash) {
+        return custoDe(hash) < CUSTO;
+    }
+
+    /**
+     * Depois de um login com senha correta: se o hash guardado usa custo
+     * antigo, agenda a troca em segundo plano. Nunca lança e não espera.
+     *
+     * @param usuarioId Dono da senha
+     * @param senha     Senha já conferida
+     * @param hashAtual Hash que está no banco
+     */
+    public static void rehashSeNecessario(int usuarioId, String senha, String hashAtual) {
+        if (!precisaRehash(hashAtual)) {
+            return;
+        }
+
+        String correlacao = Log.getCorrelacao();
+        try {
+            EXECUTOR.execute(() -> {
+                Log.setCorrelacao(correlacao);
+                try {
+                    // Hash antes da conexão: o BCrypt não segura vaga do pool
+                    String novo = BCrypt.hashpw(senha, BCrypt.gensalt(CUSTO));
+                    boolean trocou;
+                    try (Connection conexao = Conexao.getConnection()) {
+                        trocou = new UsuarioDAO(conexao).atualizarSenha(usuarioId, hashAtual, novo);
+                    }
+                    if (trocou) {
+                        CacheUsuarios.invalidar(usuarioId);
+                        REHASHES.incrementAndGet();
+                        LOG.info("🔑 Senha do usuário {} rehash: custo {} → {}",
+                                usuarioId, custoDe(hashAtual), CUSTO);
+                    }
+                } catch (Exception e) {
+                    // Fica para o próximo login
+                    LOG.aviso("⚠️ Rehash da senha do usuário {} falhou: {}", usuarioId, e.getMessage());
+                } finally {
+                    Log.setCorrelacao(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Fila cheia: o login vale mais que o rehash, tenta no próximo
+            LOG.debug("Rehash do usuário {} adiado (fila cheia)", usuarioId);
+        }
+    }
+
+    public static int getCusto() {
+        return CUSTO;
+    }
+
+    /** @return custo, fila, threads, totais e tempos de espera/hash */
+    public static String getEstatisticas() {
+        long enviados = ENVIADOS.get();
+        long divisor = Math.max(1, enviados);
+        return "custo=" + CUSTO
+                + ", fila=" + EXECUTOR.getQueue().size() + "/" + CAPACIDADE
+                + ", ocupadas=" + EXECUTOR.getActiveCount() + "/" + THREADS
+                + ", enviados=" + enviados
+                + ", rejeitados=" + REJEITADOS.get()
+                + ", rehashes=" + REHASHES.get()
+                + ", esperaMedia=" + ESPERA_TOTAL_MS.get() / divisor + "ms"
+                + ", esperaMax=" + ESPERA_MAX_MS.get() + "ms"
+                + ", hashMedio=" + HASH_TOTAL_MS.get() / divisor + "ms"
+                + ", hashMax=" + HASH_MAX_MS.get() + "ms";
+    }
+
+    /**
+     * Para as threads (desligamento do Tomcat).
+     */
+    public static void encerrar() {
+        EXECUTOR.shutdownNow();
+    }
+
+    /* ================================================================
+       EXECUÇÃO
+       ================================================================ */
+
+    private static <T> T executar(Callable<T> tarefa) throws Exception {
+        long enviadoEm = System.currentTimeMillis();
+
+        Future<T> futuro;
+        try {
+            futuro = EXECUTOR.submit(() -> {
+                long inicio = System.currentTimeMillis();
+                registrar(ESPERA_TOTAL_MS, ESPERA_MAX_MS, inicio - enviadoEm);
+                try {
+                    return tarefa.call();
+                } finally {
+                    registrar(HASH_TOTAL_MS, HASH_MAX_MS, System.currentTimeMillis() - inicio);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            REJEITADOS.incrementAndGet();
+            LOG.aviso("⚠️ Fila de hash de senha cheia: {}", getEstatisticas());
+            throw e;
+        }
+        ENVIADOS.incrementAndGet();
+
+        try {
+            return futuro.get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            REJEITADOS.incrementAndGet();
+            LOG.aviso("⚠️ Hash de senha sem resposta em {} ms: {}", ESPERA_MS, getEstatisticas());
+            throw new RejectedExecutionException("Hash de senha sem resposta em " + ESPERA_MS + " ms", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw causa instanceof Exception ? (Exception) causa : e;
+        }
+    }
+
+    private static void registrar(AtomicLong total, AtomicLong maximo, long ms) {
+        total.addAndGet(ms);
+        maximo.accumulateAndGet(ms, Math::max);
+    }
+
+    /* ================================================================
+       CUSTO
+       ================================================================ */
+
+    /**
+     * Mede o custo mínimo e extrapola: cada +1 no custo dobra o tempo.
+     */
+    private static int calibrar() {
+        // Aquecimento (JIT) com custo baixo
+        for (int i = 0; i < 3; i++) {
+            BCrypt.hashpw("aquecimento", BCrypt.gensalt(6));
+        }
+
+        long melhorMs = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long inicio = System.nanoTime();
+            BCrypt.hashpw("calibracao", BCrypt.gensalt(CUSTO_MINIMO));
+            melhorMs = Math.min(melhorMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        }
+
+        int custo = CUSTO_MINIMO;
+        long estimadoMs = Math.max(1, melhorMs);
+        while (custo < CUSTO_MAXIMO && estimadoMs * 2 <= ALVO_MS) {
+            custo++;
+            estimadoMs *= 2;
+        }
+
+        LOG.info("⏱️ BCrypt custo {}: {} ms; alvo {} ms → custo {} (~{} ms)",
+                CUSTO_MINIMO, melhorMs, ALVO_MS, custo, estimadoMs);
+        return custo;
+    }
+
+    /** "$2a$10$..." → 10; formato desconhecido → 0 */
+    private static int custoDe(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$') {
+            return 0;
+        }
+        int fim = hash.indexOf('$', 1);
+        if (fim < 0 || hash.length() < fim + 3) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(hash.substring(fim + 1, fim + 3));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
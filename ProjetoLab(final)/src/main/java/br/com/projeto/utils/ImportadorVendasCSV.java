@@ -0,0 +1,371 @@
+package br.com.projeto.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import br.com.projeto.dao.CategoriaDAO;
+import br.com.projeto.dao.VendasDAO;
+import br.com.projeto.model.Categoria;
+import br.com.projeto.model.NotaFiscal;
+import br.com.projeto.model.ResultadoImportacao;
+import br.com.projeto.model.Vendas;
+
+/**
+ * ================================================================
+ * IMPORTADOR DE VENDAS CSV - Carga em massa por streaming
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Lê um CSV de vendas linha a linha (sem carregar o arquivo inteiro),
+ * valida cada linha e grava em lotes via VendasDAO.inserirLote().
+ *
+ * FORMATO (separador ";" ou ","; cabeçalho opcional):
+ * data;valor;categoria;descricao;nota_fiscal;numero_nf
+ * 15/02/2026;1.250,00;Prestação de Serviços;Consultoria;S;12345
+ * 2026-02-16;89.90;1;Venda balcão;N;
+ *
+ * - data:        dd/MM/yyyy, dd/MM/yyyy HH:mm ou yyyy-MM-dd
+ * - valor:       BR ("1.250,00", "1.250", "89,9") ou US ("1,250.00",
+ *                "89.90"); até 2 casas, maior que zero e até VALOR_MAXIMO.
+ *                "1.250" é mil duzentos e cinquenta (milhar BR).
+ * - categoria:   ID ou nome de uma categoria ATIVA (cache do CategoriaDAO)
+ * - descricao:   opcional
+ * - nota_fiscal: S ou N (vazio = N)
+ * - numero_nf:   obrigatório quando nota_fiscal = S
+ *
+ * Campos podem vir entre aspas ("a; b", com "" para aspas internas).
+ * Quebra de linha dentro de campo NÃO é suportada.
+ *
+ * MEMÓRIA LIMITADA:
+ * - Só TAMANHO_LOTE vendas válidas ficam em memória de cada vez
+ * - Cada lote é uma transação (lote com erro não desfaz os anteriores)
+ * - Mensagens de erro limitadas em ResultadoImportacao
+ *
+ * USO:
+ * ```java
+ * try (Connection conn = Conexao.getConnection();
+ *      InputStream in = part.getInputStream()) {
+ *     ResultadoImportacao r = new ImportadorVendasCSV(conn, usuarioId).importar(in);
+ * }
+ * ```
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see VendasDAO#inserirLote(List)
+ */
+public class ImportadorVendasCSV {
+
+    private static final Log LOG = Log.para(ImportadorVendasCSV.class);
+
+    /** Vendas válidas acumuladas antes de cada inserirLote() */
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATA_HORA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /** 1.250,00 / 1.250 / 1250,5 (ponto só como milhar) */
+    private static final Pattern VALOR_BR = Pattern.compile("^(\\d{1,3}(\\.\\d{3})+|\\d+)(,\\d{1,2})?$");
+
+    /** 1,250.00 / 1250.5 (vírgula só como milhar) */
+    private static final Pattern VALOR_US = Pattern.compile("^(\\d{1,3}(,\\d{3})+|\\d+)(\\.\\d{1,2})?$");
+
+    /** Acima disso é erro de digitação (coluna FLOAT perde centavos bem antes) */
+    private static final BigDecimal VALOR_MAXIMO = new BigDecimal("9999999.99");
+
+    private final int usuarioId;
+    private final CategoriaDAO categoriaDAO;
+    private final VendasDAO vendasDAO;
+
+    /**
+     * Categorias ativas já resolvidas, por chave normalizada ("#id" ou
+     * nome em minúsculas). Só acertos entram: o mapa fica do tamanho da
+     * tabela de categorias, não do número de textos distintos do arquivo.
+     */
+    private final Map<String, Categoria> categoriasResolvidas = new HashMap<>();
+
+    public ImportadorVendasCSV(Connection conexao, int usuarioId) {
+        this.usuarioId = usuarioId;
+        this.categoriaDAO = new CategoriaDAO(conexao);
+        this.vendasDAO = new VendasDAO(conexao);
+    }
+
+    /**
+     * ================================================================
+     * IMPORTAR - Lê o CSV inteiro e grava as linhas válidas
+     * ================================================================
+     *
+     * @param entrada CSV em UTF-8 (BOM do Excel é ignorado)
+     * @return Relatório com contagens e erros por linha
+     * @throws IOException Erro de leitura do arquivo
+     */
+    public ResultadoImportacao importar(InputStream entrada) throws IOException {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+
+        List<Vendas> lote = new ArrayList<>(TAMANHO_LOTE);
+        List<Integer> linhasDoLote = new ArrayList<>(TAMANHO_LOTE);
+
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        String linha;
+        int numeroLinha = 0;
+        char separador = 0;
+
+        while ((linha = leitor.readLine()) != null) {
+            numeroLinha++;
+
+            if (numeroLinha == 1 && linha.startsWith("\uFEFF")) {
+                linha = linha.substring(1);
+            }
+            if (linha.trim().isEmpty()) {
+                continue;
+            }
+
+            // ========== SEPARADOR E CABEÇALHO (primeira linha útil) ==========
+            if (separador == 0) {
+                separador = linha.indexOf(';') >= 0 ? ';' : ',';
+                if (linha.trim().toLowerCase().startsWith("data")) {
+                    continue;
+                }
+            }
+
+            resultado.linhaLida();
+
+            try {
+                lote.add(converterLinha(dividir(linha, separador)));
+                linhasDoLote.add(numeroLinha);
+            } catch (IllegalArgumentException e) {
+                resultado.adicionarErro(numeroLinha, e.getMessage());
+            }
+
+            if (lote.size() >= TAMANHO_LOTE) {
+                gravarLote(lote, linhasDoLote, resultado);
+            }
+        }
+
+        gravarLote(lote, linhasDoLote, resultado);
+
+        LOG.info("📥 Importação CSV concluída: {}", resultado);
+        return resultado;
+    }
+
+    /* ================================================================
+       GRAVAÇÃO EM LOTE
+       ================================================================ */
+
+    /**
+     * Grava o lote numa transação; se falhar, todas as linhas do lote
+     * entram no relatório de erros e a importação continua.
+     */
+    private void gravarLote(List<Vendas> lote, List<Integer> linhasDoLote, ResultadoImportacao resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        try {
+            vendasDAO.inserirLote(lote);
+            resultado.adicionarImportadas(lote.size());
+        } catch (Exception e) {
+            LOG.aviso("❌ Falha ao gravar lote da importação: {}", e.getMessage());
+            for (Integer numero : linhasDoLote) {
+                resultado.adicionarErro(numero, "não gravada, falha no lote (" + e.getMessage() + ")");
+            }
+        }
+
+        lote.clear();
+        linhasDoLote.clear();
+    }
+
+    /* ================================================================
+       CONVERSÃO E VALIDAÇÃO DE UMA LINHA
+       ================================================================ */
+
+    /**
+     * Monta a venda a partir das colunas.
+     * @throws IllegalArgumentException com a mensagem para o relatório
+     */
+    private Vendas converterLinha(List<String> campos) {
+        if (campos.size() < 3) {
+            throw new IllegalArgumentException("esperado ao menos data, valor e categoria");
+        }
+
+        LocalDateTime data = converterData(campo(campos, 0));
+        float valor = converterValor(campo(campos, 1));
+        Categoria categoria = resolverCategoria(campo(campos, 2));
+        String descricao = campo(campos, 3);
+
+        String emitida = campo(campos, 4).toUpperCase();
+        if (emitida.isEmpty()) {
+            emitida = "N";
+        }
+        if (!"S".equals(emitida) && !"N".equals(emitida)) {
+            throw new IllegalArgumentException("nota_fiscal deve ser S ou N");
+        }
+
+        String numeroNF = campo(campos, 5);
+        if ("S".equals(emitida) && numeroNF.isEmpty()) {
+            throw new IllegalArgumentException("número da nota fiscal é obrigatório quando nota_fiscal = S");
+        }
+
+        Vendas venda = new Vendas();
+        venda.setDataVendas(data);
+        venda.setValor(valor);
+        venda.setCategoria(categoria);
+        venda.setDescricao(descricao);
+        venda.setUsuarioId(usuarioId);
+        venda.setNotaFiscalEmitida(emitida);
+
+        if ("S".equals(emitida)) {
+            NotaFiscal nf = new NotaFiscal();
+            nf.setNumero(numeroNF);
+            nf.setDataEmissao(data);
+            nf.setValor(valor);
+            venda.setNotaFiscal(nf);
+        }
+
+        return venda;
+    }
+
+    private static LocalDateTime converterData(String texto) {
+        if (texto.isEmpty()) {
+            throw new IllegalArgumentException("data é obrigatória");
+        }
+        try {
+            if (texto.contains("/")) {
+                return texto.length() > 10
+                        ? LocalDateTime.parse(texto, DATA_HORA_BR)
+                        : LocalDate.parse(texto, DATA_BR).atStartOfDay();
+            }
+            return LocalDate.parse(texto).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("data inválida '" + texto + "' (use dd/MM/yyyy)");
+        }
+    }
+
+    private static float converterValor(String texto) {
+        if (texto.isEmpty()) {
+            throw new IllegalArgumentException("valor é obrigatório");
+        }
+
+        String normalizado = texto.replace("R$", "").replace(" ", "");
+
+        // Só padrões explícitos: nada de expoente, hexa, Infinity ou NaN.
+        // BR primeiro: "1.250" é milhar, não 1,25
+        if (VALOR_BR.matcher(normalizado).matches()) {
+            normalizado = normalizado.replace(".", "").replace(",", ".");
+        } else if (VALOR_US.matcher(normalizado).matches()) {
+            normalizado = normalizado.replace(",", "");
+        } else {
+            throw new IllegalArgumentException("valor inválido '" + texto + "' (use 1.250,00)");
+        }
+
+        BigDecimal valor = new BigDecimal(normalizado);
+        if (valor.signum() <= 0) {
+            throw new IllegalArgumentException("valor deve ser maior que zero");
+        }
+        if (valor.compareTo(VALOR_MAXIMO) > 0) {
+            throw new IllegalArgumentException("valor muito alto '" + texto + "'");
+        }
+        return valor.floatValue();
+    }
+
+    /**
+     * Categoria por ID ou nome, só ativas. Consulta o cache do
+     * CategoriaDAO uma vez por categoria válida; texto inválido é
+     * reconsultado (em memória) a cada linha, sem ocupar o mapa.
+     *
+     * Erro ao carregar as categorias vira erro DA LINHA: os lotes já
+     * gravados continuam contados e o relatório sai completo.
+     */
+    private Categoria resolverCategoria(String texto) {
+        if (texto.isEmpty()) {
+            throw new IllegalArgumentException("categoria é obrigatória");
+        }
+
+        boolean porId = texto.chars().allMatch(Character::isDigit);
+        String chave;
+        try {
+            chave = porId ? "#" + Integer.parseInt(texto) : texto.toLowerCase(Locale.ROOT);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("categoria '" + texto + "' não existe ou está inativa");
+        }
+
+        Categoria categoria = categoriasResolvidas.get(chave);
+        if (categoria == null) {
+            try {
+                categoria = porId
+                        ? categoriaDAO.buscarPorId(Integer.parseInt(texto))
+                        : categoriaDAO.buscarPorNome(texto);
+            } catch (Exception e) {
+                LOG.aviso("❌ Importação: erro ao consultar categorias: {}", e.getMessage());
+                throw new IllegalArgumentException("não foi possível consultar as categorias (" + e.getMessage() + ")");
+            }
+            if (categoria == null || !categoria.isAtivo()) {
+                throw new IllegalArgumentException("categoria '" + texto + "' não existe ou está inativa");
+            }
+            categoriasResolvidas.put(chave, categoria);
+        }
+        return categoria;
+    }
+
+    /* ================================================================
+       PARSER CSV (uma linha)
+       ================================================================ */
+
+    private static String campo(List<String> campos, int indice) {
+        return indice < campos.size() ? campos.get(indice).trim() : "";
+    }
+
+    /**
+     * Divide a linha respeitando aspas: "a;b" é um campo só e
+     * "" dentro de aspas vira ".
+     */
+    private static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+
+            if (entreAspas) {
+                if (c == '"') {
+                    if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        atual.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+
+        if (entreAspas) {
+            throw new IllegalArgumentException("aspas não fechadas");
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.projeto.utils;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import br.com.projeto.dao.VendasDAO;
+import br.com.projeto.model.SituacaoLimite;
+
+/**
+ * ================================================================
+ * LIMITE DE FATURAMENTO - Acumulado do ano do MEI em memória
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O MEI precisa acompanhar quanto falta para o teto de receita bruta
+ * anual. O dashboard mostra isso a cada acesso, então a leitura não
+ * pode depender de somar as vendas do ano.
+ *
+ * FUNCIONAMENTO:
+ * - Por usuário, os 12 totais mensais do ano corrente (lidos de
+ *   vendas_resumo_mensal na primeira consulta do usuário)
+ * - consultar(): soma 12 valores já em memória → O(1)
+ * - VendasDAO, após o commit de cada escrita, chama atualizarMes():
+ *   o total daquele mês é relido do resumo (uma linha pela PK)
+ * - Virou o ano: a próxima consulta recarrega (o limite zera)
+ * - Totais com mais de TTL_MS também são relidos na consulta: cobre
+ *   escritas feitas em outro nó ou fora da aplicação (atualizarMes e
+ *   descartar só alcançam a memória do nó onde rodam)
+ * - No máximo MAXIMO_USUARIOS no mapa: cheio, saem primeiro os
+ *   expirados e, se não bastar, um qualquer (volta na próxima consulta)
+ *
+ * CONSISTÊNCIA:
+ * Carga e atualização relêem o banco segurando a trava do usuário.
+ * Quem pega a trava por último lê um estado que já inclui todos os
+ * commits anteriores, então o valor em memória nunca fica para trás
+ * nem conta a mesma venda duas vezes (ao contrário de somar deltas).
+ *
+ * PREVISÃO:
+ * Média diária da janela [1º dia de (mês atual - JANELA_MESES + 1), hoje]
+ * (sem voltar antes de 1º de janeiro); previsão = hoje + restante / média.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.limite.anual       / MEI_LIMITE_ANUAL        → 81000
+ * - mei.limite.janelaMeses / MEI_LIMITE_JANELA_MESES → 3
+ * - mei.limite.ttlMs       / MEI_LIMITE_TTL_MS       → 60000
+ * - mei.limite.maxUsuarios / MEI_LIMITE_MAX_USUARIOS → 10000
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see SituacaoLimite
+ * @see VendasDAO#faturamentoPorMes(int, int)
+ */
+public final class LimiteFaturamento {
+
+    private static final Log LOG = Log.para(LimiteFaturamento.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final double LIMITE_ANUAL =
+            Double.parseDouble(Conexao.config("mei.limite.anual", "MEI_LIMITE_ANUAL", "81000"));
+
+    private static final int JANELA_MESES =
+            Math.max(1, Integer.parseInt(Conexao.config("mei.limite.janelaMeses", "MEI_LIMITE_JANELA_MESES", "3")));
+
+    private static final long TTL_MS =
+            Long.parseLong(Conexao.config("mei.limite.ttlMs", "MEI_LIMITE_TTL_MS", "60000"));
+
+    private static final int MAXIMO_USUARIOS =
+            Math.max(1, Integer.parseInt(Conexao.config("mei.limite.maxUsuarios", "MEI_LIMITE_MAX_USUARIOS", "10000")));
+
+    // ========== ESTADO ==========
+
+    /** usuario_id → acumulado do ano */
+    private static final Map<Integer, Acumulado> ACUMULADOS = new ConcurrentHashMap<>();
+
+    private LimiteFaturamento() {
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Situação do limite no ano corrente.
+     *
+     * @param conexao   Usada só se o usuário ainda não está em memória
+     * @param usuarioId Dono das vendas
+     */
+    public static SituacaoLimite consultar(Connection conexao, int usuarioId) throws Exception {
+        LocalDate hoje = LocalDate.now();
+        long agora = System.currentTimeMillis();
+        if (ACUMULADOS.size() >= MAXIMO_USUARIOS && !ACUMULADOS.containsKey(usuarioId)) {
+            abrirEspaco(agora);
+        }
+        Acumulado acumulado = ACUMULADOS.computeIfAbsent(usuarioId, id -> new Acumulado());
+
+        Totais totais = acumulado.totais;
+        if (!valido(totais, hoje.getYear(), agora)) {
+            acumulado.trava.lock();
+            try {
+                totais = acumulado.totais;
+                if (!valido(totais, hoje.getYear(), agora)) {
+                    totais = new Totais(hoje.getYear(),
+                            new VendasDAO(conexao).faturamentoPorMes(usuarioId, hoje.getYear()),
+                            System.currentTimeMillis());
+                    acumulado.totais = totais;
+                }
+            } finally {
+                acumulado.trava.unlock();
+            }
+        }
+
+        return calcular(totais, hoje);
+    }
+
+    /**
+     * Relê o total de um mês depois de uma escrita já commitada.
+     * Usuário fora da memória ou outro ano: nada a fazer (a próxima
+     * consulta carrega do banco). Nunca lança: a venda já foi gravada.
+     */
+    public static void atualizarMes(Connection conexao, int usuarioId, int ano, int mes) {
+        Acumulado acumulado = ACUMULADOS.get(usuarioId);
+        if (acumulado == null) {
+            return;
+        }
+
+        acumulado.trava.lock();
+        try {
+            Totais totais = acumulado.totais;
+            if (totais != null && totais.ano == ano) {
+                double total = new VendasDAO(conexao).faturamentoDoMes(usuarioId, ano, mes);
+                acumulado.totais = totais.comMes(mes, total);
+            }
+        } catch (Exception e) {
+            // Sem como confirmar o valor: descarta e recarrega na próxima consulta
+            LOG.aviso("⚠️ Limite do usuário {} descartado: {}", usuarioId, e.getMessage());
+            acumulado.totais = null;
+        } finally {
+            acumulado.trava.unlock();
+        }
+    }
+
+    /**
+     * Esquece o usuário (ex.: resumo reconstruído pela reconciliação).
+     */
+    public static void descartar(int usuarioId) {
+        ACUMULADOS.remove(usuarioId);
+    }
+
+    public static double getLimiteAnual() {
+        return LIMITE_ANUAL;
+    }
+
+    /* ================================================================
+       MEMÓRIA
+       ================================================================ */
+
+    private static boolean valido(Totais totais, int ano, long agora) {
+        return totais != null && totais.ano == ano && agora - totais.carregadoEm <= TTL_MS;
+    }
+
+    /**
+     * Mapa cheio: tira os expirados; se nenhum expirou, tira um
+     * qualquer. Quem estiver usando a entrada removida termina normal
+     * (a trava e os totais são do objeto, não do mapa).
+     */
+    private static void abrirEspaco(long agora) {
+        int ano = LocalDate.now().getYear();
+        ACUMULADOS.values().removeIf(a -> !valido(a.totais, ano, agora));
+
+        Iterator<Integer> ids = ACUMULADOS.keySet().iterator();
+        while (ACUMULADOS.size() >= MAXIMO_USUARIOS && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    /* ================================================================
+       CÁLCULO
+       ================================================================ */
+
+    private static SituacaoLimite calcular(Totais totais, LocalDate hoje) {
+        double faturado = 0;
+        for (double mes : totais.meses) {
+            faturado += mes;
+        }
+
+        // Média diária da janela recente (sem atravessar o ano)
+        int primeiroMes = Math.max(1, hoje.getMonthValue() - JANELA_MESES + 1);
+        LocalDate inicioJanela = LocalDate.of(hoje.getYear(), primeiroMes, 1);
+        long dias = ChronoUnit.DAYS.between(inicioJanela, hoje) + 1;
+
+        double receitaJanela = 0;
+        for (int mes = primeiroMes; mes <= hoje.getMonthValue(); mes++) {
+            receitaJanela += totais.meses[mes - 1];
+        }
+        double mediaDiaria = receitaJanela / dias;
+
+        LocalDate previsao = null;
+        double restante = LIMITE_ANUAL - faturado;
+        if (restante >= 0 && mediaDiaria > 0) {
+            LocalDate dia = hoje.plusDays((long) Math.ceil(restante / mediaDiaria));
+            if (dia.getYear() == hoje.getYear()) {
+                previsao = dia;
+            }
+        }
+
+        return new SituacaoLimite(totais.ano, LIMITE_ANUAL, faturado, mediaDiaria, previsao);
+    }
+
+    /* ================================================================
+       ESTRUTURAS INTERNAS
+       ================================================================ */
+
+    /**
+     * Entrada do mapa: trava do usuário + fotografia atual dos totais.
+     */
+    private static final class Acumulado {
+        final ReentrantLock trava = new ReentrantLock();
+        volatile Totais totais;
+    }
+
+    /**
+     * Totais do ano (imutável: atualizar = trocar a fotografia inteira).
+     */
+    private static final class Totais {
+        final int ano;
+        final double[] meses;
+        /** Hora da leitura do banco (atualizarMes não renova: vale o TTL da carga) */
+        final long carregadoEm;
+
+        Totais(int ano, double[] meses, long carregadoEm) {
+            this.ano = ano;
+            this.meses = meses;
+            this.carregadoEm = carregadoEm;
+        }
+
+        Totais comMes(int mes, double total) {
+            double[] copia = meses.clone();
+            copia[mes - 1] = total;
+            return new Totais(ano, copia, carregadoEm);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package br.com.projeto.utils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ================================================================
+ * LIMITE DE TENTATIVAS - Token bucket por CPF e por IP no login
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Cada tentativa de login custa uma consulta ao banco e um BCrypt
+ * (dezenas de ms de CPU). Numa rajada de credential stuffing isso
+ * derruba o servidor para todo mundo. O limite descarta o excesso
+ * ANTES de qualquer banco ou hash.
+ *
+ * FUNCIONAMENTO:
+ * - Um balde por chave (CPF sem máscara, endereço do cliente), com
+ *   CAPACIDADE fichas que voltam a RECARGA por minuto
+ * - Cada tentativa gasta uma ficha do IP e uma do CPF; sem ficha →
+ *   recusada (o IP é testado primeiro: IP bloqueado não gasta a
+ *   ficha do CPF de quem é atacado)
+ * - Travas em faixas (FAIXAS ReentrantLock, cada uma com seu mapa):
+ *   logins de chaves diferentes quase nunca disputam a mesma trava
+ * - Balde parado há OCIOSO_MS já está cheio de novo e é descartado
+ *   na varredura da faixa (a cada OCIOSO_MS, sem thread extra)
+ *
+ * OBSERVAÇÃO:
+ * O endereço é request.getRemoteAddr(). Atrás de proxy reverso,
+ * configure o RemoteIpValve do Tomcat para ele virar o IP real
+ * (X-Forwarded-For não é lido aqui: o cliente pode forjá-lo).
+ *
+ * MÉTRICAS:
+ * getEstatisticasPorCpf() / getEstatisticasPorIp(): aceitas,
+ * recusadas, baldes em memória e baldes varridos. Em tempo real em
+ * GET /metricas/login (MetricasController) e no log ao desligar.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.login.cpf.capacidade / LOGIN_CPF_CAPACIDADE → 5
+ * - mei.login.cpf.porMinuto  / LOGIN_CPF_POR_MINUTO → 5
+ * - mei.login.ip.capacidade  / LOGIN_IP_CAPACIDADE  → 20
+ * - mei.login.ip.porMinuto   / LOGIN_IP_POR_MINUTO  → 30
+ * - mei.login.ociosoMs       / LOGIN_OCIOSO_MS      → 600000
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ */
+public final class LimiteTentativas {
+
+    private static final Log LOG = Log.para(LimiteTentativas.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final long OCIOSO_MS =
+            Long.parseLong(Conexao.config("mei.login.ociosoMs", "LOGIN_OCIOSO_MS", "600000"));
+
+    /** Potência de 2: a faixa sai do hash da chave com uma máscara */
+    private static final int FAIXAS = 64;
+
+    // ========== LIMITES ==========
+
+    private static final LimiteTentativas POR_CPF = new LimiteTentativas("CPF",
+            Integer.parseInt(Conexao.config("mei.login.cpf.capacidade", "LOGIN_CPF_CAPACIDADE", "5")),
+            Integer.parseInt(Conexao.config("mei.login.cpf.porMinuto", "LOGIN_CPF_POR_MINUTO", "5")));
+
+    private static final LimiteTentativas POR_IP = new LimiteTentativas("IP",
+            Integer.parseInt(Conexao.config("mei.login.ip.capacidade", "LOGIN_IP_CAPACIDADE", "20")),
+            Integer.parseInt(Conexao.config("mei.login.ip.porMinuto", "LOGIN_IP_POR_MINUTO", "30")));
+
+    // ========== ESTADO ==========
+
+    private final String nome;
+    private final double capacidade;
+    /** Fichas devolvidas por nanossegundo */
+    private final double recargaPorNano;
+
+    private final Faixa[] faixas = new Faixa[FAIXAS];
+
+    private final AtomicLong aceitas = new AtomicLong();
+    private final AtomicLong recusadas = new AtomicLong();
+    private final AtomicLong varridos = new AtomicLong();
+
+    private LimiteTentativas(String nome, int capacidade, int porMinuto) {
+        this.nome = nome;
+        this.capacidade = Math.max(1, capacidade);
+        this.recargaPorNano = Math.max(1, porMinuto) / (double) TimeUnit.MINUTES.toNanos(1);
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new Faixa();
+        }
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * Gasta uma ficha do IP e uma do CPF.
+     *
+     * @param cpf      CPF sem máscara
+     * @param endereco Endereço do cliente (request.getRemoteAddr())
+     * @return false se a tentativa deve ser recusada sem ir ao banco
+     */
+    public static boolean permitir(String cpf, String endereco) {
+        if (!POR_IP.consumir(endereco)) {
+            return false;
+        }
+        return POR_CPF.consumir(cpf);
+    }
+
+    /** @return aceitas, recusadas e baldes em memória de cada limite */
+    public static String getEstatisticas() {
+        return POR_CPF.estatisticas() + "; " + POR_IP.estatisticas();
+    }
+
+    /** @return Fotografia do limite por CPF */
+    public static Estatisticas getEstatisticasPorCpf() {
+        return POR_CPF.estatisticas();
+    }
+
+    /** @return Fotografia do limite por IP */
+    public static Estatisticas getEstatisticasPorIp() {
+        return POR_IP.estatisticas();
+    }
+
+    /* ================================================================
+       BALDES
+       ================================================================ */
+
+    private boolean consumir(String chave) {
+        if (chave == null || chave.isEmpty()) {
+            chave = "?";
+        }
+        long agora = System.nanoTime();
+        Faixa faixa = faixas[espalhar(chave.hashCode()) & (FAIXAS - 1)];
+
+        boolean permitido;
+        faixa.trava.lock();
+        try {
+            varridos.addAndGet(faixa.varrerSeNecessario(agora));
+
+            Balde balde = faixa.baldes.get(chave);
+            if (balde == null) {
+                balde = new Balde(capacidade, agora);
+                faixa.baldes.put(chave, balde);
+            }
+            permitido = balde.consumir(agora, capacidade, recargaPorNano);
+        } finally {
+            faixa.trava.unlock();
+        }
+
+        if (permitido) {
+            aceitas.incrementAndGet();
+        } else {
+            recusadas.incrementAndGet();
+            // Debug: numa rajada, uma linha por tentativa inundaria o log
+            LOG.debug("🚫 Tentativa de login recusada: limite por {} esgotado", nome);
+        }
+        return permitido;
+    }
+
+    private Estatisticas estatisticas() {
+        int baldes = 0;
+        for (Faixa faixa : faixas) {
+            faixa.trava.lock();
+            try {
+                baldes += faixa.baldes.size();
+            } finally {
+                faixa.trava.unlock();
+            }
+        }
+        return new Estatisticas(nome, aceitas.get(), recusadas.get(), baldes, varridos.get());
+    }
+
+    /** Mistura os bits altos (hash de String curta varia pouco nos baixos) */
+    private static int espalhar(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Um pedaço dos baldes com sua própria trava.
+     */
+    private static final class Faixa {
+        final ReentrantLock trava = new ReentrantLock();
+        final Map<String, Balde> baldes = new HashMap<>();
+        long ultimaVarredura = System.nanoTime();
+
+        /**
+         * Chamado com a trava: remove baldes parados há OCIOSO_MS.
+         * @return quantos foram removidos
+         */
+        int varrerSeNecessario(long agora) {
+            long ocioso = TimeUnit.MILLISECONDS.toNanos(OCIOSO_MS);
+            if (agora - ultimaVarredura < ocioso) {
+                return 0;
+            }
+            ultimaVarredura = agora;
+
+            int removidos = 0;
+            Iterator<Balde> it = baldes.values().iterator();
+            while (it.hasNext()) {
+                if (agora - it.next().ultimoUso >= ocioso) {
+                    it.remove();
+                    removidos++;
+                }
+            }
+            return removidos;
+        }
+    }
+
+    /**
+     * Fichas de uma chave. Só é acessado com a trava da faixa.
+     */
+    private static final class Balde {
+        double fichas;
+        long ultimoUso;
+
+        Balde(double capacidade, long agora) {
+            this.fichas = capacidade;
+            this.ultimoUso = agora;
+        }
+
+        boolean consumir(long agora, double capacidade, double recargaPorNano) {
+            fichas = Math.min(capacidade, fichas + (agora - ultimoUso) * recargaPorNano);
+            ultimoUso = agora;
+            if (fichas < 1) {
+                return false;
+            }
+            fichas--;
+            return true;
+        }
+    }
+
+    /* ================================================================
+       ESTATÍSTICAS
+       ================================================================ */
+
+    /**
+     * Fotografia dos contadores de um limite (CPF ou IP).
+     */
+    public static final class Estatisticas {
+        private final String nome;
+        private final long aceitas;
+        private final long recusadas;
+        private final int baldes;
+        private final long varridos;
+
+        Estatisticas(String nome, long aceitas, long recusadas, int baldes, long varridos) {
+            this.nome = nome;
+            this.aceitas = aceitas;
+            this.recusadas = recusadas;
+            this.baldes = baldes;
+            this.varridos = varridos;
+        }
+
+        public String getNome() { return nome; }
+        public long getAceitas() { return aceitas; }
+        public long getRecusadas() { return recusadas; }
+        public int getBaldes() { return baldes; }
+        public long getVarridos() { return varridos; }
+
+        @Override
+        public String toString() {
+            return nome + ": aceitas=" + aceitas + ", recusadas=" + recusadas
+                    + ", baldes=" + baldes + ", varridos=" + varridos;
+        }
+    }
+}
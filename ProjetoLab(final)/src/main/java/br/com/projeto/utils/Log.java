@@ -0,0 +1,415 @@
+package br.com.projeto.utils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ================================================================
+ * LOG - Registro assíncrono com nível por pacote
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Controllers e DAOs escreviam dezenas de linhas por requisição com
+ * System.out.println: I/O de console sincronizado, na thread da
+ * requisição, mesmo para detalhes que ninguém lê em produção.
+ *
+ * FUNCIONAMENTO:
+ * - Cada classe cria o seu: private static final Log LOG = Log.para(X.class)
+ * - O nível é resolvido uma vez, na criação, pelo prefixo mais
+ *   específico configurado em mei.log.niveis (senão mei.log.nivel)
+ * - Abaixo do nível: a chamada só compara dois inteiros; com
+ *   marcadores {} a mensagem nem é montada (use isDebug() em volta
+ *   de laços que só existem para logar)
+ * - Acima do nível: a linha é formatada na thread de quem chamou
+ *   (hora, nível, id da requisição, classe) e vai para uma fila;
+ *   a thread mei-log escreve em lote no console
+ * - Fila cheia: DEBUG/INFO são descartados (contados em
+ *   getEstatisticas); AVISO/ERRO são escritos direto, nunca se perdem
+ *
+ * CORRELAÇÃO:
+ * FiltroCorrelacao define um id por requisição (setCorrelacao) e
+ * toda linha escrita naquela thread leva o id. Quem passa trabalho
+ * para outra thread (ConsultasParalelas, FilaRelatorios) leva o id
+ * junto com getCorrelacao()/setCorrelacao().
+ *
+ * MARCADORES:
+ * LOG.info("Venda {} salva: R$ {}", id, valor). Se o último
+ * argumento for Throwable e sobrar do formato, a pilha é impressa.
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.log.nivel  / LOG_NIVEL  → INFO  (DEBUG, INFO, AVISO, ERRO)
+ * - mei.log.niveis / LOG_NIVEIS → ""    (ex.: br.com.projeto.dao=DEBUG,br.com.projeto.utils.Conexao=AVISO)
+ * - mei.log.fila   / LOG_FILA   → 10000 (linhas aguardando escrita)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see FiltroCorrelacao
+ */
+public final class Log {
+
+    /**
+     * Níveis em ordem crescente de gravidade.
+     */
+    public enum Nivel {
+        DEBUG, INFO, AVISO, ERRO
+    }
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final Nivel NIVEL_PADRAO =
+            nivel(config("mei.log.nivel", "LOG_NIVEL", "INFO"), Nivel.INFO);
+
+    /** prefixo (pacote ou classe) → nível, na ordem configurada */
+    private static final Map<String, Nivel> NIVEIS =
+            lerNiveis(config("mei.log.niveis", "LOG_NIVEIS", ""));
+
+    private static final int CAPACIDADE =
+            Integer.parseInt(config("mei.log.fila", "LOG_FILA", "10000"));
+
+    private static final DateTimeFormatter HORA =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // ========== ESTADO ==========
+
+    private static final BlockingQueue<Linha> FILA = new ArrayBlockingQueue<>(CAPACIDADE);
+
+    private static final ThreadLocal<String> CORRELACAO = new ThreadLocal<>();
+
+    private static final AtomicLong ESCRITAS = new AtomicLong();
+    private static final AtomicLong DESCARTADAS = new AtomicLong();
+
+    private static volatile boolean ativo = true;
+
+    private static final Thread ESCRITOR;
+
+    static {
+        ESCRITOR = new Thread(Log::escrever, "mei-log");
+        ESCRITOR.setDaemon(true);
+        ESCRITOR.start();
+    }
+
+    // ========== INSTÂNCIA ==========
+
+    private final String nome;
+    private final int nivel;
+
+    private Log(String nome, int nivel) {
+        this.nome = nome;
+        this.nivel = nivel;
+    }
+
+    /* ================================================================
+       CRIAÇÃO
+       ================================================================ */
+
+    /**
+     * Log da classe, com o nível do prefixo mais específico configurado.
+     */
+    public static Log para(Class<?> classe) {
+        String nomeCompleto = classe.getName();
+
+        Nivel escolhido = NIVEL_PADRAO;
+        int maiorPrefixo = -1;
+        for (Map.Entry<String, Nivel> entrada : NIVEIS.entrySet()) {
+            String prefixo = entrada.getKey();
+            boolean casa = nomeCompleto.equals(prefixo) || nomeCompleto.startsWith(prefixo + ".");
+            if (casa && prefixo.length() > maiorPrefixo) {
+                escolhido = entrada.getValue();
+                maiorPrefixo = prefixo.length();
+            }
+        }
+
+        return new Log(classe.getSimpleName(), escolhido.ordinal());
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    public boolean isDebug() {
+        return nivel <= Nivel.DEBUG.ordinal();
+    }
+
+    public boolean isInfo() {
+        return nivel <= Nivel.INFO.ordinal();
+    }
+
+    public void debug(String mensagem) {
+        if (isDebug()) registrar(Nivel.DEBUG, mensagem, null);
+    }
+
+    public void debug(String formato, Object arg) {
+        if (isDebug()) registrar(Nivel.DEBUG, formato, new Object[] { arg });
+    }
+
+    public void debug(String formato, Object arg1, Object arg2) {
+        if (isDebug()) registrar(Nivel.DEBUG, formato, new Object[] { arg1, arg2 });
+    }
+
+    public void debug(String formato, Object... args) {
+        if (isDebug()) registrar(Nivel.DEBUG, formato, args);
+    }
+
+    public void info(String mensagem) {
+        if (isInfo()) registrar(Nivel.INFO, mensagem, null);
+    }
+
+    public void info(String formato, Object arg) {
+        if (isInfo()) registrar(Nivel.INFO, formato, new Object[] { arg });
+    }
+
+    public void info(String formato, Object arg1, Object arg2) {
+        if (isInfo()) registrar(Nivel.INFO, formato, new Object[] { arg1, arg2 });
+    }
+
+    public void info(String formato, Object... args) {
+        if (isInfo()) registrar(Nivel.INFO, formato, args);
+    }
+
+    public void aviso(String mensagem) {
+        if (nivel <= Nivel.AVISO.ordinal()) registrar(Nivel.AVISO, mensagem, null);
+    }
+
+    public void aviso(String formato, Object arg) {
+        if (nivel <= Nivel.AVISO.ordinal()) registrar(Nivel.AVISO, formato, new Object[] { arg });
+    }
+
+    public void aviso(String formato, Object arg1, Object arg2) {
+        if (nivel <= Nivel.AVISO.ordinal()) registrar(Nivel.AVISO, formato, new Object[] { arg1, arg2 });
+    }
+
+    public void aviso(String formato, Object... args) {
+        if (nivel <= Nivel.AVISO.ordinal()) registrar(Nivel.AVISO, formato, args);
+    }
+
+    public void erro(String mensagem) {
+        registrar(Nivel.ERRO, mensagem, null);
+    }
+
+    public void erro(String formato, Object arg) {
+        registrar(Nivel.ERRO, formato, new Object[] { arg });
+    }
+
+    public void erro(String formato, Object arg1, Object arg2) {
+        registrar(Nivel.ERRO, formato, new Object[] { arg1, arg2 });
+    }
+
+    public void erro(String formato, Object... args) {
+        registrar(Nivel.ERRO, formato, args);
+    }
+
+    /* ================================================================
+       CORRELAÇÃO (id da requisição)
+       ================================================================ */
+
+    /** @return id da requisição desta thread ou null */
+    public static String getCorrelacao() {
+        return CORRELACAO.get();
+    }
+
+    /** Define (ou, com null, limpa) o id desta thread. */
+    public static void setCorrelacao(String id) {
+        if (id == null) {
+            CORRELACAO.remove();
+        } else {
+            CORRELACAO.set(id);
+        }
+    }
+
+    /* ================================================================
+       MONTAGEM DA LINHA (thread de quem chamou)
+       ================================================================ */
+
+    private void registrar(Nivel nivelLinha, String formato, Object[] args) {
+        Throwable erro = null;
+        String mensagem = formato;
+
+        if (args != null) {
+            int marcadores = contarMarcadores(formato);
+            if (args.length > marcadores && args[args.length - 1] instanceof Throwable) {
+                erro = (Throwable) args[args.length - 1];
+            }
+            mensagem = formatar(formato, args, marcadores);
+        }
+
+        StringBuilder sb = new StringBuilder(64 + mensagem.length());
+        sb.append(HORA.format(Instant.now())).append(' ');
+        sb.append(nivelLinha.name());
+        for (int i = nivelLinha.name().length(); i < 5; i++) {
+            sb.append(' ');
+        }
+        sb.append(' ');
+
+        String id = CORRELACAO.get();
+        sb.append('[').append(id != null ? id : Thread.currentThread().getName()).append("] ");
+        sb.append(nome).append(" - ").append(mensagem);
+
+        if (erro != null) {
+            StringWriter pilha = new StringWriter();
+            erro.printStackTrace(new PrintWriter(pilha));
+            sb.append(System.lineSeparator()).append(pilha.toString().stripTrailing());
+        }
+
+        Linha linha = new Linha(nivelLinha, sb.toString());
+
+        if (!ativo || !FILA.offer(linha)) {
+            if (nivelLinha.compareTo(Nivel.AVISO) >= 0) {
+                // Aviso e erro nunca se perdem: escreve direto
+                System.err.println(linha.texto);
+                ESCRITAS.incrementAndGet();
+            } else {
+                DESCARTADAS.incrementAndGet();
+            }
+        }
+    }
+
+    private static int contarMarcadores(String formato) {
+        int n = 0;
+        for (int i = formato.indexOf("{}"); i >= 0; i = formato.indexOf("{}", i + 2)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static String formatar(String formato, Object[] args, int marcadores) {
+        if (marcadores == 0) {
+            return formato;
+        }
+
+        StringBuilder sb = new StringBuilder(formato.length() + 16 * marcadores);
+        int inicio = 0;
+        int usados = 0;
+        int i;
+        while (usados < args.length && (i = formato.indexOf("{}", inicio)) >= 0) {
+            sb.append(formato, inicio, i).append(args[usados++]);
+            inicio = i + 2;
+        }
+        sb.append(formato, inicio, formato.length());
+        return sb.toString();
+    }
+
+    /* ================================================================
+       ESCRITA (thread mei-log)
+       ================================================================ */
+
+    private static void escrever() {
+        List<Linha> lote = new ArrayList<>(256);
+        StringBuilder saida = new StringBuilder(8192);
+        StringBuilder saidaErro = new StringBuilder(1024);
+
+        while (ativo || !FILA.isEmpty()) {
+            try {
+                Linha primeira = FILA.poll(500, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                FILA.drainTo(lote, 255);
+
+                for (Linha linha : lote) {
+                    StringBuilder destino = linha.nivel.compareTo(Nivel.AVISO) >= 0 ? saidaErro : saida;
+                    destino.append(linha.texto).append(System.lineSeparator());
+                }
+
+                // Um print por lote (e não por linha)
+                if (saida.length() > 0) {
+                    System.out.print(saida);
+                    System.out.flush();
+                }
+                if (saidaErro.length() > 0) {
+                    System.err.print(saidaErro);
+                    System.err.flush();
+                }
+                ESCRITAS.addAndGet(lote.size());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ativo = false;
+            } finally {
+                lote.clear();
+                saida.setLength(0);
+                saidaErro.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Escreve o que falta na fila e para a thread (desligamento do Tomcat).
+     */
+    public static void encerrar() {
+        ativo = false;
+        try {
+            ESCRITOR.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return linhas escritas, descartadas e aguardando na fila */
+    public static String getEstatisticas() {
+        return "escritas=" + ESCRITAS.get()
+                + ", descartadas=" + DESCARTADAS.get()
+                + ", naFila=" + FILA.size();
+    }
+
+    /* ================================================================
+       CONFIGURAÇÃO
+       ================================================================ */
+
+    /**
+     * Mesma regra de Conexao.config, sem depender dela: a Conexao
+     * também usa Log, e chamar Conexao aqui dispararia a inicialização
+     * dela (e do pool) no meio da inicialização do Log.
+     */
+    private static String config(String propriedade, String variavelAmbiente, String padrao) {
+        String valor = System.getProperty(propriedade);
+        if (valor == null || valor.isEmpty()) {
+            valor = System.getenv(variavelAmbiente);
+        }
+        return (valor == null || valor.isEmpty()) ? padrao : valor;
+    }
+
+    private static Nivel nivel(String texto, Nivel padrao) {
+        try {
+            return Nivel.valueOf(texto.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Nível de log desconhecido '" + texto + "', usando " + padrao);
+            return padrao;
+        }
+    }
+
+    private static Map<String, Nivel> lerNiveis(String texto) {
+        Map<String, Nivel> niveis = new LinkedHashMap<>();
+        for (String item : texto.split(",")) {
+            int igual = item.indexOf('=');
+            if (igual > 0) {
+                niveis.put(item.substring(0, igual).trim(), nivel(item.substring(igual + 1), NIVEL_PADRAO));
+            }
+        }
+        return niveis;
+    }
+
+    /**
+     * Linha pronta aguardando escrita.
+     */
+    private static final class Linha {
+        final Nivel nivel;
+        final String texto;
+
+        Linha(Nivel nivel, String texto) {
+            this.nivel = nivel;
+            this.texto = texto;
+        }
+    }
+}
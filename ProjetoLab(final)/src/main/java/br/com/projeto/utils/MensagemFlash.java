@@ -0,0 +1,121 @@
+package br.com.projeto.utils;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ================================================================
+ * MENSAGEM FLASH - Erro/sucesso entre um redirect e a próxima página
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Login e cadastro são páginas públicas. Guardar a mensagem na
+ * HttpSession obrigava a criar uma sessão (30 minutos de memória)
+ * para qualquer visitante, robô ou health check. Aqui a mensagem
+ * viaja num cookie curto e é apagada assim que a página a exibe.
+ * Com o login em token (FiltroAutenticacao), as páginas internas
+ * usam o mesmo caminho: nenhuma depende da HttpSession.
+ *
+ * FUNCIONAMENTO:
+ * - gravar(): cookie mei_erro / mei_sucesso, texto codificado em URL,
+ *   HttpOnly, SameSite=Lax, válido por VALIDADE_S segundos
+ * - consumir(): lê o cookie e manda o navegador apagá-lo (Max-Age=0)
+ * - gravar() seguido de forward (sem redirect): a página lê a
+ *   mensagem na mesma requisição e consumir() cancela o cookie
+ *
+ * CUIDADO:
+ * O texto vem do navegador: a página deve tratá-lo como entrada do
+ * usuário (só mensagens curtas, nunca HTML). consumir() descarta
+ * valores maiores que MAXIMO caracteres.
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ */
+public final class MensagemFlash {
+
+    public static final String ERRO = "erro";
+    public static final String SUCESSO = "sucesso";
+
+    private static final String PREFIXO = "mei_";
+    private static final int VALIDADE_S = 60;
+    private static final int MAXIMO = 500;
+
+    private MensagemFlash() {
+    }
+
+    /**
+     * Guarda a mensagem para a próxima página (antes do sendRedirect).
+     *
+     * @param tipo  ERRO ou SUCESSO
+     * @param texto Mensagem curta, sem HTML
+     */
+    public static void gravar(HttpServletRequest request, HttpServletResponse response, String tipo, String texto) {
+        Cookie cookie = novoCookie(request, tipo, URLEncoder.encode(texto, StandardCharsets.UTF_8));
+        cookie.setMaxAge(VALIDADE_S);
+        response.addCookie(cookie);
+
+        // Caso a requisição termine num forward em vez de redirect
+        request.setAttribute(PREFIXO + tipo, texto);
+    }
+
+    /**
+     * Lê e apaga a mensagem.
+     *
+     * @param tipo ERRO ou SUCESSO
+     * @return texto ou null se não há mensagem
+     */
+    public static String consumir(HttpServletRequest request, HttpServletResponse response, String tipo) {
+        // Gravada nesta mesma requisição: exibe agora e cancela o cookie
+        Object atual = request.getAttribute(PREFIXO + tipo);
+        if (atual != null) {
+            request.removeAttribute(PREFIXO + tipo);
+            apagar(request, response, tipo);
+            return atual.toString();
+        }
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+
+        for (Cookie cookie : cookies) {
+            if (!(PREFIXO + tipo).equals(cookie.getName())) {
+                continue;
+            }
+
+            apagar(request, response, tipo);
+
+            String valor = cookie.getValue();
+            if (valor == null || valor.isEmpty() || valor.length() > MAXIMO) {
+                return null;
+            }
+            try {
+                return URLDecoder.decode(valor, StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static void apagar(HttpServletRequest request, HttpServletResponse response, String tipo) {
+        Cookie cookie = novoCookie(request, tipo, "");
+        cookie.setMaxAge(0);
+        response.addCookie(cookie);
+    }
+
+    private static Cookie novoCookie(HttpServletRequest request, String tipo, String valor) {
+        Cookie cookie = new Cookie(PREFIXO + tipo, valor);
+        String contexto = request.getContextPath();
+        cookie.setPath(contexto.isEmpty() ? "/" : contexto);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+}
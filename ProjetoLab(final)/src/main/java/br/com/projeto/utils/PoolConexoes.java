@@ -0,0 +1,545 @@
+package br.com.projeto.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ================================================================
+ * POOL DE CONEXÕES - Reaproveitamento de conexões MySQL
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * Mantém um conjunto LIMITADO de conexões físicas abertas e as
+ * empresta aos controllers. Evita o custo de TCP + autenticação
+ * do MySQL a cada requisição.
+ *
+ * COMO FUNCIONA:
+ * - obter()  → pega uma conexão ociosa (ou abre uma nova, se houver vaga)
+ * - close()  → NÃO fecha a conexão física, devolve ao pool
+ *
+ * O código dos controllers não muda:
+ * <pre>
+ * try (Connection conn = Conexao.getConnection()) {
+ *     // usar conn
+ * } // close() devolve ao pool
+ * </pre>
+ *
+ * GARANTIAS:
+ * ✅ Limite máximo de conexões (Semaphore)
+ * ✅ Espera com timeout quando o pool está cheio
+ * ✅ Valida conexões ociosas há muito tempo (isValid)
+ * ✅ Fecha conexões ociosas além do tempo máximo
+ * ✅ Avisa sobre conexões emprestadas há tempo demais (suspeita de
+ *    vazamento); recuperá-las à força é opcional (recuperarAposMs)
+ * ✅ Estatísticas: ativas, ociosas, aguardando, tempo de espera
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see Conexao
+ */
+public class PoolConexoes {
+
+    private static final Log LOG = Log.para(PoolConexoes.class);
+
+    /* ================================================================
+       CONFIGURAÇÃO (recebida de Conexao)
+       ================================================================ */
+
+    private final String url;
+    private final String usuario;
+    private final String senha;
+
+    /** Número máximo de conexões físicas abertas ao mesmo tempo */
+    private final int tamanhoMaximo;
+
+    /** Tempo máximo de espera por uma conexão livre (ms) */
+    private final long timeoutEsperaMs;
+
+    /** Conexões ociosas há mais que isso são validadas antes do uso (ms) */
+    private final long validarAposMs;
+
+    /** Conexões ociosas há mais que isso são fechadas (ms) */
+    private final long ociosidadeMaximaMs;
+
+    /** Conexões emprestadas há mais que isso entram no log como suspeitas (ms) */
+    private final long timeoutVazamentoMs;
+
+    /**
+     * Conexões emprestadas há mais que isso são fechadas à força (ms).
+     * 0 = nunca: exportação para cliente lento, importação grande e a
+     * reconciliação podem segurar a conexão por muitos minutos.
+     */
+    private final long recuperarAposMs;
+
+    /* ================================================================
+       ESTADO DO POOL
+       ================================================================ */
+
+    /** Vagas disponíveis (uma por conexão que ainda pode ser emprestada) */
+    private final Semaphore vagas;
+
+    /** Conexões físicas livres (LIFO: a mais recente fica "quente") */
+    private final ConcurrentLinkedDeque<ConexaoFisica> ociosas = new ConcurrentLinkedDeque<>();
+
+    /** Empréstimos em andamento (um por proxy entregue) */
+    private final Map<Emprestimo, ConexaoFisica> emprestadas = new ConcurrentHashMap<>();
+
+    /** Tarefa periódica: limpa ociosas e vigia empréstimos longos */
+    private final ScheduledExecutorService manutencao;
+
+    private volatile boolean encerrado = false;
+
+    /* ================================================================
+       CONTADORES (estatísticas)
+       ================================================================ */
+
+    private final AtomicLong totalEmprestimos = new AtomicLong();
+    private final AtomicLong totalCriadas = new AtomicLong();
+    private final AtomicLong totalTimeouts = new AtomicLong();
+    private final AtomicLong totalVazamentos = new AtomicLong();
+    private final AtomicLong totalRecuperadas = new AtomicLong();
+    private final AtomicLong totalInvalidas = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+
+    /* ================================================================
+       CONSTRUTOR
+       ================================================================ */
+
+    public PoolConexoes(String url, String usuario, String senha,
+                        int tamanhoMaximo, long timeoutEsperaMs, long validarAposMs,
+                        long ociosidadeMaximaMs, long timeoutVazamentoMs, long recuperarAposMs) {
+
+        if (tamanhoMaximo < 1) {
+            throw new IllegalArgumentException("Tamanho do pool deve ser >= 1: " + tamanhoMaximo);
+        }
+
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.timeoutEsperaMs = timeoutEsperaMs;
+        this.validarAposMs = validarAposMs;
+        this.ociosidadeMaximaMs = ociosidadeMaximaMs;
+        this.timeoutVazamentoMs = timeoutVazamentoMs;
+        this.recuperarAposMs = recuperarAposMs;
+
+        // fair = true: quem espera há mais tempo é atendido primeiro
+        this.vagas = new Semaphore(tamanhoMaximo, true);
+
+        // ========== THREAD DE MANUTENÇÃO ==========
+        // Daemon: não impede o Tomcat de desligar
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mei-pool-manutencao");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long intervalo = Math.max(1000, Math.min(ociosidadeMaximaMs, timeoutVazamentoMs) / 2);
+        manutencao.scheduleWithFixedDelay(this::executarManutencao,
+                intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /* ================================================================
+       MÉTODO: OBTER - Empresta uma conexão
+       ================================================================ */
+
+    /**
+     * Empresta uma conexão do pool.
+     *
+     * Fluxo:
+     * 1. Aguarda uma vaga (até timeoutEsperaMs)
+     * 2. Reutiliza conexão ociosa (validando se estiver parada há muito tempo)
+     * 3. Se não houver ociosa válida, abre uma nova
+     *
+     * @return Connection cujo close() devolve ao pool
+     * @throws SQLException se o pool estiver esgotado ou o MySQL falhar
+     */
+    public Connection obter() throws SQLException {
+        return obter(timeoutEsperaMs);
+    }
+
+    /**
+     * Como obter(), mas espera por uma vaga no máximo esperaMaxMs
+     * (nunca mais que timeoutEsperaMs). Para quem já tem um prazo
+     * próprio, ex.: ConsultasParalelas.
+     */
+    public Connection obter(long esperaMaxMs) throws SQLException {
+        if (encerrado) {
+            throw new SQLException("Pool de conexões encerrado");
+        }
+
+        // ========== STEP 1: AGUARDAR VAGA ==========
+        long esperaMs = Math.max(0, Math.min(esperaMaxMs, timeoutEsperaMs));
+        long inicio = System.nanoTime();
+        boolean conseguiu;
+
+        try {
+            conseguiu = vagas.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool", e);
+        }
+
+        long espera = System.nanoTime() - inicio;
+        esperaTotalNanos.addAndGet(espera);
+        esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+
+        if (!conseguiu) {
+            totalTimeouts.incrementAndGet();
+            throw new SQLException("Pool de conexões esgotado: nenhuma conexão livre em "
+                    + esperaMs + "ms (" + getEstatisticas() + ")");
+        }
+
+        // ========== STEP 2/3: REUTILIZAR OU CRIAR ==========
+        try {
+            ConexaoFisica fisica = proximaOciosaValida();
+
+            if (fisica == null) {
+                fisica = new ConexaoFisica(DriverManager.getConnection(url, usuario, senha));
+                totalCriadas.incrementAndGet();
+            }
+
+            Emprestimo emprestimo = new Emprestimo(fisica);
+            emprestadas.put(emprestimo, fisica);
+            totalEmprestimos.incrementAndGet();
+
+            return emprestimo.criarProxy();
+
+        } catch (SQLException | RuntimeException e) {
+            // Falhou ao abrir: libera a vaga para não "perder" capacidade
+            vagas.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Retira conexões ociosas até achar uma utilizável.
+     * Conexões paradas há mais de validarAposMs passam por isValid().
+     */
+    private ConexaoFisica proximaOciosaValida() {
+        ConexaoFisica fisica;
+
+        while ((fisica = ociosas.pollFirst()) != null) {
+            long parada = System.currentTimeMillis() - fisica.devolvidaEm;
+
+            if (parada < validarAposMs) {
+                return fisica;
+            }
+
+            try {
+                if (fisica.real.isValid(2)) {
+                    return fisica;
+                }
+            } catch (SQLException e) {
+                // cai no descarte abaixo
+            }
+
+            totalInvalidas.incrementAndGet();
+            fecharSilenciosamente(fisica);
+        }
+
+        return null;
+    }
+
+    /* ================================================================
+       MÉTODO: DEVOLVER - Chamado pelo close() do proxy
+       ================================================================ */
+
+    private void devolver(Emprestimo emprestimo) {
+        // Já foi recuperada à força (recuperarAposMs): nada a fazer
+        ConexaoFisica fisica = emprestadas.remove(emprestimo);
+        if (fisica == null) {
+            return;
+        }
+
+        boolean reutilizavel = !encerrado;
+
+        // ========== RESTAURAR ESTADO PADRÃO ==========
+        // DAOs mexem em autoCommit; a próxima requisição espera o padrão
+        try {
+            if (fisica.real.isClosed()) {
+                reutilizavel = false;
+            } else if (!fisica.real.getAutoCommit()) {
+                fisica.real.rollback();
+                fisica.real.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reutilizavel = false;
+        }
+
+        if (reutilizavel) {
+            fisica.devolvidaEm = System.currentTimeMillis();
+            ociosas.offerFirst(fisica);
+        } else {
+            fecharSilenciosamente(fisica);
+        }
+
+        vagas.release();
+    }
+
+    /* ================================================================
+       MANUTENÇÃO PERIÓDICA
+       ================================================================
+
+       1. Fecha conexões ociosas há mais de ociosidadeMaximaMs
+       2. Empréstimo há mais de timeoutVazamentoMs → aviso no log (uma
+          vez por empréstimo) e conta como vazamento suspeito
+       3. Só com recuperarAposMs > 0: empréstimo há mais que isso tem a
+          conexão física fechada e a vaga volta para o pool (corta quem
+          ainda estiver usando; usar um limite bem acima do uso legítimo)
+    */
+
+    private void executarManutencao() {
+        long agora = System.currentTimeMillis();
+
+        // ========== 1. OCIOSAS EXPIRADAS ==========
+        for (ConexaoFisica fisica : ociosas) {
+            if (agora - fisica.devolvidaEm > ociosidadeMaximaMs && ociosas.remove(fisica)) {
+                fecharSilenciosamente(fisica);
+            }
+        }
+
+        for (Emprestimo emprestimo : emprestadas.keySet()) {
+            long emUso = agora - emprestimo.emprestadoEm;
+
+            // ========== 2. SUSPEITA DE VAZAMENTO (só avisa) ==========
+            if (emUso > timeoutVazamentoMs && !emprestimo.suspeito) {
+                emprestimo.suspeito = true;
+                totalVazamentos.incrementAndGet();
+                LOG.aviso("⚠️ Pool: conexão emprestada há {}ms sem close() (vazamento?)", emUso);
+            }
+
+            // ========== 3. RECUPERAÇÃO FORÇADA (opcional) ==========
+            if (recuperarAposMs <= 0 || emUso <= recuperarAposMs) {
+                continue;
+            }
+
+            ConexaoFisica fisica = emprestadas.remove(emprestimo);
+            if (fisica != null) {
+                totalRecuperadas.incrementAndGet();
+                LOG.aviso("⚠️ Pool: conexão emprestada há {}ms, fechando à força", emUso);
+
+                emprestimo.devolvido.set(true);
+                fecharSilenciosamente(fisica);
+                vagas.release();
+            }
+        }
+    }
+
+    /* ================================================================
+       ENCERRAMENTO
+       ================================================================ */
+
+    /**
+     * Fecha todas as conexões e para a manutenção.
+     * Chamado quando a aplicação é desligada.
+     */
+    public void encerrar() {
+        encerrado = true;
+        manutencao.shutdownNow();
+
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            fecharSilenciosamente(fisica);
+        }
+
+        for (ConexaoFisica emprestada : emprestadas.values()) {
+            fecharSilenciosamente(emprestada);
+        }
+        emprestadas.clear();
+    }
+
+    private void fecharSilenciosamente(ConexaoFisica fisica) {
+        try {
+            fisica.real.close();
+        } catch (SQLException e) {
+            // conexão já estava quebrada, ignorar
+        }
+    }
+
+    /* ================================================================
+       ESTATÍSTICAS
+       ================================================================ */
+
+    /**
+     * Retorna um retrato instantâneo do pool.
+     *
+     * @return Estatisticas (ativas, ociosas, aguardando, espera média...)
+     */
+    public Estatisticas getEstatisticas() {
+        return new Estatisticas(
+                emprestadas.size(),
+                ociosas.size(),
+                vagas.getQueueLength(),
+                tamanhoMaximo,
+                totalEmprestimos.get(),
+                totalCriadas.get(),
+                totalTimeouts.get(),
+                totalVazamentos.get(),
+                totalRecuperadas.get(),
+                totalInvalidas.get(),
+                esperaTotalNanos.get(),
+                esperaMaximaNanos.get()
+        );
+    }
+
+    /**
+     * Retrato imutável das estatísticas do pool.
+     */
+    public static final class Estatisticas {
+        private final int ativas;
+        private final int ociosas;
+        private final int aguardando;
+        private final int tamanhoMaximo;
+        private final long totalEmprestimos;
+        private final long totalCriadas;
+        private final long totalTimeouts;
+        private final long totalVazamentos;
+        private final long totalRecuperadas;
+        private final long totalInvalidas;
+        private final long esperaTotalNanos;
+        private final long esperaMaximaNanos;
+
+        Estatisticas(int ativas, int ociosas, int aguardando, int tamanhoMaximo,
+                     long totalEmprestimos, long totalCriadas, long totalTimeouts,
+                     long totalVazamentos, long totalRecuperadas, long totalInvalidas,
+                     long esperaTotalNanos, long esperaMaximaNanos) {
+            this.ativas = ativas;
+            this.ociosas = ociosas;
+            this.aguardando = aguardando;
+            this.tamanhoMaximo = tamanhoMaximo;
+            this.totalEmprestimos = totalEmprestimos;
+            this.totalCriadas = totalCriadas;
+            this.totalTimeouts = totalTimeouts;
+            this.totalVazamentos = totalVazamentos;
+            this.totalRecuperadas = totalRecuperadas;
+            this.totalInvalidas = totalInvalidas;
+            this.esperaTotalNanos = esperaTotalNanos;
+            this.esperaMaximaNanos = esperaMaximaNanos;
+        }
+
+        public int getAtivas() { return ativas; }
+        public int getOciosas() { return ociosas; }
+        public int getAguardando() { return aguardando; }
+        public int getTamanhoMaximo() { return tamanhoMaximo; }
+        public long getTotalEmprestimos() { return totalEmprestimos; }
+        public long getTotalCriadas() { return totalCriadas; }
+        public long getTotalTimeouts() { return totalTimeouts; }
+        public long getTotalVazamentos() { return totalVazamentos; }
+        public long getTotalRecuperadas() { return totalRecuperadas; }
+        public long getTotalInvalidas() { return totalInvalidas; }
+
+        /** Tempo médio de espera por conexão (ms) */
+        public double getEsperaMediaMs() {
+            long tentativas = totalEmprestimos + totalTimeouts;
+            return tentativas == 0 ? 0 : esperaTotalNanos / 1_000_000.0 / tentativas;
+        }
+
+        /** Maior espera observada (ms) */
+        public double getEsperaMaximaMs() {
+            return esperaMaximaNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ativas=%d ociosas=%d aguardando=%d max=%d "
+                            + "emprestimos=%d criadas=%d timeouts=%d vazamentos=%d recuperadas=%d invalidas=%d "
+                            + "esperaMedia=%.2fms esperaMax=%.2fms",
+                    ativas, ociosas, aguardando, tamanhoMaximo,
+                    totalEmprestimos, totalCriadas, totalTimeouts, totalVazamentos, totalRecuperadas, totalInvalidas,
+                    getEsperaMediaMs(), getEsperaMaximaMs());
+        }
+    }
+
+    /* ================================================================
+       CONEXÃO FÍSICA + EMPRÉSTIMO (PROXY)
+       ================================================================
+
+       ConexaoFisica: a conexão MySQL real, reaproveitada entre requisições.
+       Emprestimo:    um proxy novo a cada obter(). Repassa tudo para a
+                      conexão real, EXCETO:
+                      - close()    → devolve ao pool
+                      - isClosed() → true depois de devolvida
+                      Qualquer outro uso após close() lança SQLException.
+
+       Um proxy antigo nunca consegue mexer no empréstimo seguinte
+       da mesma conexão física.
+    */
+
+    private static final class ConexaoFisica {
+        final Connection real;
+        volatile long devolvidaEm = System.currentTimeMillis();
+
+        ConexaoFisica(Connection real) {
+            this.real = real;
+        }
+    }
+
+    private final class Emprestimo implements InvocationHandler {
+        final ConexaoFisica fisica;
+        final long emprestadoEm = System.currentTimeMillis();
+        final AtomicBoolean devolvido = new AtomicBoolean(false);
+
+        /** Já avisado como vazamento suspeito (só a manutenção escreve) */
+        volatile boolean suspeito;
+
+        Emprestimo(ConexaoFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        Connection criarProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+
+            if ("close".equals(nome)) {
+                if (devolvido.compareAndSet(false, true)) {
+                    devolver(this);
+                }
+                return null;
+            }
+            if ("isClosed".equals(nome)) {
+                return devolvido.get() || fisica.real.isClosed();
+            }
+            if ("equals".equals(nome)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(nome)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(nome)) {
+                return "ConexaoPool[" + fisica.real + "]";
+            }
+            if (devolvido.get()) {
+                throw new SQLException("Conexão já devolvida ao pool");
+            }
+
+            try {
+                return method.invoke(fisica.real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
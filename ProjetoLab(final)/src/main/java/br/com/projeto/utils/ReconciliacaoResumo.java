@@ -0,0 +1,160 @@
+package br.com.projeto.utils;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.projeto.dao.VendasDAO;
+
+/**
+ * ================================================================
+ * RECONCILIAÇÃO DO RESUMO MENSAL - vendas_resumo_mensal x vendas
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O VendasDAO mantém vendas_resumo_mensal na mesma transação de cada
+ * venda, mas qualquer escrita fora dele (UPDATE manual no banco,
+ * script de migração, restauração de backup) deixa o resumo errado
+ * — e o dashboard e o relatório anual leem só o resumo.
+ *
+ * FUNCIONAMENTO:
+ * - A cada INTERVALO_HORAS, para cada usuário com vendas ou resumo:
+ *   VendasDAO.verificarResumo() compara as duas tabelas numa consulta
+ * - Divergiu → VendasDAO.reconstruirResumo() refaz o resumo dele
+ * - Uma conexão do pool por usuário (a rodada não prende o pool)
+ * - Os PDFs anuais em cache não precisam ser invalidados: a versão
+ *   deles são os próprios totais lidos do resumo
+ *
+ * EXECUÇÃO MANUAL:
+ * executar() roda uma rodada na hora (ex.: depois de uma migração).
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.resumo.intervaloHoras / RESUMO_INTERVALO_HORAS → 24 (0 = desligado)
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see VendasDAO#verificarResumo(int)
+ * @see VendasDAO#reconstruirResumo(int)
+ */
+public final class ReconciliacaoResumo {
+
+    private static final Log LOG = Log.para(ReconciliacaoResumo.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final long INTERVALO_HORAS =
+            Long.parseLong(Conexao.config("mei.resumo.intervaloHoras", "RESUMO_INTERVALO_HORAS", "24"));
+
+    /** Primeira rodada alguns minutos após subir (não disputa com o deploy) */
+    private static final long ATRASO_INICIAL_MIN = 10;
+
+    // ========== ESTADO ==========
+
+    private static ScheduledExecutorService agendador;
+
+    // ========== MÉTRICAS ==========
+
+    private static final AtomicLong RODADAS = new AtomicLong();
+    private static final AtomicLong USUARIOS_VERIFICADOS = new AtomicLong();
+    private static final AtomicLong USUARIOS_RECONSTRUIDOS = new AtomicLong();
+
+    private ReconciliacaoResumo() {
+    }
+
+    /* ================================================================
+       CICLO DE VIDA (ConexaoListener)
+       ================================================================ */
+
+    /**
+     * Agenda as rodadas periódicas (nada acontece se INTERVALO_HORAS = 0).
+     */
+    public static synchronized void iniciar() {
+        if (agendador != null || INTERVALO_HORAS <= 0) {
+            return;
+        }
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mei-resumo-reconciliacao");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(ReconciliacaoResumo::executar,
+                ATRASO_INICIAL_MIN, TimeUnit.HOURS.toMinutes(INTERVALO_HORAS), TimeUnit.MINUTES);
+
+        LOG.info("✅ Reconciliação do resumo mensal agendada a cada {}h", INTERVALO_HORAS);
+    }
+
+    public static synchronized void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    /* ================================================================
+       RODADA
+       ================================================================ */
+
+    /**
+     * Verifica todos os usuários e reconstrói quem divergir.
+     * Erro em um usuário não interrompe os demais.
+     *
+     * @return quantidade de usuários reconstruídos
+     */
+    public static int executar() {
+        long inicio = System.currentTimeMillis();
+        int verificados = 0;
+        int reconstruidos = 0;
+
+
+        try {
+            List<Integer> usuarios;
+            try (Connection conexao = Conexao.getConnection()) {
+                usuarios = new VendasDAO(conexao).listarUsuariosDoResumo();
+            }
+
+            for (int usuarioId : usuarios) {
+                try (Connection conexao = Conexao.getConnection()) {
+                    VendasDAO vendasDAO = new VendasDAO(conexao);
+                    verificados++;
+
+                    int divergencias = vendasDAO.verificarResumo(usuarioId);
+                    if (divergencias > 0) {
+                        int linhas = vendasDAO.reconstruirResumo(usuarioId);
+                        reconstruidos++;
+                        LOG.aviso("🔧 Resumo do usuário {} reconstruído: {} divergências, {} linhas",
+                                usuarioId, divergencias, linhas);
+                    }
+                } catch (Exception e) {
+                    LOG.erro("❌ Erro ao reconciliar usuário {}", usuarioId, e);
+                }
+            }
+
+        } catch (Exception e) {
+            LOG.erro("❌ Erro na reconciliação do resumo", e);
+        }
+
+        RODADAS.incrementAndGet();
+        USUARIOS_VERIFICADOS.addAndGet(verificados);
+        USUARIOS_RECONSTRUIDOS.addAndGet(reconstruidos);
+
+        LOG.info("✅ Reconciliação do resumo mensal: usuários verificados: {}, reconstruídos: {} ({} ms)",
+                verificados, reconstruidos, (System.currentTimeMillis() - inicio));
+        return reconstruidos;
+    }
+
+    public static long getRodadas() {
+        return RODADAS.get();
+    }
+
+    public static long getUsuariosVerificados() {
+        return USUARIOS_VERIFICADOS.get();
+    }
+
+    public static long getUsuariosReconstruidos() {
+        return USUARIOS_RECONSTRUIDOS.get();
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.projeto.utils;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.List;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 
+import br.com.projeto.model.Categoria;
 import br.com.projeto.model.Usuario;
 import br.com.projeto.model.Vendas;
 
@@ -26,11 +28,22 @@ import br.com.projeto.model.Vendas;
  * - Subtotais (III, VI, IX)
  * - Total geral (X)
  * - Campos de assinatura
- * - SEM detalhamento de vendas
+ * - Detalhamento de vendas opcional (lista null = sem a página)
  *
  * BIBLIOTECA: iText 5.x (com.itextpdf)
  * FORMATO: PDF A4 (210x297mm)
  *
+ * SAÍDA:
+ * - gerarRelatorio(..., OutputStream): escreve direto no destino
+ *   (arquivo, response). O detalhamento usa "large table" do iText:
+ *   a cada LINHAS_POR_BLOCO vendas as páginas prontas vão para o
+ *   stream e saem da memória.
+ * - gerarRelatorio(...): mesma coisa, devolvendo byte[]
+ *
+ * RELATÓRIO ANUAL (DASN-SIMEI):
+ * gerarRelatorioAnual() monta o resumo do ano só com os 12 x 8 totais
+ * de VendasDAO.totaisAnuaisPorSecao() — nenhuma venda individual.
+ *
  * @author Sistema MEI
  * @version 3.0 (Formato Oficial RF)
  */
@@ -43,6 +56,12 @@ public class RelatorioPDF {
     private static final Font NEGRITO = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
     private static final Font PEQUENO = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL);
 
+    /** Linhas do detalhamento acumuladas antes de descarregar a tabela no documento */
+    private static final int LINHAS_POR_BLOCO = 100;
+
+    private static final String[] MESES = {"", "Janeiro", "Fevereiro", "Março", "Abril", "Maio", "Junho",
+            "Julho", "Agosto", "Setembro", "Outubro", "Novembro", "Dezembro"};
+
     // ========== FORMATADORES ==========
     private DecimalFormat moeda = new DecimalFormat("R$ #,##0.00");
     private SimpleDateFormat dataFormat = new SimpleDateFormat("dd/MM/yyyy");
@@ -65,6 +84,10 @@ public class RelatorioPDF {
      * [6] XI   - Outro sem NF
      * [7] XII  - Outro com NF
      *
+     * Com as vendas já no banco, prefira VendasDAO.calcularTotaisPorSecao(),
+     * que devolve o mesmo array via GROUP BY sem carregar as vendas.
+     * Este método serve para listas montadas em memória.
+     *
      * @param vendas Lista de vendas do mês
      * @return Array com 8 valores (I, II, IV, V, VII, VIII, XI, XII)
      */
@@ -72,26 +95,15 @@ public class RelatorioPDF {
         double[] totais = new double[8];
 
         for (Vendas v : vendas) {
-            String categoria = v.getNomeCategoria().toLowerCase();
             boolean comNF = "S".equalsIgnoreCase(v.getNotaFiscalEmitida());
-            double valor = v.getValor();
 
-            // I/II - Revenda de Mercadorias
-            if (categoria.contains("revenda") || categoria.contains("mercadoria")) {
-                totais[comNF ? 1 : 0] += valor;
-            }
-            // IV/V - Produtos Industrializados
-            else if (categoria.contains("industrial") || categoria.contains("produto")) {
-                totais[comNF ? 3 : 2] += valor;
-            }
-            // VII/VIII - Prestação de Serviços
-            else if (categoria.contains("servi")) {
-                totais[comNF ? 5 : 4] += valor;
-            }
-            // XI/XII - Outro
-            else {
-                totais[comNF ? 7 : 6] += valor;
-            }
+            // Seção da categoria (sem seção gravada: sugerida pelo nome)
+            Categoria.SecaoFiscal secao = v.getCategoria() != null
+                    ? v.getCategoria().getSecaoFiscal()
+                    : Categoria.SecaoFiscal.OUTRO;
+
+            // I/II, IV/V, VII/VIII, XI/XII
+            totais[secao.getCodigo() * 2 + (comNF ? 1 : 0)] += v.getValor();
         }
 
         return totais;
@@ -119,25 +131,43 @@ public class RelatorioPDF {
      * @param usuario MEI
      * @param mes Mês (1-12)
      * @param ano Ano (ex: 2026)
-     * @param vendas Lista de vendas
-     * @param totais Array de calcularTotais()
+     * @param vendas Lista de vendas (null = sem página de detalhamento)
+     * @param totais Array de calcularTotais() ou VendasDAO.calcularTotaisPorSecao()
      * @return byte[] do PDF
      * @throws Exception se erro ao gerar
+     * @see #gerarRelatorio(Usuario, int, int, List, double[], OutputStream)
      */
     public byte[] gerarRelatorio(Usuario usuario, int mes, int ano,
                                  List<Vendas> vendas, double[] totais) throws Exception {
 
-        // Criar documento em memória
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        gerarRelatorio(usuario, mes, ano, vendas, totais, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Gera o relatório escrevendo direto no stream informado.
+     *
+     * As páginas são enviadas ao stream conforme ficam prontas, então
+     * o PDF inteiro nunca fica em memória (importante para meses com
+     * milhares de vendas no detalhamento).
+     *
+     * @param saida Destino do PDF (não é fechado, só descarregado)
+     * @throws Exception se erro ao gerar
+     */
+    public void gerarRelatorio(Usuario usuario, int mes, int ano,
+                               List<Vendas> vendas, double[] totais, OutputStream saida) throws Exception {
+
         Document documento = new Document(PageSize.A4, 40, 40, 50, 50);
-        PdfWriter.getInstance(documento, baos);
+        PdfWriter writer = PdfWriter.getInstance(documento, saida);
+        writer.setCloseStream(false);   // quem abriu o stream é quem fecha
         documento.open();
 
         // 1. TÍTULO PRINCIPAL
         adicionarTitulo(documento);
 
         // 2. CABEÇALHO (CNPJ, Nome, Período)
-        adicionarCabecalho(documento, usuario, mes, ano);
+        adicionarCabecalho(documento, usuario, "Período de apuração: " + MESES[mes] + "/" + ano);
 
         // 3. SEÇÃO REVENDA DE MERCADORIAS
         adicionarSecaoRevenda(documento, totais);
@@ -164,7 +194,162 @@ public class RelatorioPDF {
         adicionarDetalhamentoVendas(documento, vendas);
 
         documento.close();
-        return baos.toByteArray();
+        saida.flush();
+    }
+
+    /**
+     * ================================================================
+     * GERAR RELATÓRIO ANUAL (DASN-SIMEI)
+     * ================================================================
+     *
+     * Resumo do ano-calendário para a Declaração Anual do MEI, montado
+     * só com os totais já agregados pelo banco.
+     *
+     * ESTRUTURA:
+     * 1. Título: RELATÓRIO ANUAL DAS RECEITAS BRUTAS
+     * 2. Cabeçalho: CNPJ, Nome, Ano-calendário
+     * 3. Tabela mês a mês (III, VI, IX, XIII, com NF, XIV)
+     * 4. Valores para a DASN-SIMEI (comércio/indústria, serviços, total)
+     * 5. Campos de assinatura + observação
+     *
+     * @param usuario        MEI
+     * @param ano            Ano-calendário
+     * @param totaisMensais  double[12][8] de VendasDAO.totaisAnuaisPorSecao()
+     * @param saida          Destino do PDF (não é fechado, só descarregado)
+     * @throws Exception se erro ao gerar
+     */
+    public void gerarRelatorioAnual(Usuario usuario, int ano, double[][] totaisMensais,
+                                    OutputStream saida) throws Exception {
+
+        Document documento = new Document(PageSize.A4, 40, 40, 50, 50);
+        PdfWriter writer = PdfWriter.getInstance(documento, saida);
+        writer.setCloseStream(false);
+        documento.open();
+
+        // 1. TÍTULO
+        Paragraph titulo = new Paragraph("RELATÓRIO ANUAL DAS RECEITAS BRUTAS", TITULO);
+        titulo.setAlignment(Element.ALIGN_CENTER);
+        titulo.setSpacingAfter(5);
+        documento.add(titulo);
+
+        Paragraph subtitulo = new Paragraph("Base para a DASN-SIMEI", NORMAL);
+        subtitulo.setAlignment(Element.ALIGN_CENTER);
+        subtitulo.setSpacingAfter(20);
+        documento.add(subtitulo);
+
+        // 2. CABEÇALHO
+        adicionarCabecalho(documento, usuario, "Ano-calendário: " + ano);
+
+        // 3. MÊS A MÊS  +  4. VALORES DA DECLARAÇÃO
+        double[] totaisAno = adicionarTabelaMensal(documento, totaisMensais);
+        adicionarResumoDasn(documento, totaisAno);
+
+        // 5. ASSINATURA E OBSERVAÇÃO
+        adicionarCamposAssinatura(documento);
+        adicionarObservacao(documento);
+
+        documento.close();
+        saida.flush();
+    }
+
+    /**
+     * Tabela com uma linha por mês e a linha TOTAL.
+     *
+     * Colunas: [Mês] [Revenda III] [Indústria VI] [Serviços IX] [Outro XIII] [Com NF] [Total XIV]
+     *
+     * @return Soma do ano nas 8 posições de calcularTotais()
+     */
+    private double[] adicionarTabelaMensal(Document doc, double[][] totaisMensais) throws DocumentException {
+        Paragraph titulo = new Paragraph("RECEITA BRUTA POR MÊS", SUBTITULO);
+        titulo.setSpacingAfter(10);
+        doc.add(titulo);
+
+        PdfPTable tabela = new PdfPTable(7);
+        tabela.setWidthPercentage(100);
+        tabela.setWidths(new float[]{13, 15, 15, 15, 13, 14, 15});
+        tabela.setHeaderRows(1);
+
+        adicionarCelulaHeader(tabela, "Mês");
+        adicionarCelulaHeader(tabela, "Revenda (III)");
+        adicionarCelulaHeader(tabela, "Indústria (VI)");
+        adicionarCelulaHeader(tabela, "Serviços (IX)");
+        adicionarCelulaHeader(tabela, "Outro (XIII)");
+        adicionarCelulaHeader(tabela, "Com NF");
+        adicionarCelulaHeader(tabela, "Total (XIV)");
+
+        double[] totaisAno = new double[8];
+
+        for (int m = 0; m < 12; m++) {
+            double[] t = totaisMensais[m];
+            for (int i = 0; i < 8; i++) {
+                totaisAno[i] += t[i];
+            }
+            adicionarLinhaMensal(tabela, MESES[m + 1], t, PEQUENO, null);
+        }
+
+        adicionarLinhaMensal(tabela, "TOTAL", totaisAno, NEGRITO, new BaseColor(220, 220, 220));
+
+        doc.add(tabela);
+        doc.add(new Paragraph("\n"));
+        return totaisAno;
+    }
+
+    /**
+     * Uma linha da tabela mensal (subtotais III, VI, IX, XIII, NF e XIV).
+     */
+    private void adicionarLinhaMensal(PdfPTable tabela, String rotulo, double[] t, Font fonte, BaseColor fundo) {
+        double comNF = t[1] + t[3] + t[5] + t[7];
+        double[] colunas = {
+                t[0] + t[1],    // III
+                t[2] + t[3],    // VI
+                t[4] + t[5],    // IX
+                t[6] + t[7],    // XIII
+                comNF,
+                t[0] + t[1] + t[2] + t[3] + t[4] + t[5] + t[6] + t[7]   // XIV
+        };
+
+        PdfPCell celulaRotulo = new PdfPCell(new Phrase(rotulo, fonte));
+        celulaRotulo.setPadding(5);
+        if (fundo != null) celulaRotulo.setBackgroundColor(fundo);
+        tabela.addCell(celulaRotulo);
+
+        for (double valor : colunas) {
+            PdfPCell celula = new PdfPCell(new Phrase(moeda.format(valor), fonte));
+            celula.setPadding(5);
+            celula.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            if (fundo != null) celula.setBackgroundColor(fundo);
+            tabela.addCell(celula);
+        }
+    }
+
+    /**
+     * Valores pedidos na DASN-SIMEI (receita de comércio/indústria,
+     * de serviços e total), com a separação por documento fiscal.
+     */
+    private void adicionarResumoDasn(Document doc, double[] t) throws DocumentException {
+        Paragraph titulo = new Paragraph("VALORES PARA A DECLARAÇÃO ANUAL (DASN-SIMEI)", SUBTITULO);
+        titulo.setSpacingAfter(10);
+        doc.add(titulo);
+
+        PdfPTable tabela = new PdfPTable(2);
+        tabela.setWidthPercentage(100);
+        tabela.setWidths(new float[]{75, 25});
+
+        double comercioIndustria = t[0] + t[1] + t[2] + t[3];   // III + VI
+        double servicos = t[4] + t[5];                          // IX
+        double outro = t[6] + t[7];                             // XIII
+        double comNF = t[1] + t[3] + t[5] + t[7];
+        double total = comercioIndustria + servicos + outro;
+
+        adicionarLinha(tabela, "Receita bruta de comércio e indústria (III + VI)", comercioIndustria);
+        adicionarLinha(tabela, "Receita bruta de prestação de serviços (IX)", servicos);
+        adicionarLinha(tabela, "Outras receitas (XIII)", outro);
+        adicionarLinha(tabela, "Receitas com documento fiscal emitido", comNF);
+        adicionarLinha(tabela, "Receitas com dispensa de emissão de documento fiscal", total - comNF);
+        adicionarLinhaSubtotal(tabela, "RECEITA BRUTA TOTAL DO ANO", total);
+
+        doc.add(tabela);
+        doc.add(new Paragraph("\n\n"));
     }
 
     /**
@@ -179,8 +364,10 @@ public class RelatorioPDF {
 
     /**
      * Adiciona cabeçalho com CNPJ, Nome e Período
+     *
+     * @param periodo Linha do período (mensal ou ano-calendário)
      */
-    private void adicionarCabecalho(Document doc, Usuario usuario, int mes, int ano)
+    private void adicionarCabecalho(Document doc, Usuario usuario, String periodo)
             throws DocumentException {
 
         // CNPJ (se houver)
@@ -196,11 +383,9 @@ public class RelatorioPDF {
         doc.add(nome);
 
         // Período de apuração
-        String[] meses = {"", "Janeiro", "Fevereiro", "Março", "Abril", "Maio", "Junho",
-                          "Julho", "Agosto", "Setembro", "Outubro", "Novembro", "Dezembro"};
-        Paragraph periodo = new Paragraph("Período de apuração: " + meses[mes] + "/" + ano, NORMAL);
-        periodo.setSpacingAfter(15);
-        doc.add(periodo);
+        Paragraph linhaPeriodo = new Paragraph(periodo, NORMAL);
+        linhaPeriodo.setSpacingAfter(15);
+        doc.add(linhaPeriodo);
     }
 
     /**
@@ -467,6 +652,12 @@ public class RelatorioPDF {
      *
      * IMPORTANTE: Se não houver vendas, a seção é omitida.
      *
+     * TABELA GRANDE:
+     * setComplete(false) + doc.add() a cada LINHAS_POR_BLOCO linhas:
+     * o iText desenha as linhas acumuladas, grava as páginas cheias no
+     * stream e esvazia a tabela. O cabeçalho (headerRows = 1) se repete
+     * em cada página.
+     *
      * @param doc    Documento PDF
      * @param vendas Lista de vendas do mês
      */
@@ -490,6 +681,8 @@ public class RelatorioPDF {
         PdfPTable tabela = new PdfPTable(6);
         tabela.setWidthPercentage(100);
         tabela.setWidths(new float[]{12, 22, 22, 8, 16, 20});
+        tabela.setHeaderRows(1);
+        tabela.setComplete(false);
 
         // ========== CABEÇALHO ==========
         adicionarCelulaHeader(tabela, "Data");
@@ -500,6 +693,7 @@ public class RelatorioPDF {
         adicionarCelulaHeader(tabela, "Valor");
 
         // ========== LINHAS (cada venda) ==========
+        int linhas = 0;
         for (Vendas v : vendas) {
 
             // ========== CONVERTER DATA ==========
@@ -535,8 +729,14 @@ public class RelatorioPDF {
                     new Phrase(moeda.format(v.getValor()), PEQUENO));
             celulaValor.setHorizontalAlignment(Element.ALIGN_RIGHT);
             tabela.addCell(celulaValor);
+
+            // ========== DESCARREGAR BLOCO ==========
+            if (++linhas % LINHAS_POR_BLOCO == 0) {
+                doc.add(tabela);
+            }
         }
 
+        tabela.setComplete(true);
         doc.add(tabela);
     }
 
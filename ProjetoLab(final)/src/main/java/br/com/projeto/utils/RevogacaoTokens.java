@@ -0,0 +1,214 @@
+package br.com.projeto.utils;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.projeto.dao.TokenRevogadoDAO;
+
+/**
+ * ================================================================
+ * REVOGAÇÃO DE TOKENS - Logout que vale em todos os nós
+ * ================================================================
+ *
+ * PROPÓSITO:
+ * O token de login (FiltroAutenticacao) é validado só pela
+ * assinatura, sem banco. Para o logout valer antes do token
+ * expirar, o id dele entra numa lista de revogados.
+ *
+ * FUNCIONAMENTO:
+ * - isRevogado(): consulta só a cópia em memória (nenhum acesso ao
+ *   banco por requisição)
+ * - revogar(): grava na memória na hora e na tabela token_revogado
+ * - revogarUsuario(): troca de senha; todo token do usuário emitido
+ *   antes do corte deixa de valer (linha "u:<id>" na mesma tabela,
+ *   revogado_em = corte)
+ * - A cada SYNC_MS, lê do banco as revogações feitas desde a última
+ *   leitura (com FOLGA_MS para relógios desalinhados entre nós):
+ *   logout feito em outro nó vale aqui em até SYNC_MS
+ * - Revogação expirada (o token já não passaria) sai da memória; a
+ *   cada hora o banco também é limpo
+ *
+ * CONFIGURAÇÃO (System property → variável de ambiente → padrão):
+ * - mei.auth.revogacaoSyncMs / AUTH_REVOGACAO_SYNC_MS → 5000
+ *
+ * @author Sistema MEI
+ * @version 1.0
+ * @see TokenRevogadoDAO
+ * @see FiltroAutenticacao
+ */
+public final class RevogacaoTokens {
+
+    private static final Log LOG = Log.para(RevogacaoTokens.class);
+
+    // ========== CONFIGURAÇÕES ==========
+
+    private static final long SYNC_MS =
+            Long.parseLong(Conexao.config("mei.auth.revogacaoSyncMs", "AUTH_REVOGACAO_SYNC_MS", "5000"));
+
+    private static final long FOLGA_MS = 60_000;
+
+    private static final long LIMPEZA_BANCO_MS = TimeUnit.HOURS.toMillis(1);
+
+    // ========== ESTADO ==========
+
+    /** id do token → expira_em (ms) */
+    private static final Map<String, Long> REVOGADOS = new ConcurrentHashMap<>();
+
+    /** id do usuário → corte (ms); vale enquanto "u:<id>" estiver em REVOGADOS */
+    private static final Map<Integer, Long> CORTES = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService agendador;
+
+    /** Acesso só pela thread do agendador (e por iniciar(), antes dele) */
+    private static long ultimaLeitura;
+    private static long ultimaLimpeza;
+    private static boolean falhando;
+
+    // ========== MÉTRICAS ==========
+
+    private static final AtomicLong REVOGACOES = new AtomicLong();
+    private static final AtomicLong SINCRONIZACOES = new AtomicLong();
+
+    private RevogacaoTokens() {
+    }
+
+    /* ================================================================
+       CICLO DE VIDA (ConexaoListener)
+       ================================================================ */
+
+    /**
+     * Carrega as revogações ainda válidas e agenda a sincronização.
+     */
+    public static synchronized void iniciar() {
+        if (agendador != null) {
+            return;
+        }
+
+        sincronizar();
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mei-auth-revogacao");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(RevogacaoTokens::sincronizar, SYNC_MS, SYNC_MS, TimeUnit.MILLISECONDS);
+
+        LOG.info("✅ Revogação de tokens: {} em memória, sincroniza a cada {} ms", REVOGADOS.size(), SYNC_MS);
+    }
+
+    public static synchronized void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    /* ================================================================
+       API
+       ================================================================ */
+
+    /**
+     * @return true se o token foi revogado (só memória)
+     */
+    public static boolean isRevogado(String idToken) {
+        return REVOGADOS.containsKey(idToken);
+    }
+
+    /**
+     * @return true se o usuário trocou a senha depois de emitido o
+     *         token (só memória)
+     */
+    public static boolean isRevogado(int usuarioId, long emitidoEm) {
+        Long corte = CORTES.get(usuarioId);
+        return corte != null && emitidoEm < corte;
+    }
+
+    /**
+     * Revoga o token neste nó na hora e, pelo banco, nos demais.
+     *
+     * @param expiraEm Depois disso o token já não passaria (ms)
+     */
+    public static void revogar(String idToken, int usuarioId, long expiraEm) {
+        REVOGADOS.merge(idToken, expiraEm, Math::max);
+        REVOGACOES.incrementAndGet();
+
+        try (Connection conexao = Conexao.getConnection()) {
+            new TokenRevogadoDAO(conexao).inserir(idToken, usuarioId, expiraEm);
+        } catch (Exception e) {
+            // Neste nó já vale; nos outros, só até o token expirar
+            LOG.erro("❌ Revogação do token do usuário {} não gravada no banco", usuarioId, e);
+        }
+    }
+
+    /**
+     * Troca de senha: revoga todo token do usuário emitido antes de
+     * corte, neste nó na hora e, pelo banco, nos demais.
+     *
+     * @param expiraEm Depois disso nenhum token anterior ao corte
+     *                 passaria (corte + idade máxima, ms)
+     */
+    public static void revogarUsuario(int usuarioId, long corte, long expiraEm) {
+        REVOGADOS.merge(TokenRevogadoDAO.ID_CORTE + usuarioId, expiraEm, Math::max);
+        CORTES.merge(usuarioId, corte, Math::max);
+        REVOGACOES.incrementAndGet();
+
+        try (Connection conexao = Conexao.getConnection()) {
+            new TokenRevogadoDAO(conexao).inserirCorte(usuarioId, corte, expiraEm);
+        } catch (Exception e) {
+            // Neste nó já vale; nos outros, só até os tokens expirarem
+            LOG.erro("❌ Revogação dos tokens do usuário {} não gravada no banco", usuarioId, e);
+        }
+    }
+
+    /** @return revogados em memória, revogações e sincronizações */
+    public static String getEstatisticas() {
+        return "emMemoria=" + REVOGADOS.size() + ", revogacoes=" + REVOGACOES.get()
+                + ", sincronizacoes=" + SINCRONIZACOES.get();
+    }
+
+    /* ================================================================
+       SINCRONIZAÇÃO
+       ================================================================ */
+
+    private static void sincronizar() {
+        long agora = System.currentTimeMillis();
+        long desde = ultimaLeitura == 0 ? 0 : ultimaLeitura - FOLGA_MS;
+
+        try (Connection conexao = Conexao.getConnection()) {
+            TokenRevogadoDAO dao = new TokenRevogadoDAO(conexao);
+
+            for (Map.Entry<String, Long> e : dao.listarDesde(desde).entrySet()) {
+                REVOGADOS.merge(e.getKey(), e.getValue(), Math::max);
+            }
+            for (Map.Entry<Integer, Long> e : dao.listarCortesDesde(desde).entrySet()) {
+                CORTES.merge(e.getKey(), e.getValue(), Math::max);
+            }
+            ultimaLeitura = agora;
+
+            if (agora - ultimaLimpeza >= LIMPEZA_BANCO_MS) {
+                dao.excluirExpirados(agora);
+                ultimaLimpeza = agora;
+            }
+
+            SINCRONIZACOES.incrementAndGet();
+            if (falhando) {
+                LOG.info("✅ Sincronização de revogações restabelecida");
+                falhando = false;
+            }
+        } catch (Exception e) {
+            // Uma linha por sequência de falhas (não a cada SYNC_MS)
+            if (!falhando) {
+                LOG.erro("❌ Sincronização de revogações falhou (tabela token_revogado existe?)", e);
+                falhando = true;
+            }
+        }
+
+        REVOGADOS.values().removeIf(expiraEm -> expiraEm <= agora);
+        CORTES.keySet().removeIf(usuarioId -> !REVOGADOS.containsKey(TokenRevogadoDAO.ID_CORTE + usuarioId));
+    }
+}
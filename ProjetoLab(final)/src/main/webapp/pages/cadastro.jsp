@@ -1,31 +1,36 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page session="false" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 
 <%
     /* ================================================================
-       VALIDAÇÃO DE SESSÃO E MENSAGENS
+       VALIDAÇÃO DE LOGIN E MENSAGENS
        ================================================================
 
-       1. Verifica se usuário já está logado
-       2. Busca mensagens de erro/sucesso da sessão
-       3. Remove mensagens após exibir (evita duplicação)
+       Página pública: session="false" → visitante anônimo (robô,
+       health check) não ganha uma HttpSession de 30 minutos.
+
+       1. Verifica se usuário já está logado (token, sem criar sessão)
+       2. Busca mensagens: atributo do request (forward) ou cookie
+          flash (redirect) - MensagemFlash apaga o cookie ao ler
     */
 
     // ========== VERIFICAR SE JÁ ESTÁ LOGADO ==========
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     if (usuario != null) {
         // Já está logado, redireciona para dashboard
-        response.sendRedirect("dashboard");
+        response.sendRedirect(request.getContextPath() + "/dashboard");
         return;
     }
 
     // ========== BUSCAR MENSAGENS ==========
-    String mensagemErro = (String) session.getAttribute("erro");
-    String mensagemSucesso = (String) session.getAttribute("sucesso");
-
-    // ========== REMOVER MENSAGENS (evita duplicação) ==========
-    session.removeAttribute("erro");
-    session.removeAttribute("sucesso");
+    String mensagemErro = (String) request.getAttribute("erro");
+    if (mensagemErro == null) {
+        mensagemErro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
+    }
+    String mensagemSucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
 %>
 
 <!DOCTYPE html>
@@ -407,7 +412,7 @@
             <% if (mensagemErro != null) { %>
                 <div class="alert alert-error">
                     <span class="alert-icon">❌</span>
-                    <span><%= mensagemErro %></span>
+                    <span><%= mensagemErro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
                 </div>
             <% } %>
 
@@ -415,7 +420,7 @@
             <% if (mensagemSucesso != null) { %>
                 <div class="alert alert-success">
                     <span class="alert-icon">✅</span>
-                    <span><%= mensagemSucesso %></span>
+                    <span><%= mensagemSucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
                 </div>
             <% } %>
 
@@ -603,8 +608,8 @@
      - Backend remove máscaras antes de salvar
 
      MENSAGENS:
-     - Erro: vem da sessão (setAttribute)
-     - Sucesso: vem da sessão (setAttribute)
+     - Erro: vem do request ou do cookie flash (MensagemFlash)
+     - Sucesso: vem do cookie flash (MensagemFlash)
      - Auto-remove após exibir
 
      DESIGN:
@@ -1,11 +1,14 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page session="false" %>
 <%@ page import="java.util.List" %>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
 <%@ page import="br.com.projeto.model.Categoria" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 
 <%
     // Obter dados que o Controller enviou
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     @SuppressWarnings("unchecked")
     List<Categoria> categorias = (List<Categoria>) request.getAttribute("categorias");
 
@@ -21,10 +24,8 @@
     }
 
     // Obter mensagens de erro/sucesso
-    String erro = (String) session.getAttribute("erro");
-    String sucesso = (String) session.getAttribute("sucesso");
-    if (erro != null) session.removeAttribute("erro");
-    if (sucesso != null) session.removeAttribute("sucesso");
+    String erro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
+    String sucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
 %>
 
 <!DOCTYPE html>
@@ -264,11 +265,11 @@
 
                 <!-- Mensagens -->
                 <% if (sucesso != null) { %>
-                    <div class="alert alert-success"><%= sucesso %></div>
+                    <div class="alert alert-success"><%= sucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></div>
                 <% } %>
 
                 <% if (erro != null) { %>
-                    <div class="alert alert-danger"><%= erro %></div>
+                    <div class="alert alert-danger"><%= erro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></div>
                 <% } %>
 
                 <!-- Info Box -->
@@ -1,13 +1,18 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page session="false" %>
 <%@ page import="java.util.List" %>
 <%@ page import="java.text.SimpleDateFormat" %>
 <%@ page import="java.text.DecimalFormat" %>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
 <%@ page import="br.com.projeto.model.Vendas" %>
 <%@ page import="br.com.projeto.model.Categoria" %>
+<%@ page import="br.com.projeto.model.SituacaoLimite" %>
+<%@ page import="br.com.projeto.utils.LimiteFaturamento" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 
 <%
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     if (usuario == null) {
         response.sendRedirect("login");
         return;
@@ -24,15 +29,18 @@
     Double totalMes = (Double) request.getAttribute("totalMes");
     if (totalMes == null) totalMes = 0.0;
 
-    String mensagemSucesso = (String) session.getAttribute("sucesso");
-    String mensagemErro = (String) session.getAttribute("erro");
-    session.removeAttribute("sucesso");
-    session.removeAttribute("erro");
+    String mensagemSucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
+    String mensagemErro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
+
+    // Alguma consulta do dashboard falhou ou passou do tempo (exibição parcial)
+    String avisoParcial = (String) request.getAttribute("avisoParcial");
 
     SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
     DecimalFormat df = new DecimalFormat("R$ #,##0.00");
 
-    double limiteMEI = 81000.00;
+    // Limite anual: acumulado do ano (não do mês) + previsão de estouro
+    SituacaoLimite limite = (SituacaoLimite) request.getAttribute("limite");
+    double limiteMEI = (limite != null) ? limite.getLimite() : LimiteFaturamento.getLimiteAnual();
     
     Integer totalVendasAttr = (Integer) request.getAttribute("totalVendas");
     int vendasRealizadas = (totalVendasAttr != null) ? totalVendasAttr : 0;
@@ -43,7 +51,9 @@
     int vendasAno = (vendasAnoAttr != null) ? vendasAnoAttr : 0;
     double totalAno = (totalAnoAttr != null) ? totalAnoAttr : 0.0;
     
-    double disponivel = limiteMEI - totalMes;
+    double faturadoAno = (limite != null) ? limite.getFaturado() : totalAno;
+    double disponivel = limiteMEI - faturadoAno;
+    double percentualLimite = limiteMEI > 0 ? Math.min(100.0, faturadoAno * 100.0 / limiteMEI) : 0;
 %>
 <!DOCTYPE html>
 <html lang="pt-BR">
@@ -218,6 +228,11 @@
             color: white;
         }
 
+        .alert-warning {
+            background-color: #f59e0b;
+            color: white;
+        }
+
         .dashboard-grid {
             display: grid;
             grid-template-columns: 1fr 1fr;
@@ -284,6 +299,33 @@
             color: #fca5a5 !important;
         }
 
+        .limite-barra {
+            height: 8px;
+            margin-top: 20px;
+            background-color: rgba(255, 255, 255, 0.15);
+            border-radius: 4px;
+            overflow: hidden;
+        }
+
+        .limite-barra-preenchida {
+            height: 100%;
+            background-color: #4ade80;
+        }
+
+        .limite-barra-preenchida.alerta {
+            background-color: #fbbf24;
+        }
+
+        .limite-barra-preenchida.estourado {
+            background-color: #f87171;
+        }
+
+        .limite-previsao {
+            margin-top: 10px;
+            font-size: 13px;
+            opacity: 0.9;
+        }
+
         .form-group {
             margin-bottom: 20px;
         }
@@ -514,14 +556,21 @@
                 <% if (mensagemSucesso != null) { %>
                     <div class="alert alert-success">
                         <span>✅</span>
-                        <span><%= mensagemSucesso %></span>
+                        <span><%= mensagemSucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
                     </div>
                 <% } %>
 
                 <% if (mensagemErro != null) { %>
                     <div class="alert alert-error">
                         <span>❌</span>
-                        <span><%= mensagemErro %></span>
+                        <span><%= mensagemErro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
+                    </div>
+                <% } %>
+
+                <% if (avisoParcial != null) { %>
+                    <div class="alert alert-warning">
+                        <span>⚠️</span>
+                        <span><%= avisoParcial %></span>
                     </div>
                 <% } %>
 
@@ -582,12 +631,12 @@
                             </div>
 
                             <div class="stat-item">
-                                <div class="stat-label">Limite MEI</div>
-                                <div class="stat-value">R$ 81.000</div>
+                                <div class="stat-label">Limite MEI (<%= String.format("%.0f", percentualLimite) %>% usado)</div>
+                                <div class="stat-value"><%= df.format(limiteMEI) %></div>
                             </div>
 
                             <div class="stat-item">
-                                <div class="stat-label">Disponível</div>
+                                <div class="stat-label">Disponível no Ano</div>
                                 <div class="stat-value <%= disponivel < 0 ? "text-danger" : "" %>">
                                     <%= disponivel < 0 ? "-" : "" %><%= df.format(Math.abs(disponivel)) %>
                                 </div>
@@ -603,6 +652,24 @@
                                 <div class="stat-value"><%= vendasAno %></div>
                             </div>
                         </div>
+
+                        <!-- LIMITE ANUAL: barra + previsão no ritmo dos últimos meses -->
+                        <div class="limite-barra">
+                            <div class="limite-barra-preenchida <%= disponivel < 0 ? "estourado" : (percentualLimite >= 80 ? "alerta" : "") %>"
+                                 style="width: <%= String.format(java.util.Locale.US, "%.1f", percentualLimite) %>%"></div>
+                        </div>
+                        <p class="limite-previsao">
+                            <% if (limite == null) { %>
+                                Previsão do limite indisponível no momento.
+                            <% } else if (limite.isUltrapassado()) { %>
+                                ⚠️ Limite anual ultrapassado. Procure seu contador sobre o desenquadramento do MEI.
+                            <% } else if (limite.getPrevisaoEstouro() != null) { %>
+                                ⚠️ No ritmo atual (<%= df.format(limite.getMediaDiaria()) %>/dia), o limite será atingido em
+                                <strong><%= limite.getPrevisaoEstouro().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy")) %></strong>.
+                            <% } else { %>
+                                ✅ No ritmo atual, o limite não será atingido este ano.
+                            <% } %>
+                        </p>
                     </div>
                 </div>
 
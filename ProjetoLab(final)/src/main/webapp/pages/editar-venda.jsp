@@ -1,13 +1,16 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page session="false" %>
 <%@ page import="java.util.List" %>
 <%@ page import="java.text.SimpleDateFormat" %>
 <%@ page import="java.text.DecimalFormat" %>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
 <%@ page import="br.com.projeto.model.Vendas" %>
 <%@ page import="br.com.projeto.model.Categoria" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 
 <%
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     if (usuario == null) {
         response.sendRedirect("login");
         return;
@@ -23,8 +26,7 @@
     List<Categoria> categorias = (List<Categoria>) request.getAttribute("categorias");
     if (categorias == null) categorias = new java.util.ArrayList<>();
 
-    String mensagemErro = (String) session.getAttribute("erro");
-    session.removeAttribute("erro");
+    String mensagemErro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
 
     SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
     DecimalFormat dfNum = new DecimalFormat("0.00");
@@ -342,7 +344,7 @@
                 <% if (mensagemErro != null) { %>
                     <div class="alert alert-error">
                         <span>❌</span>
-                        <span><%= mensagemErro %></span>
+                        <span><%= mensagemErro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
                     </div>
                 <% } %>
 
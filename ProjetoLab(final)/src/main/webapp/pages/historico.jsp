@@ -1,13 +1,17 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page session="false" %>
 <%@ page import="java.util.List" %>
 <%@ page import="java.text.SimpleDateFormat" %>
 <%@ page import="java.text.DecimalFormat" %>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page import="java.net.URLEncoder" %>
+<%@ page import="java.nio.charset.StandardCharsets" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
 <%@ page import="br.com.projeto.model.Vendas" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
 
 <%
     /* ================================================================
-       VALIDAÇÃO DE SESSÃO E DADOS
+       VALIDAÇÃO DE LOGIN E DADOS
        ================================================================
 
        1. Verifica se usuário está logado
@@ -16,7 +20,7 @@
     */
 
     // Usuário logado (obrigatório)
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     if (usuario == null) {
         response.sendRedirect("login");
         return;
@@ -58,6 +62,19 @@
     List<Vendas> vendasDetalhadas = (List<Vendas>) request.getAttribute("vendasDetalhadas");
     if (vendasDetalhadas == null) vendasDetalhadas = new java.util.ArrayList<>();
 
+    // Paginação por cursor (null = não há página naquela direção)
+    String cursorProximo = (String) request.getAttribute("cursorProximo");
+    String cursorAnterior = (String) request.getAttribute("cursorAnterior");
+    Integer tamanhoPagina = (Integer) request.getAttribute("tamanhoPagina");
+    if (tamanhoPagina == null) tamanhoPagina = 50;
+
+    // Filtros atuais repetidos nos links Anterior/Próxima
+    Integer categoriaFiltro = (Integer) request.getAttribute("categoriaId");
+    String filtrosPaginacao = "ano=" + ano + "&mes=" + mes
+            + (categoriaFiltro != null ? "&categoria=" + categoriaFiltro : "")
+            + "&filtroNF=" + URLEncoder.encode(filtroNF, StandardCharsets.UTF_8)
+            + "&tamanho=" + tamanhoPagina;
+
     // Estatísticas (cards no topo)
     Integer totalVendas = (Integer) request.getAttribute("totalVendas");
     if (totalVendas == null) totalVendas = 0;
@@ -572,6 +589,17 @@
             background: #475569;
         }
 
+        .paginacao {
+            display: flex;
+            gap: 10px;
+            justify-content: center;
+            margin-top: 15px;
+        }
+
+        .paginacao .btn {
+            text-decoration: none;
+        }
+
         .btn-danger {
             background: #ef4444;
             color: white;
@@ -769,8 +797,24 @@
                      onchange="this.form.submit()" faz submit automático ao mudar select
                 -->
                 <div class="filtros-container">
-                    <h3>🔍 Filtros</h3>
+                    <h3>🔍 Filtros
+                        <a href="${pageContext.request.contextPath}/importar"
+                           class="btn btn-secondary" style="float: right; text-decoration: none; font-size: 13px;">
+                            📥 Importar CSV
+                        </a>
+                        <!-- Exporta com os filtros atuais (streaming no servidor) -->
+                        <a href="${pageContext.request.contextPath}/exportar?<%= filtrosPaginacao %>&gzip=1"
+                           class="btn btn-secondary" style="float: right; text-decoration: none; font-size: 13px; margin-right: 8px;">
+                            🗜️ CSV compactado
+                        </a>
+                        <a href="${pageContext.request.contextPath}/exportar?<%= filtrosPaginacao %>"
+                           class="btn btn-secondary" style="float: right; text-decoration: none; font-size: 13px; margin-right: 8px;">
+                            📤 Exportar CSV
+                        </a>
+                    </h3>
                     <form method="GET" action="${pageContext.request.contextPath}/historico">
+                        <!-- Mudar filtro volta para a 1ª página, mantendo o tamanho -->
+                        <input type="hidden" name="tamanho" value="<%= tamanhoPagina %>">
                         <div class="filtros-grid">
                             <!-- FILTRO 1: Ano -->
                             <div class="form-group">
@@ -1060,10 +1104,28 @@
                             </tbody>
                         </table>
 
+                        <!-- Paginação: links só aparecem se houver página naquela direção -->
+                        <% if (cursorAnterior != null || cursorProximo != null) { %>
+                            <div class="paginacao">
+                                <% if (cursorAnterior != null) { %>
+                                    <a class="btn btn-secondary"
+                                       href="${pageContext.request.contextPath}/historico?<%= filtrosPaginacao %>&direcao=anterior&cursor=<%= URLEncoder.encode(cursorAnterior, StandardCharsets.UTF_8) %>">
+                                        ← Anterior
+                                    </a>
+                                <% } %>
+                                <% if (cursorProximo != null) { %>
+                                    <a class="btn btn-secondary"
+                                       href="${pageContext.request.contextPath}/historico?<%= filtrosPaginacao %>&cursor=<%= URLEncoder.encode(cursorProximo, StandardCharsets.UTF_8) %>">
+                                        Próxima →
+                                    </a>
+                                <% } %>
+                            </div>
+                        <% } %>
+
                         <!-- Contador de vendas -->
                         <p style="margin-top: 20px; text-align: center; color: #64748b; font-size: 13px;">
-                            Mostrando <%= vendasDetalhadas.size() %>
-                            <%= vendasDetalhadas.size() == 1 ? "venda" : "vendas" %>
+                            Mostrando <%= vendasDetalhadas.size() %> de <%= totalVendas %>
+                            <%= totalVendas == 1 ? "venda" : "vendas" %>
                             de <%= ano %>
                         </p>
                     <% } %>
@@ -1108,7 +1170,7 @@
      ================================================================
 
      ESTRUTURA:
-     1. Validação de sessão e dados (linhas 8-56)
+     1. Validação de login e dados (linhas 8-56)
      2. CSS inline completo (linhas 65-442)
      3. JavaScript (linhas 444-478)
      4. HTML (linhas 480-750)
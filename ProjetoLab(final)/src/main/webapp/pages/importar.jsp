@@ -0,0 +1,608 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page session="false" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
+<%@ page import="br.com.projeto.model.ResultadoImportacao" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
+<%--
+    ================================================================
+    IMPORTAR JSP - Importação de Vendas via CSV
+    ================================================================
+
+    PROPÓSITO:
+    Upload de planilha (CSV) com vendas históricas e exibição do
+    relatório da importação (linhas importadas e erros por linha).
+
+    FLUXO:
+    1. GET /importar → formulário
+    2. POST /importar (multipart) → ImportacaoController
+    3. ImportadorVendasCSV lê o arquivo em streaming e grava em lotes
+    4. Volta para esta página com o atributo "resultado"
+
+    @author Sistema MEI
+    @version 1.0
+--%>
+
+<%
+    /* ================================================================
+       VALIDAÇÃO E PREPARAÇÃO
+       ================================================================ */
+
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
+    if (usuario == null) {
+        response.sendRedirect(request.getContextPath() + "/login");
+        return;
+    }
+
+    // ========== MENSAGENS (sucesso/erro) ==========
+    String mensagemSucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
+    String mensagemErro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
+
+    // ========== RESULTADO (só após POST) ==========
+    ResultadoImportacao resultado = (ResultadoImportacao) request.getAttribute("resultado");
+%>
+
+<!DOCTYPE html>
+<html lang="pt-BR">
+<head>
+    <meta charset="UTF-8">
+    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <title>Importar Vendas - Sistema MEI</title>
+
+    <style>
+        /* ================================================
+           RESET E BASE
+           ================================================ */
+        * {
+            margin: 0;
+            padding: 0;
+            box-sizing: border-box;
+        }
+
+        body {
+            font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif;
+            background-color: #0f172a;
+            color: #e2e8f0;
+            line-height: 1.6;
+        }
+
+        /* ================================================
+           LAYOUT PRINCIPAL
+           ================================================ */
+        .main-container {
+            display: flex;
+            min-height: 100vh;
+        }
+
+        /* ================================================
+           SIDEBAR
+           ================================================ */
+        .sidebar {
+            width: 250px;
+            background-color: #1e293b;
+            padding: 20px 0;
+            position: fixed;
+            left: 0;
+            top: 0;
+            bottom: 0;
+            overflow-y: auto;
+            border-right: 1px solid #334155;
+        }
+
+        .sidebar-header {
+            padding: 0 20px 20px;
+            border-bottom: 1px solid #334155;
+            margin-bottom: 20px;
+        }
+
+        .sidebar-header h1 {
+            font-size: 24px;
+            font-weight: 700;
+            color: #f1f5f9;
+        }
+
+        .sidebar-menu {
+            list-style: none;
+        }
+
+        .sidebar-menu a {
+            display: flex;
+            align-items: center;
+            padding: 12px 20px;
+            color: #94a3b8;
+            text-decoration: none;
+            transition: all 0.2s;
+            gap: 12px;
+        }
+
+        .sidebar-menu a:hover {
+            background-color: #334155;
+            color: #f1f5f9;
+        }
+
+        .sidebar-menu a.active {
+            background-color: #3b82f6;
+            color: white;
+            font-weight: 600;
+        }
+
+        .sidebar-menu .icon {
+            font-size: 20px;
+            width: 24px;
+        }
+
+        /* ================================================
+           MAIN CONTENT
+           ================================================ */
+        .main-content {
+            flex: 1;
+            margin-left: 250px;
+            display: flex;
+            flex-direction: column;
+        }
+
+        /* ================================================
+           TOPBAR
+           ================================================ */
+        .topbar {
+            background-color: #1e293b;
+            padding: 20px 30px;
+            display: flex;
+            justify-content: space-between;
+            align-items: center;
+            border-bottom: 1px solid #334155;
+            position: sticky;
+            top: 0;
+            z-index: 100;
+        }
+        
+        .topbar-left {
+    		display: flex;
+    		align-items: center;
+   			gap: 12px;
+		}
+
+        .topbar h2 {
+            font-size: 24px;
+            color: #f1f5f9;
+        }
+
+        .user-info {
+            display: flex;
+            align-items: center;
+            gap: 12px;
+        }
+
+        .user-avatar {
+            width: 40px;
+            height: 40px;
+            border-radius: 50%;
+            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+            display: flex;
+            align-items: center;
+            justify-content: center;
+            font-weight: 600;
+            color: white;
+        }
+
+        .user-details .name {
+            font-weight: 600;
+            color: #f1f5f9;
+            font-size: 14px;
+        }
+
+        .user-details .role {
+            font-size: 12px;
+            color: #94a3b8;
+        }
+
+        /* ================================================
+           CONTENT
+           ================================================ */
+        .content {
+            flex: 1;
+            padding: 30px;
+        }
+
+        /* ================================================
+           ALERTAS
+           ================================================ */
+        .alert {
+            padding: 16px 20px;
+            border-radius: 8px;
+            margin-bottom: 20px;
+            font-weight: 500;
+        }
+
+        .alert-success {
+            background-color: #10b981;
+            color: white;
+        }
+
+        .alert-error {
+            background-color: #ef4444;
+            color: white;
+        }
+
+        /* ================================================
+           CARDS
+           ================================================ */
+        .card {
+            background-color: #1e293b;
+            border-radius: 12px;
+            padding: 24px;
+            margin-bottom: 24px;
+            border: 1px solid #334155;
+        }
+
+        .card h3 {
+            font-size: 18px;
+            font-weight: 600;
+            color: #f1f5f9;
+            margin-bottom: 16px;
+            padding-bottom: 12px;
+            border-bottom: 1px solid #334155;
+        }
+
+        .card p {
+            color: #94a3b8;
+            margin-bottom: 20px;
+            line-height: 1.6;
+        }
+
+        .card ul {
+            margin: 16px 0 16px 20px;
+            color: #94a3b8;
+        }
+
+        .card ul li {
+            margin-bottom: 8px;
+            line-height: 1.6;
+        }
+
+        /* ================================================
+           FORMULÁRIO
+           ================================================ */
+        .form-row {
+            display: grid;
+            grid-template-columns: 1fr 1fr 1fr;
+            gap: 16px;
+            margin-bottom: 20px;
+        }
+
+        .form-group {
+            display: flex;
+            flex-direction: column;
+        }
+
+        .form-group label {
+            display: block;
+            margin-bottom: 8px;
+            font-weight: 500;
+            color: #cbd5e1;
+            font-size: 14px;
+        }
+
+        .form-group select,
+        .form-group input[type="file"] {
+            width: 100%;
+            padding: 12px 16px;
+            background-color: #0f172a;
+            border: 1px solid #334155;
+            border-radius: 8px;
+            color: #e2e8f0;
+            font-size: 14px;
+            transition: all 0.2s;
+            cursor: pointer;
+        }
+
+        .form-group select:focus {
+            outline: none;
+            border-color: #3b82f6;
+            box-shadow: 0 0 0 3px rgba(59, 130, 246, 0.1);
+        }
+
+        /* ================================================
+           BOTÕES
+           ================================================ */
+        .btn {
+            padding: 12px 24px;
+            border: none;
+            border-radius: 8px;
+            font-weight: 600;
+            cursor: pointer;
+            transition: all 0.2s;
+            font-size: 14px;
+        }
+
+        .btn-primary {
+            background-color: #3b82f6;
+            color: white;
+            width: 100%;
+        }
+
+        .btn-primary:hover {
+            background-color: #2563eb;
+            transform: translateY(-1px);
+            box-shadow: 0 4px 12px rgba(59, 130, 246, 0.4);
+        }
+
+        /* ================================================
+           INFO BOX (destaque)
+           ================================================ */
+        .info-box {
+            background-color: #1e40af20;
+            border-left: 4px solid #3b82f6;
+            padding: 16px;
+            border-radius: 8px;
+            margin-top: 20px;
+        }
+
+        .info-box h4 {
+            color: #60a5fa;
+            font-size: 14px;
+            font-weight: 600;
+            margin-bottom: 8px;
+        }
+
+        .info-box p {
+            color: #94a3b8;
+            font-size: 13px;
+            margin: 0;
+        }
+
+        /* ================================================
+           RELATÓRIO DA IMPORTAÇÃO
+           ================================================ */
+        .resumo-importacao {
+            display: grid;
+            grid-template-columns: repeat(3, 1fr);
+            gap: 16px;
+            margin-bottom: 20px;
+        }
+
+        .resumo-importacao .numero {
+            font-size: 28px;
+            font-weight: 700;
+            color: #f1f5f9;
+        }
+
+        .resumo-importacao .rotulo {
+            font-size: 13px;
+            color: #94a3b8;
+        }
+
+        .lista-erros {
+            max-height: 400px;
+            overflow-y: auto;
+            background-color: #0f172a;
+            border: 1px solid #334155;
+            border-radius: 8px;
+            padding: 12px 16px;
+            font-family: monospace;
+            font-size: 13px;
+            color: #fca5a5;
+            list-style: none;
+        }
+
+        .lista-erros li {
+            margin-bottom: 4px;
+        }
+
+        pre.exemplo-csv {
+            background-color: #0f172a;
+            border: 1px solid #334155;
+            border-radius: 8px;
+            padding: 12px 16px;
+            font-size: 13px;
+            color: #cbd5e1;
+            overflow-x: auto;
+            margin-bottom: 16px;
+        }
+
+        /* ================================================
+           RESPONSIVE
+           ================================================ */
+        @media (max-width: 768px) {
+            .form-row,
+            .resumo-importacao {
+                grid-template-columns: 1fr;
+            }
+
+            .sidebar {
+                transform: translateX(-100%);
+            }
+
+            .main-content {
+                margin-left: 0;
+            }
+        }
+    </style>
+
+    <!-- Modo de cor -->
+    <%@ include file="corToggle.jsp" %>
+
+</head>
+<body>
+    <div class="main-container">
+
+        <!-- ================================================
+             SIDEBAR - Menu de Navegação
+             ================================================ -->
+        <aside class="sidebar">
+            <div class="sidebar-header">
+                <h1>📊 MEI</h1>
+            </div>
+            <ul class="sidebar-menu">
+                <li>
+                    <a href="${pageContext.request.contextPath}/dashboard">
+                        <span class="icon">🏠</span>
+                        <span>Dashboard</span>
+                    </a>
+                </li>
+                <li>
+                    <a href="${pageContext.request.contextPath}/historico">
+                        <span class="icon">📜</span>
+                        <span>Histórico</span>
+                    </a>
+                </li>
+                <li>
+                    <a href="${pageContext.request.contextPath}/importar" class="active">
+                        <span class="icon">📥</span>
+                        <span>Importar</span>
+                    </a>
+                </li>
+                <li>
+                    <a href="${pageContext.request.contextPath}/relatorio">
+                        <span class="icon">📊</span>
+                        <span>Relatórios</span>
+                    </a>
+                </li>
+                <li>
+                    <a href="${pageContext.request.contextPath}/perfil">
+                        <span class="icon">👤</span>
+                        <span>Perfil</span>
+                    </a>
+                </li>
+                <li>
+                    <a href="${pageContext.request.contextPath}/logout">
+                        <span class="icon">🚪</span>
+                        <span>Sair</span>
+                    </a>
+                </li>
+            </ul>
+        </aside>
+
+        <!-- ================================================
+             MAIN CONTENT
+             ================================================ -->
+        <div class="main-content">
+
+            <div class="topbar">
+                <div class="topbar-left">
+                    <h2>📥 Importar Vendas</h2>
+                </div>
+                <div class="topbar-right">
+                    <div class="user-info">
+                        <div class="user-avatar">
+                            <%= usuario.getNome().substring(0, 1).toUpperCase() %>
+                        </div>
+                        <div class="user-details">
+                            <div class="name"><%= usuario.getNome() %></div>
+                            <div class="role">Microempreendedor</div>
+                        </div>
+                    </div>
+                </div>
+            </div>
+
+            <div class="content">
+
+                <!-- ALERTAS (mensagens do backend) -->
+                <% if (mensagemSucesso != null) { %>
+                    <div class="alert alert-success">
+                        ✓ <%= mensagemSucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %>
+                    </div>
+                <% } %>
+
+                <% if (mensagemErro != null) { %>
+                    <div class="alert alert-error">
+                        ✕ <%= mensagemErro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %>
+                    </div>
+                <% } %>
+
+                <!-- ========================================
+                     RESULTADO DA ÚLTIMA IMPORTAÇÃO
+                     ======================================== -->
+                <% if (resultado != null) { %>
+                    <div class="card">
+                        <h3>📋 Resultado da Importação</h3>
+
+                        <div class="resumo-importacao">
+                            <div>
+                                <div class="numero"><%= resultado.getLinhasLidas() %></div>
+                                <div class="rotulo">Linhas lidas</div>
+                            </div>
+                            <div>
+                                <div class="numero"><%= resultado.getImportadas() %></div>
+                                <div class="rotulo">Vendas importadas</div>
+                            </div>
+                            <div>
+                                <div class="numero"><%= resultado.getTotalErros() %></div>
+                                <div class="rotulo">Linhas com erro</div>
+                            </div>
+                        </div>
+
+                        <% if (resultado.getTotalErros() > 0) { %>
+                            <ul class="lista-erros">
+                                <% for (String erro : resultado.getErros()) { %>
+                                    <li><%= erro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></li>
+                                <% } %>
+                            </ul>
+                            <% if (resultado.isErrosTruncados()) { %>
+                                <p style="margin-top: 12px;">
+                                    Exibindo os primeiros <%= resultado.getErros().size() %> erros
+                                    de <%= resultado.getTotalErros() %>.
+                                </p>
+                            <% } %>
+                        <% } %>
+                    </div>
+                <% } %>
+
+                <!-- ========================================
+                     FORMULÁRIO DE UPLOAD
+                     ======================================== -->
+                <div class="card">
+                    <h3>📤 Enviar Arquivo CSV</h3>
+                    <p>
+                        Envie um arquivo CSV (UTF-8) com suas vendas. Linhas válidas são gravadas
+                        e as inválidas aparecem no relatório com o motivo.
+                    </p>
+
+                    <form method="POST" action="${pageContext.request.contextPath}/importar"
+                          enctype="multipart/form-data">
+                        <div class="form-row">
+                            <div class="form-group" style="grid-column: span 2;">
+                                <label>Arquivo CSV *</label>
+                                <input type="file" name="arquivo" accept=".csv,text/csv" required>
+                            </div>
+                            <div class="form-group">
+                                <label>&nbsp;</label>
+                                <button type="submit" class="btn btn-primary">
+                                    📥 Importar
+                                </button>
+                            </div>
+                        </div>
+                    </form>
+                </div>
+
+                <!-- ========================================
+                     FORMATO DO ARQUIVO
+                     ======================================== -->
+                <div class="card">
+                    <h3>ℹ️ Formato do Arquivo</h3>
+                    <pre class="exemplo-csv">data;valor;categoria;descricao;nota_fiscal;numero_nf
+15/02/2026;1.250,00;Prestação de Serviços;Consultoria;S;12345
+16/02/2026;89,90;1;Venda balcão;N;</pre>
+                    <ul>
+                        <li><strong>data:</strong> dd/MM/aaaa (ou dd/MM/aaaa HH:mm, ou aaaa-MM-dd)</li>
+                        <li><strong>valor:</strong> maior que zero, com vírgula ou ponto decimal</li>
+                        <li><strong>categoria:</strong> nome ou ID de uma categoria ativa</li>
+                        <li><strong>descricao:</strong> opcional</li>
+                        <li><strong>nota_fiscal:</strong> S ou N (vazio = N)</li>
+                        <li><strong>numero_nf:</strong> obrigatório quando nota_fiscal = S</li>
+                    </ul>
+
+                    <div class="info-box">
+                        <h4>💡 Dica</h4>
+                        <p>
+                            Separador ";" ou ","; a linha de cabeçalho é opcional.
+                            Arquivos de até 50 MB são aceitos.
+                        </p>
+                    </div>
+                </div>
+
+            </div><!-- /content -->
+        </div><!-- /main-content -->
+    </div><!-- /main-container -->
+</body>
+</html>
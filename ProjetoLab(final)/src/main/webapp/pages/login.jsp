@@ -1,31 +1,36 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page session="false" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 
 <%
     /* ================================================================
-       VALIDAÇÃO DE SESSÃO E MENSAGENS
+       VALIDAÇÃO DE LOGIN E MENSAGENS
        ================================================================
 
-       1. Verifica se usuário já está logado
-       2. Busca mensagens de erro/sucesso da sessão
-       3. Remove mensagens após exibir (evita duplicação)
+       Página pública: session="false" → visitante anônimo (robô,
+       health check) não ganha uma HttpSession de 30 minutos.
+
+       1. Verifica se usuário já está logado (token, sem criar sessão)
+       2. Busca mensagens: atributo do request (forward) ou cookie
+          flash (redirect) - MensagemFlash apaga o cookie ao ler
     */
 
     // ========== VERIFICAR SE JÁ ESTÁ LOGADO ==========
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     if (usuario != null) {
         // Já está logado, redireciona para dashboard
-        response.sendRedirect("dashboard");
+        response.sendRedirect(request.getContextPath() + "/dashboard");
         return;
     }
 
     // ========== BUSCAR MENSAGENS ==========
-    String erro = (String) session.getAttribute("erro");
-    String sucesso = (String) session.getAttribute("sucesso");
-
-    // ========== REMOVER MENSAGENS (evita duplicação) ==========
-    session.removeAttribute("erro");
-    session.removeAttribute("sucesso");
+    String erro = (String) request.getAttribute("erro");
+    if (erro == null) {
+        erro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
+    }
+    String sucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
 %>
 
 <!DOCTYPE html>
@@ -294,7 +299,7 @@
         <% if (erro != null && !erro.isEmpty()) { %>
             <div class="error-message">
                 <span>✗</span>
-                <span><%= erro %></span>
+                <span><%= erro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
             </div>
         <% } %>
 
@@ -302,7 +307,7 @@
         <% if (sucesso != null && !sucesso.isEmpty()) { %>
             <div class="success-message">
                 <span>✓</span>
-                <span><%= sucesso %></span>
+                <span><%= sucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %></span>
             </div>
         <% } %>
 
@@ -395,9 +400,9 @@
      - Máscara CPF aplicada em tempo real
 
      MENSAGENS:
-     - Erro: fundo vermelho, vem da sessão
+     - Erro: fundo vermelho, vem do request ou do cookie flash
      - Sucesso: fundo verde, vem após cadastro
-     - Auto-remove da sessão após exibir
+     - Cookie flash apagado após exibir (MensagemFlash)
 
      DESIGN:
      - Gradiente roxo de fundo
@@ -1,5 +1,7 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page session="false" %>
 <%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 <%--
     ================================================================
     PERFIL JSP - Gestão de Dados do Usuário
@@ -18,7 +20,7 @@
     - Visualizar informações da conta
 
     SEGURANÇA:
-    - Validação de sessão
+    - Validação do token (FiltroAutenticacao, no controller)
     - CPF somente leitura
     - Senha atual obrigatória para trocar
     - Mínimo 6 caracteres
@@ -30,19 +32,18 @@
 --%>
 
 <%
-    // ========== VALIDAÇÃO DE SESSÃO ==========
-    // Redireciona para login se não autenticado
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    // ========== USUÁRIO COMPLETO ==========
+    // Vem do PerfilController (o token só tem id, nome e CNPJ).
+    // Acesso direto ao JSP → passa pelo controller (que valida o login)
+    Usuario usuario = (Usuario) request.getAttribute("perfil");
     if (usuario == null) {
-        response.sendRedirect("login");
+        response.sendRedirect(request.getContextPath() + "/perfil");
         return;
     }
 
     // ========== MENSAGENS (sucesso/erro) ==========
-    String mensagemSucesso = (String) session.getAttribute("sucesso");
-    String mensagemErro = (String) session.getAttribute("erro");
-    session.removeAttribute("sucesso");
-    session.removeAttribute("erro");
+    String mensagemSucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
+    String mensagemErro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
 %>
 
 <!DOCTYPE html>
@@ -458,13 +459,13 @@
                 <!-- ALERTAS (sucesso/erro do backend) -->
                 <% if (mensagemSucesso != null) { %>
                     <div class="alert alert-success">
-                        ✓ <%= mensagemSucesso %>
+                        ✓ <%= mensagemSucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %>
                     </div>
                 <% } %>
 
                 <% if (mensagemErro != null) { %>
                     <div class="alert alert-error">
-                        ✕ <%= mensagemErro %>
+                        ✕ <%= mensagemErro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %>
                     </div>
                 <% } %>
 
@@ -1,5 +1,9 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
-<%@ page import="br.com.projeto.model.Usuario" %>
+<%@ page session="false" %>
+<%@ page import="br.com.projeto.model.UsuarioSessao" %>
+<%@ page import="br.com.projeto.model.JobRelatorio" %>
+<%@ page import="br.com.projeto.utils.FiltroAutenticacao" %>
+<%@ page import="br.com.projeto.utils.MensagemFlash" %>
 <%--
     ================================================================
     RELATORIO JSP - Geração de Relatórios em PDF
@@ -10,18 +14,18 @@
     para declarações fiscais e controle financeiro.
 
     FUNCIONALIDADES:
-    1. Formulário seleção mês/ano
-    2. Gerar PDF via RelatorioController
-    3. Download automático do arquivo
+    1. Formulário seleção mês/ano (ou ano inteiro → relatório anual DASN-SIMEI)
+    2. Enfileirar PDF via RelatorioController
+    3. Acompanhar o job (página se atualiza) e baixar o arquivo
     4. Informações sobre conteúdo do relatório
 
     FLUXO:
     1. Usuário seleciona mês + ano
     2. Clica "Gerar PDF"
-    3. POST /relatorio (RelatorioController)
-    4. Controller busca vendas do período
-    5. Gera PDF (RelatorioPDF.java)
-    6. Download inicia automaticamente
+    3. POST /relatorio (RelatorioController) → redirect /relatorio?job=ID
+    4. Worker da FilaRelatorios busca vendas e gera PDF (RelatorioPDF.java)
+    5. Esta página recarrega a cada 2s enquanto o job não termina
+    6. Link "Baixar PDF" → /relatorio/download?job=ID
 
     CONTEÚDO DO PDF:
     - Cabeçalho (nome, CPF, CNPJ, período)
@@ -54,24 +58,26 @@
        VALIDAÇÃO E PREPARAÇÃO
        ================================================================ */
 
-    // ========== VALIDAR SESSÃO ==========
+    // ========== VALIDAR AUTENTICAÇÃO ==========
     // Redireciona para login se não autenticado
-    Usuario usuario = (Usuario) session.getAttribute("usuario");
+    UsuarioSessao usuario = FiltroAutenticacao.usuario(request);
     if (usuario == null) {
         response.sendRedirect("login");
         return;
     }
 
     // ========== MENSAGENS (sucesso/erro) ==========
-    String mensagemSucesso = (String) session.getAttribute("sucesso");
-    String mensagemErro = (String) session.getAttribute("erro");
-    session.removeAttribute("sucesso");
-    session.removeAttribute("erro");
+    String mensagemSucesso = MensagemFlash.consumir(request, response, MensagemFlash.SUCESSO);
+    String mensagemErro = MensagemFlash.consumir(request, response, MensagemFlash.ERRO);
 
     // ========== MÊS ATUAL (para pré-selecionar) ==========
     java.util.Calendar cal = java.util.Calendar.getInstance();
     int mesAtual = cal.get(java.util.Calendar.MONTH) + 1; // 0-based
     int anoAtual = cal.get(java.util.Calendar.YEAR);
+
+    // ========== JOB EM ACOMPANHAMENTO (RelatorioController) ==========
+    JobRelatorio job = (JobRelatorio) request.getAttribute("job");
+    boolean jobPendente = job != null && !job.isFinalizado();
 %>
 
 <!DOCTYPE html>
@@ -81,6 +87,11 @@
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
     <title>Relatórios - Sistema MEI</title>
 
+    <% if (jobPendente) { %>
+        <!-- Recarrega até o PDF ficar pronto -->
+        <meta http-equiv="refresh" content="2">
+    <% } %>
+
     <style>
         /* ================================================
            RESET E BASE
@@ -327,6 +338,16 @@
             cursor: pointer;
         }
 
+        .form-opcao {
+            display: flex;
+            align-items: center;
+            gap: 8px;
+            margin-bottom: 20px;
+            color: #cbd5e1;
+            font-size: 14px;
+            cursor: pointer;
+        }
+
         .form-group select:focus {
             outline: none;
             border-color: #3b82f6;
@@ -490,13 +511,38 @@
                 <!-- ALERTAS (mensagens do backend) -->
                 <% if (mensagemSucesso != null) { %>
                     <div class="alert alert-success">
-                        ✓ <%= mensagemSucesso %>
+                        ✓ <%= mensagemSucesso.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %>
                     </div>
                 <% } %>
 
                 <% if (mensagemErro != null) { %>
                     <div class="alert alert-error">
-                        ✕ <%= mensagemErro %>
+                        ✕ <%= mensagemErro.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") %>
+                    </div>
+                <% } %>
+
+                <!-- ========================================
+                     CARD 0: SITUAÇÃO DO JOB (se ?job=ID)
+                     ======================================== -->
+                <% if (job != null) { %>
+                    <div class="card">
+                        <h3>⏳ Relatório <%= job.isAnual() ? "anual " + job.getAno() : job.getMes() + "/" + job.getAno() %></h3>
+
+                        <% if (job.getStatus() == JobRelatorio.Status.NA_FILA) { %>
+                            <p>Na fila de geração... (aguardando há <%= job.getEsperaMs() / 1000 %>s)</p>
+                        <% } else if (job.getStatus() == JobRelatorio.Status.PROCESSANDO) { %>
+                            <p>Gerando PDF... (<%= job.getProcessamentoMs() / 1000 %>s)</p>
+                        <% } else if (job.getStatus() == JobRelatorio.Status.CONCLUIDO) { %>
+                            <p>PDF pronto! Gerado em <%= job.getProcessamentoMs() %> ms.</p>
+                            <a class="btn btn-primary" style="display: inline-block; width: auto; text-decoration: none;"
+                               href="${pageContext.request.contextPath}/relatorio/download?job=<%= job.getId() %>">
+                                📥 Baixar <%= job.getNomeArquivo() %>
+                            </a>
+                        <% } else { %>
+                            <div class="alert alert-error" style="margin-bottom: 0;">
+                                ✕ <%= job.getMensagemErro() %>
+                            </div>
+                        <% } %>
                     </div>
                 <% } %>
 
@@ -507,7 +553,7 @@
                     <h3>📥 Gerar Relatório Mensal</h3>
                     <p>
                         Selecione o mês e ano para gerar o relatório de receitas em formato PDF.
-                        O arquivo será baixado automaticamente.
+                        O PDF é gerado em segundo plano; o link de download aparece nesta página.
                     </p>
 
                     <!-- FORMULÁRIO GERAR PDF -->
@@ -531,6 +577,7 @@
                                     <option value="10" <%= mesAtual == 10 ? "selected" : "" %>>Outubro</option>
                                     <option value="11" <%= mesAtual == 11 ? "selected" : "" %>>Novembro</option>
                                     <option value="12" <%= mesAtual == 12 ? "selected" : "" %>>Dezembro</option>
+                                    <option value="0">Ano inteiro (DASN-SIMEI)</option>
                                 </select>
                             </div>
 
@@ -554,6 +601,12 @@
                                 </button>
                             </div>
                         </div>
+
+                        <!-- SÓ TOTAIS: PDF sem a página com a lista de vendas (mensal) -->
+                        <label class="form-opcao">
+                            <input type="checkbox" name="resumido" value="1">
+                            Somente os totais (sem a lista de vendas)
+                        </label>
                     </form>
 
                     <!-- INFO BOX -->
@@ -562,6 +615,7 @@
                         <p>
                             O relatório é gerado com base nas vendas cadastradas no período selecionado.
                             Se nenhuma venda for encontrada, uma mensagem de erro será exibida.
+                            Em "Mês", escolha "Ano inteiro" para o resumo anual usado na DASN-SIMEI.
                         </p>
                     </div>
                 </div>
@@ -601,7 +655,7 @@
                         <strong>Passo 2:</strong> Clique em "Gerar PDF".
                     </p>
                     <p style="margin-bottom: 16px;">
-                        <strong>Passo 3:</strong> O download iniciará automaticamente.
+                        <strong>Passo 3:</strong> Aguarde alguns segundos e clique em "Baixar".
                     </p>
                     <p style="margin-bottom: 0;">
                         <strong>Passo 4:</strong> Abra o PDF para visualizar ou imprimir.
@@ -654,7 +708,7 @@
             const nomeMes = document.querySelector('select[name="mes"] option:checked').text;
             const confirmacao = confirm(
                 'Gerar relatório de ' + nomeMes + '/' + ano + '?\n\n' +
-                'O download do PDF iniciará automaticamente.'
+                'O link para baixar o PDF aparecerá assim que ficar pronto.'
             );
 
             if (!confirmacao) {
@@ -683,24 +737,23 @@
     3. SUBMIT DO FORMULÁRIO (POST /relatorio)
        → RelatorioController.doPost()
        → Valida mês (1-12) e ano (numérico)
-       → Busca vendas: VendasDAO.listarPorMesAno(userId, mes, ano)
-       → Se vazio: erro "Nenhuma venda encontrada"
-       → Se tem vendas: continua
+       → FilaRelatorios.enviar() → redirect /relatorio?job=ID
 
-    4. GERAÇÃO DO PDF
+    4. GERAÇÃO DO PDF (worker da fila)
+       → VendasDAO.versaoDoMes() → PDF já em cache? usa o arquivo
+       → Senão: VendasDAO.listarPorMesAno(userId, mes, ano)
+       → Se vazio: job ERRO "Nenhuma venda encontrada"
        → RelatorioPDF.calcularTotais(vendas)
-       → Calcula por categoria + com/sem NF
-       → RelatorioPDF.gerarRelatorio(usuario, mes, ano, vendas, totais)
-       → Retorna byte[] do PDF
+       → RelatorioPDF.gerarRelatorio(..., saida) escreve no arquivo do cache
 
-    5. CONFIGURAÇÃO DO RESPONSE
-       → Content-Type: application/pdf
-       → Content-Disposition: attachment; filename="relatorio_mei_2_2026.pdf"
-       → Content-Length: [tamanho]
+    5. ACOMPANHAMENTO
+       → Esta página recarrega a cada 2s enquanto NA_FILA/PROCESSANDO
+       → CONCLUIDO: link /relatorio/download?job=ID
 
     6. ENVIO PARA DOWNLOAD
-       → response.getOutputStream().write(pdfBytes)
-       → Navegador inicia download
+       → Content-Type: application/pdf
+       → Content-Disposition: attachment; filename="relatorio_mei_2_2026.pdf"
+       → Arquivo copiado em blocos para o response (chunked)
        → Usuário salva ou abre PDF
 
     ================================================================